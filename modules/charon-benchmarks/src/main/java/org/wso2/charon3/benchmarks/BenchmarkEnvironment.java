@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.wso2.charon3.core.attributes.SCIMCustomAttribute;
+import org.wso2.charon3.core.config.SCIMConfigConstants;
+import org.wso2.charon3.core.config.SCIMCustomSchemaExtensionBuilder;
+import org.wso2.charon3.core.config.SCIMUserSchemaExtensionBuilder;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.schema.ServerSideValidator;
+import org.wso2.charon3.utils.usermanager.InMemoryUserManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sets up the schemas and endpoints the benchmarks run against: the core user schema together with the enterprise
+ * user extension and a custom user extension, as a deployment of WSO2 Identity Server would have.
+ */
+public final class BenchmarkEnvironment {
+
+    public static final String CUSTOM_SCHEMA_URI = "urn:scim:wso2:schema";
+    public static final String BASE_URL = "https://localhost:9443/scim2";
+
+    private static AttributeSchema customSchemaExtension;
+
+    private BenchmarkEnvironment() {
+
+    }
+
+    /**
+     * Builds the schema extensions and registers the endpoint URLs. Only the first call has any effect, since the
+     * schema extension builders are JVM wide singletons.
+     *
+     * @throws CharonException        if the schema extensions can not be built
+     * @throws InternalErrorException if the schema extension configurations are invalid
+     */
+    public static synchronized void init() throws CharonException, InternalErrorException {
+
+        if (customSchemaExtension != null) {
+            return;
+        }
+        SCIMUserSchemaExtensionBuilder.getInstance().buildUserSchemaExtension(copyExtensionConfig());
+
+        SCIMCustomSchemaExtensionBuilder.getInstance().setURI(CUSTOM_SCHEMA_URI);
+        customSchemaExtension = SCIMCustomSchemaExtensionBuilder.getInstance()
+                .buildUserCustomSchemaExtension(buildCustomAttributes());
+
+        Map<String, String> endpointURLs = new HashMap<>();
+        endpointURLs.put(SCIMConstants.USER_ENDPOINT, BASE_URL + SCIMConstants.USER_ENDPOINT);
+        endpointURLs.put(SCIMConstants.GROUP_ENDPOINT, BASE_URL + SCIMConstants.GROUP_ENDPOINT);
+        endpointURLs.put(SCIMConstants.SERVICE_PROVIDER_CONFIG_ENDPOINT,
+                BASE_URL + SCIMConstants.SERVICE_PROVIDER_CONFIG_ENDPOINT);
+        endpointURLs.put(SCIMConstants.RESOURCE_TYPE_ENDPOINT, BASE_URL + SCIMConstants.RESOURCE_TYPE_ENDPOINT);
+        endpointURLs.put(SCIMConstants.SCHEMAS_ENDPOINT, BASE_URL + SCIMConstants.SCHEMAS_ENDPOINT);
+        AbstractResourceManager.setEndpointURLMap(endpointURLs);
+    }
+
+    /**
+     * @return user schema including the enterprise and custom extensions
+     */
+    public static SCIMResourceTypeSchema getUserSchema() throws CharonException, InternalErrorException {
+
+        init();
+        try {
+            return SCIMResourceSchemaManager.getInstance().getUserResourceSchema(newUserManager());
+        } catch (Exception e) {
+            throw new CharonException("Error while building the user schema.", e);
+        }
+    }
+
+    /**
+     * Decodes a generated user and completes it the way a create request does, so that it carries an id and meta
+     * data like the users kept in a user store.
+     *
+     * @param index            makes the unique attributes of the user unique
+     * @param multiValuedCount number of values of each multi-valued attribute
+     * @return user
+     */
+    public static User newStoredUser(int index, int multiValuedCount) throws AbstractCharonException {
+
+        SCIMResourceTypeSchema schema = getUserSchema();
+        User user = new JSONDecoder().decodeResource(ScimPayloads.user(index, multiValuedCount), schema, new User());
+        ServerSideValidator.validateCreatedSCIMObject(user, schema);
+        return user;
+    }
+
+    /**
+     * @return empty in memory user manager which knows the custom user schema extension
+     */
+    public static InMemoryUserManager newUserManager() {
+
+        return new InMemoryUserManager() {
+
+            @Override
+            public AttributeSchema getCustomUserSchemaExtension() {
+
+                return customSchemaExtension;
+            }
+        };
+    }
+
+    /*
+     * The enterprise extension builder only reads its configuration from the file system.
+     */
+    private static String copyExtensionConfig() throws CharonException {
+
+        try (InputStream config = BenchmarkEnvironment.class.getClassLoader()
+                .getResourceAsStream(SCIMConfigConstants.SCIM_SCHEMA_EXTENSION_CONFIG)) {
+            if (config == null) {
+                throw new CharonException(SCIMConfigConstants.SCIM_SCHEMA_EXTENSION_CONFIG +
+                        " is not in the classpath.");
+            }
+            Path configFile = Files.createTempFile("charon-benchmarks", ".config");
+            configFile.toFile().deleteOnExit();
+            Files.copy(config, configFile, StandardCopyOption.REPLACE_EXISTING);
+            return configFile.toString();
+        } catch (IOException e) {
+            throw new CharonException("Error while copying the schema extension configuration.", e);
+        }
+    }
+
+    private static List<SCIMCustomAttribute> buildCustomAttributes() {
+
+        List<SCIMCustomAttribute> attributes = new ArrayList<>();
+        attributes.add(customAttribute("employeeId", "string", null));
+        attributes.add(customAttribute("accountLocked", "boolean", null));
+        attributes.add(customAttribute("failedLoginAttempts", "integer", null));
+        attributes.add(customAttribute("emergencyContact.name", "string", null));
+        attributes.add(customAttribute("emergencyContact.phone", "string", null));
+        attributes.add(customAttribute("emergencyContact", "complex", "name phone"));
+        attributes.add(customAttribute(null, "complex",
+                "employeeId accountLocked failedLoginAttempts emergencyContact"));
+        return attributes;
+    }
+
+    private static SCIMCustomAttribute customAttribute(String name, String dataType, String subAttributes) {
+
+        Map<String, String> properties = new HashMap<>();
+        if (name == null) {
+            properties.put(SCIMConfigConstants.ATTRIBUTE_URI, CUSTOM_SCHEMA_URI);
+            properties.put(SCIMConfigConstants.ATTRIBUTE_NAME, CUSTOM_SCHEMA_URI);
+        } else {
+            properties.put(SCIMConfigConstants.ATTRIBUTE_URI, CUSTOM_SCHEMA_URI + ":" + name);
+            properties.put(SCIMConfigConstants.ATTRIBUTE_NAME, name.substring(name.lastIndexOf('.') + 1));
+        }
+        properties.put(SCIMConfigConstants.DATA_TYPE, dataType);
+        properties.put(SCIMConfigConstants.MULTIVALUED, "false");
+        properties.put(SCIMConfigConstants.DESCRIPTION, name == null ? "Custom User" : name);
+        properties.put(SCIMConfigConstants.REQUIRED, "false");
+        properties.put(SCIMConfigConstants.CASE_EXACT, "false");
+        properties.put(SCIMConfigConstants.MUTABILITY, "readWrite");
+        properties.put(SCIMConfigConstants.RETURNED, "default");
+        properties.put(SCIMConfigConstants.UNIQUENESS, "none");
+        properties.put(SCIMConfigConstants.SUB_ATTRIBUTES, subAttributes);
+
+        SCIMCustomAttribute attribute = new SCIMCustomAttribute();
+        attribute.setProperties(properties);
+        return attribute;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.objects.ListedResource;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the memory the codec allocates per request. Run them with the GC profiler, e.g.
+ * {@code java -jar charon-benchmarks.jar CodecAllocationBenchmark -prof gc}, and compare the
+ * {@code gc.alloc.rate.norm} of each benchmark, which is the number of bytes allocated per operation.
+ * <p>
+ * The baseline benchmarks write the same JSON tree the way the encoder did before it reused per thread buffers:
+ * through a {@link java.io.StringWriter} growing from its default size, followed by a transcoding of the whole
+ * string to UTF-8 for the byte responses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecAllocationBenchmark {
+
+    @Param({"1", "100"})
+    private int userCount;
+
+    private final JSONDecoder decoder = new JSONDecoder();
+    private final JSONEncoder encoder = new JSONEncoder();
+    private SCIMResourceTypeSchema schema;
+    private String payload;
+    private User user;
+    private ListedResource listedResource;
+
+    @Setup
+    public void setUp() throws AbstractCharonException {
+
+        schema = BenchmarkEnvironment.getUserSchema();
+        payload = ScimPayloads.user(1, 5);
+        user = BenchmarkEnvironment.newStoredUser(1, 5);
+        listedResource = new ListedResource();
+        listedResource.setSchema(SCIMConstants.LISTED_RESOURCE_CORE_SCHEMA_URI);
+        listedResource.setTotalResults(userCount);
+        listedResource.setStartIndex(1);
+        listedResource.setItemsPerPage(userCount);
+        for (int i = 0; i < userCount; i++) {
+            listedResource.setResources(BenchmarkEnvironment.newStoredUser(i, 5).getAttributeList());
+        }
+    }
+
+    @Benchmark
+    public User decodeUser() throws CharonException, InternalErrorException, BadRequestException {
+
+        return decoder.decodeResource(payload, schema, new User());
+    }
+
+    @Benchmark
+    public String encodeUser() throws CharonException {
+
+        return encoder.encodeSCIMObject(user);
+    }
+
+    @Benchmark
+    public String encodeUserBaseline() throws CharonException {
+
+        return encoder.getSCIMObjectAsJSONObject(user).toString();
+    }
+
+    @Benchmark
+    public ByteBuffer encodeListAsUTF8() throws CharonException {
+
+        return encoder.encodeSCIMObjectAsUTF8(listedResource);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeListAsUTF8Baseline() throws CharonException {
+
+        return ByteBuffer.wrap(encoder.getSCIMObjectAsJSONObject(listedResource).toString()
+                .getBytes(StandardCharsets.UTF_8));
+    }
+}
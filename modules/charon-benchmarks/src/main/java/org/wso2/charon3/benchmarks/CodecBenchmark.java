@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.utils.CopyUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of decoding, encoding and copying a user, the steps every user request goes through at least once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int multiValuedCount;
+
+    private final JSONDecoder decoder = new JSONDecoder();
+    private final JSONEncoder encoder = new JSONEncoder();
+    private SCIMResourceTypeSchema schema;
+    private String payload;
+    private User user;
+
+    @Setup
+    public void setUp() throws AbstractCharonException {
+
+        schema = BenchmarkEnvironment.getUserSchema();
+        payload = ScimPayloads.user(1, multiValuedCount);
+        user = BenchmarkEnvironment.newStoredUser(1, multiValuedCount);
+    }
+
+    @Benchmark
+    public User decodeResource() throws CharonException, InternalErrorException, BadRequestException {
+
+        return decoder.decodeResource(payload, schema, new User());
+    }
+
+    @Benchmark
+    public String encodeSCIMObject() throws CharonException {
+
+        return encoder.encodeSCIMObject(user);
+    }
+
+    @Benchmark
+    public Object deepCopy() throws CharonException {
+
+        return CopyUtil.deepCopy(user);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
+import org.wso2.charon3.core.utils.codeutils.Node;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of parsing the filter of a list request into a filter tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final Map<String, String> FILTERS = new HashMap<>();
+
+    static {
+        FILTERS.put("simple", "userName eq \"user1\"");
+        FILTERS.put("complex", "(emails.type eq \"work\" and emails.value co \"example.com\") or " +
+                "(userName sw \"user\" and not (active eq false))");
+        FILTERS.put("extension", "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:department eq " +
+                "\"Engineering\" and urn:scim:wso2:schema:employeeId ew \"7\"");
+    }
+
+    @Param({"simple", "complex", "extension"})
+    private String filterType;
+
+    private SCIMResourceTypeSchema schema;
+    private String filter;
+
+    @Setup
+    public void setUp() throws CharonException, InternalErrorException {
+
+        schema = BenchmarkEnvironment.getUserSchema();
+        filter = FILTERS.get(filterType);
+    }
+
+    @Benchmark
+    public Node buildTree() throws IOException, BadRequestException {
+
+        return new FilterTreeManager(filter, schema).buildTree();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.extensions.RandomIdGenerator;
+import org.wso2.charon3.core.extensions.ResourceIdGenerator;
+import org.wso2.charon3.core.extensions.TimeOrderedIdGenerator;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of generating the ids of created resources from several threads at once, as a bulk create does, with
+ * time ordered UUIDs against random UUIDs drawn from the shared secure random number generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    @Param({"timeOrdered", "random"})
+    private String generator;
+
+    private ResourceIdGenerator resourceIdGenerator;
+
+    @Setup
+    public void setUp() {
+
+        resourceIdGenerator = "random".equals(generator) ? new RandomIdGenerator() : new TimeOrderedIdGenerator();
+    }
+
+    @Benchmark
+    public String generateId() {
+
+        return resourceIdGenerator.generateId(SCIMConstants.USER);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.json.JSONArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.utils.CopyUtil;
+import org.wso2.charon3.core.utils.PatchOperationUtil;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.wso2.charon3.benchmarks.ScimPayloads.object;
+import static org.wso2.charon3.benchmarks.ScimPayloads.patchOperation;
+
+/**
+ * Benchmarks of applying a single PATCH operation to a user with {@link PatchOperationUtil}, with and without an
+ * attribute path and with filtered paths.
+ * <p>
+ * Every invocation first takes two deep copies of the user, the same as
+ * {@link org.wso2.charon3.core.protocol.endpoints.UserResourceManager#updateWithPATCH} does for each operation.
+ * Subtract twice the score of {@link CodecBenchmark#deepCopy()} to get the cost of the operation alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatchBenchmark {
+
+    private static final Map<String, String> OPERATIONS = new HashMap<>();
+
+    static {
+        OPERATIONS.put("add", ScimPayloads.patchRequest(patchOperation(SCIMConstants.OperationalConstants.ADD,
+                null, object("nickName", "shaggy", "emails",
+                        new JSONArray().put(object("value", "new@example.com", "type", "other"))))));
+        OPERATIONS.put("addPath", ScimPayloads.patchRequest(patchOperation(SCIMConstants.OperationalConstants.ADD,
+                "emails", new JSONArray().put(object("value", "new@example.com", "type", "other")))));
+        OPERATIONS.put("removePath", ScimPayloads.patchRequest(patchOperation(
+                SCIMConstants.OperationalConstants.REMOVE, "nickName", null)));
+        OPERATIONS.put("removeFilteredPath", ScimPayloads.patchRequest(patchOperation(
+                SCIMConstants.OperationalConstants.REMOVE, "emails[type eq \"home\"]", null)));
+        OPERATIONS.put("replace", ScimPayloads.patchRequest(patchOperation(
+                SCIMConstants.OperationalConstants.REPLACE, null,
+                object("displayName", "Changed", "name", object("givenName", "Changed")))));
+        OPERATIONS.put("replacePath", ScimPayloads.patchRequest(patchOperation(
+                SCIMConstants.OperationalConstants.REPLACE, "name.givenName", "Changed")));
+        OPERATIONS.put("replaceFilteredPath", ScimPayloads.patchRequest(patchOperation(
+                SCIMConstants.OperationalConstants.REPLACE, "emails[type eq \"work\"].value",
+                "changed@example.com")));
+        OPERATIONS.put("replaceExtensionPath", ScimPayloads.patchRequest(patchOperation(
+                SCIMConstants.OperationalConstants.REPLACE,
+                SCIMConstants.ENTERPRISE_USER_SCHEMA_URI + ":department", "Research")));
+    }
+
+    @Param({"add", "addPath", "removePath", "removeFilteredPath", "replace", "replacePath", "replaceFilteredPath",
+            "replaceExtensionPath"})
+    private String operationType;
+
+    @Param({"5"})
+    private int multiValuedCount;
+
+    private final JSONDecoder decoder = new JSONDecoder();
+    private SCIMResourceTypeSchema schema;
+    private User user;
+    private PatchOperation operation;
+
+    @Setup
+    public void setUp() throws AbstractCharonException {
+
+        schema = BenchmarkEnvironment.getUserSchema();
+        user = BenchmarkEnvironment.newStoredUser(1, multiValuedCount);
+        operation = decoder.decodeRequest(OPERATIONS.get(operationType)).get(0);
+    }
+
+    @Benchmark
+    public AbstractSCIMObject applyOperation() throws CharonException, BadRequestException,
+            NotImplementedException, InternalErrorException {
+
+        User oldUser = (User) CopyUtil.deepCopy(user);
+        User copyOfOldUser = (User) CopyUtil.deepCopy(oldUser);
+        switch (operation.getOperation()) {
+            case SCIMConstants.OperationalConstants.ADD:
+                return PatchOperationUtil.doPatchAdd(operation, decoder, oldUser, copyOfOldUser, schema);
+            case SCIMConstants.OperationalConstants.REMOVE:
+                return PatchOperationUtil.doPatchRemove(operation, oldUser, copyOfOldUser, schema);
+            default:
+                return PatchOperationUtil.doPatchReplace(operation, decoder, oldUser, copyOfOldUser, schema);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.protocol.ContentEncoding;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.protocol.endpoints.UserResourceManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Benchmarks of writing a /Users list response in each content coding, which is the CPU cost of compressing the
+ * response. The bytes each coding saves do not depend on the run, so they are printed once at the setup of a trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int userCount;
+
+    @Param({"5"})
+    private int multiValuedCount;
+
+    /*
+     * Content coding and deflate compression level, the level is ignored by identity.
+     */
+    @Param({"identity", "gzip-1", "gzip-6", "gzip-9", "deflate-6"})
+    private String coding;
+
+    private final CountingOutputStream outputStream = new CountingOutputStream();
+    private SCIMResponse listResponse;
+    private ContentEncoding contentEncoding;
+
+    @Setup
+    public void setUp() throws AbstractCharonException, IOException {
+
+        String[] codingAndLevel = coding.split("-");
+        contentEncoding = ContentEncoding.valueOf(codingAndLevel[0].toUpperCase(Locale.ROOT));
+        CharonConfiguration.getInstance().setResponseCompression(0, codingAndLevel.length > 1 ?
+                Integer.parseInt(codingAndLevel[1]) : Deflater.DEFAULT_COMPRESSION);
+
+        BenchmarkEnvironment.init();
+        UserManager userManager = BenchmarkEnvironment.newUserManager();
+        UserResourceManager userResourceManager = new UserResourceManager();
+        for (int i = 0; i < userCount; i++) {
+            SCIMResponse response = userResourceManager.create(ScimPayloads.user(i, multiValuedCount), userManager,
+                    null, null);
+            checkStatus(response, ResponseCodeConstants.CODE_CREATED);
+        }
+        listResponse = checkStatus(userResourceManager.listWithGET(userManager, null, 1, userCount, null, null,
+                null, null, null), ResponseCodeConstants.CODE_OK);
+
+        long encodedBytes = write();
+        int contentLength = listResponse.getContentLength();
+        System.out.printf(Locale.ROOT, "%n%s: %d users, %d bytes written as %d bytes, %.1f%% saved%n", coding,
+                userCount, contentLength, encodedBytes, 100.0 * (contentLength - encodedBytes) / contentLength);
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+
+        outputStream.count = 0;
+        listResponse.writeTo(outputStream, contentEncoding);
+        return outputStream.count;
+    }
+
+    private static SCIMResponse checkStatus(SCIMResponse response, int expectedStatus) throws CharonException {
+
+        if (response.getResponseStatus() != expectedStatus) {
+            throw new CharonException("Unexpected response " + response.getResponseStatus() + ": " +
+                    response.getResponseMessage());
+        }
+        return response;
+    }
+
+    /**
+     * Discards the written bytes, keeping only their count, so that the benchmark measures the encoding alone.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+
+            count += length;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+/**
+ * Generates SCIM request payloads for the benchmarks.
+ * <p>
+ * Users carry the core, enterprise and custom schemas. The {@code multiValuedCount} argument controls how many
+ * emails, phone numbers and addresses a user has, which is what the cost of decoding, copying and patching a user
+ * mostly depends on.
+ */
+public final class ScimPayloads {
+
+    private static final String PATCH_OP_SCHEMA_URI = "urn:ietf:params:scim:api:messages:2.0:PatchOp";
+    private static final String[] TYPES = {"work", "home", "other"};
+
+    private ScimPayloads() {
+
+    }
+
+    /**
+     * Builds the payload of a create user request.
+     *
+     * @param index            makes the unique attributes of the user unique
+     * @param multiValuedCount number of values of each multi-valued attribute
+     * @return user in SCIM JSON format
+     */
+    public static String user(int index, int multiValuedCount) {
+
+        try {
+            JSONObject user = new JSONObject();
+            user.put(SCIMConstants.CommonSchemaConstants.SCHEMAS, new JSONArray()
+                    .put(SCIMConstants.USER_CORE_SCHEMA_URI)
+                    .put(SCIMConstants.ENTERPRISE_USER_SCHEMA_URI)
+                    .put(BenchmarkEnvironment.CUSTOM_SCHEMA_URI));
+            user.put("externalId", "ext-" + index);
+            user.put("userName", "user" + index);
+            user.put("name", new JSONObject()
+                    .put("givenName", "Given" + index)
+                    .put("familyName", "Family" + index)
+                    .put("formatted", "Given" + index + " Family" + index)
+                    .put("honorificPrefix", "Ms."));
+            user.put("displayName", "Given" + index + " Family" + index);
+            user.put("nickName", "nick" + index);
+            user.put("title", "Engineer");
+            user.put("userType", "Employee");
+            user.put("preferredLanguage", "en-US");
+            user.put("locale", "en-US");
+            user.put("timezone", "Asia/Colombo");
+            user.put("active", true);
+            user.put("password", "Password@" + index);
+
+            JSONArray emails = new JSONArray();
+            JSONArray phoneNumbers = new JSONArray();
+            JSONArray addresses = new JSONArray();
+            for (int i = 0; i < multiValuedCount; i++) {
+                String type = TYPES[i % TYPES.length];
+                emails.put(new JSONObject()
+                        .put("value", "user" + index + "." + i + "@" + type + ".example.com")
+                        .put("type", type)
+                        .put("primary", i == 0));
+                phoneNumbers.put(new JSONObject()
+                        .put("value", "+9477" + String.format("%07d", index * 31 + i))
+                        .put("type", i % 2 == 0 ? "mobile" : "work"));
+                addresses.put(new JSONObject()
+                        .put("streetAddress", i + " Main Street")
+                        .put("locality", "Colombo")
+                        .put("postalCode", String.valueOf(10000 + i))
+                        .put("country", "LK")
+                        .put("type", type));
+            }
+            user.put("emails", emails);
+            user.put("phoneNumbers", phoneNumbers);
+            user.put("addresses", addresses);
+
+            user.put(SCIMConstants.ENTERPRISE_USER_SCHEMA_URI, new JSONObject()
+                    .put("employeeNumber", String.valueOf(1000 + index))
+                    .put("costCenter", "CC-" + (index % 10))
+                    .put("organization", "WSO2")
+                    .put("division", "Identity")
+                    .put("department", "Engineering")
+                    .put("manager", new JSONObject()
+                            .put("value", "manager-" + (index % 10))
+                            .put("displayName", "Manager " + (index % 10))));
+            user.put(BenchmarkEnvironment.CUSTOM_SCHEMA_URI, new JSONObject()
+                    .put("employeeId", "E" + index)
+                    .put("accountLocked", false)
+                    .put("failedLoginAttempts", index % 3)
+                    .put("emergencyContact", new JSONObject()
+                            .put("name", "Contact " + index)
+                            .put("phone", "+9411" + String.format("%07d", index))));
+            return user.toString();
+        } catch (JSONException e) {
+            throw new IllegalStateException("Error while building the user payload.", e);
+        }
+    }
+
+    /**
+     * Builds the payload of a PATCH request holding the given operations.
+     *
+     * @param operations PATCH operations, each a JSON object with op, path and value
+     * @return PATCH request in SCIM JSON format
+     */
+    public static String patchRequest(JSONObject... operations) {
+
+        try {
+            JSONArray operationArray = new JSONArray();
+            for (JSONObject operation : operations) {
+                operationArray.put(operation);
+            }
+            return new JSONObject()
+                    .put(SCIMConstants.CommonSchemaConstants.SCHEMAS,
+                            new JSONArray().put(PATCH_OP_SCHEMA_URI))
+                    .put(SCIMConstants.OperationalConstants.OPERATIONS, operationArray)
+                    .toString();
+        } catch (JSONException e) {
+            throw new IllegalStateException("Error while building the PATCH payload.", e);
+        }
+    }
+
+    /**
+     * Builds a single PATCH operation.
+     *
+     * @param op    add, remove or replace
+     * @param path  attribute path, may be null
+     * @param value operation value, may be null
+     * @return PATCH operation as a JSON object
+     */
+    public static JSONObject patchOperation(String op, String path, Object value) {
+
+        try {
+            JSONObject operation = new JSONObject().put(SCIMConstants.OperationalConstants.OP, op);
+            if (path != null) {
+                operation.put(SCIMConstants.OperationalConstants.PATH, path);
+            }
+            if (value != null) {
+                operation.put(SCIMConstants.OperationalConstants.VALUE, value);
+            }
+            return operation;
+        } catch (JSONException e) {
+            throw new IllegalStateException("Error while building the PATCH operation.", e);
+        }
+    }
+
+    /**
+     * Builds a JSON object out of alternating names and values.
+     *
+     * @param namesAndValues name1, value1, name2, value2, ...
+     * @return JSON object
+     */
+    public static JSONObject object(Object... namesAndValues) {
+
+        try {
+            JSONObject object = new JSONObject();
+            for (int i = 0; i < namesAndValues.length; i += 2) {
+                object.put((String) namesAndValues[i], namesAndValues[i + 1]);
+            }
+            return object;
+        } catch (JSONException e) {
+            throw new IllegalStateException("Error while building the JSON object.", e);
+        }
+    }
+}
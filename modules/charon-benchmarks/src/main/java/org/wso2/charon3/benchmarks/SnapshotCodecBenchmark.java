@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.encoder.BinaryResourceCodec;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of taking a snapshot of a stored user and restoring it, with the binary resource codec, Java
+ * serialization and the JSON codec. The sizes of the snapshots are printed at the start of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotCodecBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int multiValuedCount;
+
+    private final JSONDecoder decoder = new JSONDecoder();
+    private final JSONEncoder encoder = new JSONEncoder();
+    private SCIMResourceTypeSchema schema;
+    private BinaryResourceCodec codec;
+    private User user;
+    private byte[] binary;
+    private byte[] serialized;
+    private String json;
+
+    @Setup
+    public void setUp() throws AbstractCharonException, IOException {
+
+        schema = BenchmarkEnvironment.getUserSchema();
+        codec = new BinaryResourceCodec(schema);
+        user = BenchmarkEnvironment.newStoredUser(1, multiValuedCount);
+        binary = codec.encode(user);
+        serialized = serialize(user);
+        json = encoder.encodeSCIMObject(user);
+        System.out.println("\nSnapshot sizes in bytes: binary " + binary.length + ", serialized " +
+                serialized.length + ", json " + json.length());
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() throws CharonException {
+
+        return codec.encode(user);
+    }
+
+    @Benchmark
+    public User decodeBinary() throws CharonException {
+
+        return codec.decode(binary, new User());
+    }
+
+    @Benchmark
+    public byte[] encodeSerialized() throws IOException {
+
+        return serialize(user);
+    }
+
+    @Benchmark
+    public Object decodeSerialized() throws IOException, ClassNotFoundException {
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public String encodeJSON() throws CharonException {
+
+        return encoder.encodeSCIMObject(user);
+    }
+
+    @Benchmark
+    public User decodeJSON() throws CharonException, InternalErrorException, BadRequestException {
+
+        return decoder.decodeResource(json, schema, new User());
+    }
+
+    private static byte[] serialize(User user) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(user);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.wso2.charon3.core.encoder.BinaryResourceCodec;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.utils.store.OffHeapResourceStore;
+import org.wso2.charon3.utils.store.PersistentResourceStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures how long a persistent off heap user store takes to start from a snapshot and the log written after it.
+ * JMH does not fit a measurement which needs gigabytes of files, hence this is a plain program:
+ * {@code java -cp charon-benchmarks.jar org.wso2.charon3.benchmarks.StoreRecovery [userCount] [logCount]}, where
+ * {@code logCount} users are changed after the snapshot is taken. The users are written to a temporary directory,
+ * which is deleted at the end.
+ * <p>
+ * Run it with enough direct memory for the users, e.g. {@code -XX:MaxDirectMemorySize=8g} for 5 million users.
+ */
+public final class StoreRecovery {
+
+    private static final int DEFAULT_USER_COUNT = 1000000;
+    private static final int DEFAULT_LOG_COUNT = 100000;
+    //distinct users stored under the ids, since decoding millions of payloads would take longer than the recovery.
+    private static final int DISTINCT_USER_COUNT = 1000;
+    private static final int MULTI_VALUED_COUNT = 3;
+
+    private StoreRecovery() {
+
+    }
+
+    public static void main(String[] args) throws AbstractCharonException, IOException {
+
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_USER_COUNT;
+        int logCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_LOG_COUNT;
+
+        User[] users = new User[DISTINCT_USER_COUNT];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = BenchmarkEnvironment.newStoredUser(i, MULTI_VALUED_COUNT);
+        }
+        BinaryResourceCodec codec = new BinaryResourceCodec(BenchmarkEnvironment.getUserSchema());
+        Path directory = Files.createTempDirectory("charon-store-recovery");
+        try {
+            try (PersistentResourceStore<User> store = open(codec, directory)) {
+                for (int i = 0; i < userCount; i++) {
+                    store.put("user-" + i, users[i % users.length]);
+                }
+                store.snapshot();
+                for (int i = 0; i < logCount; i++) {
+                    store.put("user-" + (i * 7 % userCount), users[(i + 1) % users.length]);
+                }
+            }
+
+            long start = System.nanoTime();
+            try (PersistentResourceStore<User> store = open(codec, directory)) {
+                long millis = (System.nanoTime() - start) / 1000000;
+                System.out.printf("users: %d, logged changes: %d, files: %d bytes, recovery: %d ms%n",
+                        store.size(), logCount, size(directory), millis);
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static PersistentResourceStore<User> open(BinaryResourceCodec codec, Path directory)
+            throws CharonException {
+
+        return new PersistentResourceStore<>(new OffHeapResourceStore<>(codec, User::new,
+                OffHeapResourceStore.DEFAULT_SLAB_SIZE), codec, User::new, directory, false, 0);
+    }
+
+    private static long size(Path directory) {
+
+        long size = 0;
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                size += file.length();
+            }
+        }
+        return size;
+    }
+
+    private static void delete(Path directory) throws IOException {
+
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.utils.CopyUtil;
+import org.wso2.charon3.core.utils.ValuePool;
+import org.wso2.charon3.utils.store.OffHeapResourceStore;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Measures the heap retained by cached users, i.e. by users as a user store or a cache keeps them after a create
+ * request. JMH does not measure retained memory, hence this is a plain program:
+ * {@code java -cp charon-benchmarks.jar org.wso2.charon3.benchmarks.UserFootprint [userCount] [multiValuedCount]
+ * [valuePool] [offHeap]}, where {@code valuePool} is true to decode the users with a {@link ValuePool} and
+ * {@code offHeap} is true to keep the users in an {@link OffHeapResourceStore}, whose direct memory is reported
+ * separately.
+ * <p>
+ * Run it with a fixed heap, e.g. {@code -Xms1g -Xmx1g}, so that the heap usage read after a full collection is
+ * stable.
+ */
+public final class UserFootprint {
+
+    private static final int DEFAULT_USER_COUNT = 20000;
+    private static final int DEFAULT_MULTI_VALUED_COUNT = 3;
+
+    private UserFootprint() {
+
+    }
+
+    public static void main(String[] args) throws AbstractCharonException {
+
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_USER_COUNT;
+        int multiValuedCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MULTI_VALUED_COUNT;
+        if (args.length > 2 && Boolean.parseBoolean(args[2])) {
+            CharonConfiguration.getInstance().setValuePool(new ValuePool());
+        }
+
+        // Loads the schemas and warms up the code paths before the baseline is taken.
+        BenchmarkEnvironment.newStoredUser(0, multiValuedCount);
+
+        if (args.length > 3 && Boolean.parseBoolean(args[3])) {
+            measureOffHeap(userCount, multiValuedCount);
+            return;
+        }
+
+        User[] users = new User[userCount];
+        long baseline = usedHeap();
+        for (int i = 0; i < userCount; i++) {
+            // User stores keep copies of the created users.
+            users[i] = (User) CopyUtil.deepCopy(BenchmarkEnvironment.newStoredUser(i, multiValuedCount));
+        }
+        long retained = usedHeap() - baseline;
+
+        System.out.printf("users: %d, multi-valued count: %d, retained: %d bytes, per user: %d bytes%n",
+                users.length, multiValuedCount, retained, retained / userCount);
+    }
+
+    private static void measureOffHeap(int userCount, int multiValuedCount) throws AbstractCharonException {
+
+        OffHeapResourceStore<User> users =
+                new OffHeapResourceStore<>(BenchmarkEnvironment.getUserSchema(), User::new);
+        long baseline = usedHeap();
+        for (int i = 0; i < userCount; i++) {
+            User user = BenchmarkEnvironment.newStoredUser(i, multiValuedCount);
+            users.put(user.getId(), user);
+        }
+        long retained = usedHeap() - baseline;
+
+        System.out.printf("users: %d, multi-valued count: %d, retained: %d bytes, per user: %d bytes, " +
+                        "off heap: %d bytes, per user: %d bytes%n", users.size(), multiValuedCount, retained,
+                retained / userCount, users.getAllocatedBytes(), users.getLiveBytes() / userCount);
+    }
+
+    private static long usedHeap() {
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
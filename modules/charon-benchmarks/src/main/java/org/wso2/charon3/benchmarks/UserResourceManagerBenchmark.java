@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.protocol.endpoints.UserResourceManager;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.wso2.charon3.benchmarks.ScimPayloads.object;
+import static org.wso2.charon3.benchmarks.ScimPayloads.patchOperation;
+
+/**
+ * End to end benchmarks of the /Users endpoint, from the request payload to the encoded response, against the
+ * in memory user manager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserResourceManagerBenchmark {
+
+    private static final String PATCH_REQUEST = ScimPayloads.patchRequest(
+            patchOperation(SCIMConstants.OperationalConstants.REPLACE, null,
+                    object("displayName", "Changed", "title", "Architect")),
+            patchOperation(SCIMConstants.OperationalConstants.REPLACE, "emails[type eq \"work\"].value",
+                    "changed@example.com"),
+            patchOperation(SCIMConstants.OperationalConstants.ADD,
+                    SCIMConstants.ENTERPRISE_USER_SCHEMA_URI + ":department", "Research"));
+
+    @Param({"100"})
+    private int userCount;
+
+    @Param({"5"})
+    private int multiValuedCount;
+
+    private final UserResourceManager userResourceManager = new UserResourceManager();
+    private UserManager userManager;
+    private String[] userIds;
+    private String[] payloads;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws AbstractCharonException {
+
+        BenchmarkEnvironment.init();
+        userManager = BenchmarkEnvironment.newUserManager();
+        userIds = new String[userCount];
+        payloads = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            payloads[i] = ScimPayloads.user(i, multiValuedCount);
+            userIds[i] = getId(checkStatus(userResourceManager.create(payloads[i], userManager, null, null),
+                    ResponseCodeConstants.CODE_CREATED));
+        }
+        // Fail fast rather than measuring error responses.
+        checkStatus(get(), ResponseCodeConstants.CODE_OK);
+        checkStatus(updateWithPATCH(), ResponseCodeConstants.CODE_OK);
+        checkStatus(listWithGET(), ResponseCodeConstants.CODE_OK);
+    }
+
+    @Benchmark
+    public SCIMResponse get() {
+
+        return userResourceManager.get(nextId(), userManager, null, null);
+    }
+
+    /*
+     * The created user is deleted straight from the user manager so that the store does not keep growing.
+     */
+    @Benchmark
+    public SCIMResponse create() throws AbstractCharonException {
+
+        SCIMResponse response = userResourceManager.create(payloads[nextIndex()], userManager, null, null);
+        userManager.deleteUser(getId(response));
+        return response;
+    }
+
+    @Benchmark
+    public SCIMResponse updateWithPATCH() {
+
+        return userResourceManager.updateWithPATCH(nextId(), PATCH_REQUEST, userManager, null, null);
+    }
+
+    @Benchmark
+    public SCIMResponse listWithGET() {
+
+        return userResourceManager.listWithGET(userManager, null, 1, userCount, null, null, null, null, null);
+    }
+
+    private int nextIndex() {
+
+        next = (next + 1) % userCount;
+        return next;
+    }
+
+    private String nextId() {
+
+        return userIds[nextIndex()];
+    }
+
+    private static SCIMResponse checkStatus(SCIMResponse response, int expectedStatus) throws CharonException {
+
+        if (response.getResponseStatus() != expectedStatus) {
+            throw new CharonException("Unexpected response " + response.getResponseStatus() + ": " +
+                    response.getResponseMessage());
+        }
+        return response;
+    }
+
+    private static String getId(SCIMResponse response) throws CharonException {
+
+        String location = checkStatus(response, ResponseCodeConstants.CODE_CREATED).getHeaderParamMap()
+                .get(SCIMConstants.LOCATION_HEADER);
+        return location.substring(location.lastIndexOf('/') + 1);
+    }
+}
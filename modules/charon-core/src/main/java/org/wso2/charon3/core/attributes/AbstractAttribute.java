@@ -15,45 +15,55 @@
  */
 package org.wso2.charon3.core.attributes;
 
+import org.wso2.charon3.core.schema.AttributeSchema;
 import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.utils.CopyUtil;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * This class abstracts out the common characteristics of different types of attributes defined in
  * SCIM Core Schema Spec.
+ * <p>
+ * The characteristics of an attribute, such as its mutability, are those of its schema. An attribute created by
+ * {@link DefaultAttributeFactory} keeps a reference to its schema, which is shared by all the attributes it
+ * describes, instead of a copy of each characteristic. Setting a characteristic on the attribute itself detaches the
+ * attribute from the schema values.
+ * <p>
+ * The characteristics are no longer held in protected fields: subclasses read them through the getters and change
+ * them through the setters, which keep the attribute consistent with its schema. Likewise the custom attribute
+ * properties are only allocated once needed, hence subclasses reach them through {@link #getAttributeProperties()}.
+ * <p>
+ * The serialized form changed with this: the characteristics of an attribute reading them from its schema are
+ * written as a whole after its fields. Attributes serialized by earlier versions can not be read.
 */
 public abstract class AbstractAttribute implements Attribute {
 
-    //unique identifier for the attribute
-    protected String uri;
+    private static final long serialVersionUID = 6991136028017606932L;
+
     //name of the attribute
     protected String name;
     //data type of the attribute
     protected SCIMDefinitions.DataType type = null;
-    //Boolean value indicating the attribute's plurality.
-    protected Boolean multiValued;
-    //The attribute's human readable description
-    protected String description;
-    //A Boolean value that specifies if the attribute is required
-    protected Boolean required;
-    //A Boolean value that specifies if the String attribute is case sensitive
-    protected Boolean caseExact;
-    //A SCIM defined value that specifies if the attribute's mutability.
-    protected SCIMDefinitions.Mutability mutability;
-    //A SCIM defined value that specifies when the attribute's value need to be returned.
-    protected SCIMDefinitions.Returned returned;
-    //A SCIM defined value that specifies the uniqueness level of an attribute.
-    protected SCIMDefinitions.Uniqueness uniqueness;
-    //A container to hold custom attribute properties.
-    protected Map<String, String> additionalAttributeProperties = new HashMap<>();
+    //schema of the attribute, shared by all the attributes it describes. Serialized by writeObject.
+    private transient AttributeSchema schema;
+    //characteristics set on the attribute itself, null as long as they are read from the schema.
+    private AttributeCharacteristics characteristics;
+    //A container to hold custom attribute properties, allocated when the first property is added.
+    protected Map<String, String> additionalAttributeProperties;
 
     public String getURI() {
-        return uri; }
+        if (characteristics == null && schema != null) {
+            return schema.getURI();
+        }
+        return getCharacteristicsToRead().uri; }
 
     public void setURI(String uri) {
-        this.uri = uri; }
+        getCharacteristics().uri = uri; }
 
     public String getName() {
         return name;
@@ -72,77 +82,174 @@ public abstract class AbstractAttribute implements Attribute {
     }
 
     public Boolean getMultiValued() {
-        return multiValued;
+        if (characteristics == null && schema != null) {
+            return schema.getMultiValued();
+        }
+        return getCharacteristicsToRead().multiValued;
     }
 
     public void setMultiValued(Boolean multiValued) {
-        this.multiValued = multiValued;
+        getCharacteristics().multiValued = multiValued;
     }
 
     public String getDescription() {
-        return description;
+        if (characteristics == null && schema != null) {
+            return schema.getDescription();
+        }
+        return getCharacteristicsToRead().description;
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        getCharacteristics().description = description;
     }
 
     public Boolean getRequired() {
-        return required;
+        if (characteristics == null && schema != null) {
+            return schema.getRequired();
+        }
+        return getCharacteristicsToRead().required;
     }
 
     public void setRequired(Boolean required) {
-        this.required = required;
+        getCharacteristics().required = required;
     }
 
     public Boolean getCaseExact() {
-        return caseExact;
+        if (characteristics == null && schema != null) {
+            return schema.getCaseExact();
+        }
+        return getCharacteristicsToRead().caseExact;
     }
 
     public void setCaseExact(Boolean caseExact) {
-        this.caseExact = caseExact;
+        getCharacteristics().caseExact = caseExact;
     }
 
     public SCIMDefinitions.Mutability getMutability() {
-        return mutability;
+        if (characteristics == null && schema != null) {
+            return schema.getMutability();
+        }
+        return getCharacteristicsToRead().mutability;
     }
 
     public void setMutability(SCIMDefinitions.Mutability mutability) {
-        this.mutability = mutability;
+        getCharacteristics().mutability = mutability;
     }
 
     public SCIMDefinitions.Returned getReturned() {
-        return returned; }
+        if (characteristics == null && schema != null) {
+            return schema.getReturned();
+        }
+        return getCharacteristicsToRead().returned; }
 
     public void setReturned(SCIMDefinitions.Returned returned) {
-        this.returned = returned;
+        getCharacteristics().returned = returned;
     }
 
     public SCIMDefinitions.Uniqueness getUniqueness() {
-        return uniqueness;
+        if (characteristics == null && schema != null) {
+            return schema.getUniqueness();
+        }
+        return getCharacteristicsToRead().uniqueness;
     }
 
     public void setUniqueness(SCIMDefinitions.Uniqueness uniqueness) {
-        this.uniqueness = uniqueness;
+        getCharacteristics().uniqueness = uniqueness;
+    }
+
+    /**
+     * @return schema the characteristics of the attribute are read from, null if the attribute was not created by
+     * {@link DefaultAttributeFactory}
+     */
+    public AttributeSchema getAttributeSchema() {
+
+        return schema;
+    }
+
+    /**
+     * Makes the attribute read its characteristics from the given schema, dropping the characteristics set on the
+     * attribute itself. The schema is shared, hence it must not be changed afterwards.
+     *
+     * @param schema schema of the attribute
+     */
+    public void setAttributeSchema(AttributeSchema schema) {
+
+        this.schema = schema;
+        this.characteristics = null;
     }
 
     public String getAttributeProperty(String propertyName) {
 
-        return additionalAttributeProperties.get(propertyName);
+        return additionalAttributeProperties != null ? additionalAttributeProperties.get(propertyName) : null;
     }
 
+    /**
+     * @return the custom properties of the attribute, which can be changed. Use {@link #hasAttributeProperties()}
+     * to find out whether there are any without allocating them.
+     */
     public Map<String, String> getAttributeProperties() {
 
+        if (additionalAttributeProperties == null) {
+            additionalAttributeProperties = new HashMap<>();
+        }
         return additionalAttributeProperties;
     }
 
+    /**
+     * @return true if the attribute has custom properties
+     */
+    public boolean hasAttributeProperties() {
+
+        return additionalAttributeProperties != null && !additionalAttributeProperties.isEmpty();
+    }
+
     public void addAttributeProperty(String propertyName, String propertyValue) {
 
-        this.additionalAttributeProperties.put(propertyName, propertyValue);
+        getAttributeProperties().put(propertyName, propertyValue);
     }
 
     public String removeAttributeProperty(String propertyName) {
 
-        return additionalAttributeProperties.remove(propertyName);
+        return additionalAttributeProperties != null ? additionalAttributeProperties.remove(propertyName) : null;
+    }
+
+    private AttributeCharacteristics getCharacteristicsToRead() {
+
+        return characteristics != null ? characteristics : AttributeCharacteristics.NONE;
+    }
+
+    private AttributeCharacteristics getCharacteristics() {
+
+        if (characteristics == null) {
+            characteristics = schema != null ? new AttributeCharacteristics(schema) : new AttributeCharacteristics();
+        }
+        return characteristics;
+    }
+
+    /*
+     * Copies made by CopyUtil share the schema with the original attribute. Other streams may be read by another
+     * JVM, hence the characteristics are written by value.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+
+        out.defaultWriteObject();
+        if (out instanceof CopyUtil.CopyOutputStream) {
+            ((CopyUtil.CopyOutputStream) out).writeShared(schema);
+        } else {
+            out.writeObject(schema != null && characteristics == null ? new AttributeCharacteristics(schema) : null);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+
+        in.defaultReadObject();
+        if (in instanceof CopyUtil.CopyInputStream) {
+            schema = (AttributeSchema) ((CopyUtil.CopyInputStream) in).readShared();
+        } else {
+            AttributeCharacteristics schemaCharacteristics = (AttributeCharacteristics) in.readObject();
+            if (schemaCharacteristics != null) {
+                characteristics = schemaCharacteristics;
+            }
+        }
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.attributes;
+
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+
+import java.io.Serializable;
+
+/**
+ * Characteristics of an attribute which are set on the attribute itself instead of being read from its schema.
+ * Attributes created by {@link DefaultAttributeFactory} read them from the shared schema, hence they do not have
+ * one of these.
+ */
+final class AttributeCharacteristics implements Serializable {
+
+    private static final long serialVersionUID = 2981237474302519867L;
+
+    //characteristics of an attribute without a schema, which has none of them set. Never changed.
+    static final AttributeCharacteristics NONE = new AttributeCharacteristics();
+
+    String uri;
+    Boolean multiValued;
+    String description;
+    Boolean required;
+    Boolean caseExact;
+    SCIMDefinitions.Mutability mutability;
+    SCIMDefinitions.Returned returned;
+    SCIMDefinitions.Uniqueness uniqueness;
+
+    AttributeCharacteristics() {
+
+    }
+
+    AttributeCharacteristics(AttributeSchema schema) {
+
+        this.uri = schema.getURI();
+        this.multiValued = schema.getMultiValued();
+        this.description = schema.getDescription();
+        this.required = schema.getRequired();
+        this.caseExact = schema.getCaseExact();
+        this.mutability = schema.getMutability();
+        this.returned = schema.getReturned();
+        this.uniqueness = schema.getUniqueness();
+    }
+}
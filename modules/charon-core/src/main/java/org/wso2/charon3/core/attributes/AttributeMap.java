@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.attributes;
+
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.schema.AttributeLayout;
+import org.wso2.charon3.core.utils.CopyUtil;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map of attributes by name which holds the attributes in an array indexed by the slots of an
+ * {@link AttributeLayout}, instead of in hash map entries. Attributes whose name has no slot in the layout, or which
+ * are mapped to null, are held in a small list next to the slots.
+ * <p>
+ * The layout can be set after the map was populated, hence a map can be created before the schema of the attributes
+ * is known. The map iterates over the slotted attributes in the order of the layout, followed by the other
+ * attributes in the order they were added. Like a HashMap, the map is not thread safe and its iterators fail fast.
+ */
+public class AttributeMap extends AbstractMap<String, Attribute> implements Serializable {
+
+    private static final long serialVersionUID = 3405327911934254722L;
+    private static final int INITIAL_EXTRA_CAPACITY = 2;
+
+    //layout shared by all the maps of the same schema. Serialized by writeObject.
+    private transient AttributeLayout layout;
+    //attributes by slot, allocated when the first slotted attribute is added.
+    private Attribute[] slots;
+    //attributes without a slot, allocated when the first of them is added.
+    private String[] extraNames;
+    private Attribute[] extraValues;
+    private int extraCount;
+    private int size;
+    private transient int modCount;
+    private transient Set<Map.Entry<String, Attribute>> entrySet;
+
+    public AttributeMap() {
+
+    }
+
+    public AttributeMap(AttributeLayout layout) {
+
+        this.layout = layout;
+    }
+
+    /**
+     * Creates the map to hold the attributes of a resource or the sub attributes of a complex attribute, which is
+     * an AttributeMap unless the compact attribute storage is turned off in the {@link CharonConfiguration}.
+     *
+     * @param layout layout of the attributes, may be null if it is not known yet
+     * @return empty map
+     */
+    public static Map<String, Attribute> newAttributeMap(AttributeLayout layout) {
+
+        if (CharonConfiguration.getInstance().isCompactAttributeStorage()) {
+            return new AttributeMap(layout);
+        }
+        return new HashMap<>();
+    }
+
+    /**
+     * @return layout the slots of the map are assigned by, null if there is none
+     */
+    public AttributeLayout getLayout() {
+
+        return layout;
+    }
+
+    /**
+     * Sets the layout the slots of the map are assigned by. The attributes already in the map are moved to the
+     * slots of the new layout.
+     *
+     * @param layout layout, may be null
+     */
+    public void setLayout(AttributeLayout layout) {
+
+        if (layout == this.layout) {
+            return;
+        }
+        List<Map.Entry<String, Attribute>> entries = size == 0 ?
+                null : new ArrayList<Map.Entry<String, Attribute>>(entrySet());
+        this.layout = layout;
+        slots = null;
+        extraNames = null;
+        extraValues = null;
+        extraCount = 0;
+        size = 0;
+        modCount++;
+        if (entries != null) {
+            for (Map.Entry<String, Attribute> entry : entries) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+
+        int slot = slotOf(name);
+        return slot >= 0 && slots != null && slots[slot] != null || indexOfExtra(name) >= 0;
+    }
+
+    @Override
+    public Attribute get(Object name) {
+
+        int slot = slotOf(name);
+        if (slot >= 0 && slots != null && slots[slot] != null) {
+            return slots[slot];
+        }
+        int index = indexOfExtra(name);
+        return index < 0 ? null : extraValues[index];
+    }
+
+    @Override
+    public Attribute put(String name, Attribute attribute) {
+
+        int slot = slotOf(name);
+        if (slot >= 0 && slots != null && slots[slot] != null) {
+            Attribute previous = slots[slot];
+            if (attribute == null) {
+                //slots can not tell null apart from no attribute
+                slots[slot] = null;
+                addExtra(name, null);
+                modCount++;
+            } else {
+                slots[slot] = attribute;
+            }
+            return previous;
+        }
+        int index = indexOfExtra(name);
+        if (slot >= 0 && attribute != null) {
+            if (slots == null) {
+                slots = new Attribute[layout.size()];
+            }
+            slots[slot] = attribute;
+            if (index >= 0) {
+                removeExtra(index);
+            } else {
+                size++;
+            }
+            modCount++;
+            return null;
+        }
+        if (index >= 0) {
+            Attribute previous = extraValues[index];
+            extraValues[index] = attribute;
+            return previous;
+        }
+        addExtra(name, attribute);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public Attribute remove(Object name) {
+
+        int slot = slotOf(name);
+        if (slot >= 0 && slots != null && slots[slot] != null) {
+            Attribute previous = slots[slot];
+            slots[slot] = null;
+            size--;
+            modCount++;
+            return previous;
+        }
+        int index = indexOfExtra(name);
+        if (index < 0) {
+            return null;
+        }
+        Attribute previous = extraValues[index];
+        removeExtra(index);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+
+        if (slots != null) {
+            Arrays.fill(slots, null);
+        }
+        if (extraCount > 0) {
+            Arrays.fill(extraNames, 0, extraCount, null);
+            Arrays.fill(extraValues, 0, extraCount, null);
+            extraCount = 0;
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Attribute>> entrySet() {
+
+        if (entrySet == null) {
+            entrySet = new EntrySet(this);
+        }
+        return entrySet;
+    }
+
+    private int slotOf(Object name) {
+
+        return layout == null ? -1 : layout.getSlot(name);
+    }
+
+    private int indexOfExtra(Object name) {
+
+        for (int i = 0; i < extraCount; i++) {
+            if (Objects.equals(extraNames[i], name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void addExtra(String name, Attribute attribute) {
+
+        if (extraNames == null) {
+            extraNames = new String[INITIAL_EXTRA_CAPACITY];
+            extraValues = new Attribute[INITIAL_EXTRA_CAPACITY];
+        } else if (extraCount == extraNames.length) {
+            extraNames = Arrays.copyOf(extraNames, extraCount * 2);
+            extraValues = Arrays.copyOf(extraValues, extraCount * 2);
+        }
+        extraNames[extraCount] = name;
+        extraValues[extraCount] = attribute;
+        extraCount++;
+    }
+
+    private void removeExtra(int index) {
+
+        int moved = extraCount - index - 1;
+        System.arraycopy(extraNames, index + 1, extraNames, index, moved);
+        System.arraycopy(extraValues, index + 1, extraValues, index, moved);
+        extraCount--;
+        extraNames[extraCount] = null;
+        extraValues[extraCount] = null;
+    }
+
+    /*
+     * Copies made by CopyUtil share the layout with the original map. Other streams may be read by another JVM,
+     * hence the layout is written by value.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+
+        out.defaultWriteObject();
+        if (out instanceof CopyUtil.CopyOutputStream) {
+            ((CopyUtil.CopyOutputStream) out).writeShared(layout);
+        } else {
+            out.writeObject(layout);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+
+        in.defaultReadObject();
+        if (in instanceof CopyUtil.CopyInputStream) {
+            layout = (AttributeLayout) ((CopyUtil.CopyInputStream) in).readShared();
+        } else {
+            layout = (AttributeLayout) in.readObject();
+        }
+    }
+
+    private static final class EntrySet extends AbstractSet<Map.Entry<String, Attribute>> {
+
+        private final AttributeMap map;
+
+        private EntrySet(AttributeMap map) {
+
+            this.map = map;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Attribute>> iterator() {
+
+            return new EntryIterator(map);
+        }
+
+        @Override
+        public int size() {
+
+            return map.size;
+        }
+
+        @Override
+        public void clear() {
+
+            map.clear();
+        }
+    }
+
+    /*
+     * Iterates over the slots, followed by the extra attributes.
+     */
+    private static final class EntryIterator implements Iterator<Map.Entry<String, Attribute>> {
+
+        private final AttributeMap map;
+        private final int slotCount;
+        private int expectedModCount;
+        //position of the next entry, where positions after the slots are the indexes of the extra attributes.
+        private int next;
+        private int last = -1;
+
+        private EntryIterator(AttributeMap map) {
+
+            this.map = map;
+            this.slotCount = map.slots == null ? 0 : map.slots.length;
+            this.expectedModCount = map.modCount;
+            advance();
+        }
+
+        private void advance() {
+
+            while (next < slotCount && map.slots[next] == null) {
+                next++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            return next < slotCount + map.extraCount;
+        }
+
+        @Override
+        public Map.Entry<String, Attribute> next() {
+
+            if (map.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            advance();
+            if (last < slotCount) {
+                return new Entry(map, map.layout.getName(last), map.slots[last]);
+            }
+            int index = last - slotCount;
+            return new Entry(map, map.extraNames[index], map.extraValues[index]);
+        }
+
+        @Override
+        public void remove() {
+
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (map.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (last < slotCount) {
+                map.slots[last] = null;
+            } else {
+                map.removeExtra(last - slotCount);
+                next--;
+            }
+            map.size--;
+            map.modCount++;
+            expectedModCount = map.modCount;
+            last = -1;
+        }
+    }
+
+    /*
+     * Entry which writes a new value through to the map.
+     */
+    private static final class Entry implements Map.Entry<String, Attribute> {
+
+        private final AttributeMap map;
+        private final String name;
+        private Attribute attribute;
+
+        private Entry(AttributeMap map, String name, Attribute attribute) {
+
+            this.map = map;
+            this.name = name;
+            this.attribute = attribute;
+        }
+
+        @Override
+        public String getKey() {
+
+            return name;
+        }
+
+        @Override
+        public Attribute getValue() {
+
+            return attribute;
+        }
+
+        @Override
+        public Attribute setValue(Attribute value) {
+
+            Attribute previous = attribute;
+            attribute = value;
+            map.put(name, value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+
+            if (!(object instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) object;
+            return Objects.equals(name, entry.getKey()) && Objects.equals(attribute, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hashCode(name) ^ Objects.hashCode(attribute);
+        }
+
+        @Override
+        public String toString() {
+
+            return name + "=" + attribute;
+        }
+    }
+}
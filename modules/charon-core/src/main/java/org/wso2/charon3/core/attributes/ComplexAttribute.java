@@ -16,8 +16,8 @@
 package org.wso2.charon3.core.attributes;
 
 import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.schema.AttributeSchema;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -27,7 +27,7 @@ public class ComplexAttribute extends AbstractAttribute {
 
     private static final long serialVersionUID = 6106269076155338045L;
     //If it is a complex attribute, it has a list of sub attributes.
-    protected Map<String, Attribute> subAttributesList = new HashMap<String, Attribute>();
+    protected Map<String, Attribute> subAttributesList = AttributeMap.newAttributeMap(null);
 
     public ComplexAttribute(String name) {
         this.name = name; }
@@ -52,6 +52,20 @@ public class ComplexAttribute extends AbstractAttribute {
         this.subAttributesList = subAttributesList;
     }
 
+    /**
+     * Also moves the sub attributes to the slots the schema assigns them, if they are held in an AttributeMap.
+     *
+     * @param schema schema of the attribute
+     */
+    @Override
+    public void setAttributeSchema(AttributeSchema schema) {
+
+        super.setAttributeSchema(schema);
+        if (schema != null && subAttributesList instanceof AttributeMap) {
+            ((AttributeMap) subAttributesList).setLayout(schema.getSubAttributeLayout());
+        }
+    }
+
     /**
      * Retrieve one attribute given the attribute name.
      *
@@ -17,7 +17,12 @@ package org.wso2.charon3.core.attributes;
 
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.utils.CopyUtil;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.time.Instant;
 import java.util.Date;
 
@@ -27,8 +32,8 @@ import java.util.Date;
 public class SimpleAttribute extends AbstractAttribute {
 
     private static final long serialVersionUID = 6106269076155338045L;
-    //In a simple attribute, only one attribute value is present.
-    private Object value;
+    //In a simple attribute, only one attribute value is present. Serialized by writeObject.
+    private transient Object value;
 
     public SimpleAttribute(String attributeName, Object value) {
         this.name = attributeName;
@@ -133,4 +138,35 @@ public class SimpleAttribute extends AbstractAttribute {
     public void updateValue(Object value) throws CharonException {
         this.value = value;
     }
+
+    /*
+     * Copies made by CopyUtil share immutable values with the original attribute, so that copies of resources keep
+     * sharing the values pooled by the decoder.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        boolean shared = out instanceof CopyUtil.CopyOutputStream && isImmutable(value);
+        out.writeBoolean(shared);
+        if (shared) {
+            ((CopyUtil.CopyOutputStream) out).writeShared(value);
+        } else {
+            out.writeObject(value);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (!in.readBoolean()) {
+            value = in.readObject();
+        } else if (in instanceof CopyUtil.CopyInputStream) {
+            value = ((CopyUtil.CopyInputStream) in).readShared();
+        } else {
+            throw new InvalidObjectException("A value shared with the original can only be read by CopyUtil.");
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String || value instanceof Boolean || value instanceof Integer ||
+                value instanceof Double || value instanceof Instant;
+    }
 }
@@ -15,8 +15,14 @@
  */
 package org.wso2.charon3.core.config;
 
+import org.wso2.charon3.core.extensions.ResourceIdGenerator;
+import org.wso2.charon3.core.extensions.TimeOrderedIdGenerator;
+import org.wso2.charon3.core.utils.ValuePool;
+
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
 
 /**
  * This class contains the charon related configurations.
@@ -40,12 +46,27 @@ public class CharonConfiguration implements Configuration {
     //default count value for pagination
     private int count;
 
+    //smallest response body compressed when the client accepts a compressed response, negative to never compress
+    private int minCompressedResponseSize = 2048;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    //whether resources hold their attributes in arrays indexed by the slots their schema assigns
+    private volatile boolean compactAttributeStorage = true;
+    //pool of repeating attribute values the decoder shares, null if values are not pooled
+    private volatile ValuePool valuePool;
+    //generator of the ids of created resources
+    private volatile ResourceIdGenerator resourceIdGenerator = new TimeOrderedIdGenerator();
+
+    //incremented on every change, so that responses derived from the configuration can be re-validated
+    private final AtomicLong revision = new AtomicLong();
+
     /*
      * set documentationURL
      * @param documentationURL
      */
     public void setDocumentationURL(String documentationURL) {
         this.documentationURL = documentationURL;
+        revision.incrementAndGet();
     }
 
     /*
@@ -54,6 +75,7 @@ public class CharonConfiguration implements Configuration {
      */
     public void setPatchSupport(boolean supported) {
         this.patchSupport = supported;
+        revision.incrementAndGet();
     }
 
     /*
@@ -66,6 +88,7 @@ public class CharonConfiguration implements Configuration {
         this.bulkSupport = supported;
         this.maxOperations = maxOperations;
         this.maxPayLoadSize = maxPayLoadSize;
+        revision.incrementAndGet();
     }
 
     /*
@@ -76,6 +99,7 @@ public class CharonConfiguration implements Configuration {
     public void setFilterSupport(boolean supported, int maxResults) {
         this.filterSupport = supported;
         this.maxResults = maxResults;
+        revision.incrementAndGet();
     }
 
     /*
@@ -84,6 +108,7 @@ public class CharonConfiguration implements Configuration {
      */
     public void setChangePasswordSupport(boolean supported) {
         this.changePasswordSupport = supported;
+        revision.incrementAndGet();
     }
 
     /*
@@ -92,6 +117,15 @@ public class CharonConfiguration implements Configuration {
      */
     public void setETagSupport(boolean supported) {
         this.eTagSupport = supported;
+        revision.incrementAndGet();
+    }
+
+    /*
+     * get ETag Support
+     * @return
+     */
+    public boolean isETagSupported() {
+        return eTagSupport;
     }
 
     /*
@@ -100,6 +134,7 @@ public class CharonConfiguration implements Configuration {
      */
     public void setSortSupport(boolean supported) {
         this.sortSupport = supported;
+        revision.incrementAndGet();
     }
 
     /*
@@ -108,6 +143,7 @@ public class CharonConfiguration implements Configuration {
      */
     public void setAuthenticationSchemes(ArrayList<Object[]> authenticationSchemes) {
         this.authenticationSchemes = authenticationSchemes;
+        revision.incrementAndGet();
     }
 
     /*
@@ -117,6 +153,7 @@ public class CharonConfiguration implements Configuration {
     @Override
     public void setCountValueForPagination(int count) {
         this.count = count;
+        revision.incrementAndGet();
     }
 
     /*
@@ -127,6 +164,98 @@ public class CharonConfiguration implements Configuration {
         return count;
     }
 
+    /*
+     * set the compression of response bodies. The response compression is not part of the service provider
+     * configuration, hence it does not change the revision.
+     * @param minResponseSize smallest response body in bytes to compress, negative to never compress
+     * @param compressionLevel deflate compression level, between 0 and 9 or Deflater.DEFAULT_COMPRESSION
+     */
+    public void setResponseCompression(int minResponseSize, int compressionLevel) {
+        if ((compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)
+                && compressionLevel != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+        }
+        this.minCompressedResponseSize = minResponseSize;
+        this.compressionLevel = compressionLevel;
+    }
+
+    /*
+     * get the smallest response body in bytes to compress, negative if responses are never compressed
+     * @return
+     */
+    public int getMinCompressedResponseSize() {
+        return minCompressedResponseSize;
+    }
+
+    /*
+     * get the deflate compression level of response bodies
+     * @return
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /*
+     * set whether resources and complex attributes created from now on hold their attributes in arrays indexed by
+     * the slots their schema assigns, rather than in hash maps. Like the response compression, this is not part of
+     * the service provider configuration, hence it does not change the revision.
+     * @param compact
+     */
+    public void setCompactAttributeStorage(boolean compact) {
+        this.compactAttributeStorage = compact;
+    }
+
+    /*
+     * get whether resources and complex attributes hold their attributes in arrays indexed by slot
+     * @return
+     */
+    public boolean isCompactAttributeStorage() {
+        return compactAttributeStorage;
+    }
+
+    /*
+     * set the pool the decoder shares the values of low cardinality attributes through, so that resources kept in
+     * memory do not hold a copy of each such value. This is not part of the service provider configuration, hence
+     * it does not change the revision.
+     * @param valuePool pool of attribute values, null to not pool values
+     */
+    public void setValuePool(ValuePool valuePool) {
+        this.valuePool = valuePool;
+    }
+
+    /*
+     * get the pool the decoder shares attribute values through
+     * @return value pool, null if values are not pooled
+     */
+    public ValuePool getValuePool() {
+        return valuePool;
+    }
+
+    /*
+     * set the generator of the ids of the users and groups created through the endpoints. This is not part of the
+     * service provider configuration, hence it does not change the revision.
+     * @param resourceIdGenerator id generator, null to generate time ordered UUIDs
+     */
+    public void setResourceIdGenerator(ResourceIdGenerator resourceIdGenerator) {
+        this.resourceIdGenerator = resourceIdGenerator == null ? new TimeOrderedIdGenerator() : resourceIdGenerator;
+    }
+
+    /*
+     * get the generator of the ids of created resources
+     * @return
+     */
+    public ResourceIdGenerator getResourceIdGenerator() {
+        return resourceIdGenerator;
+    }
+
+    /*
+     * get the revision of the configuration, which changes whenever a configuration value is set
+     * @return
+     */
+    public long getRevision() {
+        return revision.get();
+    }
+
     /*
      * return the charon configuration map
      * @return
@@ -0,0 +1,803 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.encoder;
+
+import org.wso2.charon3.core.attributes.AbstractAttribute;
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.AttributeMap;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.Role;
+import org.wso2.charon3.core.schema.AttributeLayout;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.ResourceTypeSchema;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Encodes SCIM resources in a compact binary format and decodes them back, for keeping resources off the heap,
+ * shipping them between nodes and writing them to disk. Unlike JSON and Java serialization the format does not
+ * repeat attribute names and schema URIs: the attributes the schema defines are written as their ordinal in the
+ * schema, lengths and numbers are written as variable length integers, and the characteristics of an attribute are
+ * written only when they differ from its schema.
+ * <p>
+ * A codec is created for one resource type schema and takes a snapshot of its attribute layout. Every encoded
+ * resource carries a fingerprint of that layout, and a codec refuses to decode a resource encoded with a different
+ * one, hence a schema change invalidates the resources encoded before it rather than corrupting them. A codec is
+ * immutable and thread safe.
+ */
+public class BinaryResourceCodec {
+
+    private static final byte MAGIC = (byte) 0xC3;
+    private static final byte VERSION = 1;
+
+    private static final int NULL_ATTRIBUTE = 0;
+    private static final int SIMPLE = 1;
+    private static final int COMPLEX = 2;
+    private static final int MULTI_VALUED = 3;
+    private static final int KIND_MASK = 0x03;
+
+    private static final int NAME_FROM_KEY = 0;
+    private static final int NAME_DERIVED = 1;
+    private static final int NAME_EXPLICIT = 2;
+    private static final int NAME_SHIFT = 2;
+    private static final int NAME_MASK = 0x03;
+
+    private static final int HAS_SCHEMA = 0x10;
+    private static final int HAS_TYPE = 0x20;
+    private static final int HAS_CHARACTERISTICS = 0x40;
+    private static final int HAS_PROPERTIES = 0x80;
+
+    private static final int NULL_VALUE = 0;
+    private static final int STRING_VALUE = 1;
+    private static final int FALSE_VALUE = 2;
+    private static final int TRUE_VALUE = 3;
+    private static final int INTEGER_VALUE = 4;
+    private static final int LONG_VALUE = 5;
+    private static final int DOUBLE_VALUE = 6;
+    private static final int INSTANT_VALUE = 7;
+    private static final int BYTE_VALUE = 8;
+    private static final int BYTES_VALUE = 9;
+
+    private static final SCIMDefinitions.DataType[] DATA_TYPES = SCIMDefinitions.DataType.values();
+    private static final SCIMDefinitions.Mutability[] MUTABILITIES = SCIMDefinitions.Mutability.values();
+    private static final SCIMDefinitions.Returned[] RETURNED = SCIMDefinitions.Returned.values();
+    private static final SCIMDefinitions.Uniqueness[] UNIQUENESSES = SCIMDefinitions.Uniqueness.values();
+
+    private final ResourceTypeSchema schema;
+    private final List<String> schemaURIs;
+    private final Level root;
+    private final long fingerprint;
+
+    /**
+     * Creates a codec for the resources of the given type. A codec has to be created again after the schema
+     * changes.
+     *
+     * @param schema schema of the resource type
+     */
+    public BinaryResourceCodec(ResourceTypeSchema schema) {
+
+        this.schema = schema;
+        this.schemaURIs = schema.getSchemasList() == null ?
+                new ArrayList<String>() : new ArrayList<>(schema.getSchemasList());
+        this.root = new Level(schema.getAttributesList());
+        Fingerprint hash = new Fingerprint();
+        hash.add(VERSION);
+        for (String schemaURI : schemaURIs) {
+            hash.add(schemaURI);
+        }
+        root.addTo(hash);
+        this.fingerprint = hash.value;
+    }
+
+    /**
+     * @return fingerprint of the schema the codec encodes resources with
+     */
+    public long getSchemaFingerprint() {
+
+        return fingerprint;
+    }
+
+    /**
+     * Encodes a resource.
+     *
+     * @param resource resource of the type of the codec
+     * @return encoded resource
+     * @throws CharonException if the resource holds a value which can not be encoded
+     */
+    public byte[] encode(AbstractSCIMObject resource) throws CharonException {
+
+        Output out = new Output();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(fingerprint);
+
+        List<String> schemaList = resource.getSchemaList();
+        out.writeVarint(schemaList.size());
+        for (String schemaURI : schemaList) {
+            int index = schemaURIs.indexOf(schemaURI);
+            out.writeVarint(index + 1);
+            if (index < 0) {
+                out.writeString(schemaURI);
+            }
+        }
+        writeAttributes(out, resource.getAttributeList(), root);
+
+        List<String> permissions = resource instanceof Role ? ((Role) resource).getPermissions() : null;
+        if (permissions == null) {
+            out.writeVarint(0);
+        } else {
+            out.writeVarint(permissions.size() + 1);
+            for (String permission : permissions) {
+                out.writeString(permission);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a resource into the given empty resource.
+     *
+     * @param bytes    encoded resource
+     * @param resource empty resource to decode into
+     * @param <T>      type of the resource
+     * @return the given resource
+     * @throws CharonException if the bytes are not a resource encoded with the schema of the codec
+     */
+    public <T extends AbstractSCIMObject> T decode(byte[] bytes, T resource) throws CharonException {
+
+        return decode(ByteBuffer.wrap(bytes), resource);
+    }
+
+    /**
+     * Decodes a resource into the given empty resource, reading the buffer from its position to its limit. The
+     * position of the buffer is not changed, hence the buffer may be shared by threads as long as its position and
+     * limit are not changed while they decode.
+     *
+     * @param buffer   encoded resource
+     * @param resource empty resource to decode into
+     * @param <T>      type of the resource
+     * @return the given resource
+     * @throws CharonException if the bytes are not a resource encoded with the schema of the codec
+     */
+    public <T extends AbstractSCIMObject> T decode(ByteBuffer buffer, T resource) throws CharonException {
+
+        Input in = new Input(buffer.duplicate());
+        try {
+            if (in.readByte() != MAGIC || in.readByte() != VERSION) {
+                throw new CharonException("The bytes are not a SCIM resource of a known format.");
+            }
+            if (in.readLong() != fingerprint) {
+                throw new CharonException("The resource was encoded with a different schema.");
+            }
+            int schemaCount = in.readCount();
+            for (int i = 0; i < schemaCount; i++) {
+                int index = in.readVarint() - 1;
+                resource.setSchema(index < 0 ? in.readString() : element(schemaURIs, index));
+            }
+
+            Map<String, Attribute> attributes = resource.getAttributeList();
+            if (attributes instanceof AttributeMap && ((AttributeMap) attributes).getLayout() == null) {
+                ((AttributeMap) attributes).setLayout(schema.getAttributeLayout());
+            }
+            readAttributes(in, attributes, root);
+
+            int permissionCount = in.readCount() - 1;
+            if (permissionCount >= 0 && resource instanceof Role) {
+                List<String> permissions = new ArrayList<>(permissionCount);
+                for (int i = 0; i < permissionCount; i++) {
+                    permissions.add(in.readString());
+                }
+                ((Role) resource).setPermissions(permissions);
+            }
+            if (in.buffer.hasRemaining()) {
+                throw new CharonException("Unexpected bytes after the encoded resource.");
+            }
+            return resource;
+        } catch (BufferUnderflowException | IllegalArgumentException | ArithmeticException | DateTimeException e) {
+            throw new CharonException("The encoded resource is malformed.", e);
+        }
+    }
+
+    private void writeAttributes(Output out, Map<String, Attribute> attributes, Level level)
+            throws CharonException {
+
+        out.writeVarint(attributes.size());
+        for (Map.Entry<String, Attribute> entry : attributes.entrySet()) {
+            int slot = level == null ? -1 : level.layout.getSlot(entry.getKey());
+            out.writeVarint(slot + 1);
+            if (slot < 0) {
+                out.writeString(entry.getKey());
+                writeAttribute(out, entry.getKey(), entry.getValue(), null, null);
+            } else {
+                writeAttribute(out, entry.getKey(), entry.getValue(), level.schemas[slot], level.children[slot]);
+            }
+        }
+    }
+
+    private void readAttributes(Input in, Map<String, Attribute> attributes, Level level) throws CharonException {
+
+        int count = in.readCount();
+        for (int i = 0; i < count; i++) {
+            int slot = in.readVarint() - 1;
+            if (slot < 0) {
+                String key = in.readString();
+                attributes.put(key, readAttribute(in, key, null, null));
+            } else {
+                if (level == null || slot >= level.schemas.length) {
+                    throw new CharonException("The encoded resource refers to an unknown attribute.");
+                }
+                String key = level.layout.getName(slot);
+                attributes.put(key, readAttribute(in, key, level.schemas[slot], level.children[slot]));
+            }
+        }
+    }
+
+    private void writeAttribute(Output out, String key, Attribute attribute, AttributeSchema attributeSchema,
+                                Level level) throws CharonException {
+
+        if (attribute == null) {
+            out.writeByte(NULL_ATTRIBUTE);
+            return;
+        }
+        if (!(attribute instanceof AbstractAttribute)) {
+            throw new CharonException("Can not encode attribute " + key + " of type " + attribute.getClass());
+        }
+        AbstractAttribute abstractAttribute = (AbstractAttribute) attribute;
+        int kind;
+        if (attribute instanceof SimpleAttribute) {
+            kind = SIMPLE;
+        } else if (attribute instanceof ComplexAttribute) {
+            kind = COMPLEX;
+        } else if (attribute instanceof MultiValuedAttribute) {
+            kind = MULTI_VALUED;
+        } else {
+            throw new CharonException("Can not encode attribute " + key + " of type " + attribute.getClass());
+        }
+        AttributeSchema schemaOfAttribute = attributeSchema != null &&
+                abstractAttribute.getAttributeSchema() == attributeSchema ? attributeSchema : null;
+
+        String name = attribute.getName();
+        int nameMode;
+        if (Objects.equals(name, key)) {
+            nameMode = NAME_FROM_KEY;
+        } else if (kind == COMPLEX && name != null && name.equals(deriveName(key, (ComplexAttribute) attribute))) {
+            nameMode = NAME_DERIVED;
+        } else {
+            nameMode = NAME_EXPLICIT;
+        }
+        SCIMDefinitions.DataType type = attribute.getType();
+        boolean hasType = type != (schemaOfAttribute == null ? null : schemaOfAttribute.getType());
+        boolean hasCharacteristics = !hasCharacteristicsOf(abstractAttribute, schemaOfAttribute);
+        Map<String, String> properties = abstractAttribute.hasAttributeProperties() ?
+                abstractAttribute.getAttributeProperties() : Collections.<String, String>emptyMap();
+
+        out.writeByte(kind | nameMode << NAME_SHIFT | (schemaOfAttribute != null ? HAS_SCHEMA : 0) |
+                (hasType ? HAS_TYPE : 0) | (hasCharacteristics ? HAS_CHARACTERISTICS : 0) |
+                (properties.isEmpty() ? 0 : HAS_PROPERTIES));
+        if (nameMode == NAME_EXPLICIT) {
+            out.writeString(name);
+        }
+        if (hasType) {
+            out.writeVarint(type == null ? 0 : type.ordinal() + 1);
+        }
+        if (hasCharacteristics) {
+            writeCharacteristics(out, abstractAttribute);
+        }
+        if (!properties.isEmpty()) {
+            out.writeVarint(properties.size());
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                out.writeString(property.getKey());
+                out.writeString(property.getValue());
+            }
+        }
+
+        if (kind == SIMPLE) {
+            writeValue(out, ((SimpleAttribute) attribute).getValue());
+        } else if (kind == COMPLEX) {
+            writeAttributes(out, ((ComplexAttribute) attribute).getSubAttributesList(), level);
+        } else {
+            MultiValuedAttribute multiValuedAttribute = (MultiValuedAttribute) attribute;
+            List<Attribute> values = multiValuedAttribute.getAttributeValues();
+            out.writeVarint(values == null ? 0 : values.size() + 1);
+            if (values != null) {
+                for (Attribute value : values) {
+                    writeAttribute(out, key, value, attributeSchema, level);
+                }
+            }
+            List<Object> primitiveValues = multiValuedAttribute.getAttributePrimitiveValues();
+            out.writeVarint(primitiveValues == null ? 0 : primitiveValues.size() + 1);
+            if (primitiveValues != null) {
+                for (Object value : primitiveValues) {
+                    writeValue(out, value);
+                }
+            }
+        }
+    }
+
+    private Attribute readAttribute(Input in, String key, AttributeSchema attributeSchema, Level level)
+            throws CharonException {
+
+        int flags = in.readByte() & 0xFF;
+        int kind = flags & KIND_MASK;
+        if (kind == NULL_ATTRIBUTE) {
+            return null;
+        }
+        int nameMode = flags >> NAME_SHIFT & NAME_MASK;
+        String name = nameMode == NAME_EXPLICIT ? in.readString() : key;
+        AbstractAttribute attribute;
+        if (kind == SIMPLE) {
+            attribute = new SimpleAttribute(name, null);
+        } else if (kind == COMPLEX) {
+            attribute = new ComplexAttribute(name);
+        } else {
+            attribute = new MultiValuedAttribute(name);
+        }
+        if ((flags & HAS_SCHEMA) != 0) {
+            if (attributeSchema == null) {
+                throw new CharonException("The encoded resource refers to an unknown attribute schema.");
+            }
+            attribute.setAttributeSchema(attributeSchema);
+            attribute.setType(attributeSchema.getType());
+        }
+        if ((flags & HAS_TYPE) != 0) {
+            attribute.setType(element(DATA_TYPES, in.readVarint() - 1));
+        }
+        if ((flags & HAS_CHARACTERISTICS) != 0) {
+            readCharacteristics(in, attribute);
+        }
+        if ((flags & HAS_PROPERTIES) != 0) {
+            int count = in.readCount();
+            for (int i = 0; i < count; i++) {
+                attribute.addAttributeProperty(in.readString(), in.readString());
+            }
+        }
+
+        if (kind == SIMPLE) {
+            ((SimpleAttribute) attribute).setValue(readValue(in));
+        } else if (kind == COMPLEX) {
+            ComplexAttribute complexAttribute = (ComplexAttribute) attribute;
+            readAttributes(in, complexAttribute.getSubAttributesList(), level);
+            if (nameMode == NAME_DERIVED) {
+                complexAttribute.setName(deriveName(key, complexAttribute));
+            }
+        } else {
+            MultiValuedAttribute multiValuedAttribute = (MultiValuedAttribute) attribute;
+            int valueCount = in.readCount() - 1;
+            if (valueCount < 0) {
+                multiValuedAttribute.setAttributeValues(null);
+            } else {
+                List<Attribute> values = new ArrayList<>(valueCount);
+                for (int i = 0; i < valueCount; i++) {
+                    values.add(readAttribute(in, key, attributeSchema, level));
+                }
+                multiValuedAttribute.setAttributeValues(values);
+            }
+            int primitiveValueCount = in.readCount() - 1;
+            if (primitiveValueCount < 0) {
+                multiValuedAttribute.setAttributePrimitiveValues(null);
+            } else {
+                List<Object> primitiveValues = new ArrayList<>(primitiveValueCount);
+                for (int i = 0; i < primitiveValueCount; i++) {
+                    primitiveValues.add(readValue(in));
+                }
+                multiValuedAttribute.setAttributePrimitiveValues(primitiveValues);
+            }
+        }
+        return attribute;
+    }
+
+    /*
+     * The decoder names the complex values of a multi-valued attribute after their value and type sub attributes.
+     */
+    private static String deriveName(String key, ComplexAttribute complexAttribute) {
+
+        Map<String, Attribute> subAttributes = complexAttribute.getSubAttributesList();
+        return key + "_" + nameComponent(subAttributes.get(SCIMConstants.CommonSchemaConstants.VALUE)) + "_" +
+                nameComponent(subAttributes.get(SCIMConstants.CommonSchemaConstants.TYPE));
+    }
+
+    private static String nameComponent(Attribute attribute) {
+
+        if (attribute instanceof SimpleAttribute && ((SimpleAttribute) attribute).getValue() != null) {
+            return String.valueOf(((SimpleAttribute) attribute).getValue());
+        }
+        return SCIMConstants.DEFAULT;
+    }
+
+    private static boolean hasCharacteristicsOf(AbstractAttribute attribute, AttributeSchema attributeSchema) {
+
+        if (attributeSchema == null) {
+            return attribute.getURI() == null && attribute.getMultiValued() == null &&
+                    attribute.getDescription() == null && attribute.getRequired() == null &&
+                    attribute.getCaseExact() == null && attribute.getMutability() == null &&
+                    attribute.getReturned() == null && attribute.getUniqueness() == null;
+        }
+        return Objects.equals(attribute.getURI(), attributeSchema.getURI()) &&
+                Objects.equals(attribute.getMultiValued(), attributeSchema.getMultiValued()) &&
+                Objects.equals(attribute.getDescription(), attributeSchema.getDescription()) &&
+                Objects.equals(attribute.getRequired(), attributeSchema.getRequired()) &&
+                Objects.equals(attribute.getCaseExact(), attributeSchema.getCaseExact()) &&
+                attribute.getMutability() == attributeSchema.getMutability() &&
+                attribute.getReturned() == attributeSchema.getReturned() &&
+                attribute.getUniqueness() == attributeSchema.getUniqueness();
+    }
+
+    private static void writeCharacteristics(Output out, AbstractAttribute attribute) {
+
+        out.writeString(attribute.getURI());
+        out.writeBoolean(attribute.getMultiValued());
+        out.writeString(attribute.getDescription());
+        out.writeBoolean(attribute.getRequired());
+        out.writeBoolean(attribute.getCaseExact());
+        out.writeEnum(attribute.getMutability());
+        out.writeEnum(attribute.getReturned());
+        out.writeEnum(attribute.getUniqueness());
+    }
+
+    private static void readCharacteristics(Input in, AbstractAttribute attribute) throws CharonException {
+
+        attribute.setURI(in.readString());
+        attribute.setMultiValued(in.readBoolean());
+        attribute.setDescription(in.readString());
+        attribute.setRequired(in.readBoolean());
+        attribute.setCaseExact(in.readBoolean());
+        attribute.setMutability(element(MUTABILITIES, in.readVarint() - 1));
+        attribute.setReturned(element(RETURNED, in.readVarint() - 1));
+        attribute.setUniqueness(element(UNIQUENESSES, in.readVarint() - 1));
+    }
+
+    private static void writeValue(Output out, Object value) throws CharonException {
+
+        if (value == null) {
+            out.writeByte(NULL_VALUE);
+        } else if (value instanceof String) {
+            out.writeByte(STRING_VALUE);
+            out.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE_VALUE : FALSE_VALUE);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER_VALUE);
+            out.writeSignedVarlong((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG_VALUE);
+            out.writeSignedVarlong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeLong(Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof Instant) {
+            out.writeByte(INSTANT_VALUE);
+            out.writeSignedVarlong(((Instant) value).getEpochSecond());
+            out.writeVarint(((Instant) value).getNano());
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE_VALUE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Byte[]) {
+            Byte[] bytes = (Byte[]) value;
+            out.writeByte(BYTES_VALUE);
+            out.writeVarint(bytes.length);
+            for (Byte b : bytes) {
+                out.writeByte(b);
+            }
+        } else {
+            throw new CharonException("Can not encode an attribute value of type " + value.getClass());
+        }
+    }
+
+    private static Object readValue(Input in) throws CharonException {
+
+        int tag = in.readByte();
+        switch (tag) {
+            case NULL_VALUE:
+                return null;
+            case STRING_VALUE:
+                return in.readString();
+            case FALSE_VALUE:
+                return Boolean.FALSE;
+            case TRUE_VALUE:
+                return Boolean.TRUE;
+            case INTEGER_VALUE:
+                return Math.toIntExact(in.readSignedVarlong());
+            case LONG_VALUE:
+                return in.readSignedVarlong();
+            case DOUBLE_VALUE:
+                return Double.longBitsToDouble(in.readLong());
+            case INSTANT_VALUE:
+                return Instant.ofEpochSecond(in.readSignedVarlong(), in.readVarint());
+            case BYTE_VALUE:
+                return in.readByte();
+            case BYTES_VALUE:
+                Byte[] bytes = new Byte[in.readCount()];
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = in.readByte();
+                }
+                return bytes;
+            default:
+                throw new CharonException("Unknown value type " + tag + " in the encoded resource.");
+        }
+    }
+
+    private static <E> E element(E[] elements, int index) throws CharonException {
+
+        return index < 0 ? null : element(Arrays.asList(elements), index);
+    }
+
+    private static <E> E element(List<E> elements, int index) throws CharonException {
+
+        if (index >= elements.size()) {
+            throw new CharonException("The encoded resource refers to an unknown value " + index + ".");
+        }
+        return elements.get(index);
+    }
+
+    /*
+     * Attributes of a complex attribute, or of the resource, as the schema defined them when the codec was created.
+     */
+    private static final class Level {
+
+        private final AttributeLayout layout;
+        private final AttributeSchema[] schemas;
+        private final Level[] children;
+
+        private Level(List<AttributeSchema> attributeSchemas) {
+
+            layout = AttributeLayout.of(attributeSchemas);
+            schemas = new AttributeSchema[layout.size()];
+            children = new Level[layout.size()];
+            if (attributeSchemas == null) {
+                return;
+            }
+            for (AttributeSchema attributeSchema : attributeSchemas) {
+                int slot = attributeSchema == null ? -1 : layout.getSlot(attributeSchema.getName());
+                if (slot >= 0 && schemas[slot] == null) {
+                    schemas[slot] = attributeSchema;
+                    List<AttributeSchema> subAttributeSchemas = attributeSchema.getSubAttributeSchemas();
+                    if (subAttributeSchemas != null && !subAttributeSchemas.isEmpty()) {
+                        children[slot] = new Level(subAttributeSchemas);
+                    }
+                }
+            }
+        }
+
+        private void addTo(Fingerprint hash) {
+
+            hash.add(schemas.length);
+            for (int slot = 0; slot < schemas.length; slot++) {
+                hash.add(layout.getName(slot));
+                SCIMDefinitions.DataType type = schemas[slot].getType();
+                hash.add(type == null ? -1 : type.ordinal());
+                if (children[slot] == null) {
+                    hash.add(-1);
+                } else {
+                    children[slot].addTo(hash);
+                }
+            }
+        }
+    }
+
+    /*
+     * 64 bit FNV-1a hash.
+     */
+    private static final class Fingerprint {
+
+        private long value = 0xcbf29ce484222325L;
+
+        private void add(int number) {
+
+            for (int i = 0; i < 4; i++) {
+                value ^= (number >>> (i * 8)) & 0xFF;
+                value *= 0x100000001b3L;
+            }
+        }
+
+        private void add(String string) {
+
+            add(string.length());
+            for (int i = 0; i < string.length(); i++) {
+                value ^= string.charAt(i);
+                value *= 0x100000001b3L;
+            }
+        }
+    }
+
+    private static final class Output {
+
+        private byte[] bytes = new byte[512];
+        private int length;
+
+        private void ensure(int count) {
+
+            if (length + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+            }
+        }
+
+        private void writeByte(int b) {
+
+            ensure(1);
+            bytes[length++] = (byte) b;
+        }
+
+        private void writeVarint(int value) {
+
+            writeVarlong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarlong(long value) {
+
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        private void writeSignedVarlong(long value) {
+
+            writeVarlong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeLong(long value) {
+
+            ensure(8);
+            for (int i = 7; i >= 0; i--) {
+                bytes[length++] = (byte) (value >>> (i * 8));
+            }
+        }
+
+        private void writeBoolean(Boolean value) {
+
+            writeByte(value == null ? 0 : value ? 2 : 1);
+        }
+
+        private void writeEnum(Enum<?> value) {
+
+            writeVarint(value == null ? 0 : value.ordinal() + 1);
+        }
+
+        /*
+         * Null is written as length 0, other strings as their UTF-8 length plus one.
+         */
+        private void writeString(String value) {
+
+            if (value == null) {
+                writeByte(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length + 1);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        private byte[] toByteArray() {
+
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+
+    private static final class Input {
+
+        private final ByteBuffer buffer;
+
+        private Input(ByteBuffer buffer) {
+
+            this.buffer = buffer;
+        }
+
+        private byte readByte() {
+
+            return buffer.get();
+        }
+
+        private long readLong() {
+
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = value << 8 | (buffer.get() & 0xFF);
+            }
+            return value;
+        }
+
+        private long readVarlong() throws CharonException {
+
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new CharonException("Malformed variable length integer in the encoded resource.");
+        }
+
+        private int readVarint() throws CharonException {
+
+            long value = readVarlong();
+            if (value > Integer.MAX_VALUE) {
+                throw new CharonException("Malformed variable length integer in the encoded resource.");
+            }
+            return (int) value;
+        }
+
+        private long readSignedVarlong() throws CharonException {
+
+            long value = readVarlong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        /*
+         * Reads a number of elements which follow, each of which takes at least a byte.
+         */
+        private int readCount() throws CharonException {
+
+            int count = readVarint();
+            if (count > buffer.remaining() + 1) {
+                throw new CharonException("The encoded resource is truncated.");
+            }
+            return count;
+        }
+
+        private Boolean readBoolean() throws CharonException {
+
+            int value = buffer.get();
+            if (value < 0 || value > 2) {
+                throw new CharonException("Malformed boolean in the encoded resource.");
+            }
+            return value == 0 ? null : value == 2;
+        }
+
+        private String readString() throws CharonException {
+
+            int length = readCount() - 1;
+            if (length < 0) {
+                return null;
+            }
+            String value;
+            if (buffer.hasArray()) {
+                value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                        StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                byte[] utf8 = new byte[length];
+                buffer.get(utf8);
+                value = new String(utf8, StandardCharsets.UTF_8);
+            }
+            return value;
+        }
+    }
+}
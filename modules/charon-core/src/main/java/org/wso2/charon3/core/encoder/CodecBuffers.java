@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.encoder;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Per thread scratch buffers of {@link JSONEncoder} and {@link JSONDecoder}.
+ * <p>
+ * Every thread gets its own reader, character buffer and UTF-8 encoder, which are reused by all the payloads the
+ * thread parses or writes. The character buffer grows to the size of the largest recent payload, so that writing a
+ * payload of a usual size neither allocates nor copies anything but the result. A buffer grown past
+ * {@link #MAX_RETAINED_CHARS} by an unusually large payload is dropped after use instead of being kept by the thread.
+ * <p>
+ * None of the buffers is visible outside of a single call, hence the codec instances sharing them stay thread safe.
+ * A call made while the buffers of the thread are in use, which only happens if a JSON value writes a payload of its
+ * own, gets fresh buffers.
+ */
+final class CodecBuffers {
+
+    private static final int INITIAL_CHARS = 4096;
+    private static final int MAX_RETAINED_CHARS = 256 * 1024;
+
+    private static final ThreadLocal<CodecBuffers> BUFFERS = ThreadLocal.withInitial(CodecBuffers::new);
+
+    private final StringSourceReader reader = new StringSourceReader();
+    private final CharArrayBuilder builder = new CharArrayBuilder();
+    private final CharsetEncoder utf8Encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private boolean inUse;
+
+    private CodecBuffers() {
+
+    }
+
+    /**
+     * Parses the given JSON object.
+     *
+     * @param json JSON object in text form
+     * @return parsed JSON object
+     * @throws JSONException if the text is not a JSON object
+     */
+    static JSONObject parse(String json) throws JSONException {
+
+        CodecBuffers buffers = acquire();
+        try {
+            buffers.reader.reset(json);
+            return new JSONObject(new JSONTokener(buffers.reader));
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /**
+     * Writes the given JSON object in text form, like {@link JSONObject#toString()} does.
+     *
+     * @param object JSON object to write
+     * @return JSON object in text form
+     * @throws JSONException if a value of the object can not be written
+     */
+    static String write(JSONObject object) throws JSONException {
+
+        CodecBuffers buffers = acquire();
+        try {
+            object.write(buffers.builder);
+            return new String(buffers.builder.chars, 0, buffers.builder.length);
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /**
+     * Writes the given JSON object in UTF-8 into a buffer of the exact size of the result.
+     *
+     * @param object JSON object to write
+     * @return UTF-8 encoded JSON object, backed by an array of its own
+     * @throws JSONException if a value of the object can not be written
+     */
+    static ByteBuffer writeUTF8(JSONObject object) throws JSONException {
+
+        CodecBuffers buffers = acquire();
+        try {
+            object.write(buffers.builder);
+            char[] chars = buffers.builder.chars;
+            int length = buffers.builder.length;
+            ByteBuffer utf8 = ByteBuffer.allocate(utf8Length(chars, length));
+            CharsetEncoder encoder = buffers.utf8Encoder.reset();
+            CoderResult result = encoder.encode(CharBuffer.wrap(chars, 0, length), utf8, true);
+            if (result.isUnderflow()) {
+                result = encoder.flush(utf8);
+            }
+            if (!result.isUnderflow() || utf8.hasRemaining()) {
+                throw new IllegalStateException("UTF-8 length of the JSON object miscalculated.");
+            }
+            utf8.flip();
+            return utf8;
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /*
+     * Length of the given characters in UTF-8, where a lone surrogate is replaced by a single '?'.
+     */
+    private static int utf8Length(char[] chars, int length) {
+
+        int utf8Length = length;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                utf8Length++;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+                // Two characters written as four bytes.
+                utf8Length += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                utf8Length += 2;
+            }
+        }
+        return utf8Length;
+    }
+
+    private static CodecBuffers acquire() {
+
+        CodecBuffers buffers = BUFFERS.get();
+        if (buffers.inUse) {
+            buffers = new CodecBuffers();
+        }
+        buffers.inUse = true;
+        return buffers;
+    }
+
+    private void release() {
+
+        reader.reset(null);
+        builder.length = 0;
+        if (builder.chars.length > MAX_RETAINED_CHARS) {
+            builder.chars = new char[INITIAL_CHARS];
+        }
+        inUse = false;
+    }
+
+    /**
+     * Unsynchronized reader of a string, which unlike {@link java.io.StringReader} can be reused for the next string.
+     */
+    private static final class StringSourceReader extends Reader {
+
+        private String source;
+        private int length;
+        private int next;
+        private int mark;
+
+        private void reset(String source) {
+
+            this.source = source;
+            this.length = source == null ? 0 : source.length();
+            this.next = 0;
+            this.mark = 0;
+        }
+
+        @Override
+        public int read() {
+
+            return next < length ? source.charAt(next++) : -1;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int count) {
+
+            if (count == 0) {
+                return 0;
+            }
+            if (next >= length) {
+                return -1;
+            }
+            int read = Math.min(length - next, count);
+            source.getChars(next, next + read, buffer, offset);
+            next += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long count) {
+
+            long skipped = Math.max(0, Math.min(length - next, count));
+            next += (int) skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean ready() {
+
+            return true;
+        }
+
+        @Override
+        public boolean markSupported() {
+
+            return true;
+        }
+
+        @Override
+        public void mark(int readAheadLimit) {
+
+            mark = next;
+        }
+
+        @Override
+        public void reset() {
+
+            next = mark;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+
+    /**
+     * Unsynchronized writer into a growable character array, which unlike {@link java.io.CharArrayWriter} exposes the
+     * array it writes to.
+     */
+    private static final class CharArrayBuilder extends Writer {
+
+        private char[] chars = new char[INITIAL_CHARS];
+        private int length;
+
+        @Override
+        public void write(int c) {
+
+            ensureCapacity(1);
+            chars[length++] = (char) c;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int count) {
+
+            ensureCapacity(count);
+            System.arraycopy(buffer, offset, chars, length, count);
+            length += count;
+        }
+
+        @Override
+        public void write(String string, int offset, int count) {
+
+            ensureCapacity(count);
+            string.getChars(offset, offset + count, chars, length);
+            length += count;
+        }
+
+        @Override
+        public Writer append(CharSequence sequence) {
+
+            String string = String.valueOf(sequence);
+            write(string, 0, string.length());
+            return this;
+        }
+
+        @Override
+        public void flush() {
+
+        }
+
+        @Override
+        public void close() {
+
+        }
+
+        private void ensureCapacity(int count) {
+
+            if (length + count > chars.length) {
+                char[] grown = new char[Math.max(chars.length * 2, length + count)];
+                System.arraycopy(chars, 0, grown, 0, length);
+                chars = grown;
+            }
+        }
+    }
+}
@@ -18,14 +18,15 @@ package org.wso2.charon3.core.encoder;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONTokener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.AttributeMap;
 import org.wso2.charon3.core.attributes.ComplexAttribute;
 import org.wso2.charon3.core.attributes.DefaultAttributeFactory;
 import org.wso2.charon3.core.attributes.MultiValuedAttribute;
 import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.config.CharonConfiguration;
 import org.wso2.charon3.core.exceptions.AbstractCharonException;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
@@ -45,6 +46,7 @@ import org.wso2.charon3.core.schema.SCIMDefinitions;
 import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.utils.AttributeUtil;
+import org.wso2.charon3.core.utils.ValuePool;
 import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
 import org.wso2.charon3.core.utils.codeutils.Node;
 import org.wso2.charon3.core.utils.codeutils.PatchOperation;
@@ -52,7 +54,6 @@ import org.wso2.charon3.core.utils.codeutils.SearchRequest;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -68,6 +69,10 @@ import static org.wso2.charon3.core.schema.SCIMDefinitions.DataType.STRING;
 /**
  * This decodes the json encoded resource string and create a SCIM object model according to the specification
  * according to the info that the user has sent, and returns SCIMUser object.
+ * <p>
+ * A decoder holds no state of its own, hence a single instance can be shared by all the request threads, as
+ * {@link org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager#getDecoder()} does. Payloads are read
+ * through per thread buffers, see {@link CodecBuffers}.
  */
 
 public class JSONDecoder {
@@ -98,7 +103,7 @@ public class JSONDecoder {
 
         JSONObject decodedJsonObj;
         try {
-            decodedJsonObj = new JSONObject(new JSONTokener(scimResourceString));
+            decodedJsonObj = CodecBuffers.parse(scimResourceString);
         } catch (JSONException e) {
             logger.error("json error in decoding the resource", e);
             throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
@@ -157,7 +162,7 @@ public class JSONDecoder {
 
         JSONObject decodedJsonObj;
         try {
-            decodedJsonObj = new JSONObject(new JSONTokener(scimErrorString));
+            decodedJsonObj = CodecBuffers.parse(scimErrorString);
         } catch (JSONException e) {
             logger.error("json error in decoding the resource", e);
             throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
@@ -276,7 +281,7 @@ public class JSONDecoder {
             throws BadRequestException, CharonException, InternalErrorException {
         try {
             //decode the string into json representation
-            JSONObject decodedJsonObj = new JSONObject(new JSONTokener(scimResourceString));
+            JSONObject decodedJsonObj = CodecBuffers.parse(scimResourceString);
             //get the attribute schemas list from the schema that defines the given resource
             List<AttributeSchema> attributeSchemas = resourceSchema.getAttributesList();
 
@@ -395,13 +400,26 @@ public class JSONDecoder {
      */
     public SimpleAttribute buildSimpleAttribute(AttributeSchema attributeSchema,
                                                 Object attributeValue) throws CharonException, BadRequestException {
-        Object attributeValueObject = AttributeUtil.getAttributeValueFromString(
-                attributeValue, attributeSchema.getType());
+        Object attributeValueObject = poolValue(attributeSchema, AttributeUtil.getAttributeValueFromString(
+                attributeValue, attributeSchema.getType()));
         SimpleAttribute simpleAttribute = new SimpleAttribute(attributeSchema.getName(), attributeValueObject);
         return (SimpleAttribute) DefaultAttributeFactory.createAttribute(attributeSchema,
                 simpleAttribute);
     }
 
+    /*
+     * Return the pooled instance of a value of a low cardinality attribute, if a value pool is configured, so that
+     * resources kept in memory share the values that repeat across them.
+     *
+     * @param attributeSchema - Attribute schema
+     * @param attributeValue  - decoded value of the attribute
+     * @return Object
+     */
+    private static Object poolValue(AttributeSchema attributeSchema, Object attributeValue) {
+        ValuePool valuePool = CharonConfiguration.getInstance().getValuePool();
+        return valuePool == null ? attributeValue : valuePool.intern(attributeSchema, attributeValue);
+    }
+
     /*
      * Return complex type multi valued attribute with the user defined
      * value included and necessary attribute characteristics set
@@ -483,7 +501,7 @@ public class JSONDecoder {
                     if (attributeValue == null) {
                         continue;
                     }
-                    primitiveValues.add(attributeValue);
+                    primitiveValues.add(poolValue(attributeSchema, attributeValue));
                 } else {
                     String error = "Unknown JSON representation for the MultiValued attribute " +
                             attributeSchema.getName() + " which has data type as " + attributeSchema.getType();
@@ -512,7 +530,8 @@ public class JSONDecoder {
                                                   JSONObject jsonObject)
             throws BadRequestException, CharonException, InternalErrorException, JSONException {
         ComplexAttribute complexAttribute = new ComplexAttribute(complexAttributeSchema.getName());
-        Map<String, Attribute> subAttributesMap = new HashMap<String, Attribute>();
+        Map<String, Attribute> subAttributesMap =
+                AttributeMap.newAttributeMap(complexAttributeSchema.getSubAttributeLayout());
         //list of sub attributes of the complex attribute
         List<AttributeSchema> subAttributeSchemas =
                 ((AttributeSchema) complexAttributeSchema).getSubAttributeSchemas();
@@ -649,7 +668,7 @@ public class JSONDecoder {
                                                JSONObject jsonObject) throws CharonException, BadRequestException {
 
         ComplexAttribute complexAttribute = new ComplexAttribute(attributeSchema.getName());
-        Map<String, Attribute> subAttributesMap = new HashMap<String, Attribute>();
+        Map<String, Attribute> subAttributesMap = AttributeMap.newAttributeMap(attributeSchema.getSubAttributeLayout());
         List<AttributeSchema> subAttributeSchemas =
                 ((AttributeSchema) attributeSchema).getSubAttributeSchemas();
 
@@ -731,7 +750,7 @@ public class JSONDecoder {
         ArrayList<PatchOperation> operationList = new ArrayList<PatchOperation>();
         try {
             //decode the string into json representation
-            JSONObject decodedJsonObj = new JSONObject(new JSONTokener(scimResourceString));
+            JSONObject decodedJsonObj = CodecBuffers.parse(scimResourceString);
             //obtain the Operations values
             JSONArray operationJsonList = (JSONArray) decodedJsonObj.opt(SCIMConstants.OperationalConstants.OPERATIONS);
             //for each operation, create a PatchOperation object and add the relevant values to it
@@ -766,7 +785,7 @@ public class JSONDecoder {
     public AbstractSCIMObject decode(String scimResourceString, SCIMResourceTypeSchema schema)
             throws CharonException, BadRequestException {
         try {
-            JSONObject decodedJsonObj = new JSONObject(new JSONTokener(scimResourceString));
+            JSONObject decodedJsonObj = CodecBuffers.parse(scimResourceString);
             AbstractSCIMObject scimObject = null;
             if (schema.getSchemasList().contains(SCIMConstants.GROUP_CORE_SCHEMA_URI)) {
                 scimObject = (AbstractSCIMObject) decodeResource(decodedJsonObj.toString(), schema, new Group());
@@ -795,7 +814,7 @@ public class JSONDecoder {
 
         //decode the string and create search object
         try {
-            JSONObject decodedJsonObj = new JSONObject(new JSONTokener(scimResourceString));
+            JSONObject decodedJsonObj = CodecBuffers.parse(scimResourceString);
             SearchRequest searchRequest = new SearchRequest();
             ArrayList<String> attributes = new ArrayList<>();
             ArrayList<String> excludedAttributes = new ArrayList<>();
@@ -864,7 +883,7 @@ public class JSONDecoder {
 
         JSONObject decodedObject;
         try {
-            decodedObject = new JSONObject(new JSONTokener(bulkResourceString));
+            decodedObject = CodecBuffers.parse(bulkResourceString);
 
             //prepare the schema list
             JSONArray membersAttributeSchemas = (JSONArray) decodedObject.opt(
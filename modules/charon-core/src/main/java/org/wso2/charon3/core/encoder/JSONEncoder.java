@@ -39,6 +39,7 @@ import org.wso2.charon3.core.schema.SCIMDefinitions;
 import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.utils.AttributeUtil;
 
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -59,11 +60,16 @@ import static org.wso2.charon3.core.schema.SCIMConstants.UserSchemaConstants.NAM
 
 /**
  * This encodes the in the json format.
+ * <p>
+ * An encoder holds no state of its own, hence a single instance can be shared by all the request threads, as
+ * {@link org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager#getEncoder()} does. Payloads are written
+ * through per thread buffers, see {@link CodecBuffers}. The encoded strings and buffers returned belong to the
+ * caller and are never reused by the encoder.
  */
 
 public class JSONEncoder {
 
-    private String format;
+    private final String format;
     private static final Logger logger = LoggerFactory.getLogger(JSONEncoder.class);
 
     public JSONEncoder() {
@@ -84,7 +90,30 @@ public class JSONEncoder {
         //root json object containing the encoded SCIM Object.
         JSONObject rootObject;
         rootObject = this.getSCIMObjectAsJSONObject(scimObject);
-        return rootObject.toString();
+        try {
+            return CodecBuffers.write(rootObject);
+        } catch (JSONException e) {
+            throw new CharonException("Error while encoding the SCIM object.", e);
+        }
+    }
+
+    /**
+     * Encodes the given SCIM object straight into UTF-8, without building the string form of the whole object.
+     * Meant for large responses such as listed resources, see
+     * {@link org.wso2.charon3.core.protocol.SCIMResponse#withUTF8Body(int, ByteBuffer, Map)}.
+     *
+     * @param scimObject SCIM object to encode
+     * @return UTF-8 encoded JSON object, backed by an array of the exact size of the encoded object
+     * @throws CharonException if the object can not be encoded
+     */
+    public ByteBuffer encodeSCIMObjectAsUTF8(SCIMObject scimObject) throws CharonException {
+
+        JSONObject rootObject = this.getSCIMObjectAsJSONObject(scimObject);
+        try {
+            return CodecBuffers.writeUTF8(rootObject);
+        } catch (JSONException e) {
+            throw new CharonException("Error while encoding the SCIM object.", e);
+        }
     }
 
     /*
@@ -573,7 +602,7 @@ public class JSONEncoder {
             this.encodeArrayOfValues(SCIMConstants.OperationalConstants.OPERATIONS,
                     operationResponseList.toArray(), rootObject);
 
-            encodedString = rootObject.toString();
+            encodedString = CodecBuffers.write(rootObject);
 
         } catch (JSONException e) {
             throw new InternalErrorException("Error in encoding the response");
@@ -610,7 +639,3 @@ public class JSONEncoder {
 
     }
 }
-
-
-
-
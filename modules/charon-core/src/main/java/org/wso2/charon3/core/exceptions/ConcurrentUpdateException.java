@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.exceptions;
+
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+
+/**
+ * Thrown by a user manager when a resource can not be updated because it was modified after the version the update
+ * is based on was read. The update carries that version in its {@code meta.version}.
+ * <p>
+ * Resource managers retry an unconditional update on the current resource, and answer a conditional one with
+ * 412 (Precondition Failed), which is also the status of this exception when it reaches the client.
+ */
+public class ConcurrentUpdateException extends CharonException {
+
+    public ConcurrentUpdateException() {
+        this(ResponseCodeConstants.DESC_PRECONDITION_FAILED);
+    }
+
+    public ConcurrentUpdateException(String detail) {
+        super(detail);
+        this.status = ResponseCodeConstants.CODE_PRECONDITION_FAILED;
+    }
+}
@@ -28,6 +28,10 @@ public class ConflictException extends AbstractCharonException {
     }
 
     public ConflictException(String detail) {
-        super(ResponseCodeConstants.CODE_CONFLICT, detail, null);
+        this(detail, null);
+    }
+
+    public ConflictException(String detail, String scimType) {
+        super(ResponseCodeConstants.CODE_CONFLICT, detail, scimType);
     }
 }
@@ -26,4 +26,8 @@ public class PreConditionFailedException extends AbstractCharonException {
     public PreConditionFailedException() {
         super(ResponseCodeConstants.CODE_PRECONDITION_FAILED, ResponseCodeConstants.DESC_PRECONDITION_FAILED, null);
     }
+
+    public PreConditionFailedException(String message) {
+        super(ResponseCodeConstants.CODE_PRECONDITION_FAILED, message, null);
+    }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.extensions;
+
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.objects.AttributeChangeSet;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.utils.codeutils.Node;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.SearchRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking variant of {@link UserManager}, for user stores which are remote services.
+ * <p>
+ * Each operation returns as soon as the request to the user store is on its way, and completes the returned stage
+ * with what the corresponding {@link UserManager} method returns. A failure completes the stage exceptionally with
+ * the exception the {@link UserManager} method would throw, e.g. a {@link
+ * org.wso2.charon3.core.exceptions.NotFoundException}, which is then turned into the matching SCIM error response.
+ * The stages may be completed on any thread, such as an I/O thread of the user store client.
+ * <p>
+ * The schema extension methods are not per request data, hence they stay synchronous and are expected to return
+ * without waiting on the user store.
+ * <p>
+ * {@link ExecutorAsyncUserManager} runs a blocking {@link UserManager} as an {@link AsyncUserManager}, and
+ * {@link BlockingUserManager} runs an {@link AsyncUserManager} where a {@link UserManager} is expected.
+ */
+public interface AsyncUserManager {
+
+    CompletionStage<User> createUser(User user, Map<String, Boolean> requiredAttributes);
+
+    CompletionStage<User> getUser(String id, Map<String, Boolean> requiredAttributes);
+
+    CompletionStage<Void> deleteUser(String userId);
+
+    /**
+     * Lists the users matching the given filter.
+     *
+     * @param node               Filter, null to list all the users
+     * @param startIndex         Start index
+     * @param count              Count
+     * @param sortBy             Sort by
+     * @param sortOrder          Sort order
+     * @param domainName         Domain to list the users of
+     * @param requiredAttributes Attributes to return
+     * @return stage completed with the total number of results followed by the users, as
+     * {@link UserManager#listUsersWithGET(Node, Integer, Integer, String, String, String, Map)} returns them, or
+     * failed with {@link NotImplementedException} if the user store can not list users
+     */
+    default CompletionStage<List<Object>> listUsersWithGET(Node node, Integer startIndex, Integer count,
+            String sortBy, String sortOrder, String domainName, Map<String, Boolean> requiredAttributes) {
+
+        return notImplemented();
+    }
+
+    CompletionStage<List<Object>> listUsersWithPost(SearchRequest searchRequest,
+            Map<String, Boolean> requiredAttributes);
+
+    CompletionStage<User> updateUser(User updatedUser, Map<String, Boolean> requiredAttributes);
+
+    /**
+     * Replaces the given user, also handing over the attributes the update changes. See
+     * {@link UserManager#updateUserDelta(User, AttributeChangeSet, Map, List)}.
+     *
+     * @param updatedUser                    Updated user
+     * @param changes                        Attributes the update changes, may be null
+     * @param requiredAttributes             Attributes to return
+     * @param allSimpleMultiValuedAttributes Simple multi-valued attributes of the schema
+     * @return stage completed with the updated user
+     */
+    default CompletionStage<User> updateUserDelta(User updatedUser, AttributeChangeSet changes,
+            Map<String, Boolean> requiredAttributes, List<String> allSimpleMultiValuedAttributes) {
+
+        return updateUser(updatedUser, requiredAttributes);
+    }
+
+    /**
+     * Applies the given PATCH operations to the user without a prior read. See
+     * {@link UserManager#patchUser(String, Map, Map)}.
+     *
+     * @param userId             Id of the user
+     * @param patchOperations    Operations grouped by ADD, REMOVE and REPLACE
+     * @param requiredAttributes Attributes to return
+     * @return stage completed with the patched user, or failed with {@link NotImplementedException} if PATCH
+     * operations are not applied by the user store
+     */
+    default CompletionStage<User> patchUser(String userId, Map<String, List<PatchOperation>> patchOperations,
+            Map<String, Boolean> requiredAttributes) {
+
+        return notImplemented();
+    }
+
+    /**
+     * See {@link UserManager#isPatchUserSupported()}.
+     *
+     * @return true if this user manager implements patchUser
+     */
+    default boolean isPatchUserSupported() {
+
+        return false;
+    }
+
+    CompletionStage<User> getMe(String userName, Map<String, Boolean> requiredAttributes);
+
+    CompletionStage<User> createMe(User user, Map<String, Boolean> requiredAttributes);
+
+    CompletionStage<Void> deleteMe(String userName);
+
+    CompletionStage<User> updateMe(User updatedUser, Map<String, Boolean> requiredAttributes);
+
+    /* ****************Group manipulation operations.********************/
+
+    CompletionStage<Group> createGroup(Group group, Map<String, Boolean> requiredAttributes);
+
+    CompletionStage<Group> getGroup(String id, Map<String, Boolean> requiredAttributes);
+
+    CompletionStage<Void> deleteGroup(String id);
+
+    /**
+     * Lists the groups matching the given filter.
+     *
+     * @param node               Filter, null to list all the groups
+     * @param startIndex         Start index
+     * @param count              Count
+     * @param sortBy             Sort by
+     * @param sortOrder          Sort order
+     * @param domainName         Domain to list the groups of
+     * @param requiredAttributes Attributes to return
+     * @return stage completed with the total number of results followed by the groups, or failed with
+     * {@link NotImplementedException} if the user store can not list groups
+     */
+    default CompletionStage<List<Object>> listGroupsWithGET(Node node, Integer startIndex, Integer count,
+            String sortBy, String sortOrder, String domainName, Map<String, Boolean> requiredAttributes) {
+
+        return notImplemented();
+    }
+
+    CompletionStage<Group> updateGroup(Group oldGroup, Group newGroup, Map<String, Boolean> requiredAttributes);
+
+    /**
+     * Updates the group without returning it. See {@link UserManager#updateGroup(Group, Group)}.
+     *
+     * @param oldGroup Group before the update
+     * @param newGroup Group after the update
+     * @return stage completed once the group is updated
+     */
+    default CompletionStage<Void> updateGroup(Group oldGroup, Group newGroup) {
+
+        return notImplemented();
+    }
+
+    /**
+     * Applies the given PATCH operations to the group. See {@link UserManager#patchGroup(String, String, Map, Map)}.
+     *
+     * @param groupId            Id of the group
+     * @param currentGroupName   Current display name of the group
+     * @param patchOperations    Operations grouped by ADD, REMOVE and REPLACE
+     * @param requiredAttributes Attributes to return
+     * @return stage completed with the patched group
+     */
+    default CompletionStage<Group> patchGroup(String groupId, String currentGroupName,
+            Map<String, List<PatchOperation>> patchOperations, Map<String, Boolean> requiredAttributes) {
+
+        return notImplemented();
+    }
+
+    CompletionStage<List<Object>> listGroupsWithPost(SearchRequest searchRequest,
+            Map<String, Boolean> requiredAttributes);
+
+    /* ****************Schema extensions.********************/
+
+    default List<Attribute> getUserSchema() throws CharonException, NotImplementedException, BadRequestException {
+
+        throw new NotImplementedException();
+    }
+
+    default List<Attribute> getEnterpriseUserSchema() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        throw new NotImplementedException();
+    }
+
+    default AttributeSchema getCustomUserSchemaExtension() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return null;
+    }
+
+    default List<Attribute> getCustomUserSchemaAttributes() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return null;
+    }
+
+    /**
+     * @param <T> type of the result of the operation
+     * @return stage failed with {@link NotImplementedException}, for the operations a user store does not support
+     */
+    static <T> CompletionStage<T> notImplemented() {
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(new NotImplementedException());
+        return result;
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.extensions;
+
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConflictException;
+import org.wso2.charon3.core.exceptions.NotFoundException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.objects.AttributeChangeSet;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.utils.codeutils.Node;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.SearchRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Runs an {@link AsyncUserManager} where a {@link UserManager} is expected, by waiting for each operation to
+ * complete. The exceptions an operation completes with are rethrown as they are when the {@link UserManager} method
+ * declares them or they are unchecked, and wrapped in a {@link CharonException} otherwise.
+ * <p>
+ * Waiting pins the calling thread for the whole user store call, hence this is meant for the operations which have
+ * no non-blocking implementation, run on an executor other than the HTTP worker threads.
+ */
+public class BlockingUserManager implements UserManager {
+
+    private final AsyncUserManager asyncUserManager;
+
+    public BlockingUserManager(AsyncUserManager asyncUserManager) {
+
+        this.asyncUserManager = asyncUserManager;
+    }
+
+    /**
+     * @return user manager the operations are delegated to
+     */
+    public AsyncUserManager getAsyncUserManager() {
+
+        return asyncUserManager;
+    }
+
+    @Override
+    public User createUser(User user, Map<String, Boolean> requiredAttributes)
+            throws CharonException, ConflictException, BadRequestException {
+
+        return join(asyncUserManager.createUser(user, requiredAttributes), ConflictException.class,
+                BadRequestException.class, BadRequestException.class);
+    }
+
+    @Override
+    public User getUser(String id, Map<String, Boolean> requiredAttributes)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        return join(asyncUserManager.getUser(id, requiredAttributes), BadRequestException.class,
+                NotFoundException.class, NotFoundException.class);
+    }
+
+    @Override
+    public void deleteUser(String userId)
+            throws NotFoundException, CharonException, NotImplementedException, BadRequestException {
+
+        join(asyncUserManager.deleteUser(userId), NotFoundException.class, NotImplementedException.class,
+                BadRequestException.class);
+    }
+
+    @Override
+    public List<Object> listUsersWithGET(Node node, Integer startIndex, Integer count, String sortBy,
+            String sortOrder, String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return join(asyncUserManager.listUsersWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                requiredAttributes), NotImplementedException.class, BadRequestException.class,
+                BadRequestException.class);
+    }
+
+    @Override
+    public List<Object> listUsersWithGET(Node node, int startIndex, int count, String sortBy, String sortOrder,
+            String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return listUsersWithGET(node, Integer.valueOf(startIndex), Integer.valueOf(count), sortBy, sortOrder,
+                domainName, requiredAttributes);
+    }
+
+    @Override
+    public List<Object> listUsersWithPost(SearchRequest searchRequest, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return join(asyncUserManager.listUsersWithPost(searchRequest, requiredAttributes),
+                NotImplementedException.class, BadRequestException.class, BadRequestException.class);
+    }
+
+    @Override
+    public User updateUser(User updatedUser, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException {
+
+        return join(asyncUserManager.updateUser(updatedUser, requiredAttributes), NotImplementedException.class,
+                BadRequestException.class, NotFoundException.class);
+    }
+
+    @Override
+    public User updateUserDelta(User updatedUser, AttributeChangeSet changes, Map<String, Boolean> requiredAttributes,
+            List<String> allSimpleMultiValuedAttributes)
+            throws CharonException, BadRequestException, NotFoundException, NotImplementedException {
+
+        return join(asyncUserManager.updateUserDelta(updatedUser, changes, requiredAttributes,
+                allSimpleMultiValuedAttributes), BadRequestException.class, NotFoundException.class,
+                NotImplementedException.class);
+    }
+
+    @Override
+    public User patchUser(String userId, Map<String, List<PatchOperation>> patchOperations,
+            Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        return join(asyncUserManager.patchUser(userId, patchOperations, requiredAttributes),
+                NotImplementedException.class, BadRequestException.class, NotFoundException.class);
+    }
+
+    @Override
+    public boolean isPatchUserSupported() {
+
+        return asyncUserManager.isPatchUserSupported();
+    }
+
+    @Override
+    public User getMe(String userName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        return join(asyncUserManager.getMe(userName, requiredAttributes), BadRequestException.class,
+                NotFoundException.class, NotFoundException.class);
+    }
+
+    @Override
+    public User createMe(User user, Map<String, Boolean> requiredAttributes)
+            throws CharonException, ConflictException, BadRequestException {
+
+        return join(asyncUserManager.createMe(user, requiredAttributes), ConflictException.class,
+                BadRequestException.class, BadRequestException.class);
+    }
+
+    @Override
+    public void deleteMe(String userName)
+            throws NotFoundException, CharonException, NotImplementedException, BadRequestException {
+
+        join(asyncUserManager.deleteMe(userName), NotFoundException.class, NotImplementedException.class,
+                BadRequestException.class);
+    }
+
+    @Override
+    public User updateMe(User updatedUser, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException {
+
+        return join(asyncUserManager.updateMe(updatedUser, requiredAttributes), NotImplementedException.class,
+                BadRequestException.class, NotFoundException.class);
+    }
+
+    @Override
+    public Group createGroup(Group group, Map<String, Boolean> requiredAttributes)
+            throws CharonException, ConflictException, NotImplementedException, BadRequestException {
+
+        return join(asyncUserManager.createGroup(group, requiredAttributes), ConflictException.class,
+                NotImplementedException.class, BadRequestException.class);
+    }
+
+    @Override
+    public Group getGroup(String id, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        return join(asyncUserManager.getGroup(id, requiredAttributes), NotImplementedException.class,
+                BadRequestException.class, NotFoundException.class);
+    }
+
+    @Override
+    public void deleteGroup(String id)
+            throws NotFoundException, CharonException, NotImplementedException, BadRequestException {
+
+        join(asyncUserManager.deleteGroup(id), NotFoundException.class, NotImplementedException.class,
+                BadRequestException.class);
+    }
+
+    @Override
+    public List<Object> listGroupsWithGET(Node node, Integer startIndex, Integer count, String sortBy,
+            String sortOrder, String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return join(asyncUserManager.listGroupsWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                requiredAttributes), NotImplementedException.class, BadRequestException.class,
+                BadRequestException.class);
+    }
+
+    @Override
+    public List<Object> listGroupsWithGET(Node node, int startIndex, int count, String sortBy, String sortOrder,
+            String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return listGroupsWithGET(node, Integer.valueOf(startIndex), Integer.valueOf(count), sortBy, sortOrder,
+                domainName, requiredAttributes);
+    }
+
+    @Override
+    public Group updateGroup(Group oldGroup, Group newGroup, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        return join(asyncUserManager.updateGroup(oldGroup, newGroup, requiredAttributes),
+                NotImplementedException.class, BadRequestException.class, NotFoundException.class);
+    }
+
+    @Override
+    public void updateGroup(Group oldGroup, Group newGroup)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        join(asyncUserManager.updateGroup(oldGroup, newGroup), NotImplementedException.class,
+                BadRequestException.class, NotFoundException.class);
+    }
+
+    @Override
+    public Group patchGroup(String groupId, String currentGroupName,
+            Map<String, List<PatchOperation>> patchOperations, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        return join(asyncUserManager.patchGroup(groupId, currentGroupName, patchOperations, requiredAttributes),
+                NotImplementedException.class, BadRequestException.class, NotFoundException.class);
+    }
+
+    @Override
+    public List<Object> listGroupsWithPost(SearchRequest searchRequest, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException {
+
+        return join(asyncUserManager.listGroupsWithPost(searchRequest, requiredAttributes),
+                NotImplementedException.class, BadRequestException.class, BadRequestException.class);
+    }
+
+    @Override
+    public List<Attribute> getUserSchema() throws CharonException, NotImplementedException, BadRequestException {
+
+        return asyncUserManager.getUserSchema();
+    }
+
+    @Override
+    public List<Attribute> getEnterpriseUserSchema() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return asyncUserManager.getEnterpriseUserSchema();
+    }
+
+    @Override
+    public AttributeSchema getCustomUserSchemaExtension() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return asyncUserManager.getCustomUserSchemaExtension();
+    }
+
+    @Override
+    public List<Attribute> getCustomUserSchemaAttributes() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return asyncUserManager.getCustomUserSchemaAttributes();
+    }
+
+    /**
+     * Waits for the given operation to complete.
+     *
+     * @param stage operation of the user manager
+     * @param e1    first exception type the blocking method declares, besides {@link CharonException}
+     * @param e2    second exception type the blocking method declares, may repeat e1
+     * @param e3    third exception type the blocking method declares, may repeat e2
+     * @return result of the operation
+     * @throws CharonException if the operation failed with an undeclared checked exception, or the thread was
+     *                         interrupted
+     */
+    private static <T, E1 extends AbstractCharonException, E2 extends AbstractCharonException,
+            E3 extends AbstractCharonException> T join(CompletionStage<T> stage, Class<E1> e1, Class<E2> e2,
+            Class<E3> e3) throws CharonException, E1, E2, E3 {
+
+        if (stage == null) {
+            return null;
+        }
+        try {
+            return stage.toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CharonException("Interrupted while waiting for the user manager.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e.getCause());
+            if (cause instanceof CharonException) {
+                throw (CharonException) cause;
+            }
+            if (e1.isInstance(cause)) {
+                throw e1.cast(cause);
+            }
+            if (e2.isInstance(cause)) {
+                throw e2.cast(cause);
+            }
+            if (e3.isInstance(cause)) {
+                throw e3.cast(cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CharonException("Error in the user manager.", cause);
+        }
+    }
+
+    /**
+     * @param failure exception an operation completed with
+     * @return the exception thrown by the user manager, without the {@link CompletionException}s wrapping it
+     */
+    public static Throwable unwrap(Throwable failure) {
+
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
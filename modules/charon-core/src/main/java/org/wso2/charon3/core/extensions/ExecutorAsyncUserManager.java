@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.extensions;
+
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.objects.AttributeChangeSet;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.utils.codeutils.Node;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.SearchRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs a blocking {@link UserManager} as an {@link AsyncUserManager}, by calling each operation on the given
+ * executor. The HTTP worker threads are then released while the user store is called, and the size of the executor
+ * bounds the number of concurrent user store calls.
+ * <p>
+ * When the executor rejects an operation, the returned stage fails with a {@link CharonException}. User managers
+ * which only implement the deprecated listing methods taking int pagination parameters are listed through those,
+ * as the synchronous endpoints used to.
+ */
+public class ExecutorAsyncUserManager implements AsyncUserManager {
+
+    private final UserManager userManager;
+    private final Executor executor;
+
+    public ExecutorAsyncUserManager(UserManager userManager, Executor executor) {
+
+        this.userManager = userManager;
+        this.executor = executor;
+    }
+
+    /**
+     * @return user manager the operations are delegated to
+     */
+    public UserManager getUserManager() {
+
+        return userManager;
+    }
+
+    @Override
+    public CompletionStage<User> createUser(User user, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.createUser(user, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<User> getUser(String id, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.getUser(id, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<Void> deleteUser(String userId) {
+
+        return supply(() -> {
+            userManager.deleteUser(userId);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletionStage<List<Object>> listUsersWithGET(Node node, Integer startIndex, Integer count,
+            String sortBy, String sortOrder, String domainName, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> {
+            List<Object> users = userManager.listUsersWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                    requiredAttributes);
+            if (users == null) {
+                // The default of the Integer overload, the user manager may only implement the int one.
+                users = userManager.listUsersWithGET(node, intValue(startIndex, 1), intValue(count, 0), sortBy,
+                        sortOrder, domainName, requiredAttributes);
+            }
+            return users;
+        });
+    }
+
+    @Override
+    public CompletionStage<List<Object>> listUsersWithPost(SearchRequest searchRequest,
+            Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.listUsersWithPost(searchRequest, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<User> updateUser(User updatedUser, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.updateUser(updatedUser, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<User> updateUserDelta(User updatedUser, AttributeChangeSet changes,
+            Map<String, Boolean> requiredAttributes, List<String> allSimpleMultiValuedAttributes) {
+
+        return supply(() -> userManager.updateUserDelta(updatedUser, changes, requiredAttributes,
+                allSimpleMultiValuedAttributes));
+    }
+
+    @Override
+    public CompletionStage<User> patchUser(String userId, Map<String, List<PatchOperation>> patchOperations,
+            Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.patchUser(userId, patchOperations, requiredAttributes));
+    }
+
+    @Override
+    public boolean isPatchUserSupported() {
+
+        return userManager.isPatchUserSupported();
+    }
+
+    @Override
+    public CompletionStage<User> getMe(String userName, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.getMe(userName, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<User> createMe(User user, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.createMe(user, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<Void> deleteMe(String userName) {
+
+        return supply(() -> {
+            userManager.deleteMe(userName);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletionStage<User> updateMe(User updatedUser, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.updateMe(updatedUser, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<Group> createGroup(Group group, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.createGroup(group, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<Group> getGroup(String id, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.getGroup(id, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<Void> deleteGroup(String id) {
+
+        return supply(() -> {
+            userManager.deleteGroup(id);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletionStage<List<Object>> listGroupsWithGET(Node node, Integer startIndex, Integer count,
+            String sortBy, String sortOrder, String domainName, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> {
+            List<Object> groups = userManager.listGroupsWithGET(node, startIndex, count, sortBy, sortOrder,
+                    domainName, requiredAttributes);
+            if (groups == null) {
+                // The default of the Integer overload, the user manager may only implement the int one.
+                groups = userManager.listGroupsWithGET(node, intValue(startIndex, 1), intValue(count, 0), sortBy,
+                        sortOrder, domainName, requiredAttributes);
+            }
+            return groups;
+        });
+    }
+
+    @Override
+    public CompletionStage<Group> updateGroup(Group oldGroup, Group newGroup,
+            Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.updateGroup(oldGroup, newGroup, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<Void> updateGroup(Group oldGroup, Group newGroup) {
+
+        return supply(() -> {
+            userManager.updateGroup(oldGroup, newGroup);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletionStage<Group> patchGroup(String groupId, String currentGroupName,
+            Map<String, List<PatchOperation>> patchOperations, Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.patchGroup(groupId, currentGroupName, patchOperations, requiredAttributes));
+    }
+
+    @Override
+    public CompletionStage<List<Object>> listGroupsWithPost(SearchRequest searchRequest,
+            Map<String, Boolean> requiredAttributes) {
+
+        return supply(() -> userManager.listGroupsWithPost(searchRequest, requiredAttributes));
+    }
+
+    @Override
+    public List<Attribute> getUserSchema() throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.getUserSchema();
+    }
+
+    @Override
+    public List<Attribute> getEnterpriseUserSchema() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getEnterpriseUserSchema();
+    }
+
+    @Override
+    public AttributeSchema getCustomUserSchemaExtension() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getCustomUserSchemaExtension();
+    }
+
+    @Override
+    public List<Attribute> getCustomUserSchemaAttributes() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getCustomUserSchemaAttributes();
+    }
+
+    /**
+     * @return the given pagination parameter, or the value the int listing methods were called with when it was not
+     * given in the request
+     */
+    private static int intValue(Integer value, int defaultValue) {
+
+        return value == null ? defaultValue : value;
+    }
+
+    private <T> CompletionStage<T> supply(Operation<T> operation) {
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(operation.run());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new CharonException("No thread is available to call the user manager.", e));
+        }
+        return result;
+    }
+
+    /**
+     * Blocking call to the user manager.
+     *
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    private interface Operation<T> {
+
+        T run() throws AbstractCharonException;
+    }
+}
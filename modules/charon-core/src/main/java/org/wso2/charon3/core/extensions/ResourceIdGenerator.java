@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.extensions;
+
+/**
+ * Generates the ids of the resources created through the /Users, /Groups and /Me endpoints.
+ * <p>
+ * The generator in use is set with
+ * {@link org.wso2.charon3.core.config.CharonConfiguration#setResourceIdGenerator}. By default ids
+ * are time ordered UUIDs, see {@link TimeOrderedIdGenerator}, while {@link RandomIdGenerator} gives the random UUIDs
+ * ids used to be. Implementations are thread safe.
+ */
+public interface ResourceIdGenerator {
+
+    /**
+     * @param resourceType SCIM resource type of the new resource, User or Group, null for other resources
+     * @return id of the new resource
+     */
+    String generateId(String resourceType);
+}
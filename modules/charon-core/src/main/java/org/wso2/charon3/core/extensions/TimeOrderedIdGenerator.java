@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.extensions;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time ordered (version 7) UUIDs as defined by RFC 9562, so that resources created one after another get
+ * ids which sort the same way and are inserted next to each other in the indexes of a user store.
+ * <p>
+ * The 48 bit millisecond timestamp is followed by a 12 bit counter in place of {@code rand_a}, which makes the ids
+ * monotonic across all the threads of the generator even within a millisecond. More than 4096 ids in a millisecond
+ * borrow from the next millisecond, and a clock which goes back is not followed, so ids never repeat or go
+ * backwards. The remaining 62 bits are random, taken from {@link ThreadLocalRandom}. A new id takes a single atomic
+ * increment, or an atomic compare and set once per millisecond, instead of drawing from the secure random number
+ * generator all threads share. Hence the ids must not be relied on to be unguessable.
+ */
+public class TimeOrderedIdGenerator implements ResourceIdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    // Timestamp of the last id in its upper bits, followed by the counter.
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    @Override
+    public String generateId(String resourceType) {
+
+        return generateUUID().toString();
+    }
+
+    /**
+     * @return new time ordered UUID
+     */
+    public UUID generateUUID() {
+
+        long timestampAndCounter = nextTimestampAndCounter(System.currentTimeMillis());
+        long mostSignificantBits = ((timestampAndCounter >>> COUNTER_BITS) << 16) | VERSION |
+                (timestampAndCounter & COUNTER_MASK);
+        long leastSignificantBits = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /*
+     * Starts the counter from zero when the clock has moved past the last id, and counts on from the last id
+     * otherwise. Either way the result is a value the state took, hence each call gets a different one.
+     */
+    private long nextTimestampAndCounter(long timestamp) {
+
+        long first = timestamp << COUNTER_BITS;
+        long last = lastTimestampAndCounter.get();
+        if (last < first && lastTimestampAndCounter.compareAndSet(last, first)) {
+            return first;
+        }
+        return lastTimestampAndCounter.incrementAndGet();
+    }
+}
@@ -21,6 +21,7 @@ import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.ConflictException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.objects.AttributeChangeSet;
 import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.objects.User;
 import org.wso2.charon3.core.schema.AttributeSchema;
@@ -35,6 +36,12 @@ import java.util.Map;
  * This is the interface for usermanager extension.
  * An implementation can plugin their own user manager-(either LDAP based, DB based etc)
  * by implementing this interface and mentioning it in configuration.
+ * <p>
+ * Updated users and groups carry the {@code meta.version} of the resource the update was made on. A user manager which
+ * versions its resources can reject an update whose version is no longer the current one with a
+ * {@link org.wso2.charon3.core.exceptions.ConcurrentUpdateException}, instead of locking the resource for the whole
+ * request. The resource managers then make the update again on the current resource, unless the client made it
+ * conditional with If-Match.
  */
 public interface UserManager {
 
@@ -123,6 +130,80 @@ public interface UserManager {
                 "Updating simple multi-valued attributes independently from simple attributes is not supported");
     }
 
+    /**
+     * Update the user in user store given the attributes changed by the update, so that only those need to be
+     * written. By default the whole updated user is handed to
+     * {@link #updateUser(User, Map, List)}, or to {@link #updateUser(User, Map)} when that is not implemented or no
+     * simple multi-valued attributes are given.
+     *
+     * @param updatedUser                    Updated user.
+     * @param changes                        Attributes changed by the update, computed against the user read from
+     *                                       the user store. A PUT only reads the attributes needed to validate
+     *                                       the replacement, so the writable attributes it drops without giving
+     *                                       them are not listed as removed.
+     * @param requiredAttributes             URIs of required attributes which must be given a value.
+     * @param allSimpleMultiValuedAttributes Simple multi-valued attributes defined in SCIM schema, may be null.
+     * @return Updated user stored in the user store.
+     * @throws CharonException         Charon exception, a ConcurrentUpdateException when the user was updated
+     *                                 after the version the update is based on.
+     * @throws BadRequestException     Bad request exception.
+     * @throws NotFoundException       Not found exception.
+     * @throws NotImplementedException Functionality no implemented exception.
+     */
+    default User updateUserDelta(User updatedUser, AttributeChangeSet changes, Map<String, Boolean> requiredAttributes,
+                                 List<String> allSimpleMultiValuedAttributes)
+            throws CharonException, BadRequestException, NotFoundException, NotImplementedException {
+
+        if (allSimpleMultiValuedAttributes != null) {
+            try {
+                return updateUser(updatedUser, requiredAttributes, allSimpleMultiValuedAttributes);
+            } catch (NotImplementedException e) {
+                // Fall back to updating all the attributes together.
+            }
+        }
+        return updateUser(updatedUser, requiredAttributes);
+    }
+
+    /**
+     * Updates the user via PATCH, without the user being read first. Only called when {@link #isPatchUserSupported()}
+     * returns true, with operations which add, replace or remove the value of a writable singular simple attribute,
+     * whose paths and values have already been validated against the user schema, and only when the request has no
+     * If-Match precondition. Otherwise, or when this throws NotImplementedException, the user is read, patched and
+     * updated with {@link #updateUserDelta(User, AttributeChangeSet, Map, List)}.
+     * <p>
+     * Unlike the user given to updateUserDelta, the user returned by this method is not validated against the stored
+     * one: it is encoded in the response as it is, with its version as the ETag. The implementation therefore has to
+     * apply the operations to the stored user, update meta.lastModified and meta.version, add the schema URI of an
+     * extension to the schemas of the user when the first attribute of the extension is added, and return the user
+     * as stored after the update. NotImplementedException must be thrown without applying any of the operations.
+     *
+     * @param  userId                  ID of the user.
+     * @param  patchOperations         Patch operations keyed by operation name, each list in request order.
+     * @param  requiredAttributes      Attributes to be returned in the response.
+     * @return Updated user.
+     * @throws CharonException         Charon exception.
+     * @throws BadRequestException     Bad request exception.
+     * @throws NotFoundException       Not found exception.
+     * @throws NotImplementedException Functionality no implemented exception.
+     */
+    default User patchUser(String userId, Map<String, List<PatchOperation>> patchOperations,
+                           Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Tells whether {@link #patchUser(String, Map, Map)} is implemented. The PATCH operations are only grouped for
+     * patchUser when it is, otherwise the user is read, patched and updated right away.
+     *
+     * @return true if this user manager implements patchUser
+     */
+    default boolean isPatchUserSupported() {
+
+        return false;
+    }
+
     public User getMe(String userName, Map<String, Boolean> requiredAttributes)
             throws CharonException, BadRequestException, NotFoundException;
 
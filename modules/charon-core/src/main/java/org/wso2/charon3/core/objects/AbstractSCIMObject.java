@@ -16,6 +16,7 @@
 package org.wso2.charon3.core.objects;
 
 import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.AttributeMap;
 import org.wso2.charon3.core.attributes.ComplexAttribute;
 import org.wso2.charon3.core.attributes.DefaultAttributeFactory;
 import org.wso2.charon3.core.attributes.MultiValuedAttribute;
@@ -30,7 +31,6 @@ import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -44,7 +44,7 @@ public class AbstractSCIMObject extends ScimAttributeAware implements SCIMObject
 
     private static final long serialVersionUID = 6106269076155338045L;
     /**Collection of attributes which constitute this resource.*/
-    protected Map<String, Attribute> attributeList = new HashMap<String, Attribute>();
+    protected Map<String, Attribute> attributeList = AttributeMap.newAttributeMap(null);
 
     /**List of schemas where the attributes of this resource, are defined.*/
     protected List<String> schemaList = new ArrayList<String>();
@@ -56,6 +56,11 @@ public class AbstractSCIMObject extends ScimAttributeAware implements SCIMObject
      * @param resourceSchema
      */
     public void setAttribute(Attribute newAttribute, ResourceTypeSchema resourceSchema) {
+        //the first schema the resource is populated by assigns the slots of its attributes
+        if (resourceSchema != null && attributeList instanceof AttributeMap &&
+                ((AttributeMap) attributeList).getLayout() == null) {
+            ((AttributeMap) attributeList).setLayout(resourceSchema.getAttributeLayout());
+        }
         if (!isAttributeExist(newAttribute.getName())) {
             attributeList.put(newAttribute.getName(), newAttribute);
         }
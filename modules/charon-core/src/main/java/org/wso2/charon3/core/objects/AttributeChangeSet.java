@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.objects;
+
+import org.wso2.charon3.core.attributes.Attribute;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes made to the attributes of a SCIM resource by an update, by attribute URI.
+ * <p>
+ * Singular attributes are reported as added, replaced or removed. The sub attributes of a complex attribute which
+ * exists both before and after the update are reported on their own. Multi-valued attributes which exist both before
+ * and after the update are reported by the values added to and removed from them, which are the
+ * {@link org.wso2.charon3.core.attributes.ComplexAttribute}s of complex attributes and the plain values of primitive
+ * ones. Read only attributes are maintained by the service provider and are never part of a change set.
+ */
+public class AttributeChangeSet {
+
+    private final Map<String, Attribute> addedAttributes = new LinkedHashMap<>();
+    private final Map<String, Attribute> replacedAttributes = new LinkedHashMap<>();
+    private final Map<String, Attribute> removedAttributes = new LinkedHashMap<>();
+    private final Map<String, List<Object>> addedValues = new LinkedHashMap<>();
+    private final Map<String, List<Object>> removedValues = new LinkedHashMap<>();
+
+    /**
+     * @param attribute attribute which did not exist before the update
+     */
+    public void setAddedAttribute(Attribute attribute) {
+
+        addedAttributes.put(attribute.getURI(), attribute);
+    }
+
+    /**
+     * @param attribute new value of a singular attribute whose value changed
+     */
+    public void setReplacedAttribute(Attribute attribute) {
+
+        replacedAttributes.put(attribute.getURI(), attribute);
+    }
+
+    /**
+     * @param attribute previous value of an attribute which does not exist after the update
+     */
+    public void setRemovedAttribute(Attribute attribute) {
+
+        removedAttributes.put(attribute.getURI(), attribute);
+    }
+
+    /**
+     * @param attributeURI URI of a multi-valued attribute
+     * @param value        value added to the attribute
+     */
+    public void addAddedValue(String attributeURI, Object value) {
+
+        addedValues.computeIfAbsent(attributeURI, uri -> new ArrayList<>()).add(value);
+    }
+
+    /**
+     * @param attributeURI URI of a multi-valued attribute
+     * @param value        value removed from the attribute
+     */
+    public void addRemovedValue(String attributeURI, Object value) {
+
+        removedValues.computeIfAbsent(attributeURI, uri -> new ArrayList<>()).add(value);
+    }
+
+    public Map<String, Attribute> getAddedAttributes() {
+
+        return Collections.unmodifiableMap(addedAttributes);
+    }
+
+    public Map<String, Attribute> getReplacedAttributes() {
+
+        return Collections.unmodifiableMap(replacedAttributes);
+    }
+
+    public Map<String, Attribute> getRemovedAttributes() {
+
+        return Collections.unmodifiableMap(removedAttributes);
+    }
+
+    public Map<String, List<Object>> getAddedValues() {
+
+        return Collections.unmodifiableMap(addedValues);
+    }
+
+    public Map<String, List<Object>> getRemovedValues() {
+
+        return Collections.unmodifiableMap(removedValues);
+    }
+
+    /**
+     * @return true if the update did not change any attribute
+     */
+    public boolean isEmpty() {
+
+        return addedAttributes.isEmpty() && replacedAttributes.isEmpty() && removedAttributes.isEmpty() &&
+                addedValues.isEmpty() && removedValues.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+
+        return "AttributeChangeSet{added=" + addedAttributes.keySet() + ", replaced=" + replacedAttributes.keySet() +
+                ", removed=" + removedAttributes.keySet() + ", addedValues=" + addedValues.keySet() +
+                ", removedValues=" + removedValues.keySet() + "}";
+    }
+}
@@ -139,6 +139,30 @@ public abstract class ScimAttributeAware {
         getSetSubAttributeConsumer(meta).accept(locationDefinition, () -> resourceType);
     }
 
+    /**
+     * @return the version of the SCIM {@link #getResource()}
+     */
+    public String getVersion() {
+
+        SCIMAttributeSchema metaDefinition = SCIMSchemaDefinitions.META;
+        SCIMAttributeSchema versionDefinition = SCIMSchemaDefinitions.VERSION;
+        return getComplexAttribute(metaDefinition).map(meta -> getSimpleAttribute(versionDefinition, meta)
+                .map(rethrowFunction(SimpleAttribute::getStringValue)).orElse(null)).orElse(null);
+    }
+
+    /**
+     * sets or overrides the version attribute of the given {@link #getResource()} object
+     *
+     * @param version the version attribute to write
+     */
+    public void replaceVersion(String version) {
+
+        SCIMAttributeSchema metaDefinition = SCIMSchemaDefinitions.META;
+        SCIMAttributeSchema versionDefinition = SCIMSchemaDefinitions.VERSION;
+        ComplexAttribute meta = getOrCrateComplexAttribute(metaDefinition);
+        getSetSubAttributeConsumer(meta).accept(versionDefinition, () -> version);
+    }
+
     /**
      * @return the created timestamp as long of the SCIM {@link #getResource()} in UTC
      */
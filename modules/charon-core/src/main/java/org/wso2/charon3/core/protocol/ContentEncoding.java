@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content codings a SCIM response body can be sent with, see RFC 7231 section 3.1.2.
+ * <p>
+ * List and bulk responses repeat the same schema URIs and attribute names in every resource, so they compress
+ * well. A transport picks the coding with {@link SCIMResponse#negotiateContentEncoding(String)} and writes the body
+ * with {@link SCIMResponse#writeTo(OutputStream, ContentEncoding)}, which compresses the body while it is written
+ * to the transport instead of building a compressed copy of it first.
+ */
+public enum ContentEncoding {
+
+    GZIP("gzip"),
+    DEFLATE("deflate"),
+    IDENTITY("identity");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String name;
+
+    ContentEncoding(String name) {
+
+        this.name = name;
+    }
+
+    /**
+     * @return name of the coding, as used in the Content-Encoding header
+     */
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * Picks the coding preferred by the given Accept-Encoding header. Gzip wins a tie with deflate since every
+     * client supporting one of them supports gzip. Identity is returned when the client accepts neither of them.
+     *
+     * @param acceptEncoding value of the Accept-Encoding header, may be null
+     * @return content coding to send the response with
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return IDENTITY;
+        }
+        float gzipQuality = -1;
+        float deflateQuality = -1;
+        float wildcardQuality = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            int parameters = coding.indexOf(';');
+            String name = (parameters < 0 ? coding : coding.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+            float quality = parameters < 0 ? 1 : parseQuality(coding.substring(parameters + 1));
+            if (GZIP.name.equals(name) || "x-gzip".equals(name)) {
+                gzipQuality = Math.max(gzipQuality, quality);
+            } else if (DEFLATE.name.equals(name)) {
+                deflateQuality = Math.max(deflateQuality, quality);
+            } else if ("*".equals(name)) {
+                wildcardQuality = quality;
+            }
+        }
+        // Codings not listed explicitly take the quality of the wildcard.
+        gzipQuality = gzipQuality < 0 ? wildcardQuality : gzipQuality;
+        deflateQuality = deflateQuality < 0 ? wildcardQuality : deflateQuality;
+        if (gzipQuality <= 0 && deflateQuality <= 0) {
+            return IDENTITY;
+        }
+        return gzipQuality >= deflateQuality ? GZIP : DEFLATE;
+    }
+
+    /**
+     * Writes the given bytes to the stream in this coding. The stream is flushed but not closed.
+     *
+     * @param body             bytes to write, between the position and limit of the buffer
+     * @param outputStream     stream to write to
+     * @param compressionLevel deflate compression level, from {@link Deflater#BEST_SPEED} to
+     *                         {@link Deflater#BEST_COMPRESSION}
+     * @throws IOException if the stream can not be written
+     */
+    public void encode(ByteBuffer body, OutputStream outputStream, int compressionLevel) throws IOException {
+
+        if (this == IDENTITY) {
+            write(body, outputStream);
+            outputStream.flush();
+            return;
+        }
+        try (OutputStream compressed = newCompressingStream(new UnclosableOutputStream(outputStream),
+                compressionLevel)) {
+            write(body, compressed);
+        }
+    }
+
+    private OutputStream newCompressingStream(OutputStream outputStream, int compressionLevel) throws IOException {
+
+        if (this == GZIP) {
+            return new LeveledGZIPOutputStream(outputStream, compressionLevel);
+        }
+        return new ZlibOutputStream(outputStream, compressionLevel);
+    }
+
+    private static void write(ByteBuffer body, OutputStream outputStream) throws IOException {
+
+        ByteBuffer source = body.duplicate();
+        if (source.hasArray()) {
+            outputStream.write(source.array(), source.arrayOffset() + source.position(), source.remaining());
+            return;
+        }
+        byte[] chunk = new byte[Math.min(source.remaining(), BUFFER_SIZE)];
+        while (source.hasRemaining()) {
+            int length = Math.min(source.remaining(), chunk.length);
+            source.get(chunk, 0, length);
+            outputStream.write(chunk, 0, length);
+        }
+    }
+
+    private static float parseQuality(String parameters) {
+
+        for (String parameter : parameters.split(";")) {
+            String[] nameAndValue = parameter.split("=", 2);
+            if (nameAndValue.length == 2 && "q".equalsIgnoreCase(nameAndValue[0].trim())) {
+                try {
+                    return Float.parseFloat(nameAndValue[1].trim());
+                } catch (NumberFormatException e) {
+                    // A malformed quality value makes the coding unacceptable.
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Gzip stream compressing with the given level instead of the default one.
+     */
+    private static final class LeveledGZIPOutputStream extends GZIPOutputStream {
+
+        private LeveledGZIPOutputStream(OutputStream outputStream, int compressionLevel) throws IOException {
+
+            super(outputStream, BUFFER_SIZE);
+            def.setLevel(compressionLevel);
+        }
+    }
+
+    /**
+     * Stream of the deflate coding, which is the zlib format of RFC 1950, releasing its deflater on close.
+     */
+    private static final class ZlibOutputStream extends DeflaterOutputStream {
+
+        private ZlibOutputStream(OutputStream outputStream, int compressionLevel) {
+
+            super(outputStream, new Deflater(compressionLevel), BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            try {
+                super.close();
+            } finally {
+                // A stream only releases the deflater it created itself.
+                def.end();
+            }
+        }
+    }
+
+    /**
+     * Keeps the compressing stream from closing the stream of the transport once it has written the trailer.
+     */
+    private static final class UnclosableOutputStream extends FilterOutputStream {
+
+        private UnclosableOutputStream(OutputStream outputStream) {
+
+            super(outputStream);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            flush();
+        }
+    }
+}
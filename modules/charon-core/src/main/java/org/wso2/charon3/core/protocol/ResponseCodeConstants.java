@@ -35,6 +35,10 @@ public class ResponseCodeConstants {
     public static final int CODE_ACCEPTED = 202;
     public static final int CODE_NO_CONTENT = 204;
 
+    public static final int CODE_NOT_MODIFIED = 304;
+    public static final String DESC_NOT_MODIFIED = "The resource has not been modified since the version given in " +
+            "the If-None-Match header.";
+
     public static final int CODE_TEMPORARY_REDIRECT = 307;
     public static final String DESC_TEMPORARY_REDIRECT = "The client is directed to repeat the same HTTP request at " +
             "the " +
@@ -15,15 +15,27 @@
  */
 package org.wso2.charon3.core.protocol;
 
+import org.wso2.charon3.core.config.CharonConfiguration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
  * Represents a SCIMResponse to be returned for every operation of SCIM REST API.
+ * <p>
+ * The body is held either as a string or, for responses created with {@link #withUTF8Body(int, ByteBuffer, Map)},
+ * as the UTF-8 bytes the encoder wrote. Each form is derived from the other on first use only, so a transport that
+ * writes {@link #getResponseBody()} never sees a string version of a byte body, and the response size is known
+ * up front through {@link #getContentLength()}.
  */
 public class SCIMResponse {
 
     protected int responseStatus;
     protected String responseMessage;
+    protected ByteBuffer responseBody;
 
     //If there are any HTTP header parameters to be set in response other than response code,
     protected Map<String, String> headerParamMap;
@@ -41,14 +53,113 @@ public class SCIMResponse {
         this.headerParamMap = headerMap;
     }
 
+    /**
+     * Creates a response whose body is already encoded in UTF-8. The buffer is not copied, hence it must not be
+     * modified after this call.
+     *
+     * @param responseStatus HTTP status code corresponding to the operation status
+     * @param responseBody   UTF-8 encoded body between its position and limit, may be null
+     * @param headerMap      HTTP headers (eg-Content-type)
+     * @return SCIM response
+     */
+    public static SCIMResponse withUTF8Body(int responseStatus, ByteBuffer responseBody,
+                                            Map<String, String> headerMap) {
+
+        SCIMResponse response = new SCIMResponse(responseStatus, null, headerMap);
+        response.responseBody = responseBody == null ? null : responseBody.slice();
+        return response;
+    }
+
     public int getResponseStatus() {
         return responseStatus;
     }
 
+    /**
+     * @return body of the response, null if the response has no body
+     */
     public String getResponseMessage() {
+
+        if (responseMessage == null && responseBody != null) {
+            responseMessage = StandardCharsets.UTF_8.decode(responseBody.duplicate()).toString();
+        }
         return responseMessage;
     }
 
+    /**
+     * @return read only view of the UTF-8 encoded body of the response, null if the response has no body
+     */
+    public ByteBuffer getResponseBody() {
+
+        ByteBuffer body = getEncodedBody();
+        return body == null ? null : body.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return length of the UTF-8 encoded body of the response in bytes, 0 if the response has no body
+     */
+    public int getContentLength() {
+
+        ByteBuffer body = getResponseBody();
+        return body == null ? 0 : body.remaining();
+    }
+
+    /**
+     * Writes the UTF-8 encoded body of the response to the given stream. Nothing is written if the response has no
+     * body.
+     *
+     * @param outputStream stream to write the body to, which is not closed
+     * @throws IOException if the stream can not be written
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+
+        writeTo(outputStream, ContentEncoding.IDENTITY);
+    }
+
+    /**
+     * Picks the content coding to send the body with. Bodies smaller than
+     * {@link CharonConfiguration#getMinCompressedResponseSize()} are not worth compressing and are always sent as
+     * they are.
+     *
+     * @param acceptEncoding value of the Accept-Encoding header of the request, may be null
+     * @return content coding to pass to {@link #writeTo(OutputStream, ContentEncoding)}
+     */
+    public ContentEncoding negotiateContentEncoding(String acceptEncoding) {
+
+        int minCompressedResponseSize = CharonConfiguration.getInstance().getMinCompressedResponseSize();
+        int contentLength = getContentLength();
+        if (minCompressedResponseSize < 0 || contentLength == 0 || contentLength < minCompressedResponseSize) {
+            return ContentEncoding.IDENTITY;
+        }
+        return ContentEncoding.negotiate(acceptEncoding);
+    }
+
+    /**
+     * Writes the UTF-8 encoded body of the response to the given stream in the given content coding, compressing it
+     * with the configured compression level while it is written. Nothing is written if the response has no body.
+     *
+     * @param outputStream    stream to write the body to, which is not closed
+     * @param contentEncoding content coding of the written body
+     * @throws IOException if the stream can not be written
+     */
+    public void writeTo(OutputStream outputStream, ContentEncoding contentEncoding) throws IOException {
+
+        ByteBuffer body = getEncodedBody();
+        if (body == null) {
+            return;
+        }
+        // Unlike a read only view, the buffer exposes its backing array, which spares copying the body in chunks.
+        contentEncoding.encode(body.duplicate(), outputStream,
+                CharonConfiguration.getInstance().getCompressionLevel());
+    }
+
+    private ByteBuffer getEncodedBody() {
+
+        if (responseBody == null && responseMessage != null) {
+            responseBody = ByteBuffer.wrap(responseMessage.getBytes(StandardCharsets.UTF_8));
+        }
+        return responseBody;
+    }
+
     public Map<String, String> getHeaderParamMap() {
         return headerParamMap;
     }
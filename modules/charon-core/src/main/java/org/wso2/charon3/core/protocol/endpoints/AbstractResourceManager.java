@@ -21,13 +21,21 @@ import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.encoder.JSONEncoder;
 import org.wso2.charon3.core.exceptions.AbstractCharonException;
 import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConcurrentUpdateException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.protocol.metrics.NoOpScimMetricsListener;
+import org.wso2.charon3.core.protocol.metrics.OperationTimer;
+import org.wso2.charon3.core.protocol.metrics.ScimMetricsListener;
+import org.wso2.charon3.core.protocol.metrics.ScimOperation;
 import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.utils.ETagUtil;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * This is an abstract layer for all the resource endpoints to abstract out common
@@ -37,12 +45,20 @@ public abstract class AbstractResourceManager implements ResourceManager {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractResourceManager.class);
 
-    private static JSONEncoder encoder = new JSONEncoder();
+    //number of times an update is made before giving up on a resource which keeps being updated concurrently
+    protected static final int MAX_UPDATE_ATTEMPTS = 10;
 
-    private static JSONDecoder decoder = new JSONDecoder();
+    private static final long UPDATE_BACKOFF_NANOS = 500_000;
+
+    //the codec instances are thread safe, hence shared by all the requests
+    private static final JSONEncoder encoder = new JSONEncoder();
+
+    private static final JSONDecoder decoder = new JSONDecoder();
 
     private static ResourceURLBuilder resourceURLBuilder = new DefaultResourceURLBuilder();
 
+    private static volatile ScimMetricsListener metricsListener = NoOpScimMetricsListener.getInstance();
+
     /*
      * Returns the encoder for json.
      *
@@ -93,6 +109,56 @@ public abstract class AbstractResourceManager implements ResourceManager {
         }
     }
 
+    /**
+     * Sets the listener which receives the timings of the operations processed by the resource managers.
+     *
+     * @param metricsListener listener, or null to stop collecting metrics.
+     */
+    public static void setMetricsListener(ScimMetricsListener metricsListener) {
+
+        AbstractResourceManager.metricsListener =
+                metricsListener == null ? NoOpScimMetricsListener.getInstance() : metricsListener;
+    }
+
+    public static ScimMetricsListener getMetricsListener() {
+
+        return metricsListener;
+    }
+
+    /*
+     * Starts measuring an operation for the registered metrics listener.
+     *
+     * @param operation - operation being processed
+     * @param resourceEndpoint - endpoint the operation was invoked on
+     * @param request - request payload, may be null
+     * @return OperationTimer
+     */
+    protected OperationTimer startTimer(ScimOperation operation, String resourceEndpoint, String request) {
+
+        return OperationTimer.start(metricsListener, operation, resourceEndpoint, request);
+    }
+
+    /*
+     * Decides whether an update which lost the race against a concurrent update of the same resource is made again
+     * on the current resource. A conditional update was made against the version the client has seen, so it fails
+     * with 412 instead, as does an update which keeps losing. Before the next attempt the update backs off for a
+     * random time, which grows with the attempts made, so that the updates racing for the resource spread out.
+     *
+     * @param exception - exception thrown by the user manager
+     * @param ifMatch - value of the If-Match header, may be null
+     * @param attempt - number of attempts made so far
+     * @throws ConcurrentUpdateException if the update must not be made again
+     */
+    protected static void checkUpdateRetry(ConcurrentUpdateException exception, String ifMatch, int attempt)
+            throws ConcurrentUpdateException {
+
+        if (attempt >= MAX_UPDATE_ATTEMPTS || ETagUtil.isConditionalRequest(ifMatch)) {
+            throw exception;
+        }
+        logger.debug("Resource was updated concurrently, retrying the update. Attempt: {}", attempt);
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(UPDATE_BACKOFF_NANOS << Math.min(attempt, 7)));
+    }
+
     /*
      * Returns SCIM Response object after json encoding the exception
      *
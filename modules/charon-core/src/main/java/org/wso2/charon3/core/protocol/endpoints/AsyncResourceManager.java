@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.endpoints;
+
+import org.wso2.charon3.core.extensions.AsyncUserManager;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking variant of {@link ResourceManager}. Each method returns without waiting for the user store, and the
+ * returned stage completes with the response {@link ResourceManager} would return for the same request. Errors are
+ * encoded into the response as they are by {@link ResourceManager}, hence the stage only fails on unexpected
+ * runtime errors.
+ * <p>
+ * {@link ExecutorAsyncResourceManager} runs any {@link ResourceManager} as an {@link AsyncResourceManager}.
+ */
+public interface AsyncResourceManager {
+
+    /**
+     * Retrieves a resource. See {@link ResourceManager#get(String, org.wso2.charon3.core.extensions.UserManager,
+     * String, String, String)}.
+     *
+     * @param id                Resource id.
+     * @param userManager       User manager.
+     * @param attributes        Attributes in the response.
+     * @param excludeAttributes Exclude attributes in the response.
+     * @param ifNoneMatch       Value of the If-None-Match header, may be null.
+     * @return stage completed with the SCIM response.
+     */
+    CompletionStage<SCIMResponse> get(String id, AsyncUserManager userManager, String attributes,
+            String excludeAttributes, String ifNoneMatch);
+
+    /**
+     * Creates a resource.
+     *
+     * @param scimObjectString  Payload of the request.
+     * @param userManager       User manager.
+     * @param attributes        Attributes in the response.
+     * @param excludeAttributes Exclude attributes in the response.
+     * @return stage completed with the SCIM response.
+     */
+    CompletionStage<SCIMResponse> create(String scimObjectString, AsyncUserManager userManager, String attributes,
+            String excludeAttributes);
+
+    /**
+     * Deletes a resource.
+     *
+     * @param id          Resource id.
+     * @param userManager User manager.
+     * @param ifMatch     Value of the If-Match header, may be null.
+     * @return stage completed with the SCIM response.
+     */
+    CompletionStage<SCIMResponse> delete(String id, AsyncUserManager userManager, String ifMatch);
+
+    /**
+     * Lists the resources matching the given filter.
+     *
+     * @param userManager       User manager.
+     * @param filter            Filter, may be null.
+     * @param startIndex        Start index, may be null.
+     * @param count             Count, may be null.
+     * @param sortBy            Sort by.
+     * @param sortOrder         Sort order.
+     * @param domainName        Domain name.
+     * @param attributes        Attributes in the response.
+     * @param excludeAttributes Exclude attributes in the response.
+     * @return stage completed with the SCIM response.
+     */
+    CompletionStage<SCIMResponse> listWithGET(AsyncUserManager userManager, String filter, Integer startIndex,
+            Integer count, String sortBy, String sortOrder, String domainName, String attributes,
+            String excludeAttributes);
+
+    /**
+     * Lists the resources matching the given search request.
+     *
+     * @param resourceString Search request.
+     * @param userManager    User manager.
+     * @return stage completed with the SCIM response.
+     */
+    CompletionStage<SCIMResponse> listWithPOST(String resourceString, AsyncUserManager userManager);
+
+    /**
+     * Replaces a resource.
+     *
+     * @param existingId        Resource id.
+     * @param scimObjectString  Payload of the request.
+     * @param userManager       User manager.
+     * @param attributes        Attributes in the response.
+     * @param excludeAttributes Exclude attributes in the response.
+     * @param ifMatch           Value of the If-Match header, may be null.
+     * @return stage completed with the SCIM response.
+     */
+    CompletionStage<SCIMResponse> updateWithPUT(String existingId, String scimObjectString,
+            AsyncUserManager userManager, String attributes, String excludeAttributes, String ifMatch);
+
+    /**
+     * Patches a resource.
+     *
+     * @param existingId        Resource id.
+     * @param scimObjectString  Payload of the request.
+     * @param userManager       User manager.
+     * @param attributes        Attributes in the response.
+     * @param excludeAttributes Exclude attributes in the response.
+     * @param ifMatch           Value of the If-Match header, may be null.
+     * @return stage completed with the SCIM response.
+     */
+    CompletionStage<SCIMResponse> updateWithPATCH(String existingId, String scimObjectString,
+            AsyncUserManager userManager, String attributes, String excludeAttributes, String ifMatch);
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.endpoints;
+
+import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.extensions.AsyncUserManager;
+import org.wso2.charon3.core.extensions.BlockingUserManager;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.protocol.metrics.OperationTimer;
+import org.wso2.charon3.core.protocol.metrics.ScimOperation;
+import org.wso2.charon3.core.protocol.metrics.ScimPhase;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.utils.ETagUtil;
+import org.wso2.charon3.core.utils.ResourceManagerUtil;
+import org.wso2.charon3.core.utils.codeutils.Node;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking user endpoint.
+ * <p>
+ * Reading a user and listing users with GET, the most frequent requests, do not hold any thread while the user store
+ * is called: the request is validated on the calling thread, and the user store response is validated and encoded
+ * on the given executor once the {@link AsyncUserManager} completes. The other operations read the user before
+ * changing it, hence they run the logic of {@link UserResourceManager} on the executor, as
+ * {@link ExecutorAsyncResourceManager} does.
+ */
+public class AsyncUserResourceManager extends ExecutorAsyncResourceManager {
+
+    private final UserResourceManager userResourceManager;
+
+    public AsyncUserResourceManager(Executor executor) {
+
+        this(new UserResourceManager(), executor);
+    }
+
+    public AsyncUserResourceManager(UserResourceManager userResourceManager, Executor executor) {
+
+        super(userResourceManager, executor);
+        this.userResourceManager = userResourceManager;
+    }
+
+    @Override
+    public CompletionStage<SCIMResponse> get(String id, AsyncUserManager userManager, String attributes,
+            String excludeAttributes, String ifNoneMatch) {
+
+        OperationTimer timer = userResourceManager.startTimer(ScimOperation.GET, SCIMConstants.USER_ENDPOINT, null);
+        try {
+            checkUserManager(userManager);
+            JSONEncoder encoder = AbstractResourceManager.getEncoder();
+            SCIMResourceTypeSchema schema = userResourceManager.getSchema(blocking(userManager));
+            Map<String, Boolean> requiredAttributes = ETagUtil.addETagAttributeURIs(
+                    ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema, attributes, excludeAttributes));
+            timer.lap(ScimPhase.SCHEMA);
+
+            return userManager.getUser(id, requiredAttributes).handleAsync((user, failure) -> {
+                timer.lap(ScimPhase.USER_MANAGER);
+                return timer.stop(respond(failure, () -> userResourceManager.buildGetResponse(user, encoder,
+                        schema, attributes, excludeAttributes, ifNoneMatch, timer)));
+            }, executor);
+        } catch (AbstractCharonException e) {
+            return CompletableFuture.completedFuture(timer.stop(AbstractResourceManager.encodeSCIMException(e)));
+        }
+    }
+
+    @Override
+    public CompletionStage<SCIMResponse> listWithGET(AsyncUserManager userManager, String filter,
+            Integer startIndexInt, Integer countInt, String sortBy, String sortOrder, String domainName,
+            String attributes, String excludeAttributes) {
+
+        OperationTimer timer = userResourceManager.startTimer(ScimOperation.LIST_WITH_GET,
+                SCIMConstants.USER_ENDPOINT, null);
+        try {
+            checkUserManager(userManager);
+            Integer count = ResourceManagerUtil.processCount(countInt);
+            Integer startIndex = ResourceManagerUtil.processStartIndex(startIndexInt);
+            String resolvedSortOrder = userResourceManager.resolveSortOrder(sortOrder, sortBy);
+            SCIMResourceTypeSchema schema = userResourceManager.getSchema(blocking(userManager));
+            Node rootNode = userResourceManager.buildNode(filter, schema);
+            JSONEncoder encoder = AbstractResourceManager.getEncoder();
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
+                    schema, attributes, excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
+
+            return userManager.listUsersWithGET(rootNode, startIndex, count, sortBy, resolvedSortOrder, domainName,
+                    requiredAttributes).handleAsync((users, failure) -> {
+                        timer.lap(ScimPhase.USER_MANAGER);
+                        return timer.stop(respond(failure, () -> userResourceManager.processUserList(users, encoder,
+                                schema, attributes, excludeAttributes, startIndex, timer)));
+                    }, executor);
+        } catch (AbstractCharonException e) {
+            return CompletableFuture.completedFuture(timer.stop(AbstractResourceManager.encodeSCIMException(e)));
+        } catch (IOException e) {
+            return CompletableFuture.completedFuture(timer.stop(AbstractResourceManager.encodeSCIMException(
+                    new CharonException("Error in tokenization of the input filter"))));
+        }
+    }
+
+    private static void checkUserManager(AsyncUserManager userManager) throws InternalErrorException {
+
+        if (userManager == null) {
+            throw new InternalErrorException("Provided user manager handler is null.");
+        }
+    }
+
+    /**
+     * Completes an operation once the user store responded.
+     *
+     * @param failure  exception the user store call completed with, null if it succeeded
+     * @param response builds the response out of the result of the user store call
+     * @return SCIM response, encoding the exception of the user store or of the response builder
+     * @throws CompletionException if the user store call failed with an unexpected runtime error
+     */
+    private static SCIMResponse respond(Throwable failure, ResponseBuilder response) {
+
+        try {
+            if (failure == null) {
+                return response.build();
+            }
+            Throwable cause = BlockingUserManager.unwrap(failure);
+            if (cause instanceof AbstractCharonException) {
+                return AbstractResourceManager.encodeSCIMException((AbstractCharonException) cause);
+            }
+            throw new CompletionException(cause);
+        } catch (AbstractCharonException e) {
+            return AbstractResourceManager.encodeSCIMException(e);
+        }
+    }
+
+    /**
+     * Builds the response of an operation.
+     */
+    @FunctionalInterface
+    private interface ResponseBuilder {
+
+        SCIMResponse build() throws AbstractCharonException;
+    }
+}
@@ -29,6 +29,9 @@ import org.wso2.charon3.core.objects.bulk.BulkResponseData;
 import org.wso2.charon3.core.protocol.BulkRequestProcessor;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.protocol.metrics.OperationTimer;
+import org.wso2.charon3.core.protocol.metrics.ScimOperation;
+import org.wso2.charon3.core.protocol.metrics.ScimPhase;
 import org.wso2.charon3.core.schema.SCIMConstants;
 
 import java.util.HashMap;
@@ -56,8 +59,22 @@ public class BulkResourceManager extends AbstractResourceManager {
         return processBulkData(data, userManager);
     }
 
+    /*
+     * Processes a bulk request. The operations of the bulk request are reported to the metrics listener one by one,
+     * and the bulk request as a whole is reported with the time spent on its operations as the USER_MANAGER phase.
+     *
+     * @param data - bulk request payload
+     * @param userManager - usermanager instance defined by the external implementor of charon
+     * @return SCIM response to be returned.
+     */
     public SCIMResponse processBulkData(String data, UserManager userManager) {
 
+        OperationTimer timer = startTimer(ScimOperation.BULK, SCIMConstants.BULK_ENDPOINT, data);
+        return timer.stop(doProcessBulkData(data, userManager, timer));
+    }
+
+    private SCIMResponse doProcessBulkData(String data, UserManager userManager, OperationTimer timer) {
+
         BulkResponseData bulkResponseData;
         try {
             // Get encoder and decoder from AbstractResourceEndpoint
@@ -67,14 +84,17 @@ public class BulkResourceManager extends AbstractResourceManager {
             BulkRequestData bulkRequestDataObject;
             // Decode the request.
             bulkRequestDataObject = decoder.decodeBulkData(data);
+            timer.lap(ScimPhase.DECODE);
 
             bulkRequestProcessor.setFailOnError(bulkRequestDataObject.getFailOnErrors());
             bulkRequestProcessor.setUserManager(userManager);
 
             // Get bulk response data.
             bulkResponseData = bulkRequestProcessor.processBulkRequests(bulkRequestDataObject);
+            timer.lap(ScimPhase.USER_MANAGER);
             //encode the BulkResponseData object
             String finalEncodedResponse = encoder.encodeBulkResponseData(bulkResponseData);
+            timer.lap(ScimPhase.ENCODE);
 
             // Create SCIM response message.
             Map<String, String> responseHeaders = new HashMap<>();
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.endpoints;
+
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.utils.BoundedCache;
+import org.wso2.charon3.core.utils.ETagUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the encoded responses of the discovery endpoints (/ServiceProviderConfig, /ResourceTypes and /Schemas).
+ * <p>
+ * These responses only change when the {@link org.wso2.charon3.core.config.CharonConfiguration}, the schema
+ * extensions or the endpoint URLs change, so they are encoded once together with their entity tag and then served
+ * as is. Each endpoint builds its cache key out of everything its response is derived from, hence a change in any
+ * of those makes the next request miss the cache and re-encode the response.
+ */
+public class DiscoveryResponseCache {
+
+    private static final int MAX_ENTRIES = 128;
+
+    private static DiscoveryResponseCache discoveryResponseCache = new DiscoveryResponseCache();
+
+    private final BoundedCache<List<Object>, EncodedResponse> responses = new BoundedCache<>(MAX_ENTRIES);
+
+    private DiscoveryResponseCache() {
+
+    }
+
+    public static DiscoveryResponseCache getInstance() {
+
+        return discoveryResponseCache;
+    }
+
+    /**
+     * Returns the cached response of the given key, encoding and caching it on a miss. Only successful responses
+     * are cached.
+     *
+     * @param ifNoneMatch value of the If-None-Match header, may be null
+     * @param builder     encodes the response when it is not cached
+     * @param keyParts    everything the response is derived from
+     * @return SCIM response
+     */
+    public SCIMResponse getResponse(String ifNoneMatch, Supplier<SCIMResponse> builder, Object... keyParts) {
+
+        List<Object> key = Arrays.asList(keyParts);
+        EncodedResponse encodedResponse = responses.get(key);
+        if (encodedResponse == null) {
+            SCIMResponse response = builder.get();
+            if (response == null || response.getResponseStatus() != ResponseCodeConstants.CODE_OK) {
+                return response;
+            }
+            encodedResponse = new EncodedResponse(response);
+            responses.put(key, encodedResponse);
+        }
+        return encodedResponse.toSCIMResponse(ifNoneMatch);
+    }
+
+    /**
+     * Discards all the cached responses.
+     */
+    public void invalidateAll() {
+
+        responses.invalidateAll();
+    }
+
+    /**
+     * @return number of cached responses
+     */
+    int size() {
+
+        return responses.size();
+    }
+
+    /**
+     * Encoded response body together with its headers and entity tag.
+     */
+    private static final class EncodedResponse {
+
+        private final String body;
+        private final String eTag;
+        private final Map<String, String> headers;
+
+        private EncodedResponse(SCIMResponse response) {
+
+            this.body = response.getResponseMessage();
+            this.eTag = body == null ? null : computeETag(body);
+            this.headers = response.getHeaderParamMap() == null ? Collections.emptyMap() :
+                    new HashMap<>(response.getHeaderParamMap());
+        }
+
+        private SCIMResponse toSCIMResponse(String ifNoneMatch) {
+
+            Map<String, String> responseHeaders = new HashMap<>(headers);
+            ETagUtil.addETagHeader(responseHeaders, eTag);
+            if (ETagUtil.isNotModified(ifNoneMatch, eTag)) {
+                return new SCIMResponse(ResponseCodeConstants.CODE_NOT_MODIFIED, null, responseHeaders);
+            }
+            return new SCIMResponse(ResponseCodeConstants.CODE_OK, body, responseHeaders);
+        }
+
+        /*
+         * The body of a discovery response is fully determined by its cache key, so a digest of the body is a strong
+         * validator.
+         */
+        private static String computeETag(String body) {
+
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+                StringBuilder eTag = new StringBuilder("\"");
+                for (int i = 0; i < 16; i++) {
+                    eTag.append(Character.forDigit((digest[i] >> 4) & 0xF, 16))
+                            .append(Character.forDigit(digest[i] & 0xF, 16));
+                }
+                return eTag.append('"').toString();
+            } catch (NoSuchAlgorithmException e) {
+                // Every Java platform is required to support SHA-256.
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
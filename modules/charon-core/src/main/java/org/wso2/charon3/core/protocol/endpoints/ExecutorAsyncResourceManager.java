@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.endpoints;
+
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.extensions.AsyncUserManager;
+import org.wso2.charon3.core.extensions.BlockingUserManager;
+import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a {@link ResourceManager} as an {@link AsyncResourceManager}, by calling each operation on the given
+ * executor against a {@link BlockingUserManager} view of the user manager. The HTTP worker thread is released right
+ * away, while the executor thread waits for the user store.
+ * <p>
+ * When the executor rejects an operation, the stage completes with a 500 Internal Server Error response.
+ */
+public class ExecutorAsyncResourceManager implements AsyncResourceManager {
+
+    protected final ResourceManager resourceManager;
+    protected final Executor executor;
+
+    public ExecutorAsyncResourceManager(ResourceManager resourceManager, Executor executor) {
+
+        this.resourceManager = resourceManager;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletionStage<SCIMResponse> get(String id, AsyncUserManager userManager, String attributes,
+            String excludeAttributes, String ifNoneMatch) {
+
+        return supply(() -> resourceManager.get(id, blocking(userManager), attributes, excludeAttributes,
+                ifNoneMatch));
+    }
+
+    @Override
+    public CompletionStage<SCIMResponse> create(String scimObjectString, AsyncUserManager userManager,
+            String attributes, String excludeAttributes) {
+
+        return supply(() -> resourceManager.create(scimObjectString, blocking(userManager), attributes,
+                excludeAttributes));
+    }
+
+    @Override
+    public CompletionStage<SCIMResponse> delete(String id, AsyncUserManager userManager, String ifMatch) {
+
+        return supply(() -> resourceManager.delete(id, blocking(userManager), ifMatch));
+    }
+
+    @Override
+    public CompletionStage<SCIMResponse> listWithGET(AsyncUserManager userManager, String filter,
+            Integer startIndex, Integer count, String sortBy, String sortOrder, String domainName, String attributes,
+            String excludeAttributes) {
+
+        return supply(() -> resourceManager.listWithGET(blocking(userManager), filter, startIndex, count, sortBy,
+                sortOrder, domainName, attributes, excludeAttributes));
+    }
+
+    @Override
+    public CompletionStage<SCIMResponse> listWithPOST(String resourceString, AsyncUserManager userManager) {
+
+        return supply(() -> resourceManager.listWithPOST(resourceString, blocking(userManager)));
+    }
+
+    @Override
+    public CompletionStage<SCIMResponse> updateWithPUT(String existingId, String scimObjectString,
+            AsyncUserManager userManager, String attributes, String excludeAttributes, String ifMatch) {
+
+        return supply(() -> resourceManager.updateWithPUT(existingId, scimObjectString, blocking(userManager),
+                attributes, excludeAttributes, ifMatch));
+    }
+
+    @Override
+    public CompletionStage<SCIMResponse> updateWithPATCH(String existingId, String scimObjectString,
+            AsyncUserManager userManager, String attributes, String excludeAttributes, String ifMatch) {
+
+        return supply(() -> resourceManager.updateWithPATCH(existingId, scimObjectString, blocking(userManager),
+                attributes, excludeAttributes, ifMatch));
+    }
+
+    /**
+     * @param userManager asynchronous user manager, may be null
+     * @return blocking view of the user manager, or null when no user manager is given, so that the resource
+     * manager reports the missing user manager as it does for blocking requests
+     */
+    protected static UserManager blocking(AsyncUserManager userManager) {
+
+        return userManager == null ? null : new BlockingUserManager(userManager);
+    }
+
+    private CompletionStage<SCIMResponse> supply(Supplier<SCIMResponse> operation) {
+
+        try {
+            return CompletableFuture.supplyAsync(operation, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(AbstractResourceManager.encodeSCIMException(
+                    new CharonException("No thread is available to process the request.", e)));
+        }
+    }
+}
@@ -27,22 +27,28 @@ import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.encoder.JSONEncoder;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConcurrentUpdateException;
 import org.wso2.charon3.core.exceptions.ConflictException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.objects.AbstractSCIMObject;
 import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.objects.ListedResource;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.protocol.metrics.OperationTimer;
+import org.wso2.charon3.core.protocol.metrics.ScimOperation;
+import org.wso2.charon3.core.protocol.metrics.ScimPhase;
 import org.wso2.charon3.core.schema.SCIMConstants;
 import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
 import org.wso2.charon3.core.schema.ServerSideValidator;
 import org.wso2.charon3.core.utils.CopyUtil;
+import org.wso2.charon3.core.utils.ETagUtil;
 import org.wso2.charon3.core.utils.PatchOperationUtil;
 import org.wso2.charon3.core.utils.ResourceManagerUtil;
 import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
@@ -51,6 +57,7 @@ import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -80,6 +87,31 @@ public class GroupResourceManager extends AbstractResourceManager {
      */
     @Override
     public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes) {
+
+        return get(id, userManager, attributes, excludeAttributes, null);
+    }
+
+    /*
+     * Retrieves a group resource given an unique group id. Mapped to HTTP GET request. When the If-None-Match header
+     * matches the current version of the group, 304 Not Modified is returned without encoding the group.
+     *
+     * @param id          - unique resource id
+     * @param usermanager
+     * @param attributes
+     * @param excludeAttributes
+     * @param ifNoneMatch - value of the If-None-Match header
+     * @return SCIM response to be returned.
+     */
+    @Override
+    public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes,
+                            String ifNoneMatch) {
+
+        OperationTimer timer = startTimer(ScimOperation.GET, SCIMConstants.GROUP_ENDPOINT, null);
+        return timer.stop(doGet(id, userManager, attributes, excludeAttributes, ifNoneMatch, timer));
+    }
+
+    private SCIMResponse doGet(String id, UserManager userManager, String attributes, String excludeAttributes,
+                               String ifNoneMatch, OperationTimer timer) {
         JSONEncoder encoder = null;
         try {
             //obtain the correct encoder according to the format requested.
@@ -88,12 +120,14 @@ public class GroupResourceManager extends AbstractResourceManager {
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
             //get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                    CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+                    schema, attributes, excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
 
             //API user should pass a usermanager usermanager to GroupResourceEndpoint.
             //retrieve the group from the provided usermanager.
-            Group group = ((UserManager) userManager).getGroup(id, requiredAttributes);
+            Group group = ((UserManager) userManager).getGroup(id,
+                    ETagUtil.addETagAttributeURIs(requiredAttributes));
+            timer.lap(ScimPhase.USER_MANAGER);
 
             //if group not found, return an error in relevant format.
             if (group == null) {
@@ -101,11 +135,19 @@ public class GroupResourceManager extends AbstractResourceManager {
                 throw new NotFoundException(message);
             }
 
+            //if there are any http headers to be added in the response header.
+            Map<String, String> httpHeaders = new HashMap<String, String>();
+            //the version must be read before the meta attribute is filtered out of the response.
+            String eTag = ETagUtil.getETag(group);
+            ETagUtil.addETagHeader(httpHeaders, eTag);
+            if (ETagUtil.isNotModified(ifNoneMatch, eTag)) {
+                return new SCIMResponse(ResponseCodeConstants.CODE_NOT_MODIFIED, null, httpHeaders);
+            }
             ServerSideValidator.validateRetrievedSCIMObjectInList(group, schema, attributes, excludeAttributes);
+            timer.lap(ScimPhase.VALIDATE);
             //convert the group into specific format.
             String encodedGroup = encoder.encodeSCIMObject(group);
-            //if there are any http headers to be added in the response header.
-            Map<String, String> httpHeaders = new HashMap<String, String>();
+            timer.lap(ScimPhase.ENCODE);
             httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
             return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedGroup, httpHeaders);
         } catch (NotFoundException e) {
@@ -132,6 +174,13 @@ public class GroupResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse create(String scimObjectString, UserManager userManager,
                                String attributes, String excludeAttributes) {
+
+        OperationTimer timer = startTimer(ScimOperation.CREATE, SCIMConstants.GROUP_ENDPOINT, scimObjectString);
+        return timer.stop(doCreate(scimObjectString, userManager, attributes, excludeAttributes, timer));
+    }
+
+    private SCIMResponse doCreate(String scimObjectString, UserManager userManager, String attributes,
+                                  String excludeAttributes, OperationTimer timer) {
         JSONEncoder encoder = null;
         JSONDecoder decoder = null;
 
@@ -144,27 +193,33 @@ public class GroupResourceManager extends AbstractResourceManager {
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
             //get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                    CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+                    schema, attributes, excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
             //decode the SCIM group object, encoded in the submitted payload.
             Group group = (Group) decoder.decodeResource(scimObjectString, schema, new Group());
+            timer.lap(ScimPhase.DECODE);
             //validate decoded group
             ServerSideValidator.validateCreatedSCIMObject(group, SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA);
+            timer.lap(ScimPhase.VALIDATE);
             //handover the SCIM User object to the group usermanager provided by the SP.
             Group createdGroup;
             //need to send back the newly created group in the response payload
             createdGroup = ((UserManager) userManager).createGroup(group, requiredAttributes);
+            timer.lap(ScimPhase.USER_MANAGER);
 
             //encode the newly created SCIM group object and add id attribute to Location header.
             String encodedGroup;
             Map<String, String> httpHeaders = new HashMap<String, String>();
             if (createdGroup != null) {
                 ServerSideValidator.validateReturnedAttributes(createdGroup, attributes, excludeAttributes);
+                timer.lap(ScimPhase.VALIDATE);
                 encodedGroup = encoder.encodeSCIMObject(createdGroup);
+                timer.lap(ScimPhase.ENCODE);
                 //add location header
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.GROUP_ENDPOINT) + "/" + createdGroup.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                ETagUtil.addETagHeader(httpHeaders, ETagUtil.getETag(createdGroup));
 
             } else {
                 String message = "Newly created Group resource is null..";
@@ -198,11 +253,34 @@ public class GroupResourceManager extends AbstractResourceManager {
      */
     @Override
     public SCIMResponse delete(String id, UserManager userManager) {
+
+        return delete(id, userManager, null);
+    }
+
+    /*
+     * Method of the ResourceManager that is mapped to HTTP Delete method. The group is only deleted if the If-Match
+     * header, when given, matches the current version of the group.
+     *
+     * @param id - unique resource id
+     * @param usermanager - usermanager instance defined by the external implementor of charon
+     * @param ifMatch - value of the If-Match header
+     * @return
+     */
+    @Override
+    public SCIMResponse delete(String id, UserManager userManager, String ifMatch) {
+
+        OperationTimer timer = startTimer(ScimOperation.DELETE, SCIMConstants.GROUP_ENDPOINT, null);
+        return timer.stop(doDelete(id, userManager, ifMatch, timer));
+    }
+
+    private SCIMResponse doDelete(String id, UserManager userManager, String ifMatch, OperationTimer timer) {
         JSONEncoder encoder = null;
         try {
             if (userManager != null) {
+                validateIfMatch(id, userManager, ifMatch);
             /*handover the SCIM User object to the user usermanager provided by the SP for the delete operation*/
                 userManager.deleteGroup(id);
+                timer.lap(ScimPhase.USER_MANAGER);
                 //on successful deletion SCIMResponse only has 204 No Content status code.
                 return new SCIMResponse(ResponseCodeConstants.CODE_NO_CONTENT, null, null);
             } else {
@@ -220,6 +298,8 @@ public class GroupResourceManager extends AbstractResourceManager {
             return encodeSCIMException(e);
         } catch (BadRequestException e) {
             return encodeSCIMException(e);
+        } catch (PreConditionFailedException e) {
+            return encodeSCIMException(e);
         }
     }
 
@@ -241,6 +321,15 @@ public class GroupResourceManager extends AbstractResourceManager {
     public SCIMResponse listWithGET(UserManager userManager, String filter, int startIndex, int count, String sortBy,
             String sortOrder, String domainName, String attributes, String excludeAttributes) {
 
+        OperationTimer timer = startTimer(ScimOperation.LIST_WITH_GET, SCIMConstants.GROUP_ENDPOINT, null);
+        return timer.stop(doListWithGET(userManager, filter, startIndex, count, sortBy, sortOrder, domainName,
+                attributes, excludeAttributes, timer));
+    }
+
+    private SCIMResponse doListWithGET(UserManager userManager, String filter, int startIndex, int count,
+                                       String sortBy, String sortOrder, String domainName, String attributes,
+                                       String excludeAttributes, OperationTimer timer) {
+
         //According to SCIM 2.0 spec minus values will be considered as 0
         if (count < 0) {
             count = 0;
@@ -264,14 +353,16 @@ public class GroupResourceManager extends AbstractResourceManager {
 
             // Get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
 
             // API group should pass a user manager to GroupResourceEndpoint.
             if (userManager != null) {
                 List<Object> tempList = userManager.listGroupsWithGET(rootNode, startIndex,
                         count, sortBy, sortOrder, domainName, requiredAttributes);
-                return processGroupList(tempList, encoder, attributes, excludeAttributes, startIndex);
+                timer.lap(ScimPhase.USER_MANAGER);
+                return processGroupList(tempList, encoder, attributes, excludeAttributes, startIndex, timer);
             } else {
                 String error = "Provided user manager handler is null.";
                 if (logger.isDebugEnabled()) {
@@ -355,6 +446,15 @@ public class GroupResourceManager extends AbstractResourceManager {
     public SCIMResponse listWithGET(UserManager userManager, String filter, Integer startIndexInt, Integer countInt,
             String sortBy, String sortOrder, String domainName, String attributes, String excludeAttributes) {
 
+        OperationTimer timer = startTimer(ScimOperation.LIST_WITH_GET, SCIMConstants.GROUP_ENDPOINT, null);
+        return timer.stop(doListWithGET(userManager, filter, startIndexInt, countInt, sortBy, sortOrder, domainName,
+                attributes, excludeAttributes, timer));
+    }
+
+    private SCIMResponse doListWithGET(UserManager userManager, String filter, Integer startIndexInt,
+                                       Integer countInt, String sortBy, String sortOrder, String domainName,
+                                       String attributes, String excludeAttributes, OperationTimer timer) {
+
         FilterTreeManager filterTreeManager;
         try {
             Integer count = ResourceManagerUtil.processCount(countInt);
@@ -374,14 +474,16 @@ public class GroupResourceManager extends AbstractResourceManager {
 
             // Get the URIs of required attributes which must be given a value.
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
 
             // API group should pass a user manager to GroupResourceEndpoint.
             if (userManager != null) {
                 List<Object> tempList = userManager.listGroupsWithGET(rootNode, startIndex, count,
                         sortBy, sortOrder, domainName, requiredAttributes);
-                return processGroupList(tempList, encoder, attributes, excludeAttributes, startIndex);
+                timer.lap(ScimPhase.USER_MANAGER);
+                return processGroupList(tempList, encoder, attributes, excludeAttributes, startIndex, timer);
             } else {
                 String error = "Provided user manager handler is null.";
                 if (logger.isDebugEnabled()) {
@@ -407,13 +509,15 @@ public class GroupResourceManager extends AbstractResourceManager {
      * @param attributes        Required attributes
      * @param excludeAttributes Exclude attributes
      * @param startIndex        Starting index
+     * @param timer             Timer of the list operation
      * @return SCIM response
      * @throws NotFoundException
      * @throws CharonException
      * @throws BadRequestException
      */
     private SCIMResponse processGroupList(List<Object> tempList, JSONEncoder encoder, String attributes,
-            String excludeAttributes, int startIndex) throws NotFoundException, CharonException, BadRequestException {
+            String excludeAttributes, int startIndex, OperationTimer timer)
+            throws NotFoundException, CharonException, BadRequestException {
 
         int totalResults = 0;
         List<Object> returnedGroups;
@@ -440,14 +544,16 @@ public class GroupResourceManager extends AbstractResourceManager {
                     .validateRetrievedSCIMObjectInList((Group) group, SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA,
                             attributes, excludeAttributes);
         }
+        timer.lap(ScimPhase.VALIDATE);
         // Create a listed resource object out of the returned groups list.
         ListedResource listedResource = createListedResource(returnedGroups, startIndex, totalResults);
         // Convert the listed resource into specific format.
-        String encodedListedResource = encoder.encodeSCIMObject(listedResource);
+        ByteBuffer encodedListedResource = encoder.encodeSCIMObjectAsUTF8(listedResource);
+        timer.lap(ScimPhase.ENCODE);
         // If there are any http headers to be added in the response header.
         Map<String, String> responseHeaders = new HashMap<String, String>();
         responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-        return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
+        return SCIMResponse.withUTF8Body(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
     }
 
     /*
@@ -459,6 +565,12 @@ public class GroupResourceManager extends AbstractResourceManager {
 
     @Override
     public SCIMResponse listWithPOST(String resourceString, UserManager userManager) {
+
+        OperationTimer timer = startTimer(ScimOperation.LIST_WITH_POST, SCIMConstants.GROUP_ENDPOINT, resourceString);
+        return timer.stop(doListWithPOST(resourceString, userManager, timer));
+    }
+
+    private SCIMResponse doListWithPOST(String resourceString, UserManager userManager, OperationTimer timer) {
         JSONEncoder encoder = null;
         JSONDecoder decoder = null;
         try {
@@ -469,9 +581,11 @@ public class GroupResourceManager extends AbstractResourceManager {
 
             // return core group schema
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
+            timer.lap(ScimPhase.SCHEMA);
 
             //create the search request object
             SearchRequest searchRequest = decoder.decodeSearchRequestBody(resourceString, schema);
+            timer.lap(ScimPhase.DECODE);
             searchRequest.setCount(ResourceManagerUtil.processCount(searchRequest.getCountStr()));
             searchRequest.setStartIndex(ResourceManagerUtil.processStartIndex(searchRequest.getStartIndexStr()));
 
@@ -497,15 +611,16 @@ public class GroupResourceManager extends AbstractResourceManager {
 
             //get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), searchRequest.getAttributesAsString(),
+                    schema, searchRequest.getAttributesAsString(),
                     searchRequest.getExcludedAttributesAsString());
+            timer.lap(ScimPhase.SCHEMA);
 
             List<Object> returnedGroups;
             int totalResults = 0;
             //API user should pass a usermanager usermanager to UserResourceEndpoint.
             if (userManager != null) {
                 List<Object> tempList = userManager.listGroupsWithPost(searchRequest, requiredAttributes);
+                timer.lap(ScimPhase.USER_MANAGER);
 
                 totalResults = (int) tempList.get(0);
                 tempList.remove(0);
@@ -517,15 +632,17 @@ public class GroupResourceManager extends AbstractResourceManager {
                     ServerSideValidator.validateRetrievedSCIMObjectInList((Group) group, schema,
                             searchRequest.getAttributesAsString(), searchRequest.getExcludedAttributesAsString());
                 }
+                timer.lap(ScimPhase.VALIDATE);
                 //create a listed resource object out of the returned users list.
                 ListedResource listedResource = createListedResource(
                         returnedGroups, searchRequest.getStartIndex(), totalResults);
                 //convert the listed resource into specific format.
-                String encodedListedResource = encoder.encodeSCIMObject(listedResource);
+                ByteBuffer encodedListedResource = encoder.encodeSCIMObjectAsUTF8(listedResource);
+                timer.lap(ScimPhase.ENCODE);
                 //if there are any http headers to be added in the response header.
                 Map<String, String> responseHeaders = new HashMap<String, String>();
                 responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-                return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
+                return SCIMResponse.withUTF8Body(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
 
             } else {
                 String error = "Provided user manager handler is null.";
@@ -557,6 +674,34 @@ public class GroupResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse updateWithPUT(String existingId, String scimObjectString,
                                       UserManager userManager, String attributes, String excludeAttributes) {
+
+        return updateWithPUT(existingId, scimObjectString, userManager, attributes, excludeAttributes, null);
+    }
+
+    /*
+     * method which corresponds to HTTP PUT. The group is only updated if the If-Match header, when given, matches
+     * the current version of the group.
+     * @param existingId
+     * @param scimObjectString
+     * @param usermanager
+     * @param attributes
+     * @param excludeAttributes
+     * @param ifMatch
+     * @return
+     */
+    @Override
+    public SCIMResponse updateWithPUT(String existingId, String scimObjectString, UserManager userManager,
+                                      String attributes, String excludeAttributes, String ifMatch) {
+
+        OperationTimer timer = startTimer(ScimOperation.UPDATE_WITH_PUT, SCIMConstants.GROUP_ENDPOINT,
+                scimObjectString);
+        return timer.stop(doUpdateWithPUT(existingId, scimObjectString, userManager, attributes, excludeAttributes,
+                ifMatch, timer));
+    }
+
+    private SCIMResponse doUpdateWithPUT(String existingId, String scimObjectString, UserManager userManager,
+                                         String attributes, String excludeAttributes, String ifMatch,
+                                         OperationTimer timer) {
         //needs to validate the incoming object. eg: id can not be set by the consumer.
 
         JSONEncoder encoder = null;
@@ -571,23 +716,26 @@ public class GroupResourceManager extends AbstractResourceManager {
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
             //get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                    CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+                    schema, attributes, excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
             //decode the SCIM User object, encoded in the submitted payload.
             Group group = (Group) decoder.decodeResource(scimObjectString, schema, new Group());
+            timer.lap(ScimPhase.DECODE);
             Group updatedGroup = null;
             if (userManager != null) {
-                //retrieve the old object
-                Group oldGroup = userManager.getGroup(existingId, ResourceManagerUtil.getAllAttributeURIs(schema));
-                if (oldGroup != null) {
-                    Group newGroup = (Group) ServerSideValidator.validateUpdatedSCIMObject(oldGroup, group, schema);
-                    updatedGroup = userManager.updateGroup(oldGroup, newGroup, requiredAttributes);
-
-                } else {
-                    String error = "No user exists with the given id: " + existingId;
-                    throw new NotFoundException(error);
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        updatedGroup = replaceGroup(existingId, group, userManager, schema, requiredAttributes,
+                                ifMatch, timer);
+                        break;
+                    } catch (ConcurrentUpdateException e) {
+                        checkUpdateRetry(e, ifMatch, attempt);
+                        //validating the group has modified it, hence decode it again for the next attempt.
+                        group = new Group();
+                        decoder.decodeResource(scimObjectString, schema, group);
+                        timer.lap(ScimPhase.DECODE);
+                    }
                 }
-
             } else {
                 String error = "Provided user manager handler is null.";
                 throw new InternalErrorException(error);
@@ -598,13 +746,17 @@ public class GroupResourceManager extends AbstractResourceManager {
             if (updatedGroup != null) {
                 //create a deep copy of the user object since we are going to change it.
                 Group copiedGroup = (Group) CopyUtil.deepCopy(updatedGroup);
+                timer.lap(ScimPhase.COPY);
                 //need to remove password before returning
                 ServerSideValidator.validateReturnedAttributes(copiedGroup, attributes, excludeAttributes);
+                timer.lap(ScimPhase.VALIDATE);
                 encodedGroup = encoder.encodeSCIMObject(copiedGroup);
+                timer.lap(ScimPhase.ENCODE);
                 //add location header
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.GROUP_ENDPOINT) + "/" + updatedGroup.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                ETagUtil.addETagHeader(httpHeaders, ETagUtil.getETag(updatedGroup));
 
             } else {
                 String error = "Updated Group resource is null.";
@@ -624,9 +776,34 @@ public class GroupResourceManager extends AbstractResourceManager {
             return encodeSCIMException(e);
         } catch (NotImplementedException e) {
             return encodeSCIMException(e);
+        } catch (PreConditionFailedException e) {
+            return encodeSCIMException(e);
         }
     }
 
+    /*
+     * Reads the group, validates its replacement against it and updates the group.
+     */
+    private Group replaceGroup(String existingId, Group group, UserManager userManager, SCIMResourceTypeSchema schema,
+                               Map<String, Boolean> requiredAttributes, String ifMatch, OperationTimer timer)
+            throws NotFoundException, BadRequestException, NotImplementedException, CharonException,
+            PreConditionFailedException {
+
+        //retrieve the old object
+        Group oldGroup = userManager.getGroup(existingId, ResourceManagerUtil.getAllAttributeURIs(schema));
+        timer.lap(ScimPhase.USER_MANAGER);
+        if (oldGroup == null) {
+            String error = "No user exists with the given id: " + existingId;
+            throw new NotFoundException(error);
+        }
+        ETagUtil.validateIfMatch(ifMatch, oldGroup);
+        Group newGroup = (Group) ServerSideValidator.validateUpdatedSCIMObject(oldGroup, group, schema);
+        timer.lap(ScimPhase.VALIDATE);
+        Group updatedGroup = userManager.updateGroup(oldGroup, newGroup, requiredAttributes);
+        timer.lap(ScimPhase.USER_MANAGER);
+        return updatedGroup;
+    }
+
     /**
      * Updates the group based on the operations defined in the patchRequest. The updated group information is sent
      * back in the response.
@@ -639,6 +816,35 @@ public class GroupResourceManager extends AbstractResourceManager {
      */
     public SCIMResponse updateWithPATCH(String existingId, String patchRequest, UserManager userManager,
                                         String attributes, String excludeAttributes) {
+
+        return updateWithPATCH(existingId, patchRequest, userManager, attributes, excludeAttributes, null);
+    }
+
+    /**
+     * Updates the group based on the operations defined in the patchRequest. The group is only updated if the
+     * If-Match header, when given, matches the current version of the group.
+     *
+     * @param existingId        SCIM2 ID of the existing group.
+     * @param patchRequest      SCIM2 patch request.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @param ifMatch           Value of the If-Match header, may be null.
+     * @return SCIM Response.
+     */
+    @Override
+    public SCIMResponse updateWithPATCH(String existingId, String patchRequest, UserManager userManager,
+                                        String attributes, String excludeAttributes, String ifMatch) {
+
+        OperationTimer timer = startTimer(ScimOperation.UPDATE_WITH_PATCH, SCIMConstants.GROUP_ENDPOINT,
+                patchRequest);
+        return timer.stop(doUpdateWithPATCH(existingId, patchRequest, userManager, attributes, excludeAttributes,
+                ifMatch, timer));
+    }
+
+    private SCIMResponse doUpdateWithPATCH(String existingId, String patchRequest, UserManager userManager,
+                                           String attributes, String excludeAttributes, String ifMatch,
+                                           OperationTimer timer) {
         try {
             if (userManager == null) {
                 String error = "Provided user manager handler is null.";
@@ -647,41 +853,49 @@ public class GroupResourceManager extends AbstractResourceManager {
 
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getAllAttributeURIs(schema);
+            timer.lap(ScimPhase.SCHEMA);
 
             List<PatchOperation> opList = getDecoder().decodeRequest(patchRequest);
+            timer.lap(ScimPhase.DECODE);
 
             if (!isDeleteAllUsersOperationFound(opList)) {
-                return updateWithPatchForAddRemoveOperations(existingId, opList, userManager, attributes,
-                        excludeAttributes);
+                validateIfMatch(existingId, userManager, ifMatch);
+                timer.lap(ScimPhase.USER_MANAGER);
+                return doPatchForAddRemoveOperations(existingId, opList, userManager, attributes, excludeAttributes,
+                        timer);
             }
 
-            // Get the group from the user core
-            Group oldGroup = userManager.getGroup(existingId, requiredAttributes);
-            if (oldGroup == null) {
-                throw new NotFoundException("No group with the id : " + existingId + " in the user store.");
+            Group updatedGroup;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    updatedGroup = readAndUpdateGroup(existingId, patchRequest, userManager, schema,
+                            requiredAttributes, ifMatch, timer);
+                    break;
+                } catch (ConcurrentUpdateException e) {
+                    checkUpdateRetry(e, ifMatch, attempt);
+                }
             }
-
-            Group originalGroup = (Group) CopyUtil.deepCopy(oldGroup);
-            Group patchedGroup = doPatchGroup(oldGroup, schema, patchRequest);
-
-            Group updatedGroup = userManager.updateGroup(originalGroup, patchedGroup, requiredAttributes);
             if (updatedGroup != null) {
                 // Create a deep copy of the group object since we are going to change it.
                 Group copyOfUpdatedGroup = (Group) CopyUtil.deepCopy(updatedGroup);
+                timer.lap(ScimPhase.COPY);
                 ServerSideValidator.validateReturnedAttributes(copyOfUpdatedGroup, attributes, excludeAttributes);
+                timer.lap(ScimPhase.VALIDATE);
 
                 String encodedGroup = getEncoder().encodeSCIMObject(copyOfUpdatedGroup);
+                timer.lap(ScimPhase.ENCODE);
                 Map<String, String> httpHeaders = new HashMap<>();
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.GROUP_ENDPOINT) + "/" + updatedGroup.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                ETagUtil.addETagHeader(httpHeaders, ETagUtil.getETag(updatedGroup));
                 return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedGroup, httpHeaders);
             } else {
                 String error = "Updated group resource is null.";
                 throw new CharonException(error);
             }
         } catch (NotFoundException | BadRequestException | NotImplementedException | CharonException |
-                InternalErrorException e) {
+                InternalErrorException | PreConditionFailedException e) {
             return AbstractResourceManager.encodeSCIMException(e);
         } catch (RuntimeException e) {
             CharonException e1 = new CharonException("Error in performing the patch operation on group resource.", e);
@@ -689,6 +903,32 @@ public class GroupResourceManager extends AbstractResourceManager {
         }
     }
 
+    /*
+     * Reads the group, applies the operations of the patch request to it and updates the group.
+     */
+    private Group readAndUpdateGroup(String existingId, String patchRequest, UserManager userManager,
+                                     SCIMResourceTypeSchema schema, Map<String, Boolean> requiredAttributes,
+                                     String ifMatch, OperationTimer timer)
+            throws NotFoundException, BadRequestException, NotImplementedException, CharonException,
+            InternalErrorException, PreConditionFailedException {
+
+        // Get the group from the user core
+        Group oldGroup = userManager.getGroup(existingId, requiredAttributes);
+        timer.lap(ScimPhase.USER_MANAGER);
+        if (oldGroup == null) {
+            throw new NotFoundException("No group with the id : " + existingId + " in the user store.");
+        }
+        ETagUtil.validateIfMatch(ifMatch, oldGroup);
+
+        Group originalGroup = (Group) CopyUtil.deepCopy(oldGroup);
+        timer.lap(ScimPhase.COPY);
+        Group patchedGroup = doPatchGroup(oldGroup, schema, patchRequest, timer);
+
+        Group updatedGroup = userManager.updateGroup(originalGroup, patchedGroup, requiredAttributes);
+        timer.lap(ScimPhase.USER_MANAGER);
+        return updatedGroup;
+    }
+
     private boolean isDeleteAllUsersOperationFound(List<PatchOperation> patchOperations) throws JSONException {
 
         for (PatchOperation patchOperation : patchOperations) {
@@ -724,6 +964,15 @@ public class GroupResourceManager extends AbstractResourceManager {
                                                               UserManager userManager, String attributes,
                                                               String excludeAttributes) {
 
+        OperationTimer timer = startTimer(ScimOperation.UPDATE_WITH_PATCH, SCIMConstants.GROUP_ENDPOINT, null);
+        return timer.stop(doPatchForAddRemoveOperations(existingGroupId, opList, userManager, attributes,
+                excludeAttributes, timer));
+    }
+
+    private SCIMResponse doPatchForAddRemoveOperations(String existingGroupId, List<PatchOperation> opList,
+                                                       UserManager userManager, String attributes,
+                                                       String excludeAttributes, OperationTimer timer) {
+
         try {
             Map<String, List<PatchOperation>> patchOperations = new HashMap<>();
 
@@ -750,28 +999,35 @@ public class GroupResourceManager extends AbstractResourceManager {
 
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
             String groupName = getGroupName(userManager, existingGroupId);
+            timer.lap(ScimPhase.USER_MANAGER);
 
             processGroupPatchOperations(patchOperations, schema);
+            timer.lap(ScimPhase.DECODE);
 
             // Get the URIs of required attributes which must be given a value.
             Map<String, Boolean> requiredAttributes =
-                    ResourceManagerUtil.getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+                    ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema, attributes, excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
 
             Group updatedGroup = userManager.patchGroup(existingGroupId, groupName, patchOperations,
                     requiredAttributes);
+            timer.lap(ScimPhase.USER_MANAGER);
 
             if (updatedGroup != null) {
                 // Create a deep copy of the group object since we are going to change it.
                 Group copyOfUpdatedGroup = (Group) CopyUtil.deepCopy(updatedGroup);
+                timer.lap(ScimPhase.COPY);
                 ServerSideValidator.validateReturnedAttributes(copyOfUpdatedGroup, attributes, excludeAttributes);
+                timer.lap(ScimPhase.VALIDATE);
                 // Encode the updated group object and add id attribute to Location header.
                 String encodedGroup = getEncoder().encodeSCIMObject(copyOfUpdatedGroup);
+                timer.lap(ScimPhase.ENCODE);
 
                 Map<String, String> httpHeaders = new HashMap<>();
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER,
                         getResourceEndpointURL(SCIMConstants.GROUP_ENDPOINT) + "/" + updatedGroup.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                ETagUtil.addETagHeader(httpHeaders, ETagUtil.getETag(updatedGroup));
 
                 return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedGroup, httpHeaders);
             } else {
@@ -786,6 +1042,20 @@ public class GroupResourceManager extends AbstractResourceManager {
         }
     }
 
+    private void validateIfMatch(String groupId, UserManager userManager, String ifMatch)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            PreConditionFailedException {
+
+        if (!ETagUtil.isConditionalRequest(ifMatch)) {
+            return;
+        }
+        Group group = userManager.getGroup(groupId, ETagUtil.getETagAttributeURIs());
+        if (group == null) {
+            throw new NotFoundException("No group with the id : " + groupId + " in the user store.");
+        }
+        ETagUtil.validateIfMatch(ifMatch, group);
+    }
+
     private String getGroupName(UserManager userManager, String groupId)
             throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
 
@@ -963,6 +1233,14 @@ public class GroupResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse updateWithPATCH(String existingGroupId, String patchRequest, UserManager userManager) {
 
+        OperationTimer timer = startTimer(ScimOperation.UPDATE_WITH_PATCH, SCIMConstants.GROUP_ENDPOINT,
+                patchRequest);
+        return timer.stop(doUpdateWithPATCH(existingGroupId, patchRequest, userManager, timer));
+    }
+
+    private SCIMResponse doUpdateWithPATCH(String existingGroupId, String patchRequest, UserManager userManager,
+                                           OperationTimer timer) {
+
         try {
             if (userManager == null) {
                 String error = "Provided user manager handler is null.";
@@ -971,17 +1249,30 @@ public class GroupResourceManager extends AbstractResourceManager {
 
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
             Map<String, Boolean> requestAttributes = ResourceManagerUtil.getAllAttributeURIs(schema);
+            timer.lap(ScimPhase.SCHEMA);
+
+            for (int attempt = 1; ; attempt++) {
+                Group oldGroup = userManager.getGroup(existingGroupId, requestAttributes);
+                timer.lap(ScimPhase.USER_MANAGER);
+                if (oldGroup == null) {
+                    throw new NotFoundException("No group with the id : " + existingGroupId +
+                            " exists in the user store.");
+                }
 
-            Group oldGroup = userManager.getGroup(existingGroupId, requestAttributes);
-            if (oldGroup == null) {
-                throw new NotFoundException("No group with the id : " + existingGroupId + " exists in the user store.");
-            }
-
-            // Make a copy of original group. This will be used to restore to the original condition if failure occurs.
-            Group originalGroup = (Group) CopyUtil.deepCopy(oldGroup);
-            Group patchedGroup = doPatchGroup(oldGroup, schema, patchRequest);
+                // Make a copy of original group. This will be used to restore to the original condition if failure
+                // occurs.
+                Group originalGroup = (Group) CopyUtil.deepCopy(oldGroup);
+                timer.lap(ScimPhase.COPY);
+                Group patchedGroup = doPatchGroup(oldGroup, schema, patchRequest, timer);
 
-            userManager.updateGroup(originalGroup, patchedGroup);
+                try {
+                    userManager.updateGroup(originalGroup, patchedGroup);
+                    timer.lap(ScimPhase.USER_MANAGER);
+                    break;
+                } catch (ConcurrentUpdateException e) {
+                    checkUpdateRetry(e, null, attempt);
+                }
+            }
 
             // Build the 204 response.
             Map<String, String> httpHeaders = new HashMap<>();
@@ -997,15 +1288,18 @@ public class GroupResourceManager extends AbstractResourceManager {
     }
 
 
-    private Group doPatchGroup(Group oldGroup, SCIMResourceTypeSchema groupSchema, String patchRequest)
+    private Group doPatchGroup(Group oldGroup, SCIMResourceTypeSchema groupSchema, String patchRequest,
+                               OperationTimer timer)
             throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
 
         // Make a copy of the original group.
         Group originalGroup = (Group) CopyUtil.deepCopy(oldGroup);
         Group copyOfOldGroup = (Group) CopyUtil.deepCopy(oldGroup);
+        timer.lap(ScimPhase.COPY);
 
         Group patchedGroup = null;
         List<PatchOperation> opList = getDecoder().decodeRequest(patchRequest);
+        timer.lap(ScimPhase.DECODE);
         for (PatchOperation operation : opList) {
             switch (operation.getOperation()) {
                 case SCIMConstants.OperationalConstants.ADD:
@@ -1049,7 +1343,12 @@ public class GroupResourceManager extends AbstractResourceManager {
             }
         }
 
-        return (Group) ServerSideValidator.validateUpdatedSCIMObject(originalGroup, patchedGroup, groupSchema);
+        timer.lap(ScimPhase.PATCH);
+
+        Group validatedGroup = (Group) ServerSideValidator.validateUpdatedSCIMObject(originalGroup, patchedGroup,
+                groupSchema);
+        timer.lap(ScimPhase.VALIDATE);
+        return validatedGroup;
     }
 
     /*
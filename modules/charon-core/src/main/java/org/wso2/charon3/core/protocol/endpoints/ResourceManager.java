@@ -36,6 +36,23 @@ public interface ResourceManager {
      */
     SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes);
 
+    /**
+     * Conditional variant of the HTTP GET request. Resource endpoints which support entity tags return 304 Not
+     * Modified when the If-None-Match header matches the current version of the resource.
+     *
+     * @param id                Resource id.
+     * @param userManager       User manager.
+     * @param attributes        Attributes in the response.
+     * @param excludeAttributes Exclude attributes in the response.
+     * @param ifNoneMatch       Value of the If-None-Match header, may be null.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes,
+            String ifNoneMatch) {
+
+        return get(id, userManager, attributes, excludeAttributes);
+    }
+
     /*
      * Method of resource endpoint which is mapped to HTTP POST request.
      *
@@ -58,6 +75,20 @@ public interface ResourceManager {
      */
     SCIMResponse delete(String id, UserManager userManager);
 
+    /**
+     * Conditional variant of the HTTP DELETE request. Resource endpoints which support entity tags respond with
+     * 412 Precondition Failed when the If-Match header does not match the current version of the resource.
+     *
+     * @param id          Resource id.
+     * @param userManager User manager.
+     * @param ifMatch     Value of the If-Match header, may be null.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse delete(String id, UserManager userManager, String ifMatch) {
+
+        return delete(id, userManager);
+    }
+
     /**
      * This method is deprecated
      *
@@ -122,6 +153,24 @@ public interface ResourceManager {
     SCIMResponse updateWithPUT(String existingId, String scimObjectString, UserManager userManager, String attributes,
             String excludeAttributes);
 
+    /**
+     * Conditional variant of the HTTP PUT request. Resource endpoints which support entity tags respond with
+     * 412 Precondition Failed when the If-Match header does not match the current version of the resource.
+     *
+     * @param existingId        Resource id.
+     * @param scimObjectString  Put request.
+     * @param userManager       User manager.
+     * @param attributes        Attributes in the response.
+     * @param excludeAttributes Exclude attributes in the response.
+     * @param ifMatch           Value of the If-Match header, may be null.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse updateWithPUT(String existingId, String scimObjectString, UserManager userManager,
+            String attributes, String excludeAttributes, String ifMatch) {
+
+        return updateWithPUT(existingId, scimObjectString, userManager, attributes, excludeAttributes);
+    }
+
     /*
      * @param existingId
      * @param scimObjectString
@@ -131,6 +180,24 @@ public interface ResourceManager {
     SCIMResponse updateWithPATCH(String existingId, String scimObjectString, UserManager userManager, String attributes,
             String excludeAttributes);
 
+    /**
+     * Conditional variant of the HTTP PATCH request. Resource endpoints which support entity tags respond with
+     * 412 Precondition Failed when the If-Match header does not match the current version of the resource.
+     *
+     * @param existingId        Resource id.
+     * @param scimObjectString  Patch request.
+     * @param userManager       User manager.
+     * @param attributes        Attributes in the response.
+     * @param excludeAttributes Exclude attributes in the response.
+     * @param ifMatch           Value of the If-Match header, may be null.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse updateWithPATCH(String existingId, String scimObjectString, UserManager userManager,
+            String attributes, String excludeAttributes, String ifMatch) {
+
+        return updateWithPATCH(existingId, scimObjectString, userManager, attributes, excludeAttributes);
+    }
+
 
     /*
      * Partially updates a resource. This method does not return the updated resource in the response.
@@ -161,6 +228,22 @@ public interface ResourceManager {
                 Collections.emptyMap());
     }
 
+    /**
+     * Conditional GET method to retrieve a specific role.
+     *
+     * @param id                Resource id.
+     * @param roleManager       Role manager.
+     * @param attributes        Attributes in the response.
+     * @param excludeAttributes Exclude attributes in the response.
+     * @param ifNoneMatch       Value of the If-None-Match header, may be null.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse getRole(String id, RoleManager roleManager, String attributes, String excludeAttributes,
+            String ifNoneMatch) {
+
+        return getRole(id, roleManager, attributes, excludeAttributes);
+    }
+
     /**
      * POST method to create a new role.
      *
@@ -187,6 +270,19 @@ public interface ResourceManager {
                 Collections.emptyMap());
     }
 
+    /**
+     * Conditional DELETE method to delete a specific role.
+     *
+     * @param id          Resource id.
+     * @param roleManager Role manager.
+     * @param ifMatch     Value of the If-Match header, may be null.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse deleteRole(String id, RoleManager roleManager, String ifMatch) {
+
+        return deleteRole(id, roleManager);
+    }
+
     /**
      * GET method to list roles.
      *
@@ -232,6 +328,20 @@ public interface ResourceManager {
                 Collections.emptyMap());
     }
 
+    /**
+     * Conditional PUT method to update a role by giving entire attributes set.
+     *
+     * @param id          Resource id.
+     * @param putRequest  Put request.
+     * @param roleManager Role manager.
+     * @param ifMatch     Value of the If-Match header, may be null.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse updateWithPUTRole(String id, String putRequest, RoleManager roleManager, String ifMatch) {
+
+        return updateWithPUTRole(id, putRequest, roleManager);
+    }
+
     /**
      * PATCH method to partially updates a role.
      *
@@ -245,4 +355,18 @@ public interface ResourceManager {
         return new SCIMResponse(ResponseCodeConstants.CODE_NOT_IMPLEMENTED, ResponseCodeConstants.DESC_NOT_IMPLEMENTED,
                 Collections.emptyMap());
     }
+
+    /**
+     * Conditional PATCH method to partially update a role.
+     *
+     * @param id           Resource id.
+     * @param patchRequest Patch request.
+     * @param roleManager  Role manager.
+     * @param ifMatch      Value of the If-Match header, may be null.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse updateWithPATCHRole(String id, String patchRequest, RoleManager roleManager, String ifMatch) {
+
+        return updateWithPATCHRole(id, patchRequest, roleManager);
+    }
 }
@@ -18,6 +18,7 @@ package org.wso2.charon3.core.protocol.endpoints;
 import org.json.JSONException;
 import org.wso2.charon3.core.attributes.MultiValuedAttribute;
 import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.config.SCIMUserSchemaExtensionBuilder;
 import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.encoder.JSONEncoder;
 import org.wso2.charon3.core.exceptions.BadRequestException;
@@ -51,7 +52,32 @@ public class ResourceTypeResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes) {
 
-        return getResourceType();
+        return get(id, userManager, attributes, excludeAttributes, null);
+    }
+
+    /*
+     * Retrieves a resource type. The encoded resource types are cached until the user schema extension or the
+     * endpoint URLs change.
+     *
+     * @return SCIM response to be returned.
+     */
+    @Override
+    public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes,
+                            String ifNoneMatch) {
+
+        try {
+            SCIMResourceSchemaManager schemaManager = SCIMResourceSchemaManager.getInstance();
+            return DiscoveryResponseCache.getInstance().getResponse(ifNoneMatch, this::getResourceType,
+                    SCIMConstants.RESOURCE_TYPE_ENDPOINT,
+                    getResourceEndpointURL(SCIMConstants.RESOURCE_TYPE_ENDPOINT),
+                    getResourceEndpointURL(SCIMConstants.USER_ENDPOINT),
+                    getResourceEndpointURL(SCIMConstants.GROUP_ENDPOINT),
+                    SCIMUserSchemaExtensionBuilder.getInstance().getExtensionSchema(),
+                    schemaManager.getExtensionRequired(),
+                    schemaManager.getCustomSchemaExtensionURI());
+        } catch (NotFoundException e) {
+            return encodeSCIMException(e);
+        }
     }
 
     /*
@@ -27,6 +27,7 @@ import org.wso2.charon3.core.exceptions.ConflictException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
 import org.wso2.charon3.core.extensions.RoleManager;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.objects.ListedResource;
@@ -39,6 +40,7 @@ import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
 import org.wso2.charon3.core.schema.ServerSideValidator;
 import org.wso2.charon3.core.utils.CopyUtil;
+import org.wso2.charon3.core.utils.ETagUtil;
 import org.wso2.charon3.core.utils.PatchOperationUtil;
 import org.wso2.charon3.core.utils.ResourceManagerUtil;
 import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
@@ -47,6 +49,7 @@ import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -62,6 +65,13 @@ public class RoleResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse getRole(String id, RoleManager roleManager, String attributes, String excludeAttributes) {
 
+        return getRole(id, roleManager, attributes, excludeAttributes, null);
+    }
+
+    @Override
+    public SCIMResponse getRole(String id, RoleManager roleManager, String attributes, String excludeAttributes,
+            String ifNoneMatch) {
+
         try {
             if (roleManager == null) {
                 String error = "Provided role manager is null.";
@@ -70,20 +80,27 @@ public class RoleResourceManager extends AbstractResourceManager {
             JSONEncoder encoder = getEncoder();
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getRoleResourceSchema();
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
 
-            Role role = roleManager.getRole(id, requiredAttributes);
+            Role role = roleManager.getRole(id, ETagUtil.addETagAttributeURIs(requiredAttributes));
             if (role == null) {
                 String message = "Role id: " + id + " not found in the system.";
                 throw new NotFoundException(message);
             }
 
+            Map<String, String> httpHeaders = new HashMap<>();
+            // The version must be read before the meta attribute is filtered out of the response.
+            String eTag = ETagUtil.getETag(role);
+            ETagUtil.addETagHeader(httpHeaders, eTag);
+            if (ETagUtil.isNotModified(ifNoneMatch, eTag)) {
+                return new SCIMResponse(ResponseCodeConstants.CODE_NOT_MODIFIED, null, httpHeaders);
+            }
+
             ServerSideValidator.validateRetrievedSCIMObject(role, schema, attributes, excludeAttributes);
             ServerSideValidator.validateRetrievedSCIMRoleObject(role, attributes, excludeAttributes);
 
             String encodedRole = encoder.encodeSCIMObject(role);
-            Map<String, String> httpHeaders = new HashMap<>();
             httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
             return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedRole, httpHeaders);
 
@@ -116,6 +133,7 @@ public class RoleResourceManager extends AbstractResourceManager {
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER,
                         getResourceEndpointURL(SCIMConstants.ROLE_ENDPOINT) + "/" + createdRole.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                ETagUtil.addETagHeader(httpHeaders, ETagUtil.getETag(createdRole));
             } else {
                 String message = "Newly created Role resource is null.";
                 throw new InternalErrorException(message);
@@ -131,16 +149,29 @@ public class RoleResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse deleteRole(String id, RoleManager roleManager) {
 
+        return deleteRole(id, roleManager, null);
+    }
+
+    @Override
+    public SCIMResponse deleteRole(String id, RoleManager roleManager, String ifMatch) {
+
         try {
             if (roleManager == null) {
                 String error = "Provided role manager is null.";
                 throw new InternalErrorException(error);
             }
+            if (ETagUtil.isConditionalRequest(ifMatch)) {
+                Role role = roleManager.getRole(id, ETagUtil.getETagAttributeURIs());
+                if (role == null) {
+                    throw new NotFoundException("No role with the id : " + id + " exists in the system.");
+                }
+                ETagUtil.validateIfMatch(ifMatch, role);
+            }
             roleManager.deleteRole(id);
             return new SCIMResponse(ResponseCodeConstants.CODE_NO_CONTENT, null, null);
 
         } catch (InternalErrorException | CharonException | NotFoundException | NotImplementedException
-                | BadRequestException e) {
+                | BadRequestException | PreConditionFailedException e) {
             return encodeSCIMException(e);
         }
     }
@@ -256,11 +287,11 @@ public class RoleResourceManager extends AbstractResourceManager {
         // Create a listed resource object out of the returned groups list.
         ListedResource listedResource = createListedResource(roleList, startIndex, totalResults);
         // Convert the listed resource into specific format.
-        String encodedListedResource = encoder.encodeSCIMObject(listedResource);
+        ByteBuffer encodedListedResource = encoder.encodeSCIMObjectAsUTF8(listedResource);
 
         Map<String, String> responseHeaders = new HashMap<>();
         responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-        return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
+        return SCIMResponse.withUTF8Body(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
     }
 
     protected ListedResource createListedResource(List<Object> roles, int startIndex, int totalResults) {
@@ -329,10 +360,10 @@ public class RoleResourceManager extends AbstractResourceManager {
             // Create a listed resource object out of the returned users list.
             ListedResource listedResource = createListedResource(returnedRoles, searchRequestObject.getStartIndex(),
                     totalResults);
-            String encodedListedResource = encoder.encodeSCIMObject(listedResource);
+            ByteBuffer encodedListedResource = encoder.encodeSCIMObjectAsUTF8(listedResource);
             Map<String, String> responseHeaders = new HashMap<>();
             responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-            return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
+            return SCIMResponse.withUTF8Body(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
 
         } catch (CharonException | InternalErrorException | BadRequestException | NotImplementedException e) {
             return AbstractResourceManager.encodeSCIMException(e);
@@ -342,6 +373,12 @@ public class RoleResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse updateWithPUTRole(String id, String putRequest, RoleManager roleManager) {
 
+        return updateWithPUTRole(id, putRequest, roleManager, null);
+    }
+
+    @Override
+    public SCIMResponse updateWithPUTRole(String id, String putRequest, RoleManager roleManager, String ifMatch) {
+
         try {
             if (roleManager == null) {
                 String error = "Provided role manager is null.";
@@ -357,6 +394,7 @@ public class RoleResourceManager extends AbstractResourceManager {
             // Retrieve the old object.
             Role oldRole = roleManager.getRole(id, requestAttributes);
             if (oldRole != null) {
+                ETagUtil.validateIfMatch(ifMatch, oldRole);
                 Role newRole = (Role) ServerSideValidator.validateUpdatedSCIMObject(oldRole, role, schema);
                 updatedRole = roleManager.updateRole(oldRole, newRole);
             } else {
@@ -366,7 +404,7 @@ public class RoleResourceManager extends AbstractResourceManager {
             return getScimResponse(encoder, updatedRole);
 
         } catch (NotFoundException | BadRequestException | CharonException | ConflictException | InternalErrorException
-                | NotImplementedException e) {
+                | NotImplementedException | PreConditionFailedException e) {
             return encodeSCIMException(e);
         }
     }
@@ -374,6 +412,12 @@ public class RoleResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse updateWithPATCHRole(String id, String patchRequest, RoleManager roleManager) {
 
+        return updateWithPATCHRole(id, patchRequest, roleManager, null);
+    }
+
+    @Override
+    public SCIMResponse updateWithPATCHRole(String id, String patchRequest, RoleManager roleManager, String ifMatch) {
+
         try {
             if (roleManager == null) {
                 String error = "Provided role manager handler is null.";
@@ -387,6 +431,7 @@ public class RoleResourceManager extends AbstractResourceManager {
             if (oldRole == null) {
                 throw new NotFoundException("No role with the id : " + id + " exists in the system.");
             }
+            ETagUtil.validateIfMatch(ifMatch, oldRole);
             // Make a copy of original group. This will be used to restore to the original condition if failure occurs.
             Role originalRole = (Role) CopyUtil.deepCopy(oldRole);
             Role patchedRole = doPatchRole(oldRole, schema, patchRequest);
@@ -394,7 +439,7 @@ public class RoleResourceManager extends AbstractResourceManager {
             return getScimResponse(encoder, updatedRole);
 
         } catch (NotFoundException | BadRequestException | NotImplementedException | CharonException | ConflictException
-                | InternalErrorException e) {
+                | InternalErrorException | PreConditionFailedException e) {
             return AbstractResourceManager.encodeSCIMException(e);
         } catch (RuntimeException e) {
             CharonException ex = new CharonException("Error in performing the patch operation on role resource.", e);
@@ -415,6 +460,7 @@ public class RoleResourceManager extends AbstractResourceManager {
             httpHeaders.put(SCIMConstants.LOCATION_HEADER,
                     getResourceEndpointURL(SCIMConstants.ROLE_ENDPOINT) + "/" + updatedRole.getId());
             httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+            ETagUtil.addETagHeader(httpHeaders, ETagUtil.getETag(updatedRole));
         } else {
             String error = "Updated Role resource is null.";
             throw new InternalErrorException(error);
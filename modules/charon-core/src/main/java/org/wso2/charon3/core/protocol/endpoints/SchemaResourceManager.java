@@ -37,6 +37,7 @@ import org.wso2.charon3.core.schema.SCIMConstants;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import static org.wso2.charon3.core.schema.SCIMConstants.CUSTOM_USER;
@@ -58,6 +59,8 @@ public class SchemaResourceManager extends AbstractResourceManager {
     private static final Logger log = LoggerFactory.getLogger(SchemaResourceManager.class);
 
     private static final String ATTRIBUTES = "attributes";
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
 
     public SchemaResourceManager() {
 
@@ -75,12 +78,117 @@ public class SchemaResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes) {
 
+        return get(id, userManager, attributes, excludeAttributes, null);
+    }
+
+    /**
+     * Retrieves a SCIM schemas definition. The encoded definition is cached for as long as the schema attributes the
+     * user manager returns have the same content and the custom schema and endpoint URL do not change.
+     *
+     * @param id
+     * @param userManager
+     * @param attributes
+     * @param excludeAttributes
+     * @param ifNoneMatch       value of the If-None-Match header
+     * @return SCIM schemas response.
+     */
+    @Override
+    public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes,
+                            String ifNoneMatch) {
+
         try {
             List<Attribute> userSchemaAttributes = userManager.getUserSchema();
             List<Attribute> userEnterpriseSchemaAttributes = userManager.getEnterpriseUserSchema();
             List<Attribute> userCustomSchemaAttributes = userManager.getCustomUserSchemaAttributes();
             String customUserSchemaURI = SCIMCustomSchemaExtensionBuilder.getInstance().getURI();
 
+            return DiscoveryResponseCache.getInstance().getResponse(ifNoneMatch,
+                    () -> getSchemas(id, userSchemaAttributes, userEnterpriseSchemaAttributes,
+                            userCustomSchemaAttributes, customUserSchemaURI),
+                    SCIMConstants.SCHEMAS_ENDPOINT, StringUtils.isBlank(id) ? null : id.toLowerCase(Locale.ENGLISH),
+                    getResourceEndpointURL(SCIMConstants.SCHEMAS_ENDPOINT), customUserSchemaURI,
+                    getFingerprint(userSchemaAttributes), getFingerprint(userEnterpriseSchemaAttributes),
+                    getFingerprint(userCustomSchemaAttributes));
+        } catch (BadRequestException | CharonException | NotFoundException | NotImplementedException e) {
+            return AbstractResourceManager.encodeSCIMException(e);
+        }
+    }
+
+    /*
+     * Fingerprint of everything the encoded definitions of the given schema attributes are built from. Attributes do
+     * not implement equals and user managers commonly build the lists afresh on every call, hence the cache key holds
+     * the fingerprint of the lists rather than the lists, which also keeps a list modified in place from being served
+     * stale. The fingerprint is a 64 bit FNV-1a hash.
+     */
+    static Long getFingerprint(List<Attribute> schemaAttributes) {
+
+        if (schemaAttributes == null) {
+            return null;
+        }
+        long hash = hash(FNV_OFFSET_BASIS, schemaAttributes.size());
+        for (Attribute schemaAttribute : schemaAttributes) {
+            hash = hash(hash, schemaAttribute);
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, Attribute attribute) {
+
+        if (attribute == null) {
+            return hash(hash, -1);
+        }
+        hash = hash(hash, attribute.getName());
+        hash = hash(hash, String.valueOf(attribute.getType()));
+        hash = hash(hash, String.valueOf(attribute.getMultiValued()));
+        hash = hash(hash, attribute.getDescription());
+        hash = hash(hash, String.valueOf(attribute.getRequired()));
+        hash = hash(hash, String.valueOf(attribute.getCaseExact()));
+        hash = hash(hash, String.valueOf(attribute.getMutability()));
+        hash = hash(hash, String.valueOf(attribute.getReturned()));
+        hash = hash(hash, String.valueOf(attribute.getUniqueness()));
+        Map<String, String> properties = attribute.getAttributeProperties();
+        hash = hash(hash, properties.size());
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            hash = hash(hash, property.getKey());
+            hash = hash(hash, property.getValue());
+        }
+        Map<String, Attribute> subAttributes = attribute instanceof ComplexAttribute ?
+                ((ComplexAttribute) attribute).getSubAttributesList() : null;
+        if (subAttributes == null) {
+            return hash(hash, -1);
+        }
+        hash = hash(hash, subAttributes.size());
+        for (Attribute subAttribute : subAttributes.values()) {
+            hash = hash(hash, subAttribute);
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, String value) {
+
+        if (value == null) {
+            return hash(hash, -1);
+        }
+        hash = hash(hash, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, int value) {
+
+        for (int i = 0; i < 4; i++) {
+            hash = (hash ^ ((value >>> (i * 8)) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private SCIMResponse getSchemas(String id, List<Attribute> userSchemaAttributes,
+                                    List<Attribute> userEnterpriseSchemaAttributes,
+                                    List<Attribute> userCustomSchemaAttributes, String customUserSchemaURI) {
+
+        try {
             Map<String, List<Attribute>> schemas = new HashMap<>();
             // Below code blocks handles the /Schemas/ api requests.
             if (StringUtils.isBlank(id)) {
@@ -105,7 +213,7 @@ public class SchemaResourceManager extends AbstractResourceManager {
             }
 
             return buildSchemasResponse(schemas);
-        } catch (BadRequestException | CharonException | NotFoundException | NotImplementedException e) {
+        } catch (CharonException | NotFoundException | NotImplementedException e) {
             // TODO: 11/7/19 Seperate out user errors & server errors
             return AbstractResourceManager.encodeSCIMException(e);
         }
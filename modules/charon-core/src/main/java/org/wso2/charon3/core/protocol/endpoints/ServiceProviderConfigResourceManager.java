@@ -56,7 +56,25 @@ public class ServiceProviderConfigResourceManager extends AbstractResourceManage
      */
     @Override
     public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes) {
-        return getServiceProviderConfig();
+        return get(id, userManager, attributes, excludeAttributes, null);
+    }
+
+    /*
+     * Retrieves a service provider config. The encoded config is cached until the configuration changes.
+     *
+     * @return SCIM response to be returned.
+     */
+    @Override
+    public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes,
+                            String ifNoneMatch) {
+        try {
+            return DiscoveryResponseCache.getInstance().getResponse(ifNoneMatch, this::getServiceProviderConfig,
+                    SCIMConstants.SERVICE_PROVIDER_CONFIG_ENDPOINT,
+                    getResourceEndpointURL(SCIMConstants.SERVICE_PROVIDER_CONFIG_ENDPOINT),
+                    CharonConfiguration.getInstance().getRevision());
+        } catch (NotFoundException e) {
+            return encodeSCIMException(e);
+        }
     }
 
     private SCIMResponse getServiceProviderConfig() {
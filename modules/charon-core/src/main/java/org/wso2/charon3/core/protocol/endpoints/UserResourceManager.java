@@ -25,21 +25,28 @@ import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.encoder.JSONEncoder;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConcurrentUpdateException;
 import org.wso2.charon3.core.exceptions.ConflictException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
 import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.objects.AttributeChangeSet;
 import org.wso2.charon3.core.objects.ListedResource;
 import org.wso2.charon3.core.objects.User;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.protocol.metrics.OperationTimer;
+import org.wso2.charon3.core.protocol.metrics.ScimOperation;
+import org.wso2.charon3.core.protocol.metrics.ScimPhase;
 import org.wso2.charon3.core.schema.SCIMConstants;
 import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.schema.ServerSideValidator;
 import org.wso2.charon3.core.utils.CopyUtil;
-import org.wso2.charon3.core.utils.PatchOperationUtil;
+import org.wso2.charon3.core.utils.ETagUtil;
+import org.wso2.charon3.core.utils.PatchPlanner;
 import org.wso2.charon3.core.utils.ResourceManagerUtil;
 import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
 import org.wso2.charon3.core.utils.codeutils.Node;
@@ -47,6 +54,7 @@ import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -75,6 +83,29 @@ public class UserResourceManager extends AbstractResourceManager {
      * @return SCIM response to be returned.
      */
     public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes) {
+
+        return get(id, userManager, attributes, excludeAttributes, null);
+    }
+
+    /*
+     * Retrieves a user resource given an unique user id. Mapped to HTTP GET request. When the If-None-Match header
+     * matches the current version of the user, 304 Not Modified is returned without encoding the user.
+     *
+     * @param id          - unique resource id
+     * @param usermanager - usermanager instance defined by the external implementor of charon
+     * @param ifNoneMatch - value of the If-None-Match header
+     * @return SCIM response to be returned.
+     */
+    @Override
+    public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes,
+                            String ifNoneMatch) {
+
+        OperationTimer timer = startTimer(ScimOperation.GET, SCIMConstants.USER_ENDPOINT, null);
+        return timer.stop(doGet(id, userManager, attributes, excludeAttributes, ifNoneMatch, timer));
+    }
+
+    private SCIMResponse doGet(String id, UserManager userManager, String attributes, String excludeAttributes,
+                               String ifNoneMatch, OperationTimer timer) {
         JSONEncoder encoder = null;
         try {
             //obtain the json encoder
@@ -86,28 +117,15 @@ public class UserResourceManager extends AbstractResourceManager {
 
             //get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+                    schema, attributes, excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
 
             /*API user should pass a usermanager impl to UserResourceEndpoint.
             retrieve the user from the provided UM handler.*/
-            User user = ((UserManager) userManager).getUser(id, requiredAttributes);
+            User user = ((UserManager) userManager).getUser(id, ETagUtil.addETagAttributeURIs(requiredAttributes));
+            timer.lap(ScimPhase.USER_MANAGER);
 
-            //if user not found, return an error in relevant format.
-            if (user == null) {
-                String error = "User not found in the user store.";
-                throw new NotFoundException(error);
-            }
-            //perform service provider side validation.
-            ServerSideValidator.validateRetrievedSCIMObject(user, schema, attributes, excludeAttributes);
-            //convert the user into requested format.
-            String encodedUser = encoder.encodeSCIMObject(user);
-            //if there are any http headers to be added in the response header.
-            Map<String, String> responseHeaders = new HashMap<String, String>();
-            responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-            responseHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
-                    SCIMConstants.USER_ENDPOINT) + "/" + user.getId());
-            return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedUser, responseHeaders);
+            return buildGetResponse(user, encoder, schema, attributes, excludeAttributes, ifNoneMatch, timer);
 
         } catch (NotFoundException e) {
             return AbstractResourceManager.encodeSCIMException(e);
@@ -120,6 +138,50 @@ public class UserResourceManager extends AbstractResourceManager {
         }
     }
 
+    /**
+     * Builds the response of a GET request out of the user read from the user store.
+     *
+     * @param user              User read from the user store, null if it was not found
+     * @param encoder           Json encoder
+     * @param schema            Schema
+     * @param attributes        Required attributes
+     * @param excludeAttributes Exclude attributes
+     * @param ifNoneMatch       Value of the If-None-Match header
+     * @param timer             Timer of the get operation
+     * @return SCIM response
+     * @throws NotFoundException   if the user was not found
+     * @throws CharonException     if the user can not be encoded
+     * @throws BadRequestException if the requested attributes are invalid
+     */
+    SCIMResponse buildGetResponse(User user, JSONEncoder encoder, SCIMResourceTypeSchema schema, String attributes,
+            String excludeAttributes, String ifNoneMatch, OperationTimer timer)
+            throws NotFoundException, CharonException, BadRequestException {
+
+        //if user not found, return an error in relevant format.
+        if (user == null) {
+            String error = "User not found in the user store.";
+            throw new NotFoundException(error);
+        }
+        //if there are any http headers to be added in the response header.
+        Map<String, String> responseHeaders = new HashMap<String, String>();
+        responseHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
+                SCIMConstants.USER_ENDPOINT) + "/" + user.getId());
+        //the version must be read before the meta attribute is filtered out of the response.
+        String eTag = ETagUtil.getETag(user);
+        ETagUtil.addETagHeader(responseHeaders, eTag);
+        if (ETagUtil.isNotModified(ifNoneMatch, eTag)) {
+            return new SCIMResponse(ResponseCodeConstants.CODE_NOT_MODIFIED, null, responseHeaders);
+        }
+        //perform service provider side validation.
+        ServerSideValidator.validateRetrievedSCIMObject(user, schema, attributes, excludeAttributes);
+        timer.lap(ScimPhase.VALIDATE);
+        //convert the user into requested format.
+        String encodedUser = encoder.encodeSCIMObject(user);
+        timer.lap(ScimPhase.ENCODE);
+        responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+        return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedUser, responseHeaders);
+    }
+
     /*
      * Returns SCIMResponse based on the sucess or failure of the create user operation
      *
@@ -129,6 +191,13 @@ public class UserResourceManager extends AbstractResourceManager {
     public SCIMResponse create(String scimObjectString, UserManager userManager, String attributes,
             String excludeAttributes) {
 
+        OperationTimer timer = startTimer(ScimOperation.CREATE, SCIMConstants.USER_ENDPOINT, scimObjectString);
+        return timer.stop(doCreate(scimObjectString, userManager, attributes, excludeAttributes, timer));
+    }
+
+    private SCIMResponse doCreate(String scimObjectString, UserManager userManager, String attributes,
+                                  String excludeAttributes, OperationTimer timer) {
+
         JSONEncoder encoder = null;
         try {
             //obtain the json encoder
@@ -140,20 +209,24 @@ public class UserResourceManager extends AbstractResourceManager {
             //obtain the schema corresponding to user
             // unless configured returns core-user schema or else returns extended user schema)
             SCIMResourceTypeSchema schema = getSchema(userManager);
+            timer.lap(ScimPhase.SCHEMA);
             //decode the SCIM User object, encoded in the submitted payload.
             User user = (User) decoder.decodeResource(scimObjectString, schema, new User());
+            timer.lap(ScimPhase.DECODE);
             //validate the created user.
             ServerSideValidator.validateCreatedSCIMObject(user, schema);
+            timer.lap(ScimPhase.VALIDATE);
             //get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+                    schema, attributes, excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
             User createdUser;
 
             if (userManager != null) {
             /*handover the SCIM User object to the user usermanager provided by the SP.
             need to send back the newly created user in the response payload*/
                 createdUser = userManager.createUser(user, requiredAttributes);
+                timer.lap(ScimPhase.USER_MANAGER);
             } else {
                 String error = "Provided user manager handler is null.";
                 //throw internal server error.
@@ -172,13 +245,17 @@ public class UserResourceManager extends AbstractResourceManager {
                 }
                 //create a deep copy of the user object since we are going to change it.
                 User copiedUser = (User) CopyUtil.deepCopy(createdUser);
+                timer.lap(ScimPhase.COPY);
                 //need to remove password before returning
                 ServerSideValidator.validateReturnedAttributes(copiedUser, attributes, excludeAttributes);
+                timer.lap(ScimPhase.VALIDATE);
                 encodedUser = encoder.encodeSCIMObject(copiedUser);
+                timer.lap(ScimPhase.ENCODE);
                 //add location header
                 responseHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.USER_ENDPOINT) + "/" + createdUser.getId());
                 responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                ETagUtil.addETagHeader(responseHeaders, ETagUtil.getETag(createdUser));
 
             } else {
                 String error = "Newly created User resource is null.";
@@ -218,11 +295,40 @@ public class UserResourceManager extends AbstractResourceManager {
      */
 
     public SCIMResponse delete(String id, UserManager userManager) {
+
+        return delete(id, userManager, null);
+    }
+
+    /*
+     * Method of the ResourceManager that is mapped to HTTP Delete method. The user is only deleted if the If-Match
+     * header, when given, matches the current version of the user.
+     *
+     * @param id          - unique resource id
+     * @param usermanager - usermanager instance defined by the external implementor of charon
+     * @param ifMatch     - value of the If-Match header
+     * @return
+     */
+    @Override
+    public SCIMResponse delete(String id, UserManager userManager, String ifMatch) {
+
+        OperationTimer timer = startTimer(ScimOperation.DELETE, SCIMConstants.USER_ENDPOINT, null);
+        return timer.stop(doDelete(id, userManager, ifMatch, timer));
+    }
+
+    private SCIMResponse doDelete(String id, UserManager userManager, String ifMatch, OperationTimer timer) {
         JSONEncoder encoder = null;
         try {
             if (userManager != null) {
+                if (ETagUtil.isConditionalRequest(ifMatch)) {
+                    User user = userManager.getUser(id, ETagUtil.getETagAttributeURIs());
+                    if (user == null) {
+                        throw new NotFoundException("No user exists with the given id: " + id);
+                    }
+                    ETagUtil.validateIfMatch(ifMatch, user);
+                }
             /*handover the SCIM User object to the user usermanager provided by the SP for the delete operation*/
                 userManager.deleteUser(id);
+                timer.lap(ScimPhase.USER_MANAGER);
                 //on successful deletion SCIMResponse only has 204 No Content status code.
                 return new SCIMResponse(ResponseCodeConstants.CODE_NO_CONTENT, null, null);
             } else {
@@ -240,6 +346,8 @@ public class UserResourceManager extends AbstractResourceManager {
             return AbstractResourceManager.encodeSCIMException(e);
         } catch (BadRequestException e) {
             return AbstractResourceManager.encodeSCIMException(e);
+        } catch (PreConditionFailedException e) {
+            return AbstractResourceManager.encodeSCIMException(e);
         }
     }
 
@@ -260,6 +368,15 @@ public class UserResourceManager extends AbstractResourceManager {
     public SCIMResponse listWithGET(UserManager userManager, String filter, int startIndex, int count, String sortBy,
             String sortOrder, String domainName, String attributes, String excludeAttributes) {
 
+        OperationTimer timer = startTimer(ScimOperation.LIST_WITH_GET, SCIMConstants.USER_ENDPOINT, null);
+        return timer.stop(doListWithGET(userManager, filter, startIndex, count, sortBy, sortOrder, domainName,
+                attributes, excludeAttributes, timer));
+    }
+
+    private SCIMResponse doListWithGET(UserManager userManager, String filter, int startIndex, int count,
+                                       String sortBy, String sortOrder, String domainName, String attributes,
+                                       String excludeAttributes, OperationTimer timer) {
+
         try {
             // According to SCIM 2.0 spec minus values will be considered as 0.
             if (count < 0) {
@@ -284,16 +401,19 @@ public class UserResourceManager extends AbstractResourceManager {
 
             // Get the URIs of required attributes which must be given a value.
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
 
             // API user should pass a user manager to UserResourceEndpoint.
             if (userManager != null) {
                 List<Object> tempList = userManager
                         .listUsersWithGET(rootNode, startIndex, count, sortBy, sortOrder, domainName,
                                 requiredAttributes);
+                timer.lap(ScimPhase.USER_MANAGER);
 
-                return processUserList(tempList, encoder, schema, attributes, excludeAttributes, startIndex);
+                return processUserList(tempList, encoder, schema, attributes, excludeAttributes, startIndex,
+                        timer);
             } else {
                 String error = "Provided user manager handler is null.";
                 // Log the error as well.
@@ -331,6 +451,15 @@ public class UserResourceManager extends AbstractResourceManager {
     public SCIMResponse listWithGET(UserManager userManager, String filter, Integer startIndexInt, Integer countInt,
             String sortBy, String sortOrder, String domainName, String attributes, String excludeAttributes) {
 
+        OperationTimer timer = startTimer(ScimOperation.LIST_WITH_GET, SCIMConstants.USER_ENDPOINT, null);
+        return timer.stop(doListWithGET(userManager, filter, startIndexInt, countInt, sortBy, sortOrder, domainName,
+                attributes, excludeAttributes, timer));
+    }
+
+    private SCIMResponse doListWithGET(UserManager userManager, String filter, Integer startIndexInt,
+                                       Integer countInt, String sortBy, String sortOrder, String domainName,
+                                       String attributes, String excludeAttributes, OperationTimer timer) {
+
         try {
             Integer count = ResourceManagerUtil.processCount(countInt);
             Integer startIndex = ResourceManagerUtil.processStartIndex(startIndexInt);
@@ -349,15 +478,18 @@ public class UserResourceManager extends AbstractResourceManager {
 
             // Get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
 
             // API user should pass a user manager to UserResourceEndpoint.
             if (userManager != null) {
                 List<Object> tempList = userManager
                         .listUsersWithGET(rootNode, startIndex, count, sortBy, sortOrder, domainName,
                                 requiredAttributes);
-                return processUserList(tempList, encoder, schema, attributes, excludeAttributes, startIndex);
+                timer.lap(ScimPhase.USER_MANAGER);
+                return processUserList(tempList, encoder, schema, attributes, excludeAttributes, startIndex,
+                        timer);
             } else {
                 String error = "Provided user manager handler is null.";
                 // Log the error as well.
@@ -383,7 +515,7 @@ public class UserResourceManager extends AbstractResourceManager {
      * @throws BadRequestException
      * @throws IOException
      */
-    private Node buildNode(String filter, SCIMResourceTypeSchema schema) throws BadRequestException, IOException {
+    Node buildNode(String filter, SCIMResourceTypeSchema schema) throws BadRequestException, IOException {
 
         if (filter != null) {
             FilterTreeManager filterTreeManager = new FilterTreeManager(filter, schema);
@@ -400,7 +532,7 @@ public class UserResourceManager extends AbstractResourceManager {
      * @return Resolved sorting order.
      * @throws BadRequestException Invalid sorting order.
      */
-    private String resolveSortOrder(String sortOrder, String sortBy) throws BadRequestException {
+    String resolveSortOrder(String sortOrder, String sortBy) throws BadRequestException {
 
         if (sortOrder != null) {
             if (!(sortOrder.equalsIgnoreCase(SCIMConstants.OperationalConstants.ASCENDING) || sortOrder
@@ -426,13 +558,14 @@ public class UserResourceManager extends AbstractResourceManager {
      * @param attributes        Required attributes
      * @param excludeAttributes Exclude attributes
      * @param startIndex        Starting index
+     * @param timer             Timer of the list operation
      * @return SCIM response
      * @throws NotFoundException
      * @throws CharonException
      * @throws BadRequestException
      */
-    private SCIMResponse processUserList(List<Object> tempList, JSONEncoder encoder, SCIMResourceTypeSchema schema,
-            String attributes, String excludeAttributes, int startIndex)
+    SCIMResponse processUserList(List<Object> tempList, JSONEncoder encoder, SCIMResourceTypeSchema schema,
+            String attributes, String excludeAttributes, int startIndex, OperationTimer timer)
             throws NotFoundException, CharonException, BadRequestException {
 
         int totalResults = 0;
@@ -458,14 +591,16 @@ public class UserResourceManager extends AbstractResourceManager {
             // Perform service provider side validation.
             ServerSideValidator.validateRetrievedSCIMObjectInList((User) user, schema, attributes, excludeAttributes);
         }
+        timer.lap(ScimPhase.VALIDATE);
         // Create a listed resource object out of the returned users list.
         ListedResource listedResource = createListedResource(returnedUsers, startIndex, totalResults);
         // Convert the listed resource into specific format.
-        String encodedListedResource = encoder.encodeSCIMObject(listedResource);
+        ByteBuffer encodedListedResource = encoder.encodeSCIMObjectAsUTF8(listedResource);
+        timer.lap(ScimPhase.ENCODE);
         // If there are any http headers to be added in the response header.
         Map<String, String> responseHeaders = new HashMap<String, String>();
         responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-        return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
+        return SCIMResponse.withUTF8Body(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
     }
 
     /*
@@ -476,6 +611,12 @@ public class UserResourceManager extends AbstractResourceManager {
      */
 
     public SCIMResponse listWithPOST(String resourceString, UserManager userManager) {
+
+        OperationTimer timer = startTimer(ScimOperation.LIST_WITH_POST, SCIMConstants.USER_ENDPOINT, resourceString);
+        return timer.stop(doListWithPOST(resourceString, userManager, timer));
+    }
+
+    private SCIMResponse doListWithPOST(String resourceString, UserManager userManager, OperationTimer timer) {
         JSONEncoder encoder = null;
         JSONDecoder decoder = null;
         try {
@@ -486,8 +627,10 @@ public class UserResourceManager extends AbstractResourceManager {
 
             // unless configured returns core-user schema or else returns extended user schema)
             SCIMResourceTypeSchema schema = getSchema(userManager);
+            timer.lap(ScimPhase.SCHEMA);
             //create the search request object
             SearchRequest searchRequest = decoder.decodeSearchRequestBody(resourceString, schema);
+            timer.lap(ScimPhase.DECODE);
 
             searchRequest.setCount(ResourceManagerUtil.processCount(searchRequest.getCountStr()));
             searchRequest.setStartIndex(ResourceManagerUtil.processStartIndex(searchRequest.getStartIndexStr()));
@@ -509,15 +652,16 @@ public class UserResourceManager extends AbstractResourceManager {
 
             //get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), searchRequest.getAttributesAsString(),
+                    schema, searchRequest.getAttributesAsString(),
                     searchRequest.getExcludedAttributesAsString());
+            timer.lap(ScimPhase.SCHEMA);
 
             List<Object> returnedUsers;
             int totalResults = 0;
             //API user should pass a usermanager usermanager to UserResourceEndpoint.
             if (userManager != null) {
                 List<Object> tempList = userManager.listUsersWithPost(searchRequest, requiredAttributes);
+                timer.lap(ScimPhase.USER_MANAGER);
 
                 totalResults = (int) tempList.get(0);
                 tempList.remove(0);
@@ -529,15 +673,17 @@ public class UserResourceManager extends AbstractResourceManager {
                     ServerSideValidator.validateRetrievedSCIMObjectInList((User) user, schema,
                             searchRequest.getAttributesAsString(), searchRequest.getExcludedAttributesAsString());
                 }
+                timer.lap(ScimPhase.VALIDATE);
                 //create a listed resource object out of the returned users list.
                 ListedResource listedResource = createListedResource(
                         returnedUsers, searchRequest.getStartIndex(), totalResults);
                 //convert the listed resource into specific format.
-                String encodedListedResource = encoder.encodeSCIMObject(listedResource);
+                ByteBuffer encodedListedResource = encoder.encodeSCIMObjectAsUTF8(listedResource);
+                timer.lap(ScimPhase.ENCODE);
                 //if there are any http headers to be added in the response header.
                 Map<String, String> responseHeaders = new HashMap<String, String>();
                 responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-                return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
+                return SCIMResponse.withUTF8Body(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
 
             } else {
                 String error = "Provided user manager handler is null.";
@@ -567,6 +713,33 @@ public class UserResourceManager extends AbstractResourceManager {
      */
     public SCIMResponse updateWithPUT(String existingId, String scimObjectString, UserManager userManager,
                                       String attributes, String excludeAttributes) {
+
+        return updateWithPUT(existingId, scimObjectString, userManager, attributes, excludeAttributes, null);
+    }
+
+    /*
+     * To update the user by giving entire attribute set. The user is only updated if the If-Match header, when
+     * given, matches the current version of the user.
+     *
+     * @param existingId
+     * @param scimObjectString
+     * @param usermanager
+     * @param ifMatch
+     * @return
+     */
+    @Override
+    public SCIMResponse updateWithPUT(String existingId, String scimObjectString, UserManager userManager,
+                                      String attributes, String excludeAttributes, String ifMatch) {
+
+        OperationTimer timer = startTimer(ScimOperation.UPDATE_WITH_PUT, SCIMConstants.USER_ENDPOINT,
+                scimObjectString);
+        return timer.stop(doUpdateWithPUT(existingId, scimObjectString, userManager, attributes, excludeAttributes,
+                ifMatch, timer));
+    }
+
+    private SCIMResponse doUpdateWithPUT(String existingId, String scimObjectString, UserManager userManager,
+                                         String attributes, String excludeAttributes, String ifMatch,
+                                         OperationTimer timer) {
         //needs to validate the incoming object. eg: id can not be set by the consumer.
 
         JSONEncoder encoder = null;
@@ -582,24 +755,27 @@ public class UserResourceManager extends AbstractResourceManager {
 
             //get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+                    schema, attributes, excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
 
             //decode the SCIM User object, encoded in the submitted payload.
             User user = (User) decoder.decodeResource(scimObjectString, schema, new User());
+            timer.lap(ScimPhase.DECODE);
             User updatedUser = null;
             if (userManager != null) {
-                //retrieve the old object
-                User oldUser = userManager.getUser(existingId, ResourceManagerUtil.getAllAttributeURIs(schema));
-                if (oldUser != null) {
-                    User validatedUser = (User) ServerSideValidator.validateUpdatedSCIMObject(oldUser, user, schema);
-                    updatedUser = userManager.updateUser(validatedUser, requiredAttributes);
-
-                } else {
-                    String error = "No user exists with the given id: " + existingId;
-                    throw new NotFoundException(error);
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        updatedUser = replaceUser(existingId, user, userManager, schema, requiredAttributes, ifMatch,
+                                timer);
+                        break;
+                    } catch (ConcurrentUpdateException e) {
+                        checkUpdateRetry(e, ifMatch, attempt);
+                        //validating the user has modified it, hence decode it again for the next attempt.
+                        user = new User();
+                        decoder.decodeResource(scimObjectString, schema, user);
+                        timer.lap(ScimPhase.DECODE);
+                    }
                 }
-
             } else {
                 String error = "Provided user manager handler is null.";
                 throw new InternalErrorException(error);
@@ -610,13 +786,17 @@ public class UserResourceManager extends AbstractResourceManager {
             if (updatedUser != null) {
                 //create a deep copy of the user object since we are going to change it.
                 User copiedUser = (User) CopyUtil.deepCopy(updatedUser);
+                timer.lap(ScimPhase.COPY);
                 //need to remove password before returning
                 ServerSideValidator.validateReturnedAttributes(copiedUser, attributes, excludeAttributes);
+                timer.lap(ScimPhase.VALIDATE);
                 encodedUser = encoder.encodeSCIMObject(copiedUser);
+                timer.lap(ScimPhase.ENCODE);
                 //add location header
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.USER_ENDPOINT) + "/" + updatedUser.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                ETagUtil.addETagHeader(httpHeaders, ETagUtil.getETag(updatedUser));
 
             } else {
                 String error = "Updated User resource is null.";
@@ -636,7 +816,34 @@ public class UserResourceManager extends AbstractResourceManager {
             return AbstractResourceManager.encodeSCIMException(e);
         } catch (NotImplementedException e) {
             return AbstractResourceManager.encodeSCIMException(e);
+        } catch (PreConditionFailedException e) {
+            return AbstractResourceManager.encodeSCIMException(e);
+        }
+    }
+
+    /*
+     * Reads the attributes of the user needed to validate its replacement, validates the replacement against them and
+     * updates the changed attributes.
+     */
+    private User replaceUser(String existingId, User user, UserManager userManager, SCIMResourceTypeSchema schema,
+                             Map<String, Boolean> requiredAttributes, String ifMatch, OperationTimer timer)
+            throws NotFoundException, BadRequestException, NotImplementedException, CharonException,
+            PreConditionFailedException {
+
+        //retrieve the attributes of the old object needed to validate the new one
+        User oldUser = userManager.getUser(existingId, ResourceManagerUtil.getAttributeURIsForReplace(schema, user));
+        timer.lap(ScimPhase.USER_MANAGER);
+        if (oldUser == null) {
+            String error = "No user exists with the given id: " + existingId;
+            throw new NotFoundException(error);
         }
+        ETagUtil.validateIfMatch(ifMatch, oldUser);
+        AttributeChangeSet changes = new AttributeChangeSet();
+        User validatedUser = (User) ServerSideValidator.validateUpdatedSCIMObject(oldUser, user, schema, changes);
+        timer.lap(ScimPhase.VALIDATE);
+        User updatedUser = userManager.updateUserDelta(validatedUser, changes, requiredAttributes, null);
+        timer.lap(ScimPhase.USER_MANAGER);
+        return updatedUser;
     }
 
     /**
@@ -652,6 +859,35 @@ public class UserResourceManager extends AbstractResourceManager {
 
     public SCIMResponse updateWithPATCH(String existingId, String scimObjectString, UserManager userManager,
                                         String attributes, String excludeAttributes) {
+
+        return updateWithPATCH(existingId, scimObjectString, userManager, attributes, excludeAttributes, null);
+    }
+
+    /**
+     * Update the user resource by sequence of operations. The user is only updated if the If-Match header, when
+     * given, matches the current version of the user.
+     *
+     * @param existingId
+     * @param scimObjectString
+     * @param userManager
+     * @param attributes
+     * @param excludeAttributes
+     * @param ifMatch
+     * @return
+     */
+    @Override
+    public SCIMResponse updateWithPATCH(String existingId, String scimObjectString, UserManager userManager,
+                                        String attributes, String excludeAttributes, String ifMatch) {
+
+        OperationTimer timer = startTimer(ScimOperation.UPDATE_WITH_PATCH, SCIMConstants.USER_ENDPOINT,
+                scimObjectString);
+        return timer.stop(doUpdateWithPATCH(existingId, scimObjectString, userManager, attributes,
+                excludeAttributes, ifMatch, timer));
+    }
+
+    private SCIMResponse doUpdateWithPATCH(String existingId, String scimObjectString, UserManager userManager,
+                                           String attributes, String excludeAttributes, String ifMatch,
+                                           OperationTimer timer) {
         try {
             if (userManager == null) {
                 String error = "Provided user manager handler is null.";
@@ -661,74 +897,24 @@ public class UserResourceManager extends AbstractResourceManager {
             JSONDecoder decoder = getDecoder();
             //decode the SCIM User object, encoded in the submitted payload.
             List<PatchOperation> opList = decoder.decodeRequest(scimObjectString);
+            timer.lap(ScimPhase.DECODE);
 
-            SCIMResourceTypeSchema schema = getSchema(userManager);;
-            List<String> allSimpleMultiValuedAttributes = ResourceManagerUtil.getAllSimpleMultiValuedAttributes(schema);
-
-            //get the user from the user core
-            User oldUser = userManager.getUser(existingId, ResourceManagerUtil.getAllAttributeURIs(schema));
-            if (oldUser == null) {
-                throw new NotFoundException("No user with the id : " + existingId + " in the user store.");
-            }
-            //make a copy of the original user
-            User copyOfOldUser = (User) CopyUtil.deepCopy(oldUser);
-            //make another copy of original user.
-            //this will be used to restore to the original condition if failure occurs.
-            User originalUser = (User) CopyUtil.deepCopy(copyOfOldUser);
-
-            User newUser = null;
-
-            for (PatchOperation operation : opList) {
-
-                if (operation.getOperation().equals(SCIMConstants.OperationalConstants.ADD)) {
-                    if (newUser == null) {
-                        newUser = (User) PatchOperationUtil.doPatchAdd
-                                (operation, getDecoder(), oldUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                    } else {
-                        newUser = (User) PatchOperationUtil.doPatchAdd
-                                (operation, getDecoder(), newUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                    }
-                } else if (operation.getOperation().equals(SCIMConstants.OperationalConstants.REMOVE)) {
-                    if (newUser == null) {
-                        newUser = (User) PatchOperationUtil.doPatchRemove(operation, oldUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                    } else {
-                        newUser = (User) PatchOperationUtil.doPatchRemove(operation, newUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-                    }
-                } else if (operation.getOperation().equals(SCIMConstants.OperationalConstants.REPLACE)) {
-                    if (newUser == null) {
-                        newUser = (User) PatchOperationUtil.doPatchReplace
-                                (operation, getDecoder(), oldUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                    } else {
-                        newUser = (User) PatchOperationUtil.doPatchReplace
-                                (operation, getDecoder(), newUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-                    }
-                } else {
-                    throw new BadRequestException("Unknown operation.", ResponseCodeConstants.INVALID_SYNTAX);
-                }
-            }
-
+            SCIMResourceTypeSchema schema = getSchema(userManager);
             //get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes =
-                    ResourceManagerUtil.getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
-
-
-            User validatedUser = (User) ServerSideValidator.validateUpdatedSCIMObject
-                    (originalUser, newUser, schema);
-            try {
-                newUser = userManager.updateUser(validatedUser, requiredAttributes, allSimpleMultiValuedAttributes);
-            } catch (NotImplementedException e) {
-                newUser = userManager.updateUser(validatedUser, requiredAttributes);
+                    ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema, attributes, excludeAttributes);
+            timer.lap(ScimPhase.SCHEMA);
+
+            //let the user manager apply the operations without reading the user, when it can.
+            User newUser = patchUser(existingId, opList, userManager, schema, requiredAttributes, ifMatch, timer);
+            for (int attempt = 1; newUser == null; attempt++) {
+                try {
+                    newUser = readAndUpdateUser(existingId, opList, userManager, schema, requiredAttributes, ifMatch,
+                            timer);
+                    break;
+                } catch (ConcurrentUpdateException e) {
+                    checkUpdateRetry(e, ifMatch, attempt);
+                }
             }
 
             //encode the newly created SCIM user object and add id attribute to Location header.
@@ -737,13 +923,17 @@ public class UserResourceManager extends AbstractResourceManager {
             if (newUser != null) {
                 //create a deep copy of the user object since we are going to change it.
                 User copiedUser = (User) CopyUtil.deepCopy(newUser);
+                timer.lap(ScimPhase.COPY);
                 //need to remove password before returning
                 ServerSideValidator.validateReturnedAttributes(copiedUser, attributes, excludeAttributes);
+                timer.lap(ScimPhase.VALIDATE);
                 encodedUser = getEncoder().encodeSCIMObject(copiedUser);
+                timer.lap(ScimPhase.ENCODE);
                 //add location header
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.USER_ENDPOINT) + "/" + newUser.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                ETagUtil.addETagHeader(httpHeaders, ETagUtil.getETag(newUser));
 
             } else {
                 String error = "Updated User resource is null.";
@@ -761,12 +951,86 @@ public class UserResourceManager extends AbstractResourceManager {
             return AbstractResourceManager.encodeSCIMException(e);
         } catch (InternalErrorException e) {
             return AbstractResourceManager.encodeSCIMException(e);
+        } catch (PreConditionFailedException e) {
+            return AbstractResourceManager.encodeSCIMException(e);
         } catch (RuntimeException e) {
             CharonException e1 = new CharonException("Error in performing the patch operation on user resource.", e);
             return AbstractResourceManager.encodeSCIMException(e1);
         }
     }
 
+    /*
+     * Hands the operations to the user manager when they can be validated against the schema alone. Returns null
+     * when the operations need the current user, or the user manager can not apply them. The returned user is not
+     * validated against the stored one, see UserManager.patchUser for what the user manager has to keep current.
+     */
+    private User patchUser(String existingId, List<PatchOperation> opList, UserManager userManager,
+                           SCIMResourceTypeSchema schema, Map<String, Boolean> requiredAttributes, String ifMatch,
+                           OperationTimer timer)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        // The precondition is checked against the current user, which has to be read anyway.
+        if (ETagUtil.isConditionalRequest(ifMatch) || !userManager.isPatchUserSupported()) {
+            return null;
+        }
+        Map<String, List<PatchOperation>> patchOperations =
+                PatchPlanner.groupSchemaValidatedOperations(opList, schema, getDecoder());
+        timer.lap(ScimPhase.VALIDATE);
+        if (patchOperations == null) {
+            return null;
+        }
+        try {
+            User patchedUser = userManager.patchUser(existingId, patchOperations, requiredAttributes);
+            timer.lap(ScimPhase.USER_MANAGER);
+            if (patchedUser == null) {
+                throw new CharonException("Updated User resource is null.");
+            }
+            return patchedUser;
+        } catch (NotImplementedException e) {
+            timer.lap(ScimPhase.USER_MANAGER);
+            return null;
+        }
+    }
+
+    /*
+     * Reads the user, applies the operations to it, validates the patched user against the original one and
+     * updates the changed attributes.
+     */
+    private User readAndUpdateUser(String existingId, List<PatchOperation> opList, UserManager userManager,
+                                   SCIMResourceTypeSchema schema, Map<String, Boolean> requiredAttributes,
+                                   String ifMatch, OperationTimer timer)
+            throws NotFoundException, BadRequestException, NotImplementedException, CharonException,
+            InternalErrorException, PreConditionFailedException {
+
+        List<String> allSimpleMultiValuedAttributes = ResourceManagerUtil.getAllSimpleMultiValuedAttributes(schema);
+        timer.lap(ScimPhase.SCHEMA);
+
+        //get the user from the user core
+        User oldUser = userManager.getUser(existingId, ResourceManagerUtil.getAllAttributeURIs(schema));
+        timer.lap(ScimPhase.USER_MANAGER);
+        if (oldUser == null) {
+            throw new NotFoundException("No user with the id : " + existingId + " in the user store.");
+        }
+        ETagUtil.validateIfMatch(ifMatch, oldUser);
+        //make a copy of the original user.
+        //this will be used to validate the updated user against the original one.
+        User originalUser = (User) CopyUtil.deepCopy(oldUser);
+        timer.lap(ScimPhase.COPY);
+
+        //apply all the operations in a single pass over the user.
+        User newUser = (User) PatchPlanner.apply(PatchPlanner.plan(opList), oldUser, getDecoder(), schema);
+        timer.lap(ScimPhase.PATCH);
+
+        AttributeChangeSet changes = new AttributeChangeSet();
+        User validatedUser = (User) ServerSideValidator.validateUpdatedSCIMObject
+                (originalUser, newUser, schema, changes);
+        timer.lap(ScimPhase.VALIDATE);
+        newUser = userManager.updateUserDelta(validatedUser, changes, requiredAttributes,
+                allSimpleMultiValuedAttributes);
+        timer.lap(ScimPhase.USER_MANAGER);
+        return newUser;
+    }
+
     /*
      * Creates the Listed Resource.
      *
@@ -791,7 +1055,7 @@ public class UserResourceManager extends AbstractResourceManager {
         return listedResource;
     }
 
-    private SCIMResourceTypeSchema getSchema(UserManager userManager) throws BadRequestException,
+    SCIMResourceTypeSchema getSchema(UserManager userManager) throws BadRequestException,
             NotImplementedException, CharonException {
 
         SCIMResourceTypeSchema schema;
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Listener which aggregates the metrics in memory. For each operation it keeps a histogram of the total duration,
+ * one of each phase duration and one each of the request and response sizes.
+ * <p>
+ * The histograms use power of two buckets, so recording a value is a few atomic increments and the memory used
+ * does not grow with the number of requests. Percentiles are therefore reported as the upper bound of the bucket
+ * they fall in, i.e. they are accurate to within a factor of two.
+ */
+public class HistogramScimMetricsListener implements ScimMetricsListener {
+
+    private final Map<ScimOperation, OperationHistograms> histograms = new EnumMap<>(ScimOperation.class);
+
+    public HistogramScimMetricsListener() {
+
+        for (ScimOperation operation : ScimOperation.values()) {
+            histograms.put(operation, new OperationHistograms());
+        }
+    }
+
+    @Override
+    public void onOperationCompleted(OperationMetrics metrics) {
+
+        OperationHistograms operationHistograms = histograms.get(metrics.getOperation());
+        operationHistograms.total.record(metrics.getTotalNanos());
+        for (ScimPhase phase : ScimPhase.values()) {
+            long phaseNanos = metrics.getPhaseNanos(phase);
+            if (phaseNanos > 0) {
+                operationHistograms.phases.get(phase).record(phaseNanos);
+            }
+        }
+        operationHistograms.requestSize.record(metrics.getRequestSize());
+        operationHistograms.responseSize.record(metrics.getResponseSize());
+        if (metrics.getResponseStatus() >= 400) {
+            operationHistograms.errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param operation SCIM operation
+     * @return histogram of the total durations of the operation in nanoseconds
+     */
+    public Histogram getTotal(ScimOperation operation) {
+
+        return histograms.get(operation).total;
+    }
+
+    /**
+     * @param operation SCIM operation
+     * @param phase     phase of the operation
+     * @return histogram of the durations of the phase in nanoseconds, counting only the operations which went
+     * through the phase
+     */
+    public Histogram getPhase(ScimOperation operation, ScimPhase phase) {
+
+        return histograms.get(operation).phases.get(phase);
+    }
+
+    /**
+     * @param operation SCIM operation
+     * @return histogram of the request payload lengths in characters
+     */
+    public Histogram getRequestSize(ScimOperation operation) {
+
+        return histograms.get(operation).requestSize;
+    }
+
+    /**
+     * @param operation SCIM operation
+     * @return histogram of the response payload lengths in characters
+     */
+    public Histogram getResponseSize(ScimOperation operation) {
+
+        return histograms.get(operation).responseSize;
+    }
+
+    /**
+     * @param operation SCIM operation
+     * @return number of operations which were answered with an error status
+     */
+    public long getErrorCount(ScimOperation operation) {
+
+        return histograms.get(operation).errors.get();
+    }
+
+    /**
+     * Discards everything recorded so far.
+     */
+    public void reset() {
+
+        for (OperationHistograms operationHistograms : histograms.values()) {
+            operationHistograms.total.reset();
+            for (Histogram histogram : operationHistograms.phases.values()) {
+                histogram.reset();
+            }
+            operationHistograms.requestSize.reset();
+            operationHistograms.responseSize.reset();
+            operationHistograms.errors.set(0);
+        }
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<ScimOperation, OperationHistograms> entry : histograms.entrySet()) {
+            OperationHistograms operationHistograms = entry.getValue();
+            if (operationHistograms.total.getCount() == 0) {
+                continue;
+            }
+            builder.append(entry.getKey()).append(": ").append(operationHistograms.total)
+                    .append(", errors=").append(operationHistograms.errors.get()).append('\n');
+            for (Map.Entry<ScimPhase, Histogram> phase : operationHistograms.phases.entrySet()) {
+                if (phase.getValue().getCount() > 0) {
+                    builder.append("    ").append(phase.getKey()).append(": ").append(phase.getValue()).append('\n');
+                }
+            }
+            builder.append("    request size: ").append(operationHistograms.requestSize).append('\n');
+            builder.append("    response size: ").append(operationHistograms.responseSize).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Histograms of a single operation.
+     */
+    private static final class OperationHistograms {
+
+        private final Histogram total = new Histogram();
+        private final Map<ScimPhase, Histogram> phases = new EnumMap<>(ScimPhase.class);
+        private final Histogram requestSize = new Histogram();
+        private final Histogram responseSize = new Histogram();
+        private final AtomicLong errors = new AtomicLong();
+
+        private OperationHistograms() {
+
+            for (ScimPhase phase : ScimPhase.values()) {
+                phases.put(phase, new Histogram());
+            }
+        }
+    }
+
+    /**
+     * Histogram of non negative values with power of two buckets. Bucket {@code i} holds the values which need
+     * {@code i} bits, i.e. 0 goes to bucket 0 and values in [2^(i-1), 2^i) go to bucket {@code i}.
+     */
+    public static final class Histogram {
+
+        private static final int BUCKETS = Long.SIZE + 1;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long value) {
+
+            if (value < 0) {
+                value = 0;
+            }
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            long currentMax = max.get();
+            while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+                currentMax = max.get();
+            }
+        }
+
+        void reset() {
+
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.set(0);
+            sum.set(0);
+            max.set(0);
+        }
+
+        public long getCount() {
+
+            return count.get();
+        }
+
+        public long getSum() {
+
+            return sum.get();
+        }
+
+        public long getMax() {
+
+            return max.get();
+        }
+
+        public double getMean() {
+
+            long currentCount = count.get();
+            return currentCount == 0 ? 0 : (double) sum.get() / currentCount;
+        }
+
+        /**
+         * @param percentile percentile between 0 and 100
+         * @return upper bound of the bucket holding the given percentile, capped at the maximum recorded value,
+         * or 0 if nothing has been recorded
+         */
+        public long getPercentile(double percentile) {
+
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+            }
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    long upperBound = i == 0 ? 0 : (i >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+                    return Math.min(upperBound, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        @Override
+        public String toString() {
+
+            return "count=" + getCount() + ", mean=" + (long) getMean() + ", p50=" + getPercentile(50) +
+                    ", p99=" + getPercentile(99) + ", max=" + getMax();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.metrics;
+
+/**
+ * Default listener which discards all metrics. While it is registered the resource managers do not read the clock
+ * at all.
+ */
+public final class NoOpScimMetricsListener implements ScimMetricsListener {
+
+    private static final NoOpScimMetricsListener INSTANCE = new NoOpScimMetricsListener();
+
+    private NoOpScimMetricsListener() {
+
+    }
+
+    public static NoOpScimMetricsListener getInstance() {
+
+        return INSTANCE;
+    }
+
+    @Override
+    public void onOperationCompleted(OperationMetrics metrics) {
+
+    }
+}
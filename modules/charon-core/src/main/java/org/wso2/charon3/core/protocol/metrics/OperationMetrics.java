@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.metrics;
+
+/**
+ * Timings and payload sizes of a single SCIM operation.
+ * <p>
+ * The phase durations add up to at most the total duration. Whatever is left belongs to the work the resource
+ * manager does between the phases, such as evaluating preconditions and building the response headers.
+ */
+public final class OperationMetrics {
+
+    private final ScimOperation operation;
+    private final String resourceEndpoint;
+    private final int responseStatus;
+    private final long totalNanos;
+    private final long[] phaseNanos;
+    private final int requestSize;
+    private final int responseSize;
+
+    OperationMetrics(ScimOperation operation, String resourceEndpoint, int responseStatus, long totalNanos,
+                     long[] phaseNanos, int requestSize, int responseSize) {
+
+        this.operation = operation;
+        this.resourceEndpoint = resourceEndpoint;
+        this.responseStatus = responseStatus;
+        this.totalNanos = totalNanos;
+        this.phaseNanos = phaseNanos;
+        this.requestSize = requestSize;
+        this.responseSize = responseSize;
+    }
+
+    public ScimOperation getOperation() {
+
+        return operation;
+    }
+
+    /**
+     * @return endpoint the operation was invoked on, e.g. {@code /Users}
+     */
+    public String getResourceEndpoint() {
+
+        return resourceEndpoint;
+    }
+
+    public int getResponseStatus() {
+
+        return responseStatus;
+    }
+
+    public long getTotalNanos() {
+
+        return totalNanos;
+    }
+
+    /**
+     * @param phase phase of the operation
+     * @return time spent in the given phase, 0 if the operation did not go through it
+     */
+    public long getPhaseNanos(ScimPhase phase) {
+
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * @return length of the request payload in characters, 0 for requests without a payload
+     */
+    public int getRequestSize() {
+
+        return requestSize;
+    }
+
+    /**
+     * @return length of the UTF-8 encoded response payload in bytes, 0 for responses without a payload
+     */
+    public int getResponseSize() {
+
+        return responseSize;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+
+/**
+ * Measures the phases of a single SCIM operation and reports them to a {@link ScimMetricsListener}.
+ * <p>
+ * A timer is started when the resource manager receives a request. After each step of the operation the resource
+ * manager calls {@link #lap(ScimPhase)}, which charges the time elapsed since the previous lap to the given phase.
+ * {@link #stop(SCIMResponse)} completes the measurement and hands it to the listener. A timer is used by the request
+ * thread, or by the threads an asynchronous operation continues on one after the other, hence it is not thread safe.
+ * The time an asynchronous operation waits for the user store, including the time its continuation is queued, is
+ * charged to {@link ScimPhase#USER_MANAGER}.
+ * <p>
+ * When no listener is registered the resource managers get the shared {@link #DISABLED} timer, whose methods return
+ * without reading the clock.
+ */
+public final class OperationTimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationTimer.class);
+
+    public static final OperationTimer DISABLED = new OperationTimer();
+
+    private final ScimMetricsListener listener;
+    private final ScimOperation operation;
+    private final String resourceEndpoint;
+    private final int requestSize;
+    private final long startNanos;
+    private final long[] phaseNanos;
+    private long lastLapNanos;
+
+    private OperationTimer() {
+
+        this.listener = null;
+        this.operation = null;
+        this.resourceEndpoint = null;
+        this.requestSize = 0;
+        this.startNanos = 0;
+        this.phaseNanos = null;
+    }
+
+    private OperationTimer(ScimMetricsListener listener, ScimOperation operation, String resourceEndpoint,
+                           String request) {
+
+        this.listener = listener;
+        this.operation = operation;
+        this.resourceEndpoint = resourceEndpoint;
+        this.requestSize = request == null ? 0 : request.length();
+        this.phaseNanos = new long[ScimPhase.values().length];
+        this.startNanos = System.nanoTime();
+        this.lastLapNanos = startNanos;
+    }
+
+    /**
+     * Starts measuring an operation.
+     *
+     * @param listener         listener to report to
+     * @param operation        operation being measured
+     * @param resourceEndpoint endpoint the operation was invoked on
+     * @param request          request payload, may be null
+     * @return running timer, or {@link #DISABLED} if the listener discards the metrics
+     */
+    public static OperationTimer start(ScimMetricsListener listener, ScimOperation operation,
+                                       String resourceEndpoint, String request) {
+
+        if (listener == null || listener instanceof NoOpScimMetricsListener) {
+            return DISABLED;
+        }
+        return new OperationTimer(listener, operation, resourceEndpoint, request);
+    }
+
+    /**
+     * Charges the time elapsed since the previous lap, or since the timer was started, to the given phase.
+     *
+     * @param phase phase which just completed
+     */
+    public void lap(ScimPhase phase) {
+
+        if (listener == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - lastLapNanos;
+        lastLapNanos = now;
+    }
+
+    /**
+     * Completes the measurement and reports it to the listener. Failures of the listener are logged and do not
+     * affect the response.
+     *
+     * @param response response of the operation
+     * @return the given response
+     */
+    public SCIMResponse stop(SCIMResponse response) {
+
+        if (listener == null) {
+            return response;
+        }
+        long totalNanos = System.nanoTime() - startNanos;
+        int responseStatus = 0;
+        int responseSize = 0;
+        if (response != null) {
+            responseStatus = response.getResponseStatus();
+            responseSize = response.getContentLength();
+        }
+        try {
+            listener.onOperationCompleted(new OperationMetrics(operation, resourceEndpoint, responseStatus,
+                    totalNanos, phaseNanos, requestSize, responseSize));
+        } catch (RuntimeException e) {
+            logger.error("Error while reporting the metrics of the " + operation + " operation.", e);
+        }
+        return response;
+    }
+}
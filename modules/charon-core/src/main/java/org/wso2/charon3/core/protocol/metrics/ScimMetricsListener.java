@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.metrics;
+
+/**
+ * Receives the timings of the SCIM operations processed by the resource managers. Register an implementation with
+ * {@link org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager#setMetricsListener(ScimMetricsListener)}.
+ * <p>
+ * The listener is called on the request thread once the response of an operation has been built, so
+ * implementations must be thread safe and should return quickly.
+ */
+public interface ScimMetricsListener {
+
+    /**
+     * @param metrics timings and payload sizes of the completed operation
+     */
+    void onOperationCompleted(OperationMetrics metrics);
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.metrics;
+
+/**
+ * Phases a SCIM operation spends its time in.
+ */
+public enum ScimPhase {
+
+    /**
+     * Decoding the request payload.
+     */
+    DECODE,
+
+    /**
+     * Building the resource schema and resolving the requested attributes against it.
+     */
+    SCHEMA,
+
+    /**
+     * Deep copying resources.
+     */
+    COPY,
+
+    /**
+     * Applying PATCH operations to the resource read from the user manager.
+     */
+    PATCH,
+
+    /**
+     * Server side validation of the request and the returned resources.
+     */
+    VALIDATE,
+
+    /**
+     * Calls to the user manager or role manager.
+     */
+    USER_MANAGER,
+
+    /**
+     * Encoding the response payload.
+     */
+    ENCODE
+}
@@ -27,6 +27,7 @@ import org.wso2.charon3.core.attributes.SimpleAttribute;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.AttributeChangeSet;
 import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.utils.CopyUtil;
@@ -37,6 +38,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -783,6 +785,26 @@ public abstract class AbstractValidator {
             AbstractSCIMObject oldObject, AbstractSCIMObject newObject, SCIMResourceTypeSchema resourceSchema)
             throws BadRequestException, CharonException {
 
+        return checkIfReadOnlyAndImmutableAttributesModified(oldObject, newObject, resourceSchema, null);
+    }
+
+    /*
+     * check for read only and immutable attributes which has been modified on update request, and collect the
+     * attributes changed by the update in the same pass. Each attribute is compared once the read only and immutable
+     * values of it have been restored from the old object, hence only the changes made by the consumer are collected.
+     *
+     * @param oldObject
+     * @param newObject
+     * @param resourceSchema
+     * @param changes        change set to collect the changed attributes into, or null if they are not needed
+     * @return
+     * @throws BadRequestException
+     * @throws CharonException
+     */
+    protected static AbstractSCIMObject checkIfReadOnlyAndImmutableAttributesModified(
+            AbstractSCIMObject oldObject, AbstractSCIMObject newObject, SCIMResourceTypeSchema resourceSchema,
+            AttributeChangeSet changes) throws BadRequestException, CharonException {
+
         //get attributes from schema.
         List<AttributeSchema> attributeSchemaList = resourceSchema.getAttributesList();
         //get attribute list from old scim object.
@@ -824,6 +846,10 @@ public abstract class AbstractValidator {
                 }
             }
             checkIfReadOnlyAndImmutableSubAttributesModified(newAttributeList, oldAttributeList, attributeSchema);
+            if (changes != null) {
+                collectAttributeChanges(attributeSchema, oldAttributeList.get(attributeSchema.getName()),
+                        newAttributeList.get(attributeSchema.getName()), changes);
+            }
         }
         return newObject;
     }
@@ -1052,18 +1078,117 @@ public abstract class AbstractValidator {
         Attribute newTemporyAttribute = newAttributeList.get(attributeSchema.getName());
         Attribute oldTemporyAttribute = oldAttributeList.get(attributeSchema.getName());
 
-        if (newTemporyAttribute instanceof SimpleAttribute) {
-            if (!((((SimpleAttribute) newTemporyAttribute).getValue()).equals(((SimpleAttribute) oldTemporyAttribute)
-                    .getValue()))) {
+        if (newTemporyAttribute instanceof SimpleAttribute || (newTemporyAttribute instanceof MultiValuedAttribute &&
+                !attributeSchema.getType().equals(SCIMDefinitions.DataType.COMPLEX))) {
+            if (!isSameValue(oldTemporyAttribute, newTemporyAttribute)) {
                 throw new BadRequestException(ResponseCodeConstants.MUTABILITY);
             }
-        } else if (newTemporyAttribute instanceof MultiValuedAttribute &&
-                !attributeSchema.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
-            if (!checkListEquality(((MultiValuedAttribute) newTemporyAttribute).getAttributePrimitiveValues(),
-                    ((MultiValuedAttribute) oldTemporyAttribute).getAttributePrimitiveValues())) {
-                throw new BadRequestException(ResponseCodeConstants.MUTABILITY);
+        }
+    }
+
+    /*
+     * check whether the given two attributes have the same value. Multi-valued attributes are compared irrespective
+     * of the order of their values.
+     *
+     * @param oldAttribute
+     * @param newAttribute
+     * @return
+     */
+    private static boolean isSameValue(Attribute oldAttribute, Attribute newAttribute) {
+
+        if (oldAttribute instanceof SimpleAttribute && newAttribute instanceof SimpleAttribute) {
+            return Objects.equals(((SimpleAttribute) newAttribute).getValue(),
+                    ((SimpleAttribute) oldAttribute).getValue());
+        } else if (oldAttribute instanceof MultiValuedAttribute && newAttribute instanceof MultiValuedAttribute) {
+            List<Attribute> oldValues = ((MultiValuedAttribute) oldAttribute).getAttributeValues();
+            List<Attribute> newValues = ((MultiValuedAttribute) newAttribute).getAttributeValues();
+            if (oldValues.size() != newValues.size()) {
+                return false;
+            }
+            for (Attribute newValue : newValues) {
+                if (!containsSameValue(oldValues, newValue)) {
+                    return false;
+                }
+            }
+            return checkListEquality(((MultiValuedAttribute) newAttribute).getAttributePrimitiveValues(),
+                    ((MultiValuedAttribute) oldAttribute).getAttributePrimitiveValues());
+        } else if (oldAttribute instanceof ComplexAttribute && newAttribute instanceof ComplexAttribute) {
+            Map<String, Attribute> oldSubAttributes = ((ComplexAttribute) oldAttribute).getSubAttributesList();
+            Map<String, Attribute> newSubAttributes = ((ComplexAttribute) newAttribute).getSubAttributesList();
+            if (!oldSubAttributes.keySet().equals(newSubAttributes.keySet())) {
+                return false;
             }
+            for (Map.Entry<String, Attribute> newSubAttribute : newSubAttributes.entrySet()) {
+                if (!isSameValue(oldSubAttributes.get(newSubAttribute.getKey()), newSubAttribute.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean containsSameValue(List<Attribute> values, Attribute value) {
+
+        for (Attribute candidate : values) {
+            if (isSameValue(candidate, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void collectAttributeChanges(AttributeSchema attributeSchema, Attribute oldAttribute,
+                                                Attribute newAttribute, AttributeChangeSet changes)
+            throws CharonException {
 
+        if (SCIMDefinitions.Mutability.READ_ONLY.equals(attributeSchema.getMutability()) ||
+                (oldAttribute == null && newAttribute == null)) {
+            return;
+        }
+        if (oldAttribute == null) {
+            changes.setAddedAttribute(newAttribute);
+        } else if (newAttribute == null) {
+            changes.setRemovedAttribute(oldAttribute);
+        } else if (oldAttribute instanceof MultiValuedAttribute && newAttribute instanceof MultiValuedAttribute) {
+            collectValueChanges((MultiValuedAttribute) oldAttribute, (MultiValuedAttribute) newAttribute, changes);
+        } else if (oldAttribute instanceof ComplexAttribute && newAttribute instanceof ComplexAttribute &&
+                attributeSchema.getSubAttributeSchemas() != null) {
+            for (AttributeSchema subAttributeSchema : attributeSchema.getSubAttributeSchemas()) {
+                collectAttributeChanges(subAttributeSchema,
+                        ((ComplexAttribute) oldAttribute).getSubAttribute(subAttributeSchema.getName()),
+                        ((ComplexAttribute) newAttribute).getSubAttribute(subAttributeSchema.getName()), changes);
+            }
+        } else if (!isSameValue(oldAttribute, newAttribute)) {
+            changes.setReplacedAttribute(newAttribute);
+        }
+    }
+
+    private static void collectValueChanges(MultiValuedAttribute oldAttribute, MultiValuedAttribute newAttribute,
+                                            AttributeChangeSet changes) {
+
+        String attributeURI = newAttribute.getURI();
+        for (Attribute newValue : newAttribute.getAttributeValues()) {
+            if (!containsSameValue(oldAttribute.getAttributeValues(), newValue)) {
+                changes.addAddedValue(attributeURI, newValue);
+            }
+        }
+        for (Attribute oldValue : oldAttribute.getAttributeValues()) {
+            if (!containsSameValue(newAttribute.getAttributeValues(), oldValue)) {
+                changes.addRemovedValue(attributeURI, oldValue);
+            }
+        }
+        Set<Object> oldPrimitiveValues = new HashSet<>(oldAttribute.getAttributePrimitiveValues());
+        Set<Object> newPrimitiveValues = new HashSet<>(newAttribute.getAttributePrimitiveValues());
+        for (Object newValue : newAttribute.getAttributePrimitiveValues()) {
+            if (!oldPrimitiveValues.contains(newValue)) {
+                changes.addAddedValue(attributeURI, newValue);
+            }
+        }
+        for (Object oldValue : oldAttribute.getAttributePrimitiveValues()) {
+            if (!newPrimitiveValues.contains(oldValue)) {
+                changes.addRemovedValue(attributeURI, oldValue);
+            }
         }
     }
 
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.schema;
+
+import org.wso2.charon3.core.utils.BoundedCache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns the attributes defined by a schema dense ordinal slots, in the order the schema defines them, so that
+ * the attributes of a resource or of a complex attribute can be held in an array indexed by slot.
+ * <p>
+ * A layout is immutable and shared by all the attributes it is used for. Names it does not know have no slot.
+ * Layouts are interned by the attribute schemas they are created of, so schemas built per request out of the same
+ * attribute schemas, like the user schema with extensions, give the resources they populate the same layout.
+ */
+public final class AttributeLayout implements Serializable {
+
+    private static final long serialVersionUID = -2730945237716519208L;
+
+    private static final BoundedCache<List<AttributeSchema>, AttributeLayout> layouts = new BoundedCache<>(1024);
+
+    private final String[] names;
+    private final Map<String, Integer> slots;
+
+    private AttributeLayout(List<AttributeSchema> attributeSchemas) {
+
+        this.slots = new HashMap<>(attributeSchemas.size() * 2);
+        for (AttributeSchema attributeSchema : attributeSchemas) {
+            if (attributeSchema != null && attributeSchema.getName() != null) {
+                slots.putIfAbsent(attributeSchema.getName(), slots.size());
+            }
+        }
+        this.names = new String[slots.size()];
+        for (Map.Entry<String, Integer> slot : slots.entrySet()) {
+            names[slot.getValue()] = slot.getKey();
+        }
+    }
+
+    /**
+     * Returns the layout of the given attributes. Attributes with the same name share a slot. The same attribute
+     * schemas, in the same order, give the same layout instance.
+     *
+     * @param attributeSchemas schemas of the attributes, may be null
+     * @return layout
+     */
+    public static AttributeLayout of(List<AttributeSchema> attributeSchemas) {
+
+        // attribute schemas do not override equals, so the key compares the schemas by identity. The list is
+        // copied as the schemas of complex attributes can be changed afterwards.
+        List<AttributeSchema> key = attributeSchemas == null ? new ArrayList<>() : new ArrayList<>(attributeSchemas);
+        return layouts.get(key, AttributeLayout::new);
+    }
+
+    /**
+     * @return number of slots
+     */
+    public int size() {
+
+        return names.length;
+    }
+
+    /**
+     * @param name attribute name
+     * @return slot of the attribute, or -1 if the layout does not know the name
+     */
+    public int getSlot(Object name) {
+
+        Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @param slot slot
+     * @return name of the attribute held in the slot
+     */
+    public String getName(int slot) {
+
+        return names[slot];
+    }
+}
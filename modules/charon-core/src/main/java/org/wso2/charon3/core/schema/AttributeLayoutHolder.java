@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.schema;
+
+import java.util.List;
+
+/**
+ * Remembers which list of attribute schemas a layout was created from, so that a schema can tell when the list was
+ * replaced or attributes were added to or removed from it. A stale layout is still correct, since attributes it does
+ * not know are held without a slot, but it would hold them less compactly.
+ */
+final class AttributeLayoutHolder {
+
+    private final List<AttributeSchema> attributeSchemas;
+    private final int attributeCount;
+    private final AttributeLayout layout;
+
+    AttributeLayoutHolder(List<AttributeSchema> attributeSchemas) {
+
+        this.attributeSchemas = attributeSchemas;
+        this.attributeCount = attributeSchemas == null ? 0 : attributeSchemas.size();
+        this.layout = AttributeLayout.of(attributeSchemas);
+    }
+
+    boolean isLayoutOf(List<AttributeSchema> attributeSchemas) {
+
+        return this.attributeSchemas == attributeSchemas &&
+                attributeCount == (attributeSchemas == null ? 0 : attributeSchemas.size());
+    }
+
+    AttributeLayout getLayout() {
+
+        return layout;
+    }
+}
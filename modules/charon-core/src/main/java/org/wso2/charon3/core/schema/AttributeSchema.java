@@ -72,6 +72,16 @@ public interface AttributeSchema {
 
     public void removeSubAttribute(String subAttributeName) throws CharonException;
 
+    /**
+     * Get the slots assigned to the sub attributes, which complex attributes of this schema hold their sub
+     * attributes by. The layout should be shared by all the calls as long as the sub attributes do not change.
+     *
+     * @return layout of the sub attributes, or null if the sub attributes are not assigned slots.
+     */
+    default AttributeLayout getSubAttributeLayout() {
+        return null;
+    }
+
     /**
      * Get list of canonical values.
      *
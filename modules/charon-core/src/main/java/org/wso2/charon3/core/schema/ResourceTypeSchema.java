@@ -33,4 +33,14 @@ public interface ResourceTypeSchema {
 
     public void setAttributeList(ArrayList attributeList);
 
+    /**
+     * Get the slots assigned to the attributes, which resources of this type hold their attributes by. The layout
+     * should be shared by all the calls as long as the attributes do not change.
+     *
+     * @return layout of the attributes, or null if the attributes are not assigned slots.
+     */
+    default AttributeLayout getAttributeLayout() {
+        return null;
+    }
+
 }
@@ -57,6 +57,8 @@ public class SCIMAttributeSchema implements AttributeSchema, Serializable {
     //A multi-valued array of JSON strings that indicate the SCIM resource types that may be referenced
     //only applicable for attributes that are of type "reference"
     private ArrayList<SCIMDefinitions.ReferenceType> referenceTypes;
+    //slots of the sub attributes, rebuilt when the sub attributes change
+    private transient volatile AttributeLayoutHolder subAttributeLayout;
 
     private SCIMAttributeSchema(String uri, String name, SCIMDefinitions.DataType type, Boolean multiValued,
                                 String description, Boolean required, Boolean caseExact,
@@ -209,6 +211,16 @@ public class SCIMAttributeSchema implements AttributeSchema, Serializable {
         this.subAttributes = subAttributes;
     }
 
+    @Override
+    public AttributeLayout getSubAttributeLayout() {
+        AttributeLayoutHolder holder = subAttributeLayout;
+        if (holder == null || !holder.isLayoutOf(subAttributes)) {
+            holder = new AttributeLayoutHolder(subAttributes);
+            subAttributeLayout = holder;
+        }
+        return holder.getLayout();
+    }
+
     public List<String> getCanonicalValues() {
         return canonicalValues;
     }
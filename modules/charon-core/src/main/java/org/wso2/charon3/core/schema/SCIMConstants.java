@@ -57,6 +57,7 @@ public class SCIMConstants {
     public static final String USER_ENDPOINT = "/Users";
     public static final String GROUP_ENDPOINT = "/Groups";
     public static final String ROLE_ENDPOINT = "/Roles";
+    public static final String BULK_ENDPOINT = "/Bulk";
     public static final String SERVICE_PROVIDER_CONFIG_ENDPOINT = "/ServiceProviderConfig";
     public static final String RESOURCE_TYPE_ENDPOINT = "/ResourceTypes";
     public static final String SCHEMAS_ENDPOINT = "/Schemas";
@@ -65,6 +66,9 @@ public class SCIMConstants {
     //HTTP Headers used in SCIM request/response other than auth headers.
     public static final String LOCATION_HEADER = "Location";
     public static final String CONTENT_TYPE_HEADER = "Content-Type";
+    public static final String ETAG_HEADER = "ETag";
+    public static final String IF_MATCH_HEADER = "If-Match";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
 
     public static final String DEFAULT = "default";
 
@@ -31,6 +31,8 @@ public class SCIMResourceTypeSchema implements ResourceTypeSchema, Serializable
     private List<String> schemasList;
     //set of attributeList in the schema
     private ArrayList<AttributeSchema> attributeList = new ArrayList<AttributeSchema>();
+    //slots of the attributes, rebuilt when the attribute list changes
+    private transient volatile AttributeLayoutHolder attributeLayout;
 
     private SCIMResourceTypeSchema(List<String> schemas, AttributeSchema[] attributeSchemas) {
         this.schemasList = schemas;
@@ -85,4 +87,14 @@ public class SCIMResourceTypeSchema implements ResourceTypeSchema, Serializable
     public void setAttributeList(ArrayList attributeList) {
         this.attributeList = attributeList;
     }
+
+    @Override
+    public AttributeLayout getAttributeLayout() {
+        AttributeLayoutHolder holder = attributeLayout;
+        if (holder == null || !holder.isLayoutOf(attributeList)) {
+            holder = new AttributeLayoutHolder(attributeList);
+            attributeLayout = holder;
+        }
+        return holder.getLayout();
+    }
 }
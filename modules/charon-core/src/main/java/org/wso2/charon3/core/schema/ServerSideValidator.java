@@ -15,21 +15,23 @@
  */
 package org.wso2.charon3.core.schema;
 
+import org.wso2.charon3.core.attributes.Attribute;
 import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.config.CharonConfiguration;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.AttributeChangeSet;
 import org.wso2.charon3.core.objects.Role;
 import org.wso2.charon3.core.objects.User;
 import org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager;
-import org.wso2.charon3.core.utils.AttributeUtil;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 /**
  * Server Side Validator.
@@ -56,13 +58,14 @@ public class ServerSideValidator extends AbstractValidator {
         removeAnyReadOnlyAttributes(scimObject, resourceSchema);
 
         if (!(scimObject instanceof Role)) {
-            String id = UUID.randomUUID().toString();
+            String id = CharonConfiguration.getInstance().getResourceIdGenerator()
+                    .generateId(getResourceType(resourceSchema));
             scimObject.setId(id);
             Instant now = Instant.now();
             // Set the created date and time.
-            scimObject.setCreatedInstant(AttributeUtil.parseDateTime(AttributeUtil.formatDateTime(now)));
+            scimObject.setCreatedInstant(now);
             // Creates date and the last modified are the same if not updated.
-            scimObject.setLastModifiedInstant(AttributeUtil.parseDateTime(AttributeUtil.formatDateTime(now)));
+            scimObject.setLastModifiedInstant(now);
         }
         //set location and resourceType
         if (resourceSchema.isSchemaAvailable(SCIMConstants.USER_CORE_SCHEMA_URI)) {
@@ -83,6 +86,19 @@ public class ServerSideValidator extends AbstractValidator {
         validateSchemaList(scimObject, resourceSchema);
     }
 
+    /*
+     * Returns the SCIM resource type of the resources of the schema, null if it is neither users nor groups.
+     */
+    private static String getResourceType(SCIMResourceTypeSchema resourceSchema) {
+
+        if (resourceSchema.isSchemaAvailable(SCIMConstants.USER_CORE_SCHEMA_URI)) {
+            return SCIMConstants.USER;
+        } else if (resourceSchema.isSchemaAvailable(SCIMConstants.GROUP_CORE_SCHEMA_URI)) {
+            return SCIMConstants.GROUP;
+        }
+        return null;
+    }
+
     /*
      * create location header from location and resourceID
      *
@@ -176,13 +192,33 @@ public class ServerSideValidator extends AbstractValidator {
                                                                SCIMResourceTypeSchema resourceSchema)
             throws CharonException, BadRequestException {
 
+        return validateUpdatedSCIMObject(oldObject, newObject, resourceSchema, null);
+    }
+
+    /*
+     * Perform validation on SCIM Object update on service provider side, collecting the attributes changed by the
+     * update while the read only and immutable attributes are checked.
+     *
+     * @param oldObject
+     * @param newObject
+     * @param resourceSchema
+     * @param changes        change set to collect the changed attributes into, or null if they are not needed
+     * @return
+     * @throws CharonException
+     */
+    public static AbstractSCIMObject validateUpdatedSCIMObject(AbstractSCIMObject oldObject,
+                                                               AbstractSCIMObject newObject,
+                                                               SCIMResourceTypeSchema resourceSchema,
+                                                               AttributeChangeSet changes)
+            throws CharonException, BadRequestException {
+
         AbstractSCIMObject validatedObject = null;
         if (newObject instanceof User) {
             //set display names for complex multivalued attributes
             setDisplayNameInComplexMultiValuedAttributes(newObject, resourceSchema);
         }
         //check for read only and immutable attributes
-        validatedObject = checkIfReadOnlyAndImmutableAttributesModified(oldObject, newObject, resourceSchema);
+        validatedObject = checkIfReadOnlyAndImmutableAttributesModified(oldObject, newObject, resourceSchema, changes);
         //copy meta attribute from old to new
         validatedObject.setAttribute(oldObject.getAttribute(SCIMConstants.CommonSchemaConstants.META));
         //copy id attribute to new group object
@@ -197,6 +233,59 @@ public class ServerSideValidator extends AbstractValidator {
         return validatedObject;
     }
 
+    /*
+     * Perform validation on a SCIM Object updated by an operation which only modified the given attributes. This
+     * gives the same result as validateUpdatedSCIMObject with a copy of the object taken before the update, since the
+     * read only and immutable checks leave the attributes which were not modified as they are. Only the modified
+     * attributes need to be copied before the update, instead of the whole object.
+     *
+     * @param oldAttributes  copies of the modified attributes taken before the update, by attribute name. A null
+     *                       copy means the attribute did not exist.
+     * @param newObject      updated object
+     * @param resourceSchema
+     * @return
+     * @throws CharonException
+     * @throws BadRequestException
+     */
+    public static AbstractSCIMObject validateUpdatedAttributes(Map<String, Attribute> oldAttributes,
+                                                               AbstractSCIMObject newObject,
+                                                               SCIMResourceTypeSchema resourceSchema)
+            throws CharonException, BadRequestException {
+
+        if (newObject instanceof User) {
+            //set display names for complex multivalued attributes
+            setDisplayNameInComplexMultiValuedAttributes(newObject, resourceSchema);
+        }
+        //check for read only and immutable attributes among the modified ones
+        AbstractSCIMObject oldPart = new AbstractSCIMObject();
+        AbstractSCIMObject newPart = new AbstractSCIMObject();
+        for (Map.Entry<String, Attribute> oldAttribute : oldAttributes.entrySet()) {
+            if (oldAttribute.getValue() != null) {
+                oldPart.setAttribute(oldAttribute.getValue());
+            }
+            Attribute newAttribute = newObject.getAttribute(oldAttribute.getKey());
+            if (newAttribute != null) {
+                newPart.setAttribute(newAttribute);
+            }
+        }
+        checkIfReadOnlyAndImmutableAttributesModified(oldPart, newPart, resourceSchema);
+        for (String attributeName : oldAttributes.keySet()) {
+            newObject.deleteAttribute(attributeName);
+            Attribute validatedAttribute = newPart.getAttribute(attributeName);
+            if (validatedAttribute != null) {
+                newObject.setAttribute(validatedAttribute);
+            }
+        }
+        //edit last modified date
+        newObject.setLastModifiedInstant(Instant.now());
+        //check for required attributes.
+        validateSCIMObjectForRequiredAttributes(newObject, resourceSchema);
+        //check for schema list
+        validateSchemaList(newObject, resourceSchema);
+
+        return newObject;
+    }
+
     /*
      * This method is to add meta data to the resource type resource
      *
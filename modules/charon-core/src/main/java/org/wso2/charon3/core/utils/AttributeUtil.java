@@ -17,6 +17,7 @@ package org.wso2.charon3.core.utils;
 
 import org.apache.commons.lang.StringUtils;
 import org.json.JSONObject;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
@@ -52,6 +53,10 @@ public class AttributeUtil {
         if (attributeValue == null) {
             return attributeValue;
         }
+        Object nativeValue = getNativeValue(attributeValue, dataType);
+        if (nativeValue != null) {
+            return nativeValue;
+        }
         String attributeStringValue = null;
         if (attributeValue instanceof Boolean) {
             attributeStringValue = String.valueOf(attributeValue);
@@ -86,6 +91,58 @@ public class AttributeUtil {
         return null;
     }
 
+    /*
+     * Return the value as is if it already is in the representation of the given data type, such as a JSON boolean
+     * of a boolean attribute, so that it does not go through a string. Null if the value has to be converted.
+     *
+     * @param attributeValue
+     * @param dataType
+     * @return Object
+     */
+    private static Object getNativeValue(Object attributeValue, SCIMDefinitions.DataType dataType) {
+        switch (dataType) {
+            case BOOLEAN:
+                return attributeValue instanceof Boolean ? attributeValue : null;
+            case INTEGER:
+                return attributeValue instanceof Integer ? attributeValue : null;
+            case DECIMAL:
+                if (attributeValue instanceof Integer) {
+                    return Double.valueOf((Integer) attributeValue);
+                }
+                return attributeValue instanceof Double ? attributeValue : null;
+            case DATE_TIME:
+                return attributeValue instanceof Instant ? attributeValue : null;
+            default:
+                return null;
+        }
+    }
+
+    /*
+     * Compare the value of a simple attribute with a value given in a filter. Values of the string types are compared
+     * as they are, values of the other types are compared after converting the filter value to the data type of the
+     * attribute, so that for example a boolean attribute matches "true".
+     *
+     * @param attribute
+     * @param filterValue
+     * @return whether the values are equal
+     */
+    public static boolean isValueEqual(SimpleAttribute attribute, String filterValue) {
+        Object attributeValue = attribute.getValue();
+        if (attributeValue == null || filterValue == null) {
+            return attributeValue == null && filterValue == null;
+        }
+        SCIMDefinitions.DataType dataType = attribute.getType();
+        if (dataType == null || attributeValue instanceof String) {
+            return attributeValue.equals(filterValue);
+        }
+        try {
+            return attributeValue.equals(getAttributeValueFromString(filterValue, dataType));
+        } catch (CharonException | BadRequestException | RuntimeException e) {
+            // The filter value is not a valid value of the data type, hence no value of the attribute matches it.
+            return false;
+        }
+    }
+
     /*
      * return the string value of the attribute value
      *
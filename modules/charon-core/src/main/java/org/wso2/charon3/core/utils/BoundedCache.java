@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A size bounded, thread safe cache with an optional time to live.
+ * <p>
+ * Entries are kept in a {@link ConcurrentHashMap} so reads never block. When the cache grows beyond its maximum
+ * size, entries are evicted using the CLOCK (second chance) policy: an entry which has been read since it was last
+ * inspected is given another round, so frequently read entries stay resident while cold ones are dropped.
+ *
+ * @param <K> type of the cache key
+ * @param <V> type of the cached value
+ */
+public class BoundedCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry<K, V>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final AtomicInteger deadNodes = new AtomicInteger();
+    private final int maxSize;
+    private final long expireAfterWriteNanos;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Creates a cache which never expires its entries.
+     *
+     * @param maxSize maximum number of entries kept in the cache.
+     */
+    public BoundedCache(int maxSize) {
+
+        this(maxSize, 0);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize                maximum number of entries kept in the cache.
+     * @param expireAfterWriteMillis time in milliseconds after which an entry is discarded. Zero or a negative
+     *                               value disables expiry.
+     */
+    public BoundedCache(int maxSize, long expireAfterWriteMillis) {
+
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.expireAfterWriteNanos = expireAfterWriteMillis > 0 ? expireAfterWriteMillis * 1000000L : 0;
+    }
+
+    /**
+     * Returns the cached value of the given key.
+     *
+     * @param key key of the entry
+     * @return cached value or null if there is no live entry for the key
+     */
+    public V get(K key) {
+
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        if (isExpired(entry)) {
+            if (entries.remove(key, entry)) {
+                retire();
+                evictionCount.increment();
+            }
+            missCount.increment();
+            return null;
+        }
+        entry.referenced = true;
+        hitCount.increment();
+        return entry.value;
+    }
+
+    /**
+     * Returns the cached value of the given key, computing and caching it with the given loader on a miss.
+     * The loader may run more than once for the same key under contention; the last computed value wins.
+     *
+     * @param key    key of the entry
+     * @param loader function which computes the value of a missing key
+     * @return cached or freshly computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Adds or replaces the value of the given key.
+     *
+     * @param key   key of the entry
+     * @param value value to cache
+     */
+    public void put(K key, V value) {
+
+        Entry<K, V> entry = new Entry<>(key, value, expireAfterWriteNanos > 0 ? System.nanoTime() : 0);
+        if (entries.put(key, entry) != null) {
+            retire();
+        }
+        clock.offer(entry);
+        if (clockSize.incrementAndGet() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Discards the entry of the given key, if any.
+     *
+     * @param key key of the entry
+     */
+    public void invalidate(K key) {
+
+        if (entries.remove(key) != null) {
+            retire();
+        }
+    }
+
+    /**
+     * Discards the entry of the given key if it still holds the given value, leaving a value put meanwhile in place.
+     *
+     * @param key   key of the entry
+     * @param value value the entry has to hold
+     */
+    public void invalidate(K key, V value) {
+
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null && entry.value == value && entries.remove(key, entry)) {
+            retire();
+        }
+    }
+
+    /**
+     * Discards all the entries of the cache.
+     */
+    public void invalidateAll() {
+
+        for (K key : entries.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    /**
+     * @return number of entries currently in the cache
+     */
+    public int size() {
+
+        return entries.size();
+    }
+
+    /**
+     * @return number of lookups which were served from the cache
+     */
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    /**
+     * @return number of lookups which did not find a live entry
+     */
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    /**
+     * @return number of entries discarded because the cache was full or the entry expired
+     */
+    public long getEvictionCount() {
+
+        return evictionCount.sum();
+    }
+
+    private boolean isExpired(Entry<K, V> entry) {
+
+        return expireAfterWriteNanos > 0 && System.nanoTime() - entry.writeTime > expireAfterWriteNanos;
+    }
+
+    /*
+     * Accounts for an entry which was removed from the map while its node is still in the clock. Once there are
+     * more dead nodes than the cache can hold live entries, they are purged so that the queue does not keep growing
+     * on workloads which mostly replace or invalidate entries.
+     */
+    private void retire() {
+
+        clockSize.decrementAndGet();
+        if (deadNodes.incrementAndGet() > maxSize) {
+            deadNodes.set(0);
+            clock.removeIf(node -> entries.get(node.key) != node);
+        }
+    }
+
+    /*
+     * Sweeps the clock until the number of live entries is back within the maximum size.
+     */
+    private void evict() {
+
+        while (clockSize.get() > maxSize) {
+            Entry<K, V> candidate = clock.poll();
+            if (candidate == null) {
+                return;
+            }
+            if (entries.get(candidate.key) != candidate) {
+                deadNodes.decrementAndGet();
+            } else if (candidate.referenced && !isExpired(candidate)) {
+                candidate.referenced = false;
+                clock.offer(candidate);
+            } else if (entries.remove(candidate.key, candidate)) {
+                clockSize.decrementAndGet();
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Cache entry which also acts as the node of the eviction clock.
+     */
+    private static final class Entry<K, V> {
+
+        private final K key;
+        private final V value;
+        private final long writeTime;
+        private volatile boolean referenced;
+
+        private Entry(K key, V value, long writeTime) {
+
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+}
@@ -22,13 +22,23 @@ import org.wso2.charon3.core.exceptions.CharonException;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * This is to create a deep copy of the object using java serialization.
  * SCIMObject instances have complex object graphs and hard to deep copy by
  * overriding clone method. Hence, using serialization to do the deep copy.
+ * <p>
+ * Objects which are shared rather than owned by the copied object, such as the schemas of attributes, are passed
+ * through {@link CopyOutputStream#writeShared(Object)} and {@link CopyInputStream#readShared()}, so that the copy
+ * refers to the same instances as the original.
  */
 public class CopyUtil {
 
@@ -42,15 +52,17 @@ public class CopyUtil {
             //create byte array output stream
             ByteArrayOutputStream byteArrayOutPutStream = new ByteArrayOutputStream();
             //create object out put stream using above
-            objOutPutStream = new ObjectOutputStream(byteArrayOutPutStream);
+            CopyOutputStream copyOutputStream = new CopyOutputStream(byteArrayOutPutStream);
+            objOutPutStream = copyOutputStream;
             //serialize the object and write it to the byte array out put stream
             objOutPutStream.writeObject(oldObject);
+            objOutPutStream.flush();
 
             //create a byte array input stream from the content of the byte array output stream
             ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(
                     byteArrayOutPutStream.toByteArray());
 
-            objInputStream = new ObjectInputStream(byteArrayInputStream);
+            objInputStream = new CopyInputStream(byteArrayInputStream, copyOutputStream.sharedObjects);
             newObject = objInputStream.readObject();
 
         } catch (ClassNotFoundException | IOException e) {
@@ -58,4 +70,63 @@ public class CopyUtil {
         }
         return newObject;
     }
+
+    /**
+     * Stream the original object is written to.
+     */
+    public static final class CopyOutputStream extends ObjectOutputStream {
+
+        private final List<Object> sharedObjects = new ArrayList<>();
+        private final Map<Object, Integer> sharedObjectIndexes = new IdentityHashMap<>();
+
+        private CopyOutputStream(OutputStream out) throws IOException {
+
+            super(out);
+        }
+
+        /**
+         * Writes a reference to the given object instead of the object, so that the copy refers to the same instance.
+         *
+         * @param object object shared by the original and the copy, may be null
+         * @throws IOException if the reference can not be written
+         */
+        public void writeShared(Object object) throws IOException {
+
+            if (object == null) {
+                writeInt(-1);
+                return;
+            }
+            Integer index = sharedObjectIndexes.get(object);
+            if (index == null) {
+                index = sharedObjects.size();
+                sharedObjects.add(object);
+                sharedObjectIndexes.put(object, index);
+            }
+            writeInt(index);
+        }
+    }
+
+    /**
+     * Stream the copy is read from.
+     */
+    public static final class CopyInputStream extends ObjectInputStream {
+
+        private final List<Object> sharedObjects;
+
+        private CopyInputStream(InputStream in, List<Object> sharedObjects) throws IOException {
+
+            super(in);
+            this.sharedObjects = sharedObjects;
+        }
+
+        /**
+         * @return object written by {@link CopyOutputStream#writeShared(Object)}
+         * @throws IOException if the reference can not be read
+         */
+        public Object readShared() throws IOException {
+
+            int index = readInt();
+            return index < 0 ? null : sharedObjects.get(index);
+        }
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
+import org.wso2.charon3.core.objects.ScimAttributeAware;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Support class for the version based entity tags of SCIM resources (RFC 7644, section 3.14).
+ * <p>
+ * The entity tag of a resource is its {@code meta.version} when the service provider maintains one, otherwise a weak
+ * tag derived from {@code meta.lastModified}. Tags are compared with the weak comparison function since SCIM
+ * versions are weak validators.
+ */
+public class ETagUtil {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    private ETagUtil() {
+
+    }
+
+    /**
+     * @return true if the service provider has enabled entity tag support
+     */
+    public static boolean isETagSupported() {
+
+        return CharonConfiguration.getInstance().isETagSupported();
+    }
+
+    /**
+     * @param headerValue value of an If-Match or If-None-Match header
+     * @return true if entity tags are supported and the request carries the given precondition
+     */
+    public static boolean isConditionalRequest(String headerValue) {
+
+        return isETagSupported() && StringUtils.isNotBlank(headerValue);
+    }
+
+    /**
+     * Computes the entity tag of the given resource.
+     *
+     * @param resource SCIM resource
+     * @return entity tag or null if the resource carries neither a version nor a last modified time
+     */
+    public static String getETag(ScimAttributeAware resource) {
+
+        if (resource == null) {
+            return null;
+        }
+        String version = resource.getVersion();
+        if (StringUtils.isNotBlank(version)) {
+            version = version.trim();
+            if (version.startsWith(WEAK_PREFIX) || version.startsWith("\"")) {
+                return version;
+            }
+            return WEAK_PREFIX + "\"" + version + "\"";
+        }
+        Instant lastModified = resource.getLastModifiedInstant();
+        if (lastModified != null) {
+            return WEAK_PREFIX + "\"" + lastModified.toEpochMilli() + "\"";
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the value of an If-Match or If-None-Match header matches the given entity tag.
+     *
+     * @param headerValue comma separated list of entity tags or "*"
+     * @param eTag        current entity tag of the resource, null if the resource has none
+     * @return true if any of the listed tags matches, or the header is "*", which any current resource matches
+     */
+    public static boolean matches(String headerValue, String eTag) {
+
+        if (StringUtils.isBlank(headerValue)) {
+            return false;
+        }
+        if (ANY.equals(headerValue.trim())) {
+            return true;
+        }
+        if (eTag == null) {
+            return false;
+        }
+        String opaqueTag = getOpaqueTag(eTag);
+        for (String candidate : headerValue.split(",")) {
+            if (opaqueTag.equals(getOpaqueTag(candidate.trim()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decides whether a GET request can be answered with 304 Not Modified.
+     *
+     * @param ifNoneMatch value of the If-None-Match header
+     * @param eTag        current entity tag of the resource
+     * @return true if entity tags are supported and the client already holds the current version
+     */
+    public static boolean isNotModified(String ifNoneMatch, String eTag) {
+
+        return isETagSupported() && matches(ifNoneMatch, eTag);
+    }
+
+    /**
+     * Validates the If-Match header of a modifying request against the current state of the resource.
+     *
+     * @param ifMatch  value of the If-Match header
+     * @param resource current state of the resource
+     * @throws PreConditionFailedException if the client does not hold the current version of the resource
+     */
+    public static void validateIfMatch(String ifMatch, ScimAttributeAware resource)
+            throws PreConditionFailedException {
+
+        if (!isConditionalRequest(ifMatch)) {
+            return;
+        }
+        if (!matches(ifMatch, getETag(resource))) {
+            throw new PreConditionFailedException("Failed to update. The resource version does not match the " +
+                    "version given in the If-Match header.");
+        }
+    }
+
+    /**
+     * Adds the given entity tag to the response headers if entity tags are supported.
+     *
+     * @param httpHeaders response headers
+     * @param eTag        entity tag of the returned resource, may be null
+     */
+    public static void addETagHeader(Map<String, String> httpHeaders, String eTag) {
+
+        if (isETagSupported() && eTag != null) {
+            httpHeaders.put(SCIMConstants.ETAG_HEADER, eTag);
+        }
+    }
+
+    /**
+     * @return attribute URIs which must be retrieved to compute the entity tag of a resource
+     */
+    public static Map<String, Boolean> getETagAttributeURIs() {
+
+        Map<String, Boolean> requiredAttributes = new HashMap<>();
+        requiredAttributes.put(SCIMConstants.CommonSchemaConstants.ID_URI, true);
+        requiredAttributes.put(SCIMConstants.CommonSchemaConstants.VERSION_URI, true);
+        requiredAttributes.put(SCIMConstants.CommonSchemaConstants.LAST_MODIFIED_URI, true);
+        return requiredAttributes;
+    }
+
+    /**
+     * Adds the attribute URIs the entity tag is computed from to the attributes a GET request reads from the user
+     * store, so that a resource read for a response which leaves out meta still has an entity tag. The meta
+     * attribute is filtered out of the response as before.
+     *
+     * @param requiredAttributes attribute URIs required by the request, which are not modified
+     * @return the given attribute URIs, together with the entity tag attribute URIs if entity tags are supported
+     */
+    public static Map<String, Boolean> addETagAttributeURIs(Map<String, Boolean> requiredAttributes) {
+
+        if (!isETagSupported() || requiredAttributes == null) {
+            return requiredAttributes;
+        }
+        Map<String, Boolean> eTagAttributes = getETagAttributeURIs();
+        if (requiredAttributes.keySet().containsAll(eTagAttributes.keySet())) {
+            return requiredAttributes;
+        }
+        eTagAttributes.putAll(requiredAttributes);
+        return eTagAttributes;
+    }
+
+    private static String getOpaqueTag(String eTag) {
+
+        return eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+    }
+}
@@ -24,10 +24,6 @@ import org.json.JSONObject;
 import org.json.JSONTokener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.wso2.charon3.core.aParser.Parser;
-import org.wso2.charon3.core.aParser.ParserException;
-import org.wso2.charon3.core.aParser.Rule;
-import org.wso2.charon3.core.aParser.Rule_valuePath;
 import org.wso2.charon3.core.attributes.Attribute;
 import org.wso2.charon3.core.attributes.ComplexAttribute;
 import org.wso2.charon3.core.attributes.DefaultAttributeFactory;
@@ -48,8 +44,9 @@ import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.schema.ServerSideValidator;
 import org.wso2.charon3.core.utils.codeutils.ExpressionNode;
 import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.PatchPath;
+import org.wso2.charon3.core.utils.codeutils.PatchPathCompiler;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -81,6 +78,21 @@ public class PatchOperationUtil {
                                                    AbstractSCIMObject copyOfOldResource, SCIMResourceTypeSchema schema)
             throws BadRequestException, NotImplementedException, CharonException {
 
+        applyPatchRemove(operation, oldResource);
+        //validate the updated object
+        AbstractSCIMObject validatedResource =  ServerSideValidator.validateUpdatedSCIMObject
+                (copyOfOldResource, oldResource, schema);
+
+        return validatedResource;
+
+    }
+
+    /*
+     * Performs the remove operation on the resource without validating the updated resource.
+     */
+    static void applyPatchRemove(PatchOperation operation, AbstractSCIMObject oldResource)
+            throws BadRequestException, NotImplementedException, CharonException {
+
         if (operation.getPath() == null) {
             throw new BadRequestException
                     ("No path value specified for remove operation", ResponseCodeConstants.NO_TARGET);
@@ -90,56 +102,38 @@ public class PatchOperationUtil {
             throw new NotImplementedException("Removing permissions not permitted.");
         }
 
-        String path = operation.getPath();
-        //split the path to extract the filter if present.
-        String[] parts = path.split("[\\[\\]]");
+        PatchPath patchPath = PatchPathCompiler.compile(operation.getPath());
 
-        if (parts.length != 1) {
+        if (patchPath.hasFilter()) {
             //currently we only support simple filters here.
-            String[] filterParts = parts[1].split(" ");
-
-            ExpressionNode expressionNode = new ExpressionNode();
-            expressionNode.setAttributeValue(filterParts[0]);
-            expressionNode.setOperation(filterParts[1]);
-            // According to the specification filter attribute value specified with quotation mark, so we need to
-            // remove it if exists.
-            expressionNode.setValue(filterParts[2].replaceAll("^\"|\"$", ""));
+            ExpressionNode expressionNode = patchPath.getFilter();
 
             if (expressionNode.getOperation().equalsIgnoreCase((SCIMConstants.OperationalConstants.EQ).trim())) {
 
-                doPatchRemoveWithFilters(parts, oldResource, expressionNode);
+                doPatchRemoveWithFilters(patchPath, oldResource, expressionNode);
             } else {
                 throw new NotImplementedException("Only Eq filter is supported");
             }
         } else {
 
-            doPatchRemoveWithoutFilters(parts, oldResource);
+            doPatchRemoveWithoutFilters(patchPath, oldResource);
         }
-        //validate the updated object
-        AbstractSCIMObject validatedResource =  ServerSideValidator.validateUpdatedSCIMObject
-                (copyOfOldResource, oldResource, schema);
-
-        return validatedResource;
-
     }
 
     /*
      * This is the patch remove operation when the path is specified with a filter in it.
-     * @param parts
+     * @param patchPath
      * @param oldResource
      * @param expressionNode
      * @throws BadRequestException
      * @throws CharonException
      */
-    private static AbstractSCIMObject doPatchRemoveWithFilters(String[] parts,
+    private static AbstractSCIMObject doPatchRemoveWithFilters(PatchPath patchPath,
                                                                AbstractSCIMObject oldResource,
                                                                ExpressionNode expressionNode)
             throws BadRequestException, CharonException, NotImplementedException {
 
-        if (parts.length == 3) {
-            parts[0] = parts[0] + parts[2];
-        }
-        String[] attributeParts = getAttributeParts(parts[0]);
+        String[] attributeParts = patchPath.getAttributeParts();
 
         if (attributeParts.length == 1) {
 
@@ -156,37 +150,6 @@ public class PatchOperationUtil {
         return oldResource;
     }
 
-    /**
-     * Calculate the parts of an attribute URI
-     * @param attributeURI
-     * @return
-     */
-    private static String[] getAttributeParts(String attributeURI) {
-        ArrayList<String> tempAttributeNames = new ArrayList<>();
-        String extensionURI = "";
-        String[] attributeURIParts = attributeURI.split(":");
-
-        StringBuffer buf = new StringBuffer();
-        for (int i = 0; i < attributeURIParts.length - 1; ++i) {
-            buf.append(":");
-            buf.append(attributeURIParts[i]);
-        }
-        extensionURI = buf.toString();
-
-        String attributeNameString = attributeURIParts[attributeURIParts.length - 1];
-        String[] attributeNames = attributeNameString.split("\\.");
-
-        if (attributeURIParts.length > 1) {
-            tempAttributeNames.add(extensionURI.substring(1));
-        }
-
-        for (int i = 0; i < attributeNames.length; i++) {
-            tempAttributeNames.add(attributeNames[i]);
-        }
-
-        return tempAttributeNames.toArray(attributeNames);
-    }
-
     /*
      *
      * @param oldResource
@@ -333,7 +296,8 @@ public class PatchOperationUtil {
                             Attribute subAttribute = iterator.next();
 
                             if (subAttribute.getName().equals(expressionNode.getAttributeValue())) {
-                                if (((SimpleAttribute) subAttribute).getValue().equals(expressionNode.getValue())) {
+                                if (AttributeUtil.isValueEqual((SimpleAttribute) subAttribute,
+                                        expressionNode.getValue())) {
                                     Attribute removingAttribute = subAttributes.get(attributeParts[1]);
                                     if (removingAttribute == null) {
                                         throw new BadRequestException
@@ -380,8 +344,8 @@ public class PatchOperationUtil {
                                  subValuesSubAttribute.values().iterator(); iterator.hasNext(); ) {
                                 Attribute subSubAttribute = iterator.next();
                                 if (subSubAttribute.getName().equals(expressionNode.getAttributeValue())) {
-                                    if (((SimpleAttribute) (subSubAttribute)).getValue().equals
-                                            (expressionNode.getValue())) {
+                                    if (AttributeUtil.isValueEqual((SimpleAttribute) subSubAttribute,
+                                            expressionNode.getValue())) {
                                         if (subValue.getMutability().equals(SCIMDefinitions.Mutability.READ_ONLY) ||
                                                 subValue.getRequired().equals(true)) {
                                             throw new BadRequestException
@@ -503,8 +467,8 @@ public class PatchOperationUtil {
 
                                 Attribute subAttribute = iterator.next();
                                 if (subAttribute.getName().equals(expressionNode.getAttributeValue())) {
-                                    if (((SimpleAttribute)
-                                            (subAttribute)).getValue().equals(expressionNode.getValue())) {
+                                    if (AttributeUtil.isValueEqual((SimpleAttribute) subAttribute,
+                                            expressionNode.getValue())) {
                                         if (subValue.getMutability().equals(SCIMDefinitions.Mutability.READ_ONLY) ||
                                                 subValue.getRequired().equals(true)) {
                                             throw new BadRequestException
@@ -573,19 +537,19 @@ public class PatchOperationUtil {
 
     /*
      * This is the patch remove operation when the path is specified without a filter in it.
-     * @param parts
+     * @param patchPath
      * @param oldResource
      * @return
      * @throws BadRequestException
      * @throws CharonException
      */
     private static AbstractSCIMObject doPatchRemoveWithoutFilters
-    (String[] parts, AbstractSCIMObject oldResource) throws BadRequestException, CharonException {
+    (PatchPath patchPath, AbstractSCIMObject oldResource) throws BadRequestException, CharonException {
 
-        String[] attributeParts = getAttributeParts(parts[0]);
+        String[] attributeParts = patchPath.getAttributeParts();
         if (attributeParts.length == 1) {
 
-            Attribute attribute = oldResource.getAttribute(parts[0]);
+            Attribute attribute = oldResource.getAttribute(patchPath.getAttributeURI());
 
             if (attribute != null) {
                 if (attribute.getMutability().equals(SCIMDefinitions.Mutability.READ_ONLY) ||
@@ -727,6 +691,21 @@ public class PatchOperationUtil {
                                                 SCIMResourceTypeSchema schema)
             throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
 
+        applyPatchAdd(operation, decoder, oldResource, copyOfOldResource, schema);
+        // Validate the updated object.
+        AbstractSCIMObject validatedResource = ServerSideValidator
+                .validateUpdatedSCIMObject(copyOfOldResource, oldResource, schema);
+        return validatedResource;
+    }
+
+    /*
+     * Performs the add operation on the resource without validating the updated resource. The copy of the resource
+     * is only read when the operation has no path.
+     */
+    static void applyPatchAdd(PatchOperation operation, JSONDecoder decoder, AbstractSCIMObject oldResource,
+                              AbstractSCIMObject copyOfOldResource, SCIMResourceTypeSchema schema)
+            throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
+
         if (operation.getValues() == null) {
             throw new BadRequestException("The value is not provided to perform patch add operation.",
                     ResponseCodeConstants.INVALID_SYNTAX);
@@ -745,10 +724,6 @@ public class PatchOperationUtil {
         } else {
             doPatchAddOnResource(operation, decoder, oldResource, copyOfOldResource, schema);
         }
-        // Validate the updated object.
-        AbstractSCIMObject validatedResource = ServerSideValidator
-                .validateUpdatedSCIMObject(copyOfOldResource, oldResource, schema);
-        return validatedResource;
     }
 
     /**
@@ -767,49 +742,26 @@ public class PatchOperationUtil {
                                                      AbstractSCIMObject oldResource, SCIMResourceTypeSchema schema)
             throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
 
-        try {
-            Rule pathAttributeRule = Parser.parse(PATH_RULE_NAME, operation.getPath());
-
-            if (isFilterConditionProvidedInPath(pathAttributeRule)) {
-                // Filter condition has been provided in the path.
-                try {
-                    doPatchAddOnPathWithFilters(operation, decoder, oldResource, schema);
-                } catch (JSONException e) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Input JSON object/array is invalid, " + operation.getValues().toString());
-                    }
-                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
-                }
-            } else {
-                // Provided path doesn't contain filter condition.
-                doPatchAddOnPathWithoutFilters(operation, decoder, oldResource, schema);
-            }
-        } catch (ParserException e) {
+        PatchPath patchPath = PatchPathCompiler.compile(operation.getPath());
+        if (!patchPath.isValidSyntax()) {
             throw new BadRequestException(
                     ("Path value is not a valid syntax according to the SCIM PATCH PATH Rule. path: " + operation
                             .getPath()), ResponseCodeConstants.INVALID_SYNTAX);
-
         }
-    }
-
-    /**
-     * Return true when the path contains filter condition(s), else return false. Normally filters surrounded by
-     * square bracket.
-     * According to SCIM spec Rule: valuePath = attributePath "[" valueFilter "]";
-     * Hence rule size is always four.
-     * Example path with filters: addresses[type eq \"work\"]
-     * Example path without filter: name.familyName
-     *
-     * @param pathAttributeRule Rule.
-     * @return Boolean value.
-     */
-    private static boolean isFilterConditionProvidedInPath(Rule pathAttributeRule) {
 
-        if (pathAttributeRule.rules.get(0).rules.size() == VALUE_PATH_RULE_SIZE &&
-                pathAttributeRule.rules.get(0) instanceof Rule_valuePath) {
-            return true;
+        if (patchPath.hasFilter()) {
+            // Filter condition has been provided in the path.
+            try {
+                doPatchAddOnPathWithFilters(operation, decoder, oldResource, schema, patchPath);
+            } catch (JSONException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Input JSON object/array is invalid, " + operation.getValues().toString());
+                }
+                throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+            }
         } else {
-            return false;
+            // Provided path doesn't contain filter condition.
+            doPatchAddOnPathWithoutFilters(operation, decoder, oldResource, schema, patchPath);
         }
     }
 
@@ -820,6 +772,7 @@ public class PatchOperationUtil {
      * @param decoder     JSON decoder.
      * @param oldResource Original resource SCIM object.
      * @param schema      SCIM resource schema.
+     * @param patchPath   Compiled path of the operation.
      * @throws NotImplementedException
      * @throws BadRequestException
      * @throws CharonException
@@ -827,16 +780,14 @@ public class PatchOperationUtil {
      * @throws InternalErrorException
      */
     private static void doPatchAddOnPathWithFilters(PatchOperation operation, JSONDecoder decoder,
-                                                    AbstractSCIMObject oldResource, SCIMResourceTypeSchema schema)
+                                                    AbstractSCIMObject oldResource, SCIMResourceTypeSchema schema,
+                                                    PatchPath patchPath)
             throws NotImplementedException, BadRequestException, CharonException, JSONException,
             InternalErrorException {
 
-        String path = operation.getPath();
-        // Split the path to extract the filter.
-        String[] parts = path.split("[\\[\\]]");
         // Since the filter condition has been provided, we can consider this use-case behaviour as patch
         // replace with filters. So passing this to patch replace on path with filters method.
-        doPatchReplaceOnPathWithFilters(oldResource, schema, decoder, operation, parts);
+        doPatchReplaceOnPathWithFilters(oldResource, schema, decoder, operation, patchPath);
     }
 
     /**
@@ -846,17 +797,19 @@ public class PatchOperationUtil {
      * @param decoder     JSON decoder.
      * @param oldResource Original resource SCIM object.
      * @param schema      SCIM resource schema.
+     * @param patchPath   Compiled path of the operation.
      * @throws BadRequestException
      * @throws CharonException
      * @throws InternalErrorException
      * @throws NotImplementedException
      */
     private static void doPatchAddOnPathWithoutFilters(PatchOperation operation, JSONDecoder decoder,
-                                                       AbstractSCIMObject oldResource, SCIMResourceTypeSchema schema)
+                                                       AbstractSCIMObject oldResource, SCIMResourceTypeSchema schema,
+                                                       PatchPath patchPath)
             throws BadRequestException, CharonException, InternalErrorException {
 
         if (operation.getPath().trim().length() > 0) {
-            String[] attributeParts = getAttributeParts(operation.getPath());
+            String[] attributeParts = patchPath.getAttributeParts();
 
             if (log.isDebugEnabled()) {
                 log.debug("After splitting the Path attribute part(s): " + Arrays.toString(attributeParts));
@@ -1761,29 +1714,38 @@ public class PatchOperationUtil {
                                                     SCIMResourceTypeSchema schema)
             throws CharonException, NotImplementedException, BadRequestException, InternalErrorException {
 
+        applyPatchReplace(operation, decoder, oldResource, copyOfOldResource, schema);
+        //validate the updated object
+        AbstractSCIMObject validatedResource =  ServerSideValidator.validateUpdatedSCIMObject
+                (copyOfOldResource, oldResource, schema);
+        return validatedResource;
+    }
+
+    /*
+     * Performs the replace operation on the resource without validating the updated resource. The copy of the
+     * resource is only read when the operation has no path.
+     */
+    static void applyPatchReplace(PatchOperation operation, JSONDecoder decoder, AbstractSCIMObject oldResource,
+                                  AbstractSCIMObject copyOfOldResource, SCIMResourceTypeSchema schema)
+            throws CharonException, NotImplementedException, BadRequestException, InternalErrorException {
+
         if (operation.getPath() != null) {
-            String path = operation.getPath();
-            //split the path to extract the filter if present.
-            String[] parts = path.split("[\\[\\]]");
+            PatchPath patchPath = PatchPathCompiler.compile(operation.getPath());
 
-            if (operation.getPath().contains("[")) {
+            if (patchPath.hasFilter()) {
                 try {
-                    doPatchReplaceOnPathWithFilters(oldResource, schema, decoder, operation, parts);
+                    doPatchReplaceOnPathWithFilters(oldResource, schema, decoder, operation, patchPath);
                 } catch (JSONException e) {
                     throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
                 }
 
             } else {
-                    doPatchReplaceOnPathWithoutFilters(oldResource, schema, decoder, operation, parts);
+                    doPatchReplaceOnPathWithoutFilters(oldResource, schema, decoder, operation, patchPath);
             }
 
         } else {
             doPatchReplaceOnResource(oldResource, copyOfOldResource, schema, decoder, operation);
         }
-        //validate the updated object
-        AbstractSCIMObject validatedResource =  ServerSideValidator.validateUpdatedSCIMObject
-                (copyOfOldResource, oldResource, schema);
-        return validatedResource;
     }
 
     /*
@@ -1792,7 +1754,7 @@ public class PatchOperationUtil {
      * @param schema
      * @param decoder
      * @param operation
-     * @param parts
+     * @param patchPath
      * @return
      * @throws BadRequestException
      * @throws CharonException
@@ -1802,10 +1764,10 @@ public class PatchOperationUtil {
     private static AbstractSCIMObject doPatchReplaceOnPathWithoutFilters(AbstractSCIMObject oldResource,
                                                                          SCIMResourceTypeSchema schema,
                                                                          JSONDecoder decoder, PatchOperation operation,
-                                                                         String[] parts)
+                                                                         PatchPath patchPath)
             throws BadRequestException, CharonException, InternalErrorException {
 
-        String[] attributeParts = getAttributeParts(parts[0]);
+        String[] attributeParts = patchPath.getAttributeParts();
 
         if (attributeParts.length == 1) {
 
@@ -2709,7 +2671,7 @@ public class PatchOperationUtil {
      * @param schema
      * @param decoder
      * @param operation
-     * @param parts
+     * @param patchPath
      * @throws NotImplementedException
      * @throws BadRequestException
      * @throws CharonException
@@ -2719,26 +2681,16 @@ public class PatchOperationUtil {
     private static void doPatchReplaceOnPathWithFilters(AbstractSCIMObject oldResource,
                                                         SCIMResourceTypeSchema schema,
                                                         JSONDecoder decoder, PatchOperation operation,
-                                                        String[] parts)
+                                                        PatchPath patchPath)
             throws NotImplementedException, BadRequestException,
             CharonException, JSONException, InternalErrorException {
 
-        if (parts.length != 1) {
+        if (patchPath.hasFilter()) {
             //currently we only support simple filters here.
-            String[] filterParts = parts[1].split(" ");
-
-            ExpressionNode expressionNode = new ExpressionNode();
-            expressionNode.setAttributeValue(filterParts[0]);
-            expressionNode.setOperation(filterParts[1]);
-            // According to the specification filter attribute value specified with quotation mark, so we need to
-            // remove it if exists.
-            expressionNode.setValue(filterParts[2].replaceAll("^\"|\"$", ""));
+            ExpressionNode expressionNode = patchPath.getFilter();
 
             if (expressionNode.getOperation().equalsIgnoreCase((SCIMConstants.OperationalConstants.EQ).trim())) {
-                if (parts.length == 3) {
-                    parts[0] = parts[0] + parts[2];
-                }
-                String[] attributeParts = getAttributeParts(parts[0]);
+                String[] attributeParts = patchPath.getAttributeParts();
 
                 if (attributeParts.length == 1) {
 
@@ -3023,7 +2975,8 @@ public class PatchOperationUtil {
 
                             if (subAttribute.getName().equals(expressionNode.getAttributeValue())) {
 
-                                if (((SimpleAttribute) subAttribute).getValue().equals(expressionNode.getValue())) {
+                                if (AttributeUtil.isValueEqual((SimpleAttribute) subAttribute,
+                                        expressionNode.getValue())) {
                                     Attribute replacingAttribute = subAttributes.get(attributeParts[1]);
                                     if (replacingAttribute == null) {
                                         //add the attribute
@@ -3117,8 +3070,8 @@ public class PatchOperationUtil {
 
                                 Attribute subSubAttribute = iterator.next();
                                 if (subSubAttribute.getName().equals(expressionNode.getAttributeValue())) {
-                                    if (((SimpleAttribute) (subSubAttribute)).getValue().equals
-                                            (expressionNode.getValue())) {
+                                    if (AttributeUtil.isValueEqual((SimpleAttribute) subSubAttribute,
+                                            expressionNode.getValue())) {
                                         if (subValue.getMutability().equals(SCIMDefinitions.Mutability.READ_ONLY) ||
                                                 subValue.getMutability().equals(SCIMDefinitions.Mutability.IMMUTABLE)) {
 
@@ -3307,8 +3260,8 @@ public class PatchOperationUtil {
 
                                 Attribute subAttribute = iterator.next();
                                 if (subAttribute.getName().equals(expressionNode.getAttributeValue())) {
-                                    if (((SimpleAttribute)
-                                            (subAttribute)).getValue().equals(expressionNode.getValue())) {
+                                    if (AttributeUtil.isValueEqual((SimpleAttribute) subAttribute,
+                                            expressionNode.getValue())) {
                                         if (subValue.getMutability().equals(SCIMDefinitions.Mutability.READ_ONLY) ||
                                                 subValue.getMutability().equals(SCIMDefinitions.Mutability.IMMUTABLE)) {
                                             throw new BadRequestException
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plan of the operations of a PATCH request, built by {@link PatchPlanner}.
+ * <p>
+ * For every operation the plan knows the top level attributes the operation can modify, or that it can modify the
+ * whole resource, and whether a later operation may overwrite its result.
+ */
+public final class PatchPlan {
+
+    private final List<PatchOperation> operations;
+    private final List<Set<String>> targets;
+    private final boolean[] overwritable;
+
+    PatchPlan(List<PatchOperation> operations, List<Set<String>> targets, boolean[] overwritable) {
+
+        this.operations = operations;
+        this.targets = targets;
+        this.overwritable = overwritable;
+    }
+
+    /**
+     * @return number of operations in the plan
+     */
+    public int size() {
+
+        return operations.size();
+    }
+
+    /**
+     * @param index index of the operation in the request
+     * @return operation
+     */
+    public PatchOperation getOperation(int index) {
+
+        return operations.get(index);
+    }
+
+    /**
+     * @param index index of the operation in the request
+     * @return names of the top level attributes the operation can modify, or null if it can modify any attribute
+     */
+    public Set<String> getTargets(int index) {
+
+        Set<String> operationTargets = targets.get(index);
+        return operationTargets == null ? null : Collections.unmodifiableSet(operationTargets);
+    }
+
+    /**
+     * Returns true if the value the operation sets on a simple attribute is overwritten, or the attribute removed, by
+     * a later operation on the same path, without any operation in between touching the attribute. Such an operation
+     * is skipped when the attribute it targets already has a value and an earlier operation has been validated, since
+     * it can then neither fail nor change the result.
+     *
+     * @param index index of the operation in the request
+     * @return true if a later operation overwrites the result of the operation
+     */
+    public boolean isOverwritable(int index) {
+
+        return overwritable[index];
+    }
+}
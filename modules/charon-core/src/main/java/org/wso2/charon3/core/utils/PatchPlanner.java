@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.schema.ServerSideValidator;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.PatchPath;
+import org.wso2.charon3.core.utils.codeutils.PatchPathCompiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies the operations of a PATCH request to a resource in a single pass.
+ * <p>
+ * Applied one by one, every operation is followed by a deep copy of the whole resource, against which the next
+ * operation is validated. The planner instead groups the operations by the top level attributes they target, so that
+ * only those attributes are copied before an operation is applied and validated, and skips the operations whose
+ * result a later operation on the same simple attribute overwrites. Operations without a path, or with a path that
+ * does not compile, may modify any attribute and are still applied against a copy of the whole resource.
+ * <p>
+ * The result, including the error of a failing request, is the same as applying the operations one by one with
+ * {@link PatchOperationUtil}.
+ */
+public class PatchPlanner {
+
+    private PatchPlanner() {
+
+    }
+
+    /**
+     * Plans the given operations.
+     *
+     * @param operations operations of a PATCH request, in request order
+     * @return plan
+     */
+    public static PatchPlan plan(List<PatchOperation> operations) {
+
+        List<Set<String>> targets = new ArrayList<>(operations.size());
+        List<PatchPath> simplePaths = new ArrayList<>(operations.size());
+        for (PatchOperation operation : operations) {
+            PatchPath patchPath = compile(operation);
+            targets.add(getTargets(patchPath));
+            simplePaths.add(isSimplePath(patchPath) ? patchPath : null);
+        }
+
+        // Group the operations by target, remembering the last operation which sets a simple attribute.
+        boolean[] overwritable = new boolean[operations.size()];
+        Map<String, Integer> lastSetOperations = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            Set<String> operationTargets = targets.get(i);
+            if (operationTargets == null) {
+                lastSetOperations.clear();
+                continue;
+            }
+            PatchPath simplePath = simplePaths.get(i);
+            for (String target : operationTargets) {
+                Integer lastSetOperation = lastSetOperations.remove(target);
+                if (lastSetOperation != null && simplePath != null &&
+                        simplePath.getAttributeURI().equals(simplePaths.get(lastSetOperation).getAttributeURI())) {
+                    overwritable[lastSetOperation] = true;
+                }
+            }
+            if (simplePath != null && isSetOperation(operations.get(i))) {
+                lastSetOperations.put(simplePath.getAttributeURI(), i);
+            }
+        }
+        return new PatchPlan(new ArrayList<>(operations), targets, overwritable);
+    }
+
+    /**
+     * Applies the plan to the given resource.
+     *
+     * @param plan     plan of the operations
+     * @param resource resource to be patched, which is modified in place
+     * @param decoder  JSON decoder
+     * @param schema   schema of the resource
+     * @return patched and validated resource
+     * @throws BadRequestException
+     * @throws NotImplementedException
+     * @throws CharonException
+     * @throws InternalErrorException
+     */
+    public static AbstractSCIMObject apply(PatchPlan plan, AbstractSCIMObject resource, JSONDecoder decoder,
+                                           SCIMResourceTypeSchema schema)
+            throws BadRequestException, NotImplementedException, CharonException, InternalErrorException {
+
+        // The resource read from the user store is only known to be valid once an operation has been validated.
+        boolean validated = false;
+        for (int i = 0; i < plan.size(); i++) {
+            PatchOperation operation = plan.getOperation(i);
+            if (validated && plan.isOverwritable(i) &&
+                    isOverwritableValue(resource.getAttribute(operation.getPath()))) {
+                continue;
+            }
+
+            Set<String> targets = plan.getTargets(i);
+            if (targets == null) {
+                AbstractSCIMObject copyOfResource = (AbstractSCIMObject) CopyUtil.deepCopy(resource);
+                applyOperation(operation, decoder, resource, copyOfResource, schema);
+                ServerSideValidator.validateUpdatedSCIMObject(copyOfResource, resource, schema);
+            } else {
+                Map<String, Attribute> oldAttributes = new HashMap<>();
+                for (String target : targets) {
+                    Attribute attribute = resource.getAttribute(target);
+                    oldAttributes.put(target, attribute == null ? null : (Attribute) CopyUtil.deepCopy(attribute));
+                }
+                applyOperation(operation, decoder, resource, null, schema);
+                ServerSideValidator.validateUpdatedAttributes(oldAttributes, resource, schema);
+            }
+            validated = true;
+        }
+        return resource;
+    }
+
+    /**
+     * Groups the given operations by operation name, for a user store which applies them to the stored resource
+     * itself. This is only possible when neither the outcome nor the validation of any of the operations depends on
+     * the current resource, that is when each of them adds, replaces or removes the value of a singular simple
+     * attribute which is writable, and optional if it is removed, given by a path without a filter, with a value of
+     * the type of the attribute.
+     *
+     * @param operations operations of a PATCH request, in request order
+     * @param schema     schema of the resource
+     * @param decoder    JSON decoder
+     * @return operations keyed by operation name, or null if any of them has to be applied to the current resource
+     */
+    public static Map<String, List<PatchOperation>> groupSchemaValidatedOperations(List<PatchOperation> operations,
+                                                                                   SCIMResourceTypeSchema schema,
+                                                                                   JSONDecoder decoder) {
+
+        if (operations.isEmpty()) {
+            return null;
+        }
+        Map<String, List<PatchOperation>> patchOperations = new HashMap<>();
+        patchOperations.put(SCIMConstants.OperationalConstants.ADD, new ArrayList<>());
+        patchOperations.put(SCIMConstants.OperationalConstants.REMOVE, new ArrayList<>());
+        patchOperations.put(SCIMConstants.OperationalConstants.REPLACE, new ArrayList<>());
+        for (PatchOperation operation : operations) {
+            PatchPath patchPath = compile(operation);
+            if (patchPath == null || !patchPath.isValidSyntax() || patchPath.hasFilter() ||
+                    !isValidForSchema(operation, patchPath.getAttributeParts(), schema, decoder)) {
+                return null;
+            }
+            patchOperations.get(operation.getOperation()).add(operation);
+        }
+        return patchOperations;
+    }
+
+    private static boolean isValidForSchema(PatchOperation operation, String[] attributeParts,
+                                            SCIMResourceTypeSchema schema, JSONDecoder decoder) {
+
+        boolean remove = SCIMConstants.OperationalConstants.REMOVE.equals(operation.getOperation());
+        AttributeSchema attributeSchema = null;
+        StringBuilder attributeName = new StringBuilder();
+        for (String attributePart : attributeParts) {
+            if (attributeName.length() > 0) {
+                attributeName.append('.');
+            }
+            attributeName.append(attributePart);
+            attributeSchema = SchemaUtil.getAttributeSchema(attributeName.toString(), schema);
+            if (attributeSchema == null || attributeSchema.getMultiValued() ||
+                    SCIMDefinitions.Mutability.READ_ONLY.equals(attributeSchema.getMutability()) ||
+                    SCIMDefinitions.Mutability.IMMUTABLE.equals(attributeSchema.getMutability()) ||
+                    (remove && attributeSchema.getRequired())) {
+                return false;
+            }
+        }
+        if (attributeSchema == null || SCIMDefinitions.DataType.COMPLEX.equals(attributeSchema.getType())) {
+            return false;
+        }
+        if (remove) {
+            return operation.getValues() == null;
+        }
+        return isValidValue(operation.getValues(), attributeSchema, decoder);
+    }
+
+    /*
+     * A value the decoder can not convert, or which leaves the attribute without a value, is reported by the
+     * validation of the patched resource.
+     */
+    private static boolean isValidValue(Object value, AttributeSchema attributeSchema, JSONDecoder decoder) {
+
+        if (value == null || value instanceof JSONObject || value instanceof JSONArray ||
+                JSONObject.NULL.equals(value)) {
+            return false;
+        }
+        try {
+            Object attributeValue = decoder.buildSimpleAttribute(attributeSchema, value).getValue();
+            return attributeValue != null && !"".equals(attributeValue);
+        } catch (BadRequestException | CharonException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static void applyOperation(PatchOperation operation, JSONDecoder decoder, AbstractSCIMObject resource,
+                                       AbstractSCIMObject copyOfResource, SCIMResourceTypeSchema schema)
+            throws BadRequestException, NotImplementedException, CharonException, InternalErrorException {
+
+        if (operation.getOperation().equals(SCIMConstants.OperationalConstants.ADD)) {
+            PatchOperationUtil.applyPatchAdd(operation, decoder, resource, copyOfResource, schema);
+        } else if (operation.getOperation().equals(SCIMConstants.OperationalConstants.REMOVE)) {
+            PatchOperationUtil.applyPatchRemove(operation, resource);
+        } else if (operation.getOperation().equals(SCIMConstants.OperationalConstants.REPLACE)) {
+            PatchOperationUtil.applyPatchReplace(operation, decoder, resource, copyOfResource, schema);
+        } else {
+            throw new BadRequestException("Unknown operation.", ResponseCodeConstants.INVALID_SYNTAX);
+        }
+    }
+
+    /*
+     * Returns null when the operation can not be planned, in which case applying it either fails or may modify any
+     * attribute.
+     */
+    private static PatchPath compile(PatchOperation operation) {
+
+        if (operation.getPath() == null || !isKnownOperation(operation)) {
+            return null;
+        }
+        try {
+            return PatchPathCompiler.compile(operation.getPath());
+        } catch (BadRequestException e) {
+            // The error is reported when the operation is applied, after the operations before it.
+            return null;
+        }
+    }
+
+    /*
+     * An operation only modifies the top level attribute its path starts with. The first part of a path starting
+     * with a schema URI is either an extension attribute or the URI of the core schema, so the attribute after it is
+     * a target too.
+     */
+    private static Set<String> getTargets(PatchPath patchPath) {
+
+        if (patchPath == null) {
+            return null;
+        }
+        String[] attributeParts = patchPath.getAttributeParts();
+        Set<String> targets = new HashSet<>();
+        targets.add(attributeParts[0]);
+        if (attributeParts.length > 1 && attributeParts[0].indexOf(':') >= 0) {
+            targets.add(attributeParts[1]);
+        }
+        return targets;
+    }
+
+    private static boolean isSimplePath(PatchPath patchPath) {
+
+        return patchPath != null && !patchPath.hasFilter() && patchPath.getAttributeParts().length == 1 &&
+                !SCIMConstants.RoleSchemaConstants.PERMISSIONS.equalsIgnoreCase(patchPath.getPath());
+    }
+
+    private static boolean isKnownOperation(PatchOperation operation) {
+
+        return SCIMConstants.OperationalConstants.ADD.equals(operation.getOperation()) ||
+                SCIMConstants.OperationalConstants.REMOVE.equals(operation.getOperation()) ||
+                SCIMConstants.OperationalConstants.REPLACE.equals(operation.getOperation());
+    }
+
+    private static boolean isSetOperation(PatchOperation operation) {
+
+        return operation.getValues() != null &&
+                (SCIMConstants.OperationalConstants.ADD.equals(operation.getOperation()) ||
+                        SCIMConstants.OperationalConstants.REPLACE.equals(operation.getOperation()));
+    }
+
+    /*
+     * Adding or replacing the value of an existing, writable and optional simple attribute only replaces its value,
+     * hence it can not fail, and the validation of the resource after it gives the same result as after the
+     * operation overwriting the value.
+     */
+    private static boolean isOverwritableValue(Attribute attribute) {
+
+        return attribute instanceof SimpleAttribute && !attribute.getMultiValued() &&
+                !SCIMDefinitions.DataType.COMPLEX.equals(attribute.getType()) &&
+                (SCIMDefinitions.Mutability.READ_WRITE.equals(attribute.getMutability()) ||
+                        SCIMDefinitions.Mutability.WRITE_ONLY.equals(attribute.getMutability())) &&
+                !Boolean.TRUE.equals(attribute.getRequired());
+    }
+}
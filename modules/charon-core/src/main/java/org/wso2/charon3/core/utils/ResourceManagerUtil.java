@@ -19,23 +19,35 @@ package org.wso2.charon3.core.utils;
 import org.wso2.charon3.core.config.CharonConfiguration;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
 import org.wso2.charon3.core.schema.AttributeSchema;
 import org.wso2.charon3.core.schema.SCIMDefinitions;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 /**
  * This class will act as a support class for endpoints.
  */
 public class ResourceManagerUtil {
 
+    private static final BoundedCache<List<Object>, Map<String, Boolean>> requiredAttributeURIs =
+            new BoundedCache<>(1024);
+    private static final BoundedCache<List<Object>, Map<String, Boolean>> replaceAttributeURIs =
+            new BoundedCache<>(256);
+
     /*
      * this method is to get the uri list of the attributes which need to retrieved from the databases.
      * Note that we should consider the 'attributes' and 'excludedAttributes' parameters for this process.
+     * The schema is not modified, and the result is cached by the attribute schemas of the schema and the
+     * requested attribute names, so the returned map can not be modified.
      *
      * @param schema
      * @param requestedAttributes
@@ -48,236 +60,195 @@ public class ResourceManagerUtil {
                                                                      String requestedExcludingAttributes)
             throws CharonException {
 
-        ArrayList<AttributeSchema> attributeSchemaArrayList = (ArrayList<AttributeSchema>)
-                CopyUtil.deepCopy(schema.getAttributesList());
-
         List<String> requestedAttributesList = null;
         List<String> requestedExcludingAttributesList = null;
 
         if (requestedAttributes != null) {
             //make a list from the comma separated requestedAttributes
             requestedAttributesList = Arrays.asList(requestedAttributes.split(","));
-        }
-        if (requestedExcludingAttributes != null) {
+        } else if (requestedExcludingAttributes != null) {
             //make a list from the comma separated requestedExcludingAttributes
+            //a request should only contains either attributes or exclude attribute params. Not both
             requestedExcludingAttributesList = Arrays.asList(requestedExcludingAttributes.split(","));
         }
 
-        ArrayList<AttributeSchema> attributeList = schema.getAttributesList();
+        // Schemas of resources with extensions are built per request, out of the same attribute schemas. The order
+        // and repetition of the requested names do not matter.
+        List<Object> key = Arrays.asList(new ArrayList<>(schema.getAttributesList()),
+                requestedAttributesList == null ? null : new TreeSet<>(requestedAttributesList),
+                requestedExcludingAttributesList == null ? null : new TreeSet<>(requestedExcludingAttributesList));
+        Map<String, Boolean> uriList = requiredAttributeURIs.get(key);
+        if (uriList == null) {
+            uriList = Collections.unmodifiableMap(buildRequiredAttributesURIs(schema.getAttributesList(),
+                    requestedAttributesList, requestedExcludingAttributesList));
+            requiredAttributeURIs.put(key, uriList);
+        }
+        return uriList;
+    }
+
+    /*
+     * this makes the uri list of the attributes, sub attributes and sub sub attributes which are returned. A
+     * complex attribute is given by the URIs of its sub attributes, and a complex sub attribute by the URIs of its
+     * sub sub attributes, each mapped to whether its parent is multi-valued.
+     *
+     * @param attributeSchemas
+     * @param requestedAttributesList
+     * @param requestedExcludingAttributesList
+     * @return
+     */
+    private static Map<String, Boolean> buildRequiredAttributesURIs(List<AttributeSchema> attributeSchemas,
+                                                                    List<String> requestedAttributesList,
+                                                                    List<String> requestedExcludingAttributesList) {
 
-        for (AttributeSchema attributeSchema : attributeList) {
-            //check for never/request attributes.
-            if (attributeSchema.getReturned().equals(SCIMDefinitions.Returned.NEVER)) {
-                removeAttributesFromList(attributeSchemaArrayList, attributeSchema.getName());
+        Map<String, Boolean> uriList = new HashMap<>();
+        for (AttributeSchema attributeSchema : attributeSchemas) {
+            if (!isAttributeRequired(attributeSchema, requestedAttributesList, requestedExcludingAttributesList)) {
+                continue;
+            }
+            if (!attributeSchema.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
+                uriList.put(attributeSchema.getURI(), attributeSchema.getMultiValued());
+                continue;
             }
-            //if the returned property is request, need to check whether is it specifically requested by the user.
-            // If so return it.
-            if (requestedAttributes == null && requestedExcludingAttributes == null) {
-                if (attributeSchema.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                    removeAttributesFromList(attributeSchemaArrayList, attributeSchema.getName());
+            for (AttributeSchema subAttributeSchema : getSubAttributeSchemas(attributeSchema)) {
+                if (!isSubAttributeRequired(attributeSchema, subAttributeSchema, requestedAttributesList,
+                        requestedExcludingAttributesList)) {
+                    continue;
                 }
-            } else {
-                //A request should only contains either attributes or exclude attribute params. Not both
-                if (requestedAttributes != null) {
-                    //if attributes are set, delete all the request and default attributes
-                    //and add only the requested attributes
-                    if ((attributeSchema.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
-                            || attributeSchema.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                            && (requestedAttributesList.stream().noneMatch(attributeSchema.getName()::equalsIgnoreCase)
-                            && !isSubAttributeExistsInList(requestedAttributesList, attributeSchema))) {
-                        removeAttributesFromList(attributeSchemaArrayList, attributeSchema.getName());
-                    }
-                } else if (requestedExcludingAttributes != null) {
-                    //removing attributes which has returned as request. This is because no request is made
-                    if (attributeSchema.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                        removeAttributesFromList(attributeSchemaArrayList, attributeSchema.getName());
-                    }
-                    //if exclude attribute is set, set of exclude attributes need to be
-                    // removed from the default set of attributes
-                    if ((attributeSchema.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                            && requestedExcludingAttributesList.
-                            stream().anyMatch(attributeSchema.getName()::equalsIgnoreCase)) {
-                        removeAttributesFromList(attributeSchemaArrayList, attributeSchema.getName());
+                if (!subAttributeSchema.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
+                    uriList.put(subAttributeSchema.getURI(), attributeSchema.getMultiValued());
+                    continue;
+                }
+                for (AttributeSchema subSubAttributeSchema : getSubAttributeSchemas(subAttributeSchema)) {
+                    if (isSubSubAttributeRequired(attributeSchema, subAttributeSchema, subSubAttributeSchema,
+                            requestedAttributesList, requestedExcludingAttributesList)) {
+                        uriList.put(subSubAttributeSchema.getURI(), subAttributeSchema.getMultiValued());
                     }
                 }
             }
-            getOnlyRequiredSubAttributesURIs(attributeSchema, attributeSchemaArrayList,
-                    requestedAttributes, requestedExcludingAttributes,
-                    requestedAttributesList, requestedExcludingAttributesList);
         }
-        return convertSchemasToURIs(attributeSchemaArrayList);
+        return uriList;
     }
 
     /*
-     * this method is to get the uri list of the sub attributes which need to retrieved from the databases.
-     * Note that we should consider the 'attributes' and 'excludedAttributes' parameters for this process.
+     * this checks whether the attribute is returned, given the 'attributes' and 'excludedAttributes' parameters.
      *
      * @param attributeSchema
-     * @param attributeSchemaArrayList
-     * @param requestedAttributes
-     * @param requestedExcludingAttributes
      * @param requestedAttributesList
      * @param requestedExcludingAttributesList
-     * @throws CharonException
+     * @return
      */
-    private static void getOnlyRequiredSubAttributesURIs(AttributeSchema attributeSchema,
-                                                         ArrayList<AttributeSchema> attributeSchemaArrayList,
-                                                         String requestedAttributes,
-                                                         String requestedExcludingAttributes,
-                                                         List<String> requestedAttributesList,
-                                                         List<String> requestedExcludingAttributesList)
-            throws CharonException {
-        if (attributeSchema.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
+    private static boolean isAttributeRequired(AttributeSchema attributeSchema, List<String> requestedAttributesList,
+                                               List<String> requestedExcludingAttributesList) {
 
-            AttributeSchema realAttributeSchema = null;
-            //need to get the right reference first as we are going to delete by reference.
-            for (AttributeSchema schema : attributeSchemaArrayList) {
-                if (schema.getName().equals(attributeSchema.getName())) {
-                    realAttributeSchema = schema;
-                    break;
-                }
-            }
-            if (realAttributeSchema != null) {
-                List<AttributeSchema> subAttributeList = attributeSchema.getSubAttributeSchemas();
+        SCIMDefinitions.Returned returned = attributeSchema.getReturned();
+        //check for never/request attributes.
+        if (returned.equals(SCIMDefinitions.Returned.NEVER)) {
+            return false;
+        }
+        if (requestedAttributesList != null) {
+            //if attributes are set, only the requested default and request attributes are returned
+            return !((returned.equals(SCIMDefinitions.Returned.DEFAULT)
+                    || returned.equals(SCIMDefinitions.Returned.REQUEST))
+                    && requestedAttributesList.stream().noneMatch(attributeSchema.getName()::equalsIgnoreCase)
+                    && !isSubAttributeExistsInList(requestedAttributesList, attributeSchema));
+        }
+        //if the returned property is request, the attribute has to be specifically requested.
+        if (returned.equals(SCIMDefinitions.Returned.REQUEST)) {
+            return false;
+        }
+        //if exclude attribute is set, excluded default attributes are not returned
+        return requestedExcludingAttributesList == null
+                || !returned.equals(SCIMDefinitions.Returned.DEFAULT)
+                || requestedExcludingAttributesList.stream().noneMatch(attributeSchema.getName()::equalsIgnoreCase);
+    }
 
-                for (AttributeSchema subAttributeSchema : subAttributeList) {
+    /*
+     * this checks whether the sub attribute of a returned attribute is returned, given the 'attributes' and
+     * 'excludedAttributes' parameters.
+     *
+     * @param attributeSchema
+     * @param subAttributeSchema
+     * @param requestedAttributesList
+     * @param requestedExcludingAttributesList
+     * @return
+     */
+    private static boolean isSubAttributeRequired(AttributeSchema attributeSchema, AttributeSchema subAttributeSchema,
+                                                  List<String> requestedAttributesList,
+                                                  List<String> requestedExcludingAttributesList) {
 
-                    //check for never/request attributes.
-                    if (subAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.NEVER)) {
-                        realAttributeSchema.removeSubAttribute(subAttributeSchema.getName());
-                    }
-                    //if the returned property is request, need to check whether is it specifically requested by the
-                    // user.
-                    // If so return it.
-                    if (requestedAttributes == null && requestedExcludingAttributes == null) {
-                        if (subAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                            realAttributeSchema.removeSubAttribute(subAttributeSchema.getName());
-                        }
-                    } else {
-                        //A request should only contains either attributes or exclude attribute params. Not both
-                        if (requestedAttributes != null) {
-                            //if attributes are set, delete all the request and default attributes
-                            //and add only the requested attributes
-                            if ((subAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
-                                    || subAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                                    && (requestedAttributesList.stream().noneMatch((attributeSchema.getName() + "." +
-                                    subAttributeSchema.getName())::equalsIgnoreCase)
-                                    && !isSubSubAttributeExistsInList(requestedAttributesList,
-                                    attributeSchema, subAttributeSchema))
-                                    && (requestedAttributesList.stream().
-                                    noneMatch(attributeSchema.getName()::equalsIgnoreCase))) {
-                                realAttributeSchema.removeSubAttribute(subAttributeSchema.getName());
-                            }
-                        } else if (requestedExcludingAttributes != null) {
-                            //removing attributes which has returned as request. This is because no request is made
-                            if (subAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                                realAttributeSchema.removeSubAttribute(subAttributeSchema.getName());
-                            }
-                            //if exclude attribute is set, set of exclude attributes need to be
-                            // removed from the default set of attributes
-                            if ((subAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                                    && requestedExcludingAttributesList.contains(attributeSchema.getName()
-                                    + "." + subAttributeSchema.getName())) {
-                                realAttributeSchema.removeSubAttribute(subAttributeSchema.getName());
-                            }
-                        }
-                    }
-                    getOnlyRequiredSubSubAttributesURIs(attributeSchema, subAttributeSchema,
-                            attributeSchemaArrayList, requestedAttributes,
-                            requestedExcludingAttributes, requestedAttributesList,
-                            requestedExcludingAttributesList);
-                }
-            }
+        SCIMDefinitions.Returned returned = subAttributeSchema.getReturned();
+        //check for never/request attributes.
+        if (returned.equals(SCIMDefinitions.Returned.NEVER)) {
+            return false;
+        }
+        if (requestedAttributesList != null) {
+            //if attributes are set, only the requested default and request sub attributes, or the ones of a
+            //requested attribute, are returned
+            return !((returned.equals(SCIMDefinitions.Returned.DEFAULT)
+                    || returned.equals(SCIMDefinitions.Returned.REQUEST))
+                    && requestedAttributesList.stream().noneMatch((attributeSchema.getName() + "." +
+                    subAttributeSchema.getName())::equalsIgnoreCase)
+                    && !isSubSubAttributeExistsInList(requestedAttributesList, attributeSchema, subAttributeSchema)
+                    && requestedAttributesList.stream().noneMatch(attributeSchema.getName()::equalsIgnoreCase));
+        }
+        //if the returned property is request, the sub attribute has to be specifically requested.
+        if (returned.equals(SCIMDefinitions.Returned.REQUEST)) {
+            return false;
         }
+        //if exclude attribute is set, excluded default sub attributes are not returned
+        return requestedExcludingAttributesList == null
+                || !returned.equals(SCIMDefinitions.Returned.DEFAULT)
+                || !requestedExcludingAttributesList.contains(attributeSchema.getName() + "." +
+                subAttributeSchema.getName());
     }
 
     /*
-     * this method is to get the uri list of the sub sub attributes which need to retrieved from the databases.
-     * Note that we should consider the 'attributes' and 'excludedAttributes' parameters for this process.
+     * this checks whether the sub sub attribute of a returned sub attribute is returned, given the 'attributes' and
+     * 'excludedAttributes' parameters.
      *
      * @param attribute
      * @param subAttribute
-     * @param attributeSchemaArrayList
-     * @param requestedAttributes
-     * @param requestedExcludingAttributes
+     * @param subSubAttributeSchema
      * @param requestedAttributesList
      * @param requestedExcludingAttributesList
-     * @throws CharonException
+     * @return
      */
-    private static void getOnlyRequiredSubSubAttributesURIs(AttributeSchema attribute,
-                                                            AttributeSchema subAttribute,
-                                                            ArrayList<AttributeSchema> attributeSchemaArrayList,
-                                                            String requestedAttributes,
-                                                            String requestedExcludingAttributes,
-                                                            List<String> requestedAttributesList,
-                                                            List<String> requestedExcludingAttributesList)
-            throws CharonException {
-
-        if (subAttribute.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
-
-            AttributeSchema realAttributeSchema = null;
-            //need to get the right reference first as we are going to delete by reference
-            for (AttributeSchema schema : attributeSchemaArrayList) {
-                List<AttributeSchema> subSchemas = schema.getSubAttributeSchemas();
-                if (subSchemas != null) {
-                    for (AttributeSchema subSchema : subSchemas) {
-                        if (subSchema.getURI().equals(subAttribute.getURI())) {
-                            realAttributeSchema = subSchema;
-                            break;
-                        }
-                    }
-                }
-            }
-            if (realAttributeSchema != null) {
-                List<AttributeSchema> subSubAttributeList = subAttribute.getSubAttributeSchemas();
+    private static boolean isSubSubAttributeRequired(AttributeSchema attribute, AttributeSchema subAttribute,
+                                                     AttributeSchema subSubAttributeSchema,
+                                                     List<String> requestedAttributesList,
+                                                     List<String> requestedExcludingAttributesList) {
+
+        SCIMDefinitions.Returned returned = subSubAttributeSchema.getReturned();
+        String subSubAttributeName = attribute.getName() + "." + subAttribute.getName() + "." +
+                subSubAttributeSchema.getName();
+        //check for never/request attributes.
+        if (returned.equals(SCIMDefinitions.Returned.NEVER)) {
+            return false;
+        }
+        if (requestedAttributesList != null) {
+            //if attributes are set, only the requested default and request sub sub attributes, or the ones of a
+            //requested attribute or sub attribute, are returned
+            return !((returned.equals(SCIMDefinitions.Returned.DEFAULT)
+                    || returned.equals(SCIMDefinitions.Returned.REQUEST))
+                    && requestedAttributesList.stream().noneMatch(subSubAttributeName::equalsIgnoreCase)
+                    && requestedAttributesList.stream().noneMatch(attribute.getName()::equalsIgnoreCase)
+                    && requestedAttributesList.stream().noneMatch((attribute.getName() + "." +
+                    subAttribute.getName())::equalsIgnoreCase));
+        }
+        //if the returned property is request, the sub sub attribute has to be specifically requested.
+        if (returned.equals(SCIMDefinitions.Returned.REQUEST)) {
+            return false;
+        }
+        //if exclude attribute is set, excluded default sub sub attributes are not returned
+        return requestedExcludingAttributesList == null
+                || !returned.equals(SCIMDefinitions.Returned.DEFAULT)
+                || requestedExcludingAttributesList.stream().noneMatch(subSubAttributeName::equalsIgnoreCase);
+    }
 
-                for (AttributeSchema subSubAttributeSchema : subSubAttributeList) {
+    private static List<AttributeSchema> getSubAttributeSchemas(AttributeSchema attributeSchema) {
 
-                    //check for never/request attributes.
-                    if (subSubAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.NEVER)) {
-                        realAttributeSchema.removeSubAttribute(subSubAttributeSchema.getName());
-                    }
-                    //if the returned property is request, need to check whether is it specifically requested by the
-                    // user.
-                    // If so return it.
-                    if (requestedAttributes == null && requestedExcludingAttributes == null) {
-                        if (subSubAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                            realAttributeSchema.removeSubAttribute(subSubAttributeSchema.getName());
-                        }
-                    } else {
-                        //A request should only contains either attributes or exclude attribute params. Not both
-                        if (requestedAttributes != null) {
-                            //if attributes are set, delete all the request and default attributes
-                            //and add only the requested attributes
-                            if ((subSubAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
-                                    || subSubAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                                    && (requestedAttributesList.stream().noneMatch((attribute.getName() + "." +
-                                    subAttribute.getName() + "." + subSubAttributeSchema.getName())::equalsIgnoreCase))
-                                    && (requestedAttributesList.stream()
-                                    .noneMatch(attribute.getName()::equalsIgnoreCase))
-                                    && (requestedAttributesList.stream()
-                                    .noneMatch((attribute.getName() + "." + subAttribute
-                                    .getName())::equalsIgnoreCase))) {
-                                realAttributeSchema.removeSubAttribute(subSubAttributeSchema.getName());
-                            }
-                        } else if (requestedExcludingAttributes != null) {
-                            //removing attributes which has returned as request. This is because no request is made
-                            if (subSubAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                                realAttributeSchema.removeSubAttribute(subSubAttributeSchema.getName());
-                            }
-                            //if exclude attribute is set, set of exclude attributes need to be
-                            // removed from the default set of attributes
-                            if ((subSubAttributeSchema.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                                    && requestedExcludingAttributesList.stream().anyMatch((attribute.getName() + "."
-                                    + subAttribute.getName() + "." + subSubAttributeSchema.getName())
-                                    ::equalsIgnoreCase)) {
-                                realAttributeSchema.removeSubAttribute(subSubAttributeSchema.getName());
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        List<AttributeSchema> subAttributeSchemas = attributeSchema.getSubAttributeSchemas();
+        return subAttributeSchemas == null ? Collections.emptyList() : subAttributeSchemas;
     }
 
     /*
@@ -343,56 +314,71 @@ public class ResourceManagerUtil {
         }
     }
 
-    /*
-     * this makes a list of URIs from the list of schemas.
+    public static Map<String, Boolean> getAllAttributeURIs(SCIMResourceTypeSchema schema) throws CharonException {
+        return getOnlyRequiredAttributesURIs(schema, null, null);
+    }
+
+    /**
+     * Get the URIs of the attributes of an existing resource which are needed to replace it with the given resource.
+     * Replacing a resource only takes the read only and immutable attributes, and the read only and immutable sub
+     * attributes of complex attributes, over from the existing resource, and compares the attributes given in the
+     * replacement with the existing ones. Any other attribute of the existing resource is dropped, hence need not be
+     * read. The result is cached by the attributes of the schema and the names of the given attributes.
      *
-     * @param schemas
-     * @return
+     * @param schema      schema of the resource.
+     * @param replacement resource replacing the existing one.
+     * @return Unmodifiable subset of {@link #getAllAttributeURIs(SCIMResourceTypeSchema)}.
+     * @throws CharonException
      */
-    private static Map<String, Boolean> convertSchemasToURIs(List<AttributeSchema> schemas) {
+    public static Map<String, Boolean> getAttributeURIsForReplace(SCIMResourceTypeSchema schema,
+                                                                  AbstractSCIMObject replacement)
+            throws CharonException {
 
-        Map<String, Boolean> uriList = new HashMap<>();
-        for (AttributeSchema schema : schemas) {
-            if (schema.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
-                List<AttributeSchema> subAttributeSchemas = schema.getSubAttributeSchemas();
-                for (AttributeSchema subAttributeSchema : subAttributeSchemas) {
-                    if (subAttributeSchema.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
-                        List<AttributeSchema> subSubAttributeSchemas = subAttributeSchema.getSubAttributeSchemas();
-                        for (AttributeSchema subSubAttributeSchema : subSubAttributeSchemas) {
-                            uriList.put(subSubAttributeSchema.getURI(), subAttributeSchema.getMultiValued());
-                        }
-                    } else {
-                        uriList.put(subAttributeSchema.getURI(), schema.getMultiValued());
-                    }
-                }
-            } else {
-                uriList.put(schema.getURI(), schema.getMultiValued());
+        Set<String> givenAttributes = new TreeSet<>(replacement.getAttributeList().keySet());
+        // Schemas of resources with extensions are built per request, out of the same attribute schemas.
+        List<Object> key = Arrays.asList(new ArrayList<>(schema.getAttributesList()), givenAttributes);
+        Map<String, Boolean> attributeURIs = replaceAttributeURIs.get(key);
+        if (attributeURIs != null) {
+            return attributeURIs;
+        }
+
+        Set<String> neededURIs = new HashSet<>();
+        for (AttributeSchema attributeSchema : schema.getAttributesList()) {
+            if (givenAttributes.contains(attributeSchema.getName()) || hasReadOnlyOrImmutableValue(attributeSchema)) {
+                addAttributeURIs(attributeSchema, neededURIs);
             }
         }
-        return uriList;
+        Map<String, Boolean> allAttributeURIs = new HashMap<>(getAllAttributeURIs(schema));
+        allAttributeURIs.keySet().retainAll(neededURIs);
+        attributeURIs = Collections.unmodifiableMap(allAttributeURIs);
+        replaceAttributeURIs.put(key, attributeURIs);
+        return attributeURIs;
     }
 
-    /*
-     * this is to remove given attribute from the given list.
-     *
-     * @param attributeSchemaList
-     * @param attributeName
-     * @throws CharonException
-     */
-    private static void removeAttributesFromList(List<AttributeSchema> attributeSchemaList, String attributeName)
-            throws CharonException {
-        List<AttributeSchema> tempList = (List<AttributeSchema>) CopyUtil.deepCopy(attributeSchemaList);
-        int count = 0;
-        for (AttributeSchema attributeSchema : tempList) {
-            if (attributeSchema.getName().equals(attributeName)) {
-                attributeSchemaList.remove(count);
+    private static boolean hasReadOnlyOrImmutableValue(AttributeSchema attributeSchema) {
+
+        if (SCIMDefinitions.Mutability.READ_ONLY.equals(attributeSchema.getMutability()) ||
+                SCIMDefinitions.Mutability.IMMUTABLE.equals(attributeSchema.getMutability())) {
+            return true;
+        }
+        if (attributeSchema.getSubAttributeSchemas() != null) {
+            for (AttributeSchema subAttributeSchema : attributeSchema.getSubAttributeSchemas()) {
+                if (hasReadOnlyOrImmutableValue(subAttributeSchema)) {
+                    return true;
+                }
             }
-            count++;
         }
+        return false;
     }
 
-    public static Map<String, Boolean> getAllAttributeURIs(SCIMResourceTypeSchema schema) throws CharonException {
-        return getOnlyRequiredAttributesURIs(schema, null, null);
+    private static void addAttributeURIs(AttributeSchema attributeSchema, Set<String> attributeURIs) {
+
+        attributeURIs.add(attributeSchema.getURI());
+        if (attributeSchema.getSubAttributeSchemas() != null) {
+            for (AttributeSchema subAttributeSchema : attributeSchema.getSubAttributeSchemas()) {
+                addAttributeURIs(subAttributeSchema, attributeURIs);
+            }
+        }
     }
 
     /**
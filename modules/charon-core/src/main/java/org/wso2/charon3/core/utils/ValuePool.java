@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size bounded, thread safe pool of string attribute values, which lets the decoder share one instance of a value
+ * that repeats across resources, such as the type of an email or the locale of a user, rather than keeping a copy of
+ * it in every resource a user manager caches.
+ * <p>
+ * Only the values of low cardinality attributes are pooled: attributes whose schema defines canonical values, and
+ * the attributes the pool is configured with. Once the pool holds its maximum number of values it stops taking new
+ * ones, so that attributes which turn out to have many distinct values can not grow it without bound. The pool never
+ * forgets a value, hence it suits values which are shared by many resources for as long as the server runs.
+ */
+public class ValuePool {
+
+    /**
+     * Attributes pooled by default, in addition to the attributes with canonical values.
+     */
+    public static final Set<String> DEFAULT_ATTRIBUTE_URIS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            SCIMConstants.UserSchemaConstants.USER_TYPE_URI,
+            SCIMConstants.UserSchemaConstants.PREFERRED_LANGUAGE_URI,
+            SCIMConstants.UserSchemaConstants.LOCALE_URI,
+            SCIMConstants.UserSchemaConstants.TIME_ZONE_URI,
+            SCIMConstants.UserSchemaConstants.COUNTRY_URI,
+            SCIMConstants.CommonSchemaConstants.RESOURCE_TYPE_URI)));
+
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    //longer values are unlikely to repeat, and would make the pool costly to fill up
+    private static final int MAX_VALUE_LENGTH = 128;
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+    private final Set<String> attributeURIs;
+    private final int maxSize;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * Creates a pool of the values of the default attributes.
+     */
+    public ValuePool() {
+
+        this(DEFAULT_MAX_SIZE, DEFAULT_ATTRIBUTE_URIS);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxSize       maximum number of values kept in the pool
+     * @param attributeURIs URIs of the attributes to pool the values of, in addition to the attributes with
+     *                      canonical values
+     */
+    public ValuePool(int maxSize, Collection<String> attributeURIs) {
+
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum pool size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.attributeURIs = attributeURIs == null ?
+                Collections.<String>emptySet() : Collections.unmodifiableSet(new HashSet<>(attributeURIs));
+    }
+
+    /**
+     * @param attributeSchema schema of the attribute
+     * @return whether the values of the attribute are pooled
+     */
+    public boolean isPooled(AttributeSchema attributeSchema) {
+
+        List<String> canonicalValues = attributeSchema.getCanonicalValues();
+        return canonicalValues != null && !canonicalValues.isEmpty() ||
+                attributeURIs.contains(attributeSchema.getURI());
+    }
+
+    /**
+     * Returns the pooled instance of the given value if the values of the attribute are pooled.
+     *
+     * @param attributeSchema schema of the attribute the value belongs to
+     * @param value           decoded value
+     * @return the pooled instance equal to the value, or the value itself
+     */
+    public Object intern(AttributeSchema attributeSchema, Object value) {
+
+        if (value instanceof String && isPooled(attributeSchema)) {
+            return intern((String) value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the pooled instance of the given value, adding the value to the pool if there is room for it.
+     *
+     * @param value value
+     * @return the pooled instance equal to the value, or the value itself
+     */
+    public String intern(String value) {
+
+        if (value == null || value.length() > MAX_VALUE_LENGTH) {
+            return value;
+        }
+        String pooled = values.get(value);
+        if (pooled != null) {
+            hitCount.increment();
+            return pooled;
+        }
+        // Concurrent callers may take the pool slightly beyond its maximum size.
+        if (values.size() >= maxSize) {
+            rejectedCount.increment();
+            return value;
+        }
+        missCount.increment();
+        pooled = values.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    /**
+     * @return URIs of the attributes pooled in addition to the attributes with canonical values
+     */
+    public Set<String> getAttributeURIs() {
+
+        return attributeURIs;
+    }
+
+    /**
+     * @return number of values in the pool
+     */
+    public int size() {
+
+        return values.size();
+    }
+
+    /**
+     * @return maximum number of values kept in the pool
+     */
+    public int getMaxSize() {
+
+        return maxSize;
+    }
+
+    /**
+     * @return number of values which were found in the pool
+     */
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    /**
+     * @return number of values which were added to the pool
+     */
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    /**
+     * @return number of values which were not pooled since the pool was full
+     */
+    public long getRejectedCount() {
+
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Removes all the values from the pool. The counters are kept.
+     */
+    public void clear() {
+
+        values.clear();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+/**
+ * Compiled form of the path of a PATCH operation, e.g. {@code emails[type eq "work"].value}. Instances are created
+ * by {@link PatchPathCompiler} and shared between requests, hence they are immutable.
+ */
+public final class PatchPath {
+
+    private final String path;
+    private final String attributeURI;
+    private final String[] attributeParts;
+    private final String filterAttribute;
+    private final String filterOperation;
+    private final String filterValue;
+    private final boolean validSyntax;
+
+    PatchPath(String path, String attributeURI, String[] attributeParts, String filterAttribute,
+              String filterOperation, String filterValue, boolean validSyntax) {
+
+        this.path = path;
+        this.attributeURI = attributeURI;
+        this.attributeParts = attributeParts;
+        this.filterAttribute = filterAttribute;
+        this.filterOperation = filterOperation;
+        this.filterValue = filterValue;
+        this.validSyntax = validSyntax;
+    }
+
+    /**
+     * @return path as given in the PATCH operation
+     */
+    public String getPath() {
+
+        return path;
+    }
+
+    /**
+     * @return path with the value filter removed, e.g. {@code emails.value}
+     */
+    public String getAttributeURI() {
+
+        return attributeURI;
+    }
+
+    /**
+     * Returns the attribute URI split into its levels. The schema URI of the attribute, when given, is the first
+     * level, followed by the attribute name and the sub attribute names. For example
+     * {@code urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:manager.value} gives
+     * [urn:ietf:params:scim:schemas:extension:enterprise:2.0:User, manager, value].
+     *
+     * @return attribute URI levels
+     */
+    public String[] getAttributeParts() {
+
+        return attributeParts.clone();
+    }
+
+    /**
+     * @return true if the path selects values of a multi-valued attribute with a filter
+     */
+    public boolean hasFilter() {
+
+        return filterAttribute != null;
+    }
+
+    /**
+     * @return value filter of the path, or null if the path has no filter
+     */
+    public ExpressionNode getFilter() {
+
+        if (filterAttribute == null) {
+            return null;
+        }
+        ExpressionNode expressionNode = new ExpressionNode();
+        expressionNode.setAttributeValue(filterAttribute);
+        expressionNode.setOperation(filterOperation);
+        expressionNode.setValue(filterValue);
+        return expressionNode;
+    }
+
+    /**
+     * @return true if the path conforms to the PATCH path rule of RFC 7644, section 3.5.2
+     */
+    public boolean isValidSyntax() {
+
+        return validSyntax;
+    }
+}
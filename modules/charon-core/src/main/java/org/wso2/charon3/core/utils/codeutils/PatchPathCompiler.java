@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.utils.BoundedCache;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Compiles the paths of PATCH operations into {@link PatchPath}s.
+ * <p>
+ * Clients tend to send the same few paths over and over again, so compiled paths are kept in a bounded cache. The
+ * syntax of a path is checked against the PATCH path rule of RFC 7644 (see path-abnf-rules.abnf) by a recursive
+ * descent recognizer, which accepts exactly the paths the generated ABNF parser accepts without building a parse
+ * tree.
+ */
+public final class PatchPathCompiler {
+
+    private static final int MAX_ENTRIES = 4096;
+    private static final int MAX_CACHED_PATH_LENGTH = 512;
+
+    private static final String[] SCHEMA_URIS = {SCIMConstants.USER_CORE_SCHEMA_URI,
+            SCIMConstants.ENTERPRISE_USER_SCHEMA_URI, SCIMConstants.GROUP_CORE_SCHEMA_URI};
+    private static final String[] COMPARE_OPERATIONS = {"eq", "ne", "co", "sw", "ew", "gt", "lt", "ge", "le"};
+
+    private static final BoundedCache<String, PatchPath> compiledPaths = new BoundedCache<>(MAX_ENTRIES);
+
+    private PatchPathCompiler() {
+
+    }
+
+    /**
+     * Compiles the given path, returning the cached compilation when there is one.
+     *
+     * @param path path of a PATCH operation
+     * @return compiled path
+     * @throws BadRequestException if the brackets of the path are not balanced or its value filter is incomplete
+     */
+    public static PatchPath compile(String path) throws BadRequestException {
+
+        PatchPath patchPath = compiledPaths.get(path);
+        if (patchPath == null) {
+            patchPath = doCompile(path);
+            // Do not let unusually long paths take up the cache.
+            if (path.length() <= MAX_CACHED_PATH_LENGTH) {
+                compiledPaths.put(path, patchPath);
+            }
+        }
+        return patchPath;
+    }
+
+    private static PatchPath doCompile(String path) throws BadRequestException {
+
+        String attributeURI;
+        String filterAttribute = null;
+        String filterOperation = null;
+        String filterValue = null;
+
+        int filterStart = path.indexOf('[');
+        if (filterStart < 0) {
+            if (path.indexOf(']') >= 0) {
+                throw invalidPath(path);
+            }
+            attributeURI = path;
+        } else {
+            int filterEnd = path.indexOf(']', filterStart + 1);
+            if (filterEnd < 0) {
+                throw invalidPath(path);
+            }
+            // The sub attribute after the filter, if any, selects a sub attribute of the filtered values.
+            String subAttribute = path.substring(filterEnd + 1);
+            if (subAttribute.indexOf('[') >= 0 || subAttribute.indexOf(']') >= 0) {
+                throw invalidPath(path);
+            }
+            attributeURI = path.substring(0, filterStart) + subAttribute;
+
+            // Only filters of the form "attribute operation value" are supported.
+            String filter = path.substring(filterStart + 1, filterEnd);
+            int attributeEnd = filter.indexOf(' ');
+            int operationEnd = attributeEnd < 0 ? -1 : filter.indexOf(' ', attributeEnd + 1);
+            if (attributeEnd <= 0 || operationEnd < 0 || operationEnd == filter.length() - 1) {
+                throw new BadRequestException("Invalid filter in the path: " + path,
+                        ResponseCodeConstants.INVALID_FILTER);
+            }
+            filterAttribute = filter.substring(0, attributeEnd);
+            filterOperation = filter.substring(attributeEnd + 1, operationEnd);
+            filterValue = getFilterValue(filter.substring(operationEnd + 1));
+        }
+        return new PatchPath(path, attributeURI, getAttributeParts(attributeURI), filterAttribute, filterOperation,
+                filterValue, new PathRecognizer(path).matches());
+    }
+
+    /*
+     * According to the specification the filter value is given within quotation marks, which are removed. A quoted
+     * value may contain spaces.
+     */
+    private static String getFilterValue(String value) {
+
+        if (value.charAt(0) == '"') {
+            for (int i = 1; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    return value.substring(1, i);
+                }
+            }
+        }
+        int end = value.indexOf(' ');
+        String token = end < 0 ? value : value.substring(0, end);
+        return token.replaceAll("^\"|\"$", "");
+    }
+
+    /*
+     * Splits an attribute URI into the schema URI, if given, the attribute name and the sub attribute names.
+     */
+    private static String[] getAttributeParts(String attributeURI) {
+
+        List<String> attributeParts = new ArrayList<>();
+        int schemaEnd = attributeURI.lastIndexOf(':');
+        if (schemaEnd >= 0) {
+            attributeParts.add(attributeURI.substring(0, schemaEnd));
+        }
+        for (String attributeName : attributeURI.substring(schemaEnd + 1).split("\\.")) {
+            attributeParts.add(attributeName);
+        }
+        return attributeParts.toArray(new String[0]);
+    }
+
+    private static BadRequestException invalidPath(String path) {
+
+        return new BadRequestException("Path value is not a valid syntax according to the SCIM PATCH PATH Rule. " +
+                "path: " + path, ResponseCodeConstants.INVALID_PATH);
+    }
+
+    /**
+     * Recognizer of the PATCH path rule. Each rule returns the set of positions at which a match starting at the
+     * given position can end, so that the alternatives of the grammar need no backtracking. The recursive rules are
+     * memoized per start position.
+     */
+    private static final class PathRecognizer {
+
+        private final String text;
+        private final Map<Integer, BitSet> attributePaths = new HashMap<>();
+        private final Map<Integer, BitSet> valueFilters = new HashMap<>();
+        private final Map<Integer, BitSet> filters = new HashMap<>();
+        private final Map<Integer, BitSet> filterDashes = new HashMap<>();
+
+        private PathRecognizer(String text) {
+
+            this.text = text;
+        }
+
+        private boolean matches() {
+
+            return path(0).get(text.length());
+        }
+
+        // PATH = attributePath / valuePath [subAttribute]
+        private BitSet path(int start) {
+
+            BitSet ends = (BitSet) attributePath(start).clone();
+            BitSet valuePathEnds = valuePath(start);
+            ends.or(valuePathEnds);
+            ends.or(then(valuePathEnds, this::subAttribute));
+            return ends;
+        }
+
+        // attributePath = [URI ":"] attributeName *1subAttribute
+        private BitSet attributePath(int start) {
+
+            BitSet ends = attributePaths.get(start);
+            if (ends == null) {
+                BitSet nameStarts = single(start);
+                for (String schemaURI : SCHEMA_URIS) {
+                    int end = literal(literal(start, schemaURI), ":");
+                    if (end >= 0) {
+                        nameStarts.set(end);
+                    }
+                }
+                BitSet nameEnds = then(nameStarts, this::attributeName);
+                ends = (BitSet) nameEnds.clone();
+                ends.or(then(nameEnds, this::subAttribute));
+                attributePaths.put(start, ends);
+            }
+            return ends;
+        }
+
+        // valuePath = attributePath "[" valueFilter "]"
+        private BitSet valuePath(int start) {
+
+            BitSet ends = then(attributePath(start), position -> single(literal(position, "[")));
+            ends = then(ends, this::valueFilter);
+            return then(ends, position -> single(literal(position, "]")));
+        }
+
+        // valueFilter = attributeExpression / filter / *1"not" "(" valueFilter ")"
+        private BitSet valueFilter(int start) {
+
+            BitSet ends = valueFilters.get(start);
+            if (ends == null) {
+                ends = (BitSet) attributeExpression(start).clone();
+                ends.or(filter(start));
+                ends.or(then(then(openingParenthesis(start), this::valueFilter),
+                        position -> single(literal(position, ")"))));
+                valueFilters.put(start, ends);
+            }
+            return ends;
+        }
+
+        // attributeExpression = (attributePath SP "pr") / (attributePath SP compareOperation SP compareValue)
+        private BitSet attributeExpression(int start) {
+
+            BitSet operationStarts = then(attributePath(start), position -> single(literal(position, " ")));
+            BitSet ends = then(operationStarts, position -> single(literal(position, "pr")));
+            BitSet valueStarts = then(operationStarts, position -> {
+                BitSet operationEnds = new BitSet();
+                for (String operation : COMPARE_OPERATIONS) {
+                    int end = literal(literal(position, operation), " ");
+                    if (end >= 0) {
+                        operationEnds.set(end);
+                    }
+                }
+                return operationEnds;
+            });
+            ends.or(then(valueStarts, this::compareValue));
+            return ends;
+        }
+
+        // filter = (attributeExpression filterDash) / (valuePath filterDash) /
+        //          (*1"not" "(" filter ")" filterDash)
+        private BitSet filter(int start) {
+
+            BitSet ends = filters.get(start);
+            if (ends == null) {
+                BitSet operandEnds = (BitSet) attributeExpression(start).clone();
+                operandEnds.or(valuePath(start));
+                operandEnds.or(then(then(openingParenthesis(start), this::filter),
+                        position -> single(literal(position, ")"))));
+                ends = then(operandEnds, this::filterDash);
+                filters.put(start, ends);
+            }
+            return ends;
+        }
+
+        // filterDash = SP ("and" / "or") SP filter filterDash / ""
+        private BitSet filterDash(int start) {
+
+            BitSet ends = filterDashes.get(start);
+            if (ends == null) {
+                ends = single(start);
+                int operatorStart = literal(start, " ");
+                BitSet filterStarts = new BitSet();
+                for (String operator : new String[]{"and", "or"}) {
+                    int end = literal(literal(operatorStart, operator), " ");
+                    if (end >= 0) {
+                        filterStarts.set(end);
+                    }
+                }
+                ends.or(then(then(filterStarts, this::filter), this::filterDash));
+                filterDashes.put(start, ends);
+            }
+            return ends;
+        }
+
+        // *1"not" "("
+        private BitSet openingParenthesis(int start) {
+
+            BitSet ends = single(literal(start, "("));
+            ends.or(single(literal(literal(start, "not"), "(")));
+            return ends;
+        }
+
+        // attributeName = alpha *(nameChar); no rule following an attribute name starts with a nameChar, hence
+        // only the longest match is returned.
+        private BitSet attributeName(int start) {
+
+            if (start >= text.length() || !isAlpha(text.charAt(start))) {
+                return new BitSet();
+            }
+            int end = start + 1;
+            while (end < text.length() && (isAlpha(text.charAt(end)) || isDigit(text.charAt(end)) ||
+                    text.charAt(end) == '-' || text.charAt(end) == '_')) {
+                end++;
+            }
+            return single(end);
+        }
+
+        // subAttribute = "." attributeName
+        private BitSet subAttribute(int start) {
+
+            int nameStart = literal(start, ".");
+            return nameStart < 0 ? new BitSet() : attributeName(nameStart);
+        }
+
+        // compareValue = false / null / true / number / string
+        private BitSet compareValue(int start) {
+
+            for (String keyword : new String[]{"false", "null", "true"}) {
+                if (text.startsWith(keyword, start)) {
+                    return single(start + keyword.length());
+                }
+            }
+            if (start < text.length() && text.charAt(start) == '"') {
+                return single(string(start));
+            }
+            return single(number(start));
+        }
+
+        // string = quotation-mark *char quotation-mark
+        private int string(int start) {
+
+            int position = start + 1;
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if (c == '"') {
+                    return position + 1;
+                } else if (c == '\\') {
+                    if (position + 1 >= text.length()) {
+                        return -1;
+                    }
+                    char escaped = text.charAt(position + 1);
+                    if (escaped == 'u') {
+                        for (int i = position + 2; i < position + 6; i++) {
+                            if (i >= text.length() || Character.digit(text.charAt(i), 16) < 0) {
+                                return -1;
+                            }
+                        }
+                        position += 6;
+                    } else if ("\"\\/bfnrt".indexOf(escaped) >= 0) {
+                        position += 2;
+                    } else {
+                        return -1;
+                    }
+                } else if (c < 0x20) {
+                    return -1;
+                } else {
+                    position++;
+                }
+            }
+            return -1;
+        }
+
+        // number = [ minus ] int [ frac ] [ exp ]; as with attribute names only the longest match is returned.
+        private int number(int start) {
+
+            int position = start;
+            if (position < text.length() && text.charAt(position) == '-') {
+                position++;
+            }
+            if (position >= text.length() || !isDigit(text.charAt(position))) {
+                return -1;
+            }
+            if (text.charAt(position) == '0') {
+                position++;
+            } else {
+                position = digits(position);
+            }
+            if (position < text.length() && text.charAt(position) == '.' && digits(position + 1) > position + 1) {
+                position = digits(position + 1);
+            }
+            if (position < text.length() && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+                int exponentStart = position + 1;
+                if (exponentStart < text.length() &&
+                        (text.charAt(exponentStart) == '-' || text.charAt(exponentStart) == '+')) {
+                    exponentStart++;
+                }
+                if (digits(exponentStart) > exponentStart) {
+                    position = digits(exponentStart);
+                }
+            }
+            return position;
+        }
+
+        private int digits(int start) {
+
+            int position = start;
+            while (position < text.length() && isDigit(text.charAt(position))) {
+                position++;
+            }
+            return position;
+        }
+
+        /*
+         * Quoted strings of ABNF are case insensitive.
+         */
+        private int literal(int start, String literal) {
+
+            if (start >= 0 && text.regionMatches(true, start, literal, 0, literal.length())) {
+                return start + literal.length();
+            }
+            return -1;
+        }
+
+        private static BitSet single(int position) {
+
+            BitSet positions = new BitSet();
+            if (position >= 0) {
+                positions.set(position);
+            }
+            return positions;
+        }
+
+        private static BitSet then(BitSet starts, IntFunction<BitSet> rule) {
+
+            BitSet ends = new BitSet();
+            for (int start = starts.nextSetBit(0); start >= 0; start = starts.nextSetBit(start + 1)) {
+                ends.or(rule.apply(start));
+            }
+            return ends;
+        }
+
+        private static boolean isAlpha(char c) {
+
+            return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+        }
+
+        private static boolean isDigit(char c) {
+
+            return c >= '0' && c <= '9';
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.attributes;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.AttributeLayout;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+import org.wso2.charon3.core.utils.CopyUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class of AttributeMap.
+ */
+public class AttributeMapTest {
+
+    private static final String USER = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"userName\":\"rash\",\"name\":{\"givenName\":\"Rasanjalee\",\"familyName\":\"de Silva\"}," +
+            "\"emails\":[{\"value\":\"rash@wso2.com\",\"type\":\"work\",\"primary\":true}]}";
+
+    @Test
+    public void testSlottedAndExtraAttributes() {
+
+        AttributeMap map = new AttributeMap(emailLayout());
+        map.put("type", new SimpleAttribute("type", "work"));
+        map.put("unknown", new SimpleAttribute("unknown", "x"));
+        map.put("value", new SimpleAttribute("value", "rash@wso2.com"));
+        map.put("primary", null);
+
+        Assert.assertEquals(map.size(), 4);
+        Assert.assertEquals(((SimpleAttribute) map.get("value")).getValue(), "rash@wso2.com");
+        Assert.assertEquals(((SimpleAttribute) map.get("unknown")).getValue(), "x");
+        Assert.assertTrue(map.containsKey("primary"));
+        Assert.assertNull(map.get("primary"));
+        Assert.assertFalse(map.containsKey("display"));
+        // slotted attributes in the order of the layout, then the others in the order they were added
+        Assert.assertEquals(new ArrayList<>(map.keySet()), Arrays.asList("value", "type", "unknown", "primary"));
+
+        map.put("primary", new SimpleAttribute("primary", true));
+        Assert.assertEquals(map.size(), 4);
+        Assert.assertEquals(new ArrayList<>(map.keySet()), Arrays.asList("value", "type", "primary", "unknown"));
+        map.put("value", null);
+        Assert.assertEquals(map.size(), 4);
+        Assert.assertTrue(map.containsKey("value"));
+        Assert.assertNull(map.get("value"));
+
+        Assert.assertNotNull(map.remove("type"));
+        Assert.assertNull(map.remove("type"));
+        Assert.assertNotNull(map.remove("unknown"));
+        Assert.assertEquals(map.size(), 2);
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testBehavesLikeHashMap() {
+
+        AttributeMap map = new AttributeMap(emailLayout());
+        Map<String, Attribute> hashMap = new HashMap<>();
+        for (String name : new String[]{"display", "value", "other", "type"}) {
+            SimpleAttribute attribute = new SimpleAttribute(name, name);
+            Assert.assertNull(map.put(name, attribute));
+            hashMap.put(name, attribute);
+        }
+        Assert.assertEquals(map, hashMap);
+        Assert.assertEquals(hashMap, map);
+        Assert.assertEquals(map.hashCode(), hashMap.hashCode());
+
+        Iterator<Map.Entry<String, Attribute>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Attribute> entry = iterator.next();
+            if (entry.getKey().equals("value") || entry.getKey().equals("other")) {
+                iterator.remove();
+            } else {
+                entry.setValue(new SimpleAttribute(entry.getKey(), "changed"));
+            }
+        }
+        Assert.assertEquals(new ArrayList<>(map.keySet()), Arrays.asList("display", "type"));
+        Assert.assertEquals(((SimpleAttribute) map.get("type")).getValue(), "changed");
+
+        Iterator<String> names = map.keySet().iterator();
+        names.next();
+        map.put("value", new SimpleAttribute("value", "value"));
+        Assert.assertThrows(ConcurrentModificationException.class, names::next);
+    }
+
+    @Test
+    public void testSettingLayoutMovesAttributes() {
+
+        AttributeMap map = new AttributeMap();
+        map.put("type", new SimpleAttribute("type", "work"));
+        map.put("unknown", new SimpleAttribute("unknown", "x"));
+        map.put("value", new SimpleAttribute("value", "rash@wso2.com"));
+        Assert.assertEquals(new ArrayList<>(map.keySet()), Arrays.asList("type", "unknown", "value"));
+
+        map.setLayout(emailLayout());
+        Assert.assertEquals(map.size(), 3);
+        Assert.assertEquals(new ArrayList<>(map.keySet()), Arrays.asList("value", "type", "unknown"));
+        Assert.assertEquals(((SimpleAttribute) map.get("type")).getValue(), "work");
+    }
+
+    @Test
+    public void testDecodedUserHoldsAttributesBySlot() throws Exception {
+
+        User user = new JSONDecoder().decodeResource(USER, SCIMSchemaDefinitions.SCIM_USER_SCHEMA, new User());
+
+        Assert.assertTrue(user.getAttributeList() instanceof AttributeMap);
+        Assert.assertSame(((AttributeMap) user.getAttributeList()).getLayout(),
+                SCIMSchemaDefinitions.SCIM_USER_SCHEMA.getAttributeLayout());
+        Assert.assertEquals(user.getUserName(), "rash");
+
+        ComplexAttribute email = (ComplexAttribute) ((MultiValuedAttribute) user.getAttribute("emails"))
+                .getAttributeValues().get(0);
+        Assert.assertSame(((AttributeMap) email.getSubAttributesList()).getLayout(), emailLayout());
+        Assert.assertEquals(((SimpleAttribute) email.getSubAttribute("value")).getValue(), "rash@wso2.com");
+
+        User copy = (User) CopyUtil.deepCopy(user);
+        Assert.assertSame(((AttributeMap) copy.getAttributeList()).getLayout(),
+                SCIMSchemaDefinitions.SCIM_USER_SCHEMA.getAttributeLayout());
+        Assert.assertEquals(copy.getAttributeList().keySet(), user.getAttributeList().keySet());
+        Assert.assertEquals(((SimpleAttribute) ((ComplexAttribute) copy.getAttribute("name"))
+                .getSubAttribute("givenName")).getValue(), "Rasanjalee");
+    }
+
+    @Test
+    public void testSerializedMapKeepsLayout() throws Exception {
+
+        AttributeMap map = new AttributeMap(emailLayout());
+        map.put("value", new SimpleAttribute("value", "rash@wso2.com"));
+        map.put("unknown", new SimpleAttribute("unknown", "x"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+        AttributeMap deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (AttributeMap) in.readObject();
+        }
+        Assert.assertEquals(deserialized.getLayout().size(), emailLayout().size());
+        Assert.assertEquals(deserialized.keySet(), map.keySet());
+        Assert.assertEquals(((SimpleAttribute) deserialized.get("value")).getValue(), "rash@wso2.com");
+    }
+
+    @Test
+    public void testCompactStorageCanBeTurnedOff() throws Exception {
+
+        CharonConfiguration.getInstance().setCompactAttributeStorage(false);
+        try {
+            User user = new JSONDecoder().decodeResource(USER, SCIMSchemaDefinitions.SCIM_USER_SCHEMA, new User());
+            Assert.assertTrue(user.getAttributeList() instanceof HashMap);
+            Assert.assertEquals(user.getUserName(), "rash");
+        } finally {
+            CharonConfiguration.getInstance().setCompactAttributeStorage(true);
+        }
+    }
+
+    private static AttributeLayout emailLayout() {
+
+        AttributeLayout layout = SCIMSchemaDefinitions.SCIMUserSchemaDefinition.EMAILS.getSubAttributeLayout();
+        List<String> names = new ArrayList<>();
+        for (int slot = 0; slot < layout.size(); slot++) {
+            names.add(layout.getName(slot));
+        }
+        Assert.assertEquals(names.subList(0, 2), Arrays.asList("value", "display"));
+        return layout;
+    }
+}
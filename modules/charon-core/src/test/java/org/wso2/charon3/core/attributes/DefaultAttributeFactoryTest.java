@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.attributes;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+import org.wso2.charon3.core.utils.CopyUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+
+/**
+ * Test class of DefaultAttributeFactory.
+ */
+public class DefaultAttributeFactoryTest {
+
+    @Test
+    public void testAttributeReadsCharacteristicsFromSchema() throws Exception {
+
+        SimpleAttribute userName = (SimpleAttribute) DefaultAttributeFactory.createAttribute(
+                SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME, new SimpleAttribute("userName", "rash"));
+
+        Assert.assertSame(userName.getAttributeSchema(), SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME);
+        assertSchemaCharacteristics(userName);
+        Assert.assertEquals(userName.getType(), SCIMDefinitions.DataType.STRING);
+        Assert.assertTrue(userName.getAttributeProperties().isEmpty());
+        Assert.assertNull(userName.getAttributeProperty("canonicalValues"));
+    }
+
+    @Test
+    public void testAttributePropertiesCanBeChanged() throws Exception {
+
+        SimpleAttribute userName = (SimpleAttribute) DefaultAttributeFactory.createAttribute(
+                SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME, new SimpleAttribute("userName", "rash"));
+        Assert.assertFalse(userName.hasAttributeProperties());
+
+        userName.getAttributeProperties().put("canonicalValues", "[]");
+        Assert.assertTrue(userName.hasAttributeProperties());
+        Assert.assertEquals(userName.getAttributeProperty("canonicalValues"), "[]");
+        userName.addAttributeProperty("referenceTypes", "[]");
+        Assert.assertEquals(userName.getAttributeProperties().size(), 2);
+        Assert.assertEquals(userName.removeAttributeProperty("canonicalValues"), "[]");
+        Assert.assertEquals(userName.getAttributeProperties().keySet(), Collections.singleton("referenceTypes"));
+    }
+
+    @Test
+    public void testSetterDetachesFromSchema() throws Exception {
+
+        SimpleAttribute userName = (SimpleAttribute) DefaultAttributeFactory.createAttribute(
+                SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME, new SimpleAttribute("userName", "rash"));
+        userName.setReturned(SCIMDefinitions.Returned.NEVER);
+
+        Assert.assertEquals(userName.getReturned(), SCIMDefinitions.Returned.NEVER);
+        Assert.assertEquals(userName.getURI(), SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME.getURI());
+        Assert.assertEquals(SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME.getReturned(),
+                SCIMDefinitions.Returned.DEFAULT);
+
+        SimpleAttribute detached = new SimpleAttribute("nickName", "rash");
+        Assert.assertNull(detached.getRequired());
+        detached.setRequired(true);
+        Assert.assertTrue(detached.getRequired());
+        Assert.assertNull(detached.getURI());
+    }
+
+    @Test
+    public void testCopiesShareSchema() throws Exception {
+
+        SimpleAttribute userName = (SimpleAttribute) DefaultAttributeFactory.createAttribute(
+                SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME, new SimpleAttribute("userName", "rash"));
+        userName.addAttributeProperty("canonicalValues", "[]");
+
+        SimpleAttribute copy = (SimpleAttribute) CopyUtil.deepCopy(userName);
+        Assert.assertSame(copy.getAttributeSchema(), SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME);
+        Assert.assertEquals(copy.getValue(), "rash");
+        Assert.assertEquals(copy.getAttributeProperty("canonicalValues"), "[]");
+    }
+
+    @Test
+    public void testSerializedAttributeKeepsCharacteristics() throws Exception {
+
+        SimpleAttribute userName = (SimpleAttribute) DefaultAttributeFactory.createAttribute(
+                SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME, new SimpleAttribute("userName", "rash"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(userName);
+        }
+        SimpleAttribute deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (SimpleAttribute) in.readObject();
+        }
+        // Another JVM would not have the schema instance, hence the characteristics travel by value.
+        Assert.assertNull(deserialized.getAttributeSchema());
+        assertSchemaCharacteristics(deserialized);
+    }
+
+    private static void assertSchemaCharacteristics(AbstractAttribute attribute) {
+
+        Assert.assertEquals(attribute.getURI(), SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME.getURI());
+        Assert.assertEquals(attribute.getMutability(), SCIMDefinitions.Mutability.READ_WRITE);
+        Assert.assertEquals(attribute.getReturned(), SCIMDefinitions.Returned.DEFAULT);
+        Assert.assertEquals(attribute.getUniqueness(), SCIMDefinitions.Uniqueness.SERVER);
+        Assert.assertTrue(attribute.getRequired());
+        Assert.assertFalse(attribute.getCaseExact());
+        Assert.assertFalse(attribute.getMultiValued());
+        Assert.assertEquals(attribute.getDescription(),
+                SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME.getDescription());
+    }
+}
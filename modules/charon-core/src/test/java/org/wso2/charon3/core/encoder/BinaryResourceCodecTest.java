@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.encoder;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Test class of BinaryResourceCodec.
+ */
+public class BinaryResourceCodecTest {
+
+    private static final String[] TYPES = {"work", "home", "other"};
+    private static final String ALPHABET = "abcXYZ019 _-.@\"\\/\t\u00e9\u6f22";
+
+    private final BinaryResourceCodec codec = new BinaryResourceCodec(SCIMSchemaDefinitions.SCIM_USER_SCHEMA);
+    private final JSONEncoder encoder = new JSONEncoder();
+
+    @Test
+    public void testRoundTripOfRandomUsers() throws Exception {
+
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            User user = newUser(random);
+            byte[] bytes = codec.encode(user);
+            User decoded = codec.decode(bytes, new User());
+
+            Assert.assertEquals(encoder.encodeSCIMObject(decoded), encoder.encodeSCIMObject(user));
+            Assert.assertEquals(codec.encode(decoded), bytes);
+            Assert.assertEquals(decoded.getCreatedInstant(), user.getCreatedInstant());
+        }
+    }
+
+    @Test
+    public void testRoundTripOfAttributesOutsideTheSchema() throws Exception {
+
+        User user = newUser(new Random(7));
+        SimpleAttribute custom = new SimpleAttribute("custom", 42L);
+        custom.setType(SCIMDefinitions.DataType.INTEGER);
+        custom.setMutability(SCIMDefinitions.Mutability.READ_ONLY);
+        custom.setRequired(true);
+        custom.addAttributeProperty("origin", "test");
+        user.getAttributeList().put("custom", custom);
+        SimpleAttribute userName = (SimpleAttribute) user.getAttribute("userName");
+        userName.setCaseExact(true);
+
+        User decoded = codec.decode(ByteBuffer.wrap(codec.encode(user)), new User());
+        SimpleAttribute decodedCustom = (SimpleAttribute) decoded.getAttribute("custom");
+
+        Assert.assertEquals(decodedCustom.getValue(), 42L);
+        Assert.assertEquals(decodedCustom.getType(), SCIMDefinitions.DataType.INTEGER);
+        Assert.assertEquals(decodedCustom.getMutability(), SCIMDefinitions.Mutability.READ_ONLY);
+        Assert.assertEquals(decodedCustom.getRequired(), Boolean.TRUE);
+        Assert.assertNull(decodedCustom.getReturned());
+        Assert.assertEquals(decodedCustom.getAttributeProperty("origin"), "test");
+        Assert.assertEquals(((SimpleAttribute) decoded.getAttribute("userName")).getCaseExact(), Boolean.TRUE);
+        Assert.assertSame(((SimpleAttribute) decoded.getAttribute("displayName")).getAttributeSchema(),
+                SCIMSchemaDefinitions.SCIMUserSchemaDefinition.DISPLAY_NAME);
+    }
+
+    @Test
+    public void testEncodingIsSmallerThanJSON() throws Exception {
+
+        User user = newUser(new Random(3));
+        // Attribute names, schema URIs and characteristics are not repeated, hence mostly the values are left.
+        Assert.assertTrue(codec.encode(user).length * 3 < encoder.encodeSCIMObject(user).length() * 2);
+    }
+
+    @Test
+    public void testRejectsResourcesOfAnotherSchema() throws Exception {
+
+        byte[] bytes = codec.encode(newUser(new Random(1)));
+        BinaryResourceCodec groupCodec = new BinaryResourceCodec(SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA);
+
+        Assert.assertNotEquals(groupCodec.getSchemaFingerprint(), codec.getSchemaFingerprint());
+        Assert.assertEquals(new BinaryResourceCodec(SCIMSchemaDefinitions.SCIM_USER_SCHEMA).getSchemaFingerprint(),
+                codec.getSchemaFingerprint());
+        Assert.assertThrows(CharonException.class, () -> groupCodec.decode(bytes, new Group()));
+    }
+
+    @Test
+    public void testCorruptedBytesOnlyFailWithCharonException() throws Exception {
+
+        Random random = new Random(11);
+        byte[] bytes = codec.encode(newUser(random));
+        for (int i = 0; i < 2000; i++) {
+            byte[] corrupted = i % 4 == 0 ?
+                    Arrays.copyOf(bytes, random.nextInt(bytes.length)) : bytes.clone();
+            if (i % 4 != 0) {
+                for (int j = 0; j <= i % 3; j++) {
+                    corrupted[10 + random.nextInt(corrupted.length - 10)] = (byte) random.nextInt();
+                }
+            }
+            try {
+                codec.decode(corrupted, new User());
+            } catch (CharonException e) {
+                // The corruption was detected.
+            }
+        }
+    }
+
+    private static User newUser(Random random) throws Exception {
+
+        JSONObject user = new JSONObject();
+        user.put("schemas", new JSONArray().put("urn:ietf:params:scim:schemas:core:2.0:User"));
+        user.put("userName", randomString(random));
+        if (random.nextBoolean()) {
+            user.put("name", new JSONObject().put("givenName", randomString(random))
+                    .put("familyName", randomString(random)));
+        }
+        if (random.nextBoolean()) {
+            user.put("displayName", randomString(random));
+        }
+        if (random.nextBoolean()) {
+            user.put("active", random.nextBoolean());
+        }
+        if (random.nextBoolean()) {
+            user.put("locale", "en-US");
+        }
+        JSONArray emails = new JSONArray();
+        JSONArray addresses = new JSONArray();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            JSONObject email = new JSONObject().put("value", randomString(random) + "@wso2.com");
+            if (random.nextBoolean()) {
+                email.put("type", TYPES[random.nextInt(TYPES.length)]);
+            }
+            emails.put(email.put("primary", i == 1));
+            addresses.put(new JSONObject().put("locality", randomString(random)).put("country", "LK"));
+        }
+        if (emails.length() > 0) {
+            user.put("emails", emails);
+            user.put("addresses", addresses);
+        }
+        if (random.nextBoolean()) {
+            user.put("x509Certificates", new JSONArray().put(new JSONObject().put("value", "MIIC")));
+        }
+
+        User decoded = new JSONDecoder().decodeResource(user.toString(), SCIMSchemaDefinitions.SCIM_USER_SCHEMA,
+                new User());
+        Instant created = Instant.ofEpochSecond(1700000000L + random.nextInt(100000000), random.nextInt(1000000000));
+        decoded.setId(UUID.randomUUID().toString());
+        decoded.setCreatedInstant(created);
+        decoded.setLastModifiedInstant(created);
+        decoded.setResourceType("User");
+        decoded.setLocation("https://localhost:9443/scim2/Users/" + decoded.getId());
+        return decoded;
+    }
+
+    private static String randomString(Random random) {
+
+        StringBuilder value = new StringBuilder();
+        for (int i = random.nextInt(20) + 1; i > 0; i--) {
+            value.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return value.toString();
+    }
+}
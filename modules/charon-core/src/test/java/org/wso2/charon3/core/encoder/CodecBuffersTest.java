@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.encoder;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONString;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test class of CodecBuffers.
+ */
+public class CodecBuffersTest {
+
+    @DataProvider(name = "dataForWrite")
+    public Object[][] dataToWrite() {
+
+        return new Object[][]{
+                {"plain"},
+                {"quote \" backslash \\ slash / tab \t newline \n"},
+                {"two bytes \u00e9 three bytes \u6f22 four bytes \ud83d\ude00"},
+                {"lone high \ud83d"},
+                {"lone high followed by text \ud83dx"},
+                {"lone low \ude00 between"},
+                {"\ude00\ud83d reversed pair"},
+                {"line separator \u2028 and control \u0001"}
+        };
+    }
+
+    @Test(dataProvider = "dataForWrite")
+    public void testWrite(String value) throws Exception {
+
+        JSONObject object = new JSONObject().put("value", value).put("values", new JSONArray().put(value).put(1));
+        String expected = object.toString();
+
+        Assert.assertEquals(CodecBuffers.write(object), expected);
+        Assert.assertEquals(toArray(CodecBuffers.writeUTF8(object)), expected.getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(CodecBuffers.parse(expected).toString(), expected);
+    }
+
+    @Test
+    public void testWriteLargePayload() throws Exception {
+
+        // Grows the buffers of the thread past the size they are kept at.
+        JSONObject large = newObject(20000);
+        String expected = large.toString();
+        Assert.assertTrue(expected.length() > 256 * 1024);
+        Assert.assertEquals(CodecBuffers.write(large), expected);
+        Assert.assertEquals(toArray(CodecBuffers.writeUTF8(large)), expected.getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(CodecBuffers.parse(expected).toString(), expected);
+
+        JSONObject small = newObject(3);
+        Assert.assertEquals(CodecBuffers.write(small), small.toString());
+    }
+
+    @Test
+    public void testNestedWrite() throws Exception {
+
+        JSONObject inner = newObject(2);
+        JSONObject outer = new JSONObject().put("inner", (JSONString) () -> {
+            try {
+                return CodecBuffers.write(inner);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Assert.assertEquals(CodecBuffers.write(outer), "{\"inner\":" + inner.toString() + "}");
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int task = 0; task < 16; task++) {
+                int size = task * 37 % 200;
+                results.add(executor.submit(() -> {
+                    JSONObject object = newObject(size);
+                    String expected = object.toString();
+                    for (int i = 0; i < 5; i++) {
+                        Assert.assertEquals(CodecBuffers.write(object), expected);
+                        Assert.assertEquals(toArray(CodecBuffers.writeUTF8(object)),
+                                expected.getBytes(StandardCharsets.UTF_8));
+                        Assert.assertEquals(CodecBuffers.parse(expected).toString(), expected);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static JSONObject newObject(int size) throws Exception {
+
+        JSONArray resources = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            resources.put(new JSONObject()
+                    .put("id", "id-" + i)
+                    .put("userName", "user\u00e9\u6f22" + i)
+                    .put("emails", new JSONArray().put(new JSONObject().put("value", "user" + i + "@example.com"))));
+        }
+        return new JSONObject().put("totalResults", size).put("Resources", resources);
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+
+        Assert.assertEquals(buffer.capacity(), buffer.remaining());
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
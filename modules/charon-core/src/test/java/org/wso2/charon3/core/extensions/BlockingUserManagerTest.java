@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.extensions;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConflictException;
+import org.wso2.charon3.core.exceptions.NotFoundException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.objects.User;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class of BlockingUserManager and ExecutorAsyncUserManager, which adapt the blocking and the non-blocking user
+ * managers to each other.
+ */
+public class BlockingUserManagerTest {
+
+    private ExecutorService executor;
+    private UserManager userManager;
+    private ExecutorAsyncUserManager asyncUserManager;
+
+    @BeforeClass
+    public void setUpClass() {
+
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterClass
+    public void tearDownClass() throws InterruptedException {
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @BeforeMethod
+    public void setUp() {
+
+        userManager = mock(UserManager.class);
+        asyncUserManager = new ExecutorAsyncUserManager(userManager, executor);
+    }
+
+    @Test
+    public void testResultsRoundTrip() throws Exception {
+
+        User user = new User();
+        when(userManager.getUser("123", Collections.emptyMap())).thenReturn(user);
+
+        Assert.assertSame(asyncUserManager.getUser("123", Collections.emptyMap()).toCompletableFuture()
+                .get(10, TimeUnit.SECONDS), user);
+        Assert.assertSame(new BlockingUserManager(asyncUserManager).getUser("123", Collections.emptyMap()), user);
+    }
+
+    @Test
+    public void testPatchUserSupportIsPassedOn() {
+
+        Assert.assertFalse(new BlockingUserManager(asyncUserManager).isPatchUserSupported());
+        when(userManager.isPatchUserSupported()).thenReturn(true);
+        Assert.assertTrue(new BlockingUserManager(asyncUserManager).isPatchUserSupported());
+    }
+
+    @Test
+    public void testDeclaredExceptionsAreRethrown() throws Exception {
+
+        when(userManager.getUser(any(), anyMap())).thenThrow(new NotFoundException("No user with the id 123."));
+        when(userManager.createUser(any(), anyMap())).thenThrow(new ConflictException("User already exists."));
+        when(userManager.patchUser(any(), anyMap(), anyMap())).thenThrow(new NotImplementedException());
+        BlockingUserManager blockingUserManager = new BlockingUserManager(asyncUserManager);
+
+        try {
+            blockingUserManager.getUser("123", Collections.emptyMap());
+            Assert.fail("The user manager must throw NotFoundException.");
+        } catch (NotFoundException e) {
+            Assert.assertEquals(e.getDetail(), "No user with the id 123.");
+        }
+        try {
+            blockingUserManager.createUser(new User(), Collections.emptyMap());
+            Assert.fail("The user manager must throw ConflictException.");
+        } catch (ConflictException e) {
+            Assert.assertEquals(e.getDetail(), "User already exists.");
+        }
+        try {
+            blockingUserManager.patchUser("123", Collections.emptyMap(), Collections.emptyMap());
+            Assert.fail("The user manager must throw NotImplementedException.");
+        } catch (NotImplementedException e) {
+            Assert.assertNotNull(e);
+        }
+    }
+
+    @Test
+    public void testUndeclaredExceptionsAreWrapped() throws Exception {
+
+        CompletableFuture<User> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new ConflictException("Conflict while reading."));
+        AsyncUserManager failingUserManager = mock(AsyncUserManager.class);
+        when(failingUserManager.getUser(any(), anyMap())).thenReturn(failure);
+
+        try {
+            new BlockingUserManager(failingUserManager).getUser("123", Collections.emptyMap());
+            Assert.fail("The user manager must throw CharonException.");
+        } catch (CharonException e) {
+            Assert.assertTrue(e.getCause() instanceof ConflictException);
+        }
+    }
+
+    @Test
+    public void testInterruptedWait() throws Exception {
+
+        AsyncUserManager pendingUserManager = mock(AsyncUserManager.class);
+        when(pendingUserManager.getUser(any(), anyMap())).thenReturn(new CompletableFuture<>());
+
+        Thread.currentThread().interrupt();
+        try {
+            new BlockingUserManager(pendingUserManager).getUser("123", Collections.emptyMap());
+            Assert.fail("The user manager must throw CharonException.");
+        } catch (CharonException e) {
+            Assert.assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void testRejectedOperation() throws Exception {
+
+        ExecutorService stoppedExecutor = Executors.newSingleThreadExecutor();
+        stoppedExecutor.shutdown();
+        AsyncUserManager rejectingUserManager = new ExecutorAsyncUserManager(userManager, stoppedExecutor);
+
+        try {
+            rejectingUserManager.deleteUser("123").toCompletableFuture().get(10, TimeUnit.SECONDS);
+            Assert.fail("The operation must fail.");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof CharonException);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.extensions;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+import org.wso2.charon3.core.schema.ServerSideValidator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class of the resource id generators.
+ */
+public class ResourceIdGeneratorTest {
+
+    @Test
+    public void testTimeOrderedIdLayout() {
+
+        long before = System.currentTimeMillis();
+        UUID id = new TimeOrderedIdGenerator().generateUUID();
+        long after = System.currentTimeMillis();
+
+        Assert.assertEquals(id.version(), 7);
+        Assert.assertEquals(id.variant(), 2);
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        Assert.assertTrue(timestamp >= before && timestamp <= after, "Unexpected timestamp " + timestamp);
+        Assert.assertEquals(UUID.fromString(new TimeOrderedIdGenerator().generateId(SCIMConstants.USER)).version(),
+                7);
+    }
+
+    @Test
+    public void testTimeOrderedIdsAreMonotonicAcrossThreads() throws Exception {
+
+        int threads = 4;
+        int idsPerThread = 20000;
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                Callable<long[]> ids = () -> {
+                    long[] mostSignificantBits = new long[idsPerThread];
+                    for (int i = 0; i < idsPerThread; i++) {
+                        mostSignificantBits[i] = generator.generateUUID().getMostSignificantBits();
+                    }
+                    return mostSignificantBits;
+                };
+                results.add(executor.submit(ids));
+            }
+
+            Set<Long> allIds = new HashSet<>();
+            for (Future<long[]> result : results) {
+                long[] mostSignificantBits = result.get(60, TimeUnit.SECONDS);
+                for (int i = 0; i < mostSignificantBits.length; i++) {
+                    if (i > 0) {
+                        Assert.assertTrue(Long.compareUnsigned(mostSignificantBits[i - 1], mostSignificantBits[i]) < 0,
+                                "Ids of a thread must increase.");
+                    }
+                    allIds.add(mostSignificantBits[i]);
+                }
+            }
+            // The timestamp and counter alone tell the ids apart.
+            Assert.assertEquals(allIds.size(), threads * idsPerThread);
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testRandomIds() {
+
+        UUID id = UUID.fromString(new RandomIdGenerator().generateId(SCIMConstants.GROUP));
+        Assert.assertEquals(id.version(), 4);
+    }
+
+    @Test
+    public void testCreatedResourcesUseTheGenerator() throws Exception {
+
+        Map<String, String> endpointURLs = new HashMap<>();
+        endpointURLs.put(SCIMConstants.USER_ENDPOINT, "https://localhost:9443/scim2/Users");
+        endpointURLs.put(SCIMConstants.GROUP_ENDPOINT, "https://localhost:9443/scim2/Groups");
+        AbstractResourceManager.setEndpointURLMap(endpointURLs);
+        CharonConfiguration.getInstance().setResourceIdGenerator(resourceType -> resourceType + "-1");
+        try {
+            User user = new JSONDecoder().decodeResource("{\"schemas\":[\"" + SCIMConstants.USER_CORE_SCHEMA_URI +
+                    "\"],\"userName\":\"rash\"}", SCIMResourceSchemaManager.getInstance().getUserResourceSchema(),
+                    new User());
+            ServerSideValidator.validateCreatedSCIMObject(user,
+                    SCIMResourceSchemaManager.getInstance().getUserResourceSchema());
+            Assert.assertEquals(user.getId(), "User-1");
+
+            Group group = new JSONDecoder().decodeResource("{\"schemas\":[\"" + SCIMConstants.GROUP_CORE_SCHEMA_URI +
+                    "\"],\"displayName\":\"engineering\"}", SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA, new Group());
+            ServerSideValidator.validateCreatedSCIMObject(group, SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA);
+            Assert.assertEquals(group.getId(), "Group-1");
+        } finally {
+            CharonConfiguration.getInstance().setResourceIdGenerator(null);
+        }
+        Assert.assertTrue(CharonConfiguration.getInstance().getResourceIdGenerator() instanceof TimeOrderedIdGenerator);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Test class of ContentEncoding.
+ */
+public class ContentEncodingTest {
+
+    @DataProvider(name = "dataForNegotiate")
+    public Object[][] dataToNegotiate() {
+
+        return new Object[][]{
+                {null, ContentEncoding.IDENTITY},
+                {"", ContentEncoding.IDENTITY},
+                {"identity", ContentEncoding.IDENTITY},
+                {"br", ContentEncoding.IDENTITY},
+                {"gzip", ContentEncoding.GZIP},
+                {"GZIP", ContentEncoding.GZIP},
+                {"x-gzip", ContentEncoding.GZIP},
+                {"deflate", ContentEncoding.DEFLATE},
+                {"gzip, deflate, br", ContentEncoding.GZIP},
+                {"deflate, gzip", ContentEncoding.GZIP},
+                {"gzip;q=0.5, deflate", ContentEncoding.DEFLATE},
+                {"gzip; q=0.8, deflate;q=0.9", ContentEncoding.DEFLATE},
+                {"gzip;q=0", ContentEncoding.IDENTITY},
+                {"gzip;q=abc", ContentEncoding.IDENTITY},
+                {"*", ContentEncoding.GZIP},
+                {"*;q=0.5, gzip;q=0.1", ContentEncoding.DEFLATE},
+                {"*;q=0", ContentEncoding.IDENTITY}
+        };
+    }
+
+    @Test(dataProvider = "dataForNegotiate")
+    public void testNegotiate(String acceptEncoding, ContentEncoding expected) {
+
+        Assert.assertEquals(ContentEncoding.negotiate(acceptEncoding), expected);
+    }
+
+    @DataProvider(name = "dataForEncode")
+    public Object[][] dataToEncode() {
+
+        return new Object[][]{
+                {ContentEncoding.IDENTITY, Deflater.DEFAULT_COMPRESSION},
+                {ContentEncoding.GZIP, Deflater.BEST_SPEED},
+                {ContentEncoding.GZIP, Deflater.DEFAULT_COMPRESSION},
+                {ContentEncoding.DEFLATE, Deflater.BEST_COMPRESSION},
+                {ContentEncoding.DEFLATE, Deflater.NO_COMPRESSION}
+        };
+    }
+
+    @Test(dataProvider = "dataForEncode")
+    public void testEncode(ContentEncoding contentEncoding, int compressionLevel) throws Exception {
+
+        StringBuilder body = new StringBuilder("{\"Resources\":[");
+        for (int i = 0; i < 500; i++) {
+            body.append("{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\"userName\":\"user")
+                    .append(i).append("\"},");
+        }
+        byte[] expected = body.append("{}]}").toString().getBytes(StandardCharsets.UTF_8);
+        // The body to encode starts past the beginning of its backing array.
+        byte[] padded = new byte[expected.length + 3];
+        System.arraycopy(expected, 0, padded, 3, expected.length);
+
+        ClosingTrackingOutputStream outputStream = new ClosingTrackingOutputStream();
+        contentEncoding.encode(ByteBuffer.wrap(padded, 3, expected.length), outputStream, compressionLevel);
+
+        Assert.assertFalse(outputStream.closed);
+        Assert.assertEquals(decode(contentEncoding, outputStream.toByteArray()), expected);
+        if (contentEncoding != ContentEncoding.IDENTITY && compressionLevel != Deflater.NO_COMPRESSION) {
+            Assert.assertTrue(outputStream.size() < expected.length / 4);
+        }
+    }
+
+    private static byte[] decode(ContentEncoding contentEncoding, byte[] encoded) throws IOException {
+
+        InputStream inputStream = new ByteArrayInputStream(encoded);
+        if (contentEncoding == ContentEncoding.GZIP) {
+            inputStream = new GZIPInputStream(inputStream);
+        } else if (contentEncoding == ContentEncoding.DEFLATE) {
+            inputStream = new InflaterInputStream(inputStream);
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        byte[] chunk = new byte[1024];
+        int length;
+        while ((length = inputStream.read(chunk)) > 0) {
+            decoded.write(chunk, 0, length);
+        }
+        return decoded.toByteArray();
+    }
+
+    private static final class ClosingTrackingOutputStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.ListedResource;
+import org.wso2.charon3.core.protocol.endpoints.GroupResourceManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Test class of SCIMResponse.
+ */
+public class SCIMResponseTest {
+
+    private static final String BODY = "{\"displayName\":\"J\u00f6rg \u6f22\u5b57 \ud83d\ude00\"}";
+
+    @Test
+    public void testStringBody() throws Exception {
+
+        SCIMResponse response = new SCIMResponse(ResponseCodeConstants.CODE_OK, BODY, Collections.emptyMap());
+
+        byte[] expected = BODY.getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(response.getResponseMessage(), BODY);
+        Assert.assertEquals(response.getContentLength(), expected.length);
+        Assert.assertEquals(toArray(response.getResponseBody()), expected);
+        Assert.assertEquals(write(response), expected);
+    }
+
+    @Test
+    public void testUTF8Body() throws Exception {
+
+        byte[] bytes = ("xx" + BODY + "yy").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = ByteBuffer.wrap(bytes, 2, bytes.length - 4);
+        SCIMResponse response = SCIMResponse.withUTF8Body(ResponseCodeConstants.CODE_OK, body,
+                Collections.emptyMap());
+
+        byte[] expected = BODY.getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(response.getContentLength(), expected.length);
+        Assert.assertEquals(write(response), expected);
+        Assert.assertTrue(response.getResponseBody().isReadOnly());
+        // Reading the body does not consume it.
+        Assert.assertEquals(toArray(response.getResponseBody()), expected);
+        Assert.assertEquals(response.getResponseMessage(), BODY);
+        Assert.assertEquals(write(response), expected);
+    }
+
+    @Test
+    public void testWithoutBody() throws Exception {
+
+        SCIMResponse response = new SCIMResponse(ResponseCodeConstants.CODE_NO_CONTENT, null, null);
+        Assert.assertNull(response.getResponseMessage());
+        Assert.assertNull(response.getResponseBody());
+        Assert.assertEquals(response.getContentLength(), 0);
+        Assert.assertEquals(write(response).length, 0);
+
+        response = SCIMResponse.withUTF8Body(ResponseCodeConstants.CODE_NO_CONTENT, null, null);
+        Assert.assertNull(response.getResponseMessage());
+        Assert.assertEquals(response.getContentLength(), 0);
+    }
+
+    @Test
+    public void testNegotiateContentEncoding() throws Exception {
+
+        SCIMResponse response = new SCIMResponse(ResponseCodeConstants.CODE_OK, BODY, Collections.emptyMap());
+        int contentLength = response.getContentLength();
+        CharonConfiguration configuration = CharonConfiguration.getInstance();
+        int minCompressedResponseSize = configuration.getMinCompressedResponseSize();
+        int compressionLevel = configuration.getCompressionLevel();
+        try {
+            configuration.setResponseCompression(contentLength, Deflater.BEST_SPEED);
+            Assert.assertEquals(response.negotiateContentEncoding("gzip"), ContentEncoding.GZIP);
+            Assert.assertEquals(response.negotiateContentEncoding(null), ContentEncoding.IDENTITY);
+            Assert.assertEquals(new SCIMResponse(ResponseCodeConstants.CODE_NO_CONTENT, null, null)
+                    .negotiateContentEncoding("gzip"), ContentEncoding.IDENTITY);
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            response.writeTo(outputStream, ContentEncoding.GZIP);
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            try (GZIPInputStream inputStream = new GZIPInputStream(
+                    new ByteArrayInputStream(outputStream.toByteArray()))) {
+                byte[] chunk = new byte[256];
+                int length;
+                while ((length = inputStream.read(chunk)) > 0) {
+                    decoded.write(chunk, 0, length);
+                }
+            }
+            Assert.assertEquals(decoded.toByteArray(), BODY.getBytes(StandardCharsets.UTF_8));
+
+            // Bodies below the threshold are not compressed.
+            configuration.setResponseCompression(contentLength + 1, Deflater.BEST_SPEED);
+            Assert.assertEquals(response.negotiateContentEncoding("gzip"), ContentEncoding.IDENTITY);
+
+            configuration.setResponseCompression(-1, Deflater.BEST_SPEED);
+            Assert.assertEquals(response.negotiateContentEncoding("gzip"), ContentEncoding.IDENTITY);
+        } finally {
+            configuration.setResponseCompression(minCompressedResponseSize, compressionLevel);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCompressionLevel() {
+
+        CharonConfiguration.getInstance().setResponseCompression(0, 10);
+    }
+
+    @Test
+    public void testEncodeSCIMObjectAsUTF8() throws Exception {
+
+        List<Object> groups = new ArrayList<>();
+        for (String displayName : new String[]{"J\u00f6rg", "\u6f22\u5b57", "\ud83d\ude00 \"quoted\""}) {
+            Group group = new Group();
+            group.setId(displayName + "-id");
+            group.setDisplayName(displayName);
+            groups.add(group);
+        }
+        ListedResource listedResource = new GroupResourceManager().createListedResource(groups, 1, groups.size());
+
+        JSONEncoder encoder = new JSONEncoder();
+        SCIMResponse response = SCIMResponse.withUTF8Body(ResponseCodeConstants.CODE_OK,
+                encoder.encodeSCIMObjectAsUTF8(listedResource), Collections.emptyMap());
+        Assert.assertEquals(response.getResponseMessage(), encoder.encodeSCIMObject(listedResource));
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] write(SCIMResponse response) throws Exception {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.writeTo(outputStream);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.endpoints;
+
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.exceptions.NotFoundException;
+import org.wso2.charon3.core.extensions.AsyncUserManager;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class of AsyncUserResourceManager.
+ */
+public class AsyncUserResourceManagerTest {
+
+    private static final String USER = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"id\":\"123\",\"userName\":\"rash\",\"name\":{\"givenName\":\"Rash\",\"familyName\":\"Na\"}}";
+
+    private ExecutorService executor;
+    private AsyncUserResourceManager userResourceManager;
+    private AsyncUserManager userManager;
+
+    @BeforeClass
+    public void setUpClass() {
+
+        executor = Executors.newSingleThreadExecutor();
+        AbstractResourceManager.setEndpointURLMap(Collections.singletonMap(SCIMConstants.USER_ENDPOINT,
+                "https://localhost:9443/scim2/Users"));
+    }
+
+    @AfterClass
+    public void tearDownClass() throws InterruptedException {
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @BeforeMethod
+    public void setUp() {
+
+        userResourceManager = new AsyncUserResourceManager(executor);
+        userManager = mock(AsyncUserManager.class);
+    }
+
+    @Test
+    public void testGetCompletesWithTheUserStore() throws Exception {
+
+        CompletableFuture<User> storeResponse = new CompletableFuture<>();
+        when(userManager.getUser(eq("123"), anyMap())).thenReturn(storeResponse);
+
+        CompletionStage<SCIMResponse> response = userResourceManager.get("123", userManager, null, null, null);
+        // Nothing waits for the user store.
+        Assert.assertFalse(response.toCompletableFuture().isDone());
+
+        storeResponse.complete(newUser());
+        SCIMResponse scimResponse = response.toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertEquals(new JSONObject(scimResponse.getResponseMessage()).getString("userName"), "rash");
+        Assert.assertEquals(scimResponse.getHeaderParamMap().get(SCIMConstants.LOCATION_HEADER),
+                "https://localhost:9443/scim2/Users/123");
+    }
+
+    @Test
+    public void testGetEncodesUserStoreErrors() throws Exception {
+
+        CompletableFuture<User> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new NotFoundException("No user with the id 123."));
+        when(userManager.getUser(eq("123"), anyMap())).thenReturn(failure);
+        when(userManager.getUser(eq("456"), anyMap())).thenReturn(CompletableFuture.completedFuture(null));
+
+        SCIMResponse response = userResourceManager.get("123", userManager, null, null, null)
+                .toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_RESOURCE_NOT_FOUND);
+
+        response = userResourceManager.get("456", userManager, null, null, null)
+                .toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_RESOURCE_NOT_FOUND);
+    }
+
+    @Test
+    public void testGetFailsOnUnexpectedErrors() throws Exception {
+
+        CompletableFuture<User> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IllegalStateException("Connection reset."));
+        when(userManager.getUser(anyString(), anyMap())).thenReturn(failure);
+
+        try {
+            userResourceManager.get("123", userManager, null, null, null).toCompletableFuture().join();
+            Assert.fail("The response must fail with the user store error.");
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testGetWithoutUserManager() throws Exception {
+
+        SCIMResponse response = userResourceManager.get("123", null, null, null, null)
+                .toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_INTERNAL_ERROR);
+    }
+
+    @Test
+    public void testListWithGET() throws Exception {
+
+        List<Object> users = new ArrayList<>();
+        users.add(7);
+        users.add(newUser());
+        when(userManager.listUsersWithGET(any(), eq(1), eq(1), isNull(), isNull(), isNull(), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(users));
+
+        SCIMResponse response = userResourceManager.listWithGET(userManager, "userName eq rash", null, 1, null,
+                null, null, null, null).toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        JSONObject listedResource = new JSONObject(response.getResponseMessage());
+        Assert.assertEquals(listedResource.getInt("totalResults"), 7);
+        Assert.assertEquals(listedResource.getJSONArray("Resources").length(), 1);
+
+        // Invalid requests are answered without calling the user store.
+        response = userResourceManager.listWithGET(userManager, null, null, null, null, "sideways", null, null,
+                null).toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_BAD_REQUEST);
+        verify(userManager).listUsersWithGET(any(), any(), any(), any(), any(), any(), anyMap());
+    }
+
+    @Test
+    public void testDeleteRunsOnTheExecutor() throws Exception {
+
+        when(userManager.deleteUser("123")).thenReturn(CompletableFuture.completedFuture(null));
+        when(userManager.deleteUser("456")).thenReturn(AsyncUserManager.notImplemented());
+
+        SCIMResponse response = userResourceManager.delete("123", userManager, null)
+                .toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_NO_CONTENT);
+
+        response = userResourceManager.delete("456", userManager, null)
+                .toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_NOT_IMPLEMENTED);
+        verify(userManager, never()).deleteMe(anyString());
+    }
+
+    private static User newUser() throws Exception {
+
+        return new JSONDecoder().decodeResource(USER,
+                SCIMResourceSchemaManager.getInstance().getUserResourceSchema(), new User());
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.endpoints;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConcurrentUpdateException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+import org.wso2.charon3.core.utils.CopyUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests concurrent updates of the same resource against a user manager which versions its resources and rejects
+ * updates made on a version which is no longer the current one.
+ */
+public class ConcurrentUpdateTest {
+
+    private static final String USER = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"id\":\"123\",\"userName\":\"rash\",\"emails\":[{\"value\":\"rash@example.com\",\"type\":\"home\"}]}";
+    private static final String GROUP = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:Group\"]," +
+            "\"id\":\"456\",\"displayName\":\"engineering\"}";
+    private static final String USER_PUT = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"userName\":\"rash\",\"nickName\":\"rashy\"}";
+    private static final String GROUP_PUT = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:Group\"]," +
+            "\"displayName\":\"research\"}";
+
+    private UserManager userManager;
+    private AtomicReference<User> storedUser;
+    private AtomicReference<Group> storedGroup;
+    // Number of reads still to be followed by a concurrent update, Integer.MIN_VALUE to follow every read by one.
+    private AtomicInteger concurrentUpdates;
+
+    @BeforeClass
+    public void setUpClass() {
+
+        Map<String, String> endpointURLs = new HashMap<>();
+        endpointURLs.put(SCIMConstants.USER_ENDPOINT, "https://localhost:9443/scim2/Users");
+        endpointURLs.put(SCIMConstants.GROUP_ENDPOINT, "https://localhost:9443/scim2/Groups");
+        AbstractResourceManager.setEndpointURLMap(endpointURLs);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        User user = new JSONDecoder().decodeResource(USER,
+                SCIMResourceSchemaManager.getInstance().getUserResourceSchema(), new User());
+        user.replaceVersion("1");
+        storedUser = new AtomicReference<>(user);
+        Group group = new JSONDecoder().decodeResource(GROUP,
+                SCIMResourceSchemaManager.getInstance().getGroupResourceSchema(), new Group());
+        group.replaceVersion("1");
+        storedGroup = new AtomicReference<>(group);
+        concurrentUpdates = new AtomicInteger();
+
+        userManager = mock(UserManager.class);
+        when(userManager.patchUser(anyString(), anyMap(), anyMap())).thenThrow(new NotImplementedException());
+        when(userManager.getUser(anyString(), anyMap())).thenAnswer(invocation -> read(storedUser));
+        when(userManager.updateUserDelta(any(User.class), any(), anyMap(), any())).thenAnswer(
+                invocation -> compareAndSet(storedUser, invocation.getArgument(0)));
+        when(userManager.getGroup(anyString(), anyMap())).thenAnswer(invocation -> read(storedGroup));
+        when(userManager.updateGroup(any(Group.class), any(Group.class), anyMap())).thenAnswer(
+                invocation -> compareAndSet(storedGroup, invocation.getArgument(1)));
+    }
+
+    @Test
+    public void testConcurrentPatchesLoseNoUpdates() throws Exception {
+
+        int threads = 4;
+        int patchesPerThread = 20;
+        UserResourceManager userResourceManager = new UserResourceManager();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int updated = 0;
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                Callable<List<Integer>> patches = () -> {
+                    List<Integer> statuses = new ArrayList<>();
+                    for (int i = 0; i < patchesPerThread; i++) {
+                        String email = "rash." + thread + "." + i + "@example.com";
+                        SCIMResponse response = userResourceManager.updateWithPATCH("123", addEmail(email),
+                                userManager, null, null);
+                        statuses.add(response.getResponseStatus());
+                    }
+                    return statuses;
+                };
+                results.add(executor.submit(patches));
+            }
+            for (Future<List<Integer>> result : results) {
+                for (int status : result.get(60, TimeUnit.SECONDS)) {
+                    if (status == ResponseCodeConstants.CODE_OK) {
+                        updated++;
+                    } else {
+                        // A patch may only fail after losing the race for the user every time it was made.
+                        Assert.assertEquals(status, ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        // Every patch which succeeded is in the user, and no other.
+        User user = storedUser.get();
+        Assert.assertTrue(updated > threads * patchesPerThread / 2, "Only " + updated + " patches succeeded.");
+        Assert.assertEquals(user.getVersion(), String.valueOf(1 + updated));
+        Assert.assertEquals(user.getEmails().size(), 1 + updated);
+    }
+
+    @Test
+    public void testUpdateIsMadeAgainOnTheCurrentResource() throws Exception {
+
+        // The user and the group are updated by someone else right after they are first read.
+        concurrentUpdates.set(1);
+        SCIMResponse response = new UserResourceManager().updateWithPUT("123", USER_PUT, userManager, null, null);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertEquals(new JSONObject(response.getResponseMessage()).getString("nickName"), "rashy");
+        Assert.assertEquals(storedUser.get().getVersion(), "3");
+        verify(userManager, times(2)).getUser(anyString(), anyMap());
+
+        concurrentUpdates.set(1);
+        response = new GroupResourceManager().updateWithPUT("456", GROUP_PUT, userManager, null, null);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertEquals(storedGroup.get().getDisplayName(), "research");
+        Assert.assertEquals(storedGroup.get().getVersion(), "3");
+        verify(userManager, times(2)).getGroup(anyString(), anyMap());
+    }
+
+    @Test
+    public void testConditionalUpdateFailsOnConcurrentUpdate() throws Exception {
+
+        concurrentUpdates.set(1);
+        CharonConfiguration.getInstance().setETagSupport(true);
+        try {
+            SCIMResponse response = new UserResourceManager().updateWithPATCH("123", addEmail("rash@work.com"),
+                    userManager, null, null, "W/\"1\"");
+            Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+        } finally {
+            CharonConfiguration.getInstance().setETagSupport(false);
+        }
+        // Only the concurrent update was stored.
+        Assert.assertEquals(storedUser.get().getVersion(), "2");
+        Assert.assertEquals(storedUser.get().getEmails().size(), 1);
+        verify(userManager, times(1)).getUser(anyString(), anyMap());
+    }
+
+    @Test
+    public void testUpdateGivesUpOnAResourceWhichKeepsChanging() throws Exception {
+
+        concurrentUpdates.set(Integer.MIN_VALUE);
+        SCIMResponse response = new UserResourceManager().updateWithPUT("123", USER_PUT, userManager, null, null);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+        verify(userManager, times(AbstractResourceManager.MAX_UPDATE_ATTEMPTS)).getUser(anyString(), anyMap());
+        Assert.assertFalse(storedUser.get().isAttributeExist("nickName"));
+    }
+
+    /*
+     * Reads a copy of the stored resource, then updates the stored resource the way a concurrent request would, when
+     * one is due.
+     */
+    private <T extends AbstractSCIMObject> T read(AtomicReference<T> stored) throws Exception {
+
+        T resource = copy(stored.get());
+        int remaining = concurrentUpdates.get();
+        if (remaining == Integer.MIN_VALUE || (remaining > 0 && concurrentUpdates.decrementAndGet() >= 0)) {
+            T updated = copy(stored.get());
+            updated.replaceVersion(String.valueOf(Long.parseLong(updated.getVersion()) + 1));
+            stored.set(updated);
+        }
+        return resource;
+    }
+
+    /*
+     * Stores the updated resource if it was made on the current version, without holding any lock.
+     */
+    private static <T extends AbstractSCIMObject> T compareAndSet(AtomicReference<T> stored, T resource)
+            throws Exception {
+
+        T current = stored.get();
+        if (!current.getVersion().equals(resource.getVersion())) {
+            throw new ConcurrentUpdateException();
+        }
+        T updated = copy(resource);
+        updated.replaceVersion(String.valueOf(Long.parseLong(current.getVersion()) + 1));
+        if (!stored.compareAndSet(current, updated)) {
+            throw new ConcurrentUpdateException();
+        }
+        return copy(updated);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends AbstractSCIMObject> T copy(T resource) throws CharonException {
+
+        return (T) CopyUtil.deepCopy(resource);
+    }
+
+    private static String addEmail(String email) {
+
+        JSONObject operation = new JSONObject()
+                .put("op", "add")
+                .put("path", "emails")
+                .put("value", new JSONArray().put(new JSONObject().put("value", email).put("type", "work")));
+        return new JSONObject()
+                .put("schemas", new JSONArray().put("urn:ietf:params:scim:api:messages:2.0:PatchOp"))
+                .put("Operations", new JSONArray().put(operation))
+                .toString();
+    }
+}
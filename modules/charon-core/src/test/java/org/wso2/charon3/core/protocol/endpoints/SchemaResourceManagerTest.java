@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.endpoints;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class of SchemaResourceManager.
+ */
+public class SchemaResourceManagerTest {
+
+    private static final String SCHEMAS_URL = "https://localhost:9443/scim2/Schemas";
+
+    private final SchemaResourceManager schemaResourceManager = new SchemaResourceManager();
+
+    @BeforeClass
+    public void setUpClass() {
+
+        Map<String, String> endpointURLMap = new HashMap<>();
+        endpointURLMap.put(SCIMConstants.SCHEMAS_ENDPOINT, SCHEMAS_URL);
+        AbstractResourceManager.setEndpointURLMap(endpointURLMap);
+    }
+
+    @Test
+    public void testSchemaListsOfTheSameContentAreServedFromCache() throws Exception {
+
+        // Like a claim backed user store, the schema attributes are built afresh on every call.
+        UserManager userManager = mock(UserManager.class);
+        Mockito.when(userManager.getUserSchema()).thenAnswer(invocation -> newUserSchema("User name"));
+
+        SCIMResponse first = schemaResourceManager.get(null, userManager, null, null);
+        int cachedResponses = DiscoveryResponseCache.getInstance().size();
+        SCIMResponse second = schemaResourceManager.get(null, userManager, null, null);
+
+        Assert.assertEquals(first.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertSame(second.getResponseMessage(), first.getResponseMessage());
+        Assert.assertEquals(DiscoveryResponseCache.getInstance().size(), cachedResponses);
+    }
+
+    @Test
+    public void testSchemaListModifiedInPlaceIsNotServedStale() throws Exception {
+
+        List<Attribute> userSchema = newUserSchema("Unique user name");
+        UserManager userManager = mock(UserManager.class);
+        Mockito.when(userManager.getUserSchema()).thenReturn(userSchema);
+
+        SCIMResponse before = schemaResourceManager.get(null, userManager, null, null);
+        ((SimpleAttribute) userSchema.get(0)).setDescription("Login name");
+        SCIMResponse after = schemaResourceManager.get(null, userManager, null, null);
+
+        Assert.assertTrue(before.getResponseMessage().contains("Unique user name"));
+        Assert.assertTrue(after.getResponseMessage().contains("Login name"));
+    }
+
+    @Test
+    public void testFingerprint() {
+
+        Assert.assertNull(SchemaResourceManager.getFingerprint(null));
+        Assert.assertEquals(SchemaResourceManager.getFingerprint(newUserSchema("User name")),
+                SchemaResourceManager.getFingerprint(newUserSchema("User name")));
+        Assert.assertNotEquals(SchemaResourceManager.getFingerprint(newUserSchema("User name")),
+                SchemaResourceManager.getFingerprint(newUserSchema("User Name")));
+
+        List<Attribute> requiredUserName = newUserSchema("User name");
+        ((SimpleAttribute) requiredUserName.get(0)).setRequired(true);
+        Assert.assertNotEquals(SchemaResourceManager.getFingerprint(requiredUserName),
+                SchemaResourceManager.getFingerprint(newUserSchema("User name")));
+    }
+
+    private static List<Attribute> newUserSchema(String userNameDescription) {
+
+        SimpleAttribute userName = new SimpleAttribute("userName", null);
+        userName.setType(SCIMDefinitions.DataType.STRING);
+        userName.setDescription(userNameDescription);
+        userName.setRequired(false);
+        List<Attribute> userSchema = new ArrayList<>();
+        userSchema.add(userName);
+        return userSchema;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.endpoints;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test class of ServiceProviderConfigResourceManager.
+ */
+public class ServiceProviderConfigResourceManagerTest {
+
+    private static final String SERVICE_PROVIDER_CONFIG_URL = "https://localhost:9443/scim2/ServiceProviderConfig";
+
+    private final ServiceProviderConfigResourceManager serviceProviderConfigResourceManager =
+            new ServiceProviderConfigResourceManager();
+
+    @BeforeClass
+    public void setUpClass() {
+
+        Map<String, String> endpointURLMap = new HashMap<>();
+        endpointURLMap.put(SCIMConstants.SERVICE_PROVIDER_CONFIG_ENDPOINT, SERVICE_PROVIDER_CONFIG_URL);
+        AbstractResourceManager.setEndpointURLMap(endpointURLMap);
+    }
+
+    @Test
+    public void testRepeatedGetIsServedFromCache() {
+
+        SCIMResponse first = serviceProviderConfigResourceManager.get(null, null, null, null);
+        SCIMResponse second = serviceProviderConfigResourceManager.get(null, null, null, null);
+
+        Assert.assertEquals(first.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertSame(second.getResponseMessage(), first.getResponseMessage());
+        Assert.assertEquals(second.getHeaderParamMap().get(SCIMConstants.LOCATION_HEADER),
+                SERVICE_PROVIDER_CONFIG_URL);
+    }
+
+    @Test
+    public void testConfigurationChangeInvalidatesCache() {
+
+        CharonConfiguration configuration = CharonConfiguration.getInstance();
+        SCIMResponse before = serviceProviderConfigResourceManager.get(null, null, null, null);
+        configuration.setDocumentationURL("https://example.com/scim-docs");
+        try {
+            SCIMResponse after = serviceProviderConfigResourceManager.get(null, null, null, null);
+
+            Assert.assertNotEquals(after.getResponseMessage(), before.getResponseMessage());
+            Assert.assertTrue(after.getResponseMessage().contains("https://example.com/scim-docs"));
+        } finally {
+            configuration.setDocumentationURL(null);
+        }
+    }
+
+    @Test
+    public void testConditionalGet() {
+
+        CharonConfiguration.getInstance().setETagSupport(true);
+        try {
+            SCIMResponse response = serviceProviderConfigResourceManager.get(null, null, null, null);
+            String eTag = response.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER);
+            Assert.assertNotNull(eTag);
+
+            SCIMResponse notModified = serviceProviderConfigResourceManager.get(null, null, null, null, eTag);
+            Assert.assertEquals(notModified.getResponseStatus(), ResponseCodeConstants.CODE_NOT_MODIFIED);
+            Assert.assertNull(notModified.getResponseMessage());
+            Assert.assertEquals(notModified.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER), eTag);
+
+            SCIMResponse modified = serviceProviderConfigResourceManager.get(null, null, null, null, "\"stale\"");
+            Assert.assertEquals(modified.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        } finally {
+            CharonConfiguration.getInstance().setETagSupport(false);
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package org.wso2.charon3.core.protocol.endpoints;
 
 import org.json.JSONObject;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.testng.Assert;
@@ -26,23 +27,38 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
+import org.wso2.charon3.core.config.CharonConfiguration;
 import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
 import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.objects.AttributeChangeSet;
 import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
 import org.wso2.charon3.core.schema.SCIMConstants;
 import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.utils.CopyUtil;
 import org.wso2.charon3.core.utils.ResourceManagerUtil;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 /**
  * Test class of UserResourceManager.
@@ -171,6 +187,189 @@ public class UserResourceManagerTest {
         Assert.assertEquals(outputScimResponse.getResponseStatus(), expectedScimResponseStatus);
     }
 
+    @Test
+    public void testConditionalGet() throws Exception {
+
+        User user = getNewUser();
+        user.replaceVersion("3");
+        abstractResourceManager.when(() -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.USER_ENDPOINT))
+                .thenReturn(SCIM2_ME_ENDPOINT);
+        Mockito.when(userManager.getUser(anyString(), anyMap())).thenAnswer(
+                invocation -> CopyUtil.deepCopy(user));
+
+        CharonConfiguration.getInstance().setETagSupport(true);
+        try {
+            SCIMResponse notModified = userResourceManager.get(user.getId(), userManager, null, null, "W/\"3\"");
+            Assert.assertEquals(notModified.getResponseStatus(), ResponseCodeConstants.CODE_NOT_MODIFIED);
+            Assert.assertNull(notModified.getResponseMessage());
+            Assert.assertEquals(notModified.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER), "W/\"3\"");
+
+            SCIMResponse modified = userResourceManager.get(user.getId(), userManager, null, null, "W/\"2\"");
+            Assert.assertEquals(modified.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+            Assert.assertEquals(modified.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER), "W/\"3\"");
+        } finally {
+            CharonConfiguration.getInstance().setETagSupport(false);
+        }
+
+        // Without entity tag support the header is ignored.
+        SCIMResponse response = userResourceManager.get(user.getId(), userManager, null, null, "W/\"3\"");
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertFalse(response.getHeaderParamMap().containsKey(SCIMConstants.ETAG_HEADER));
+    }
+
+    @Test
+    public void testConditionalGetWithAttributes() throws Exception {
+
+        User user = getNewUser();
+        user.replaceVersion("3");
+        abstractResourceManager.when(() -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.USER_ENDPOINT))
+                .thenReturn(SCIM2_ME_ENDPOINT);
+        // Like a real user store, meta is only returned when it is asked for.
+        Mockito.when(userManager.getUser(anyString(), anyMap())).thenAnswer(invocation -> {
+            User storedUser = (User) CopyUtil.deepCopy(user);
+            Map<String, Boolean> requiredAttributes = invocation.getArgument(1);
+            if (!requiredAttributes.containsKey(SCIMConstants.CommonSchemaConstants.VERSION_URI)) {
+                storedUser.getAttributeList().remove(SCIMConstants.CommonSchemaConstants.META);
+            }
+            return storedUser;
+        });
+
+        CharonConfiguration.getInstance().setETagSupport(true);
+        try {
+            SCIMResponse notModified = userResourceManager.get(user.getId(), userManager, "userName", null,
+                    "W/\"3\"");
+            Assert.assertEquals(notModified.getResponseStatus(), ResponseCodeConstants.CODE_NOT_MODIFIED);
+
+            SCIMResponse modified = userResourceManager.get(user.getId(), userManager, "userName", null,
+                    "W/\"2\"");
+            Assert.assertEquals(modified.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+            Assert.assertEquals(modified.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER), "W/\"3\"");
+            Assert.assertFalse(new JSONObject(modified.getResponseMessage()).has(
+                    SCIMConstants.CommonSchemaConstants.META));
+        } finally {
+            CharonConfiguration.getInstance().setETagSupport(false);
+        }
+    }
+
+    @Test
+    public void testUpdateWithPUTPreconditionFailed() throws Exception {
+
+        User user = getNewUser();
+        user.replaceVersion("3");
+        abstractResourceManager.when(() -> AbstractResourceManager.encodeSCIMException(
+                any(AbstractCharonException.class))).thenCallRealMethod();
+        Mockito.when(userManager.getUser(anyString(), anyMap())).thenReturn(user);
+
+        String putRequest = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\"userName\":\"rash\"}";
+        CharonConfiguration.getInstance().setETagSupport(true);
+        try {
+            SCIMResponse response = userResourceManager.updateWithPUT(user.getId(), putRequest, userManager, null,
+                    null, "W/\"2\"");
+            Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+
+            response = userResourceManager.delete(user.getId(), userManager, "W/\"2\"");
+            Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+            verify(userManager, never()).updateUser(any(User.class), anyMap());
+            verify(userManager, never()).deleteUser(anyString());
+        } finally {
+            CharonConfiguration.getInstance().setETagSupport(false);
+        }
+    }
+
+    @Test
+    public void testUpdateWithPATCHWithoutReadingUser() throws Exception {
+
+        User user = getNewUser();
+        abstractResourceManager.when(() -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.USER_ENDPOINT))
+                .thenReturn(SCIM2_ME_ENDPOINT);
+        Mockito.when(userManager.isPatchUserSupported()).thenReturn(true);
+        Mockito.when(userManager.patchUser(eq(user.getId()), anyMap(), anyMap())).thenReturn(user);
+
+        String patchRequest = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],\"Operations\":[" +
+                "{\"op\":\"replace\",\"path\":\"active\",\"value\":false}," +
+                "{\"op\":\"add\",\"path\":\"name.givenName\",\"value\":\"Rashmini\"}," +
+                "{\"op\":\"remove\",\"path\":\"nickName\"}]}";
+        SCIMResponse response = userResourceManager.updateWithPATCH(user.getId(), patchRequest, userManager, null,
+                null);
+
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        ArgumentCaptor<Map<String, List<PatchOperation>>> patchOperations = ArgumentCaptor.forClass(Map.class);
+        verify(userManager).patchUser(eq(user.getId()), patchOperations.capture(), anyMap());
+        Assert.assertEquals(patchOperations.getValue().get(SCIMConstants.OperationalConstants.REPLACE).get(0)
+                .getPath(), "active");
+        Assert.assertEquals(patchOperations.getValue().get(SCIMConstants.OperationalConstants.ADD).get(0)
+                .getPath(), "name.givenName");
+        Assert.assertEquals(patchOperations.getValue().get(SCIMConstants.OperationalConstants.REMOVE).get(0)
+                .getPath(), "nickName");
+        verify(userManager, never()).getUser(anyString(), anyMap());
+    }
+
+    @DataProvider(name = "dataForUpdateWithPATCHReadingUser")
+    public Object[][] dataToUpdateWithPATCHReadingUser() {
+
+        return new Object[][]{
+                // The user manager claims to apply operations natively, but does not.
+                {"{\"op\":\"replace\",\"path\":\"active\",\"value\":false}", true},
+                // Filters, multi-valued, complex and read only attributes need the current user.
+                {"{\"op\":\"replace\",\"path\":\"emails[type eq \\\"home\\\"].value\"," +
+                        "\"value\":\"rash@wso2.com\"}", false},
+                {"{\"op\":\"add\",\"path\":\"emails\",\"value\":[{\"value\":\"rash@wso2.com\"}]}", false},
+                {"{\"op\":\"replace\",\"path\":\"name\",\"value\":{\"givenName\":\"Rashmini\"}}", false},
+                {"{\"op\":\"replace\",\"value\":{\"active\":false}}", false},
+                // Values which do not match the attribute type are reported by the full validation.
+                {"{\"op\":\"replace\",\"path\":\"active\",\"value\":5}", false},
+                // Required attributes can not be removed.
+                {"{\"op\":\"remove\",\"path\":\"userName\"}", false},
+        };
+    }
+
+    @Test(dataProvider = "dataForUpdateWithPATCHReadingUser")
+    public void testUpdateWithPATCHReadingUser(String operation, boolean patchUserCalled) throws Exception {
+
+        User user = getNewUser();
+        abstractResourceManager.when(() -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.USER_ENDPOINT))
+                .thenReturn(SCIM2_ME_ENDPOINT);
+        abstractResourceManager.when(() -> AbstractResourceManager.encodeSCIMException(
+                any(AbstractCharonException.class))).thenCallRealMethod();
+        Mockito.when(userManager.isPatchUserSupported()).thenReturn(true);
+        Mockito.when(userManager.patchUser(anyString(), anyMap(), anyMap())).thenThrow(new NotImplementedException());
+        Mockito.when(userManager.getUser(anyString(), anyMap())).thenReturn(user);
+        Mockito.when(userManager.updateUserDelta(any(User.class), any(AttributeChangeSet.class), anyMap(), anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        String patchRequest = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],\"Operations\":[" +
+                operation + "]}";
+        userResourceManager.updateWithPATCH(user.getId(), patchRequest, userManager, null, null);
+
+        verify(userManager, Mockito.times(patchUserCalled ? 1 : 0)).patchUser(anyString(), anyMap(), anyMap());
+        verify(userManager).getUser(eq(user.getId()), anyMap());
+    }
+
+    @Test
+    public void testUpdateWithPATCHWithoutPatchUserSupport() throws Exception {
+
+        User user = getNewUser();
+        user.setCreatedInstant(Instant.now());
+        user.setLastModifiedInstant(Instant.now());
+        user.setResourceType(SCIMConstants.USER);
+        abstractResourceManager.when(() -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.USER_ENDPOINT))
+                .thenReturn(SCIM2_ME_ENDPOINT);
+        abstractResourceManager.when(() -> AbstractResourceManager.encodeSCIMException(
+                any(AbstractCharonException.class))).thenCallRealMethod();
+        Mockito.when(userManager.getUser(anyString(), anyMap())).thenReturn(user);
+        Mockito.when(userManager.updateUserDelta(any(User.class), any(AttributeChangeSet.class), anyMap(), anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        String patchRequest = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],\"Operations\":[" +
+                "{\"op\":\"replace\",\"path\":\"active\",\"value\":false}]}";
+        SCIMResponse response = userResourceManager.updateWithPATCH(user.getId(), patchRequest, userManager, null,
+                null);
+
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        verify(userManager, never()).patchUser(anyString(), anyMap(), anyMap());
+        verify(userManager).getUser(eq(user.getId()), anyMap());
+    }
+
     private User getNewUser() throws BadRequestException, CharonException, InternalErrorException {
 
         String scimObjectString = "{\n" +
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol.metrics;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager;
+import org.wso2.charon3.core.protocol.endpoints.GroupResourceManager;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class of HistogramScimMetricsListener and the metrics reported by the resource managers.
+ */
+public class HistogramScimMetricsListenerTest {
+
+    private HistogramScimMetricsListener listener;
+
+    @BeforeMethod
+    public void setUp() {
+
+        listener = new HistogramScimMetricsListener();
+        AbstractResourceManager.setMetricsListener(listener);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        AbstractResourceManager.setMetricsListener(null);
+    }
+
+    @Test
+    public void testHistogram() {
+
+        HistogramScimMetricsListener.Histogram histogram = new HistogramScimMetricsListener.Histogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.getMax(), 100);
+        Assert.assertEquals(histogram.getMean(), 50.5, 0.001);
+        // 50 falls in the bucket [32, 63] and 99 in the bucket [64, 127], which is capped at the maximum.
+        Assert.assertEquals(histogram.getPercentile(50), 63);
+        Assert.assertEquals(histogram.getPercentile(99), 100);
+        Assert.assertEquals(histogram.getPercentile(0), 1);
+
+        histogram.reset();
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getPercentile(50), 0);
+    }
+
+    @Test
+    public void testDisabledTimer() {
+
+        OperationTimer timer = OperationTimer.start(NoOpScimMetricsListener.getInstance(), ScimOperation.GET,
+                SCIMConstants.USER_ENDPOINT, null);
+        SCIMResponse response = new SCIMResponse(ResponseCodeConstants.CODE_OK, "{}", null);
+
+        Assert.assertSame(timer, OperationTimer.DISABLED);
+        timer.lap(ScimPhase.ENCODE);
+        Assert.assertSame(timer.stop(response), response);
+    }
+
+    @Test
+    public void testTimerReportsPhasesAndSizes() {
+
+        OperationTimer timer = OperationTimer.start(listener, ScimOperation.CREATE, SCIMConstants.USER_ENDPOINT,
+                "{\"userName\":\"alice\"}");
+        timer.lap(ScimPhase.DECODE);
+        timer.lap(ScimPhase.USER_MANAGER);
+        timer.stop(new SCIMResponse(ResponseCodeConstants.CODE_CONFLICT, "{\"status\":\"409\"}", null));
+
+        Assert.assertEquals(listener.getTotal(ScimOperation.CREATE).getCount(), 1);
+        Assert.assertEquals(listener.getPhase(ScimOperation.CREATE, ScimPhase.ENCODE).getCount(), 0);
+        Assert.assertEquals(listener.getRequestSize(ScimOperation.CREATE).getMax(), 20);
+        Assert.assertEquals(listener.getResponseSize(ScimOperation.CREATE).getMax(), 16);
+        Assert.assertEquals(listener.getErrorCount(ScimOperation.CREATE), 1);
+    }
+
+    @Test
+    public void testFailingListenerDoesNotAffectResponse() {
+
+        OperationTimer timer = OperationTimer.start(metrics -> {
+            throw new IllegalStateException("Listener failure.");
+        }, ScimOperation.GET, SCIMConstants.USER_ENDPOINT, null);
+        SCIMResponse response = new SCIMResponse(ResponseCodeConstants.CODE_OK, "{}", null);
+
+        Assert.assertSame(timer.stop(response), response);
+    }
+
+    @Test
+    public void testResourceManagerOperationsAreReported() {
+
+        GroupResourceManager groupResourceManager = new GroupResourceManager();
+        UserManager userManager = mock(UserManager.class);
+
+        SCIMResponse deleteResponse = groupResourceManager.delete("group-id", userManager);
+        SCIMResponse getResponse = groupResourceManager.get("group-id", userManager, null, null);
+
+        Assert.assertEquals(deleteResponse.getResponseStatus(), ResponseCodeConstants.CODE_NO_CONTENT);
+        Assert.assertEquals(listener.getTotal(ScimOperation.DELETE).getCount(), 1);
+        Assert.assertEquals(listener.getPhase(ScimOperation.DELETE, ScimPhase.USER_MANAGER).getCount(), 1);
+        Assert.assertEquals(listener.getErrorCount(ScimOperation.DELETE), 0);
+
+        Assert.assertEquals(getResponse.getResponseStatus(), ResponseCodeConstants.CODE_RESOURCE_NOT_FOUND);
+        Assert.assertEquals(listener.getTotal(ScimOperation.GET).getCount(), 1);
+        Assert.assertEquals(listener.getPhase(ScimOperation.GET, ScimPhase.ENCODE).getCount(), 0);
+        Assert.assertEquals(listener.getErrorCount(ScimOperation.GET), 1);
+        Assert.assertEquals(listener.getResponseSize(ScimOperation.GET).getMax(),
+                getResponse.getResponseMessage().length());
+    }
+
+    @Test
+    public void testPatchIsReportedApartFromValidation() throws Exception {
+
+        Group group = new Group();
+        group.setSchema(SCIMConstants.GROUP_CORE_SCHEMA_URI);
+        group.setId("group-id");
+        group.setDisplayName("engineering");
+        group.setCreatedInstant(Instant.now());
+        group.setLastModifiedInstant(Instant.now());
+        group.setResourceType(SCIMConstants.GROUP);
+        UserManager userManager = mock(UserManager.class);
+        Mockito.when(userManager.getGroup(anyString(), anyMap())).thenReturn(group);
+
+        String patchRequest = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],\"Operations\":[" +
+                "{\"op\":\"replace\",\"path\":\"displayName\",\"value\":\"platform\"}]}";
+        SCIMResponse response = new GroupResourceManager().updateWithPATCH("group-id", patchRequest, userManager);
+
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_NO_CONTENT);
+        Assert.assertEquals(listener.getPhase(ScimOperation.UPDATE_WITH_PATCH, ScimPhase.PATCH).getCount(), 1);
+        Assert.assertEquals(listener.getPhase(ScimOperation.UPDATE_WITH_PATCH, ScimPhase.VALIDATE).getCount(), 1);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.schema;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.attributes.AttributeMap;
+import org.wso2.charon3.core.config.SCIMConfigConstants;
+import org.wso2.charon3.core.config.SCIMUserSchemaExtensionBuilder;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.objects.User;
+
+import java.io.File;
+import java.lang.reflect.Field;
+
+/**
+ * Test class of SCIMResourceSchemaManager.
+ */
+public class SCIMResourceSchemaManagerTest {
+
+    private static final String USER = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"," +
+            "\"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\"],\"userName\":\"%s\"," +
+            "\"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\":{\"employeeNumber\":\"%s\"}}";
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        File config = new File(getClass().getClassLoader()
+                .getResource(SCIMConfigConstants.SCIM_SCHEMA_EXTENSION_CONFIG).toURI());
+        SCIMUserSchemaExtensionBuilder.getInstance().buildUserSchemaExtension(config.getPath());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        // the other tests expect the user schema without the enterprise extension
+        Field extensionSchema = SCIMUserSchemaExtensionBuilder.class.getDeclaredField("extensionSchema");
+        extensionSchema.setAccessible(true);
+        extensionSchema.set(SCIMUserSchemaExtensionBuilder.getInstance(), null);
+    }
+
+    @Test
+    public void testUsersOfExtendedSchemasShareLayout() throws Exception {
+
+        UserManager userManager = Mockito.mock(UserManager.class);
+        SCIMResourceTypeSchema firstSchema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema(userManager);
+        SCIMResourceTypeSchema secondSchema =
+                SCIMResourceSchemaManager.getInstance().getUserResourceSchema(userManager);
+        Assert.assertNotSame(firstSchema, secondSchema);
+
+        User first = new JSONDecoder().decodeResource(String.format(USER, "rash", "1"), firstSchema, new User());
+        User second = new JSONDecoder().decodeResource(String.format(USER, "vindula", "2"), secondSchema,
+                new User());
+
+        AttributeLayout layout = ((AttributeMap) first.getAttributeList()).getLayout();
+        Assert.assertNotNull(layout);
+        Assert.assertSame(((AttributeMap) second.getAttributeList()).getLayout(), layout);
+        Assert.assertTrue(layout.getSlot("urn:ietf:params:scim:schemas:extension:enterprise:2.0:User") >= 0);
+        Assert.assertEquals(second.getUserName(), "vindula");
+    }
+}
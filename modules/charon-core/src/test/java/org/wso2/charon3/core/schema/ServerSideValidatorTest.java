@@ -29,10 +29,12 @@ import org.wso2.charon3.core.attributes.Attribute;
 import org.wso2.charon3.core.attributes.ComplexAttribute;
 import org.wso2.charon3.core.attributes.MultiValuedAttribute;
 import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.AttributeChangeSet;
 import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.objects.Role;
 import org.wso2.charon3.core.objects.User;
@@ -40,7 +42,10 @@ import org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager;
 import org.wso2.charon3.core.utils.CopyUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -641,6 +646,49 @@ public class ServerSideValidatorTest  {
         return  roleResourceSchema;
     }
 
+    @Test
+    public void testValidateUpdatedSCIMObjectCollectsChanges() throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+        String oldUser = "{\"schemas\": [\"urn:ietf:params:scim:schemas:core:2.0:User\"], \"id\": \"1\", " +
+                "\"userName\": \"bjensen\", \"nickName\": \"Babs\", \"title\": \"Tour Guide\", " +
+                "\"name\": {\"givenName\": \"Barbara\", \"familyName\": \"Jensen\"}, " +
+                "\"emails\": [{\"value\": \"bjensen@example.com\", \"display\": \"bjensen@example.com\", " +
+                "\"type\": \"work\"}, " +
+                "{\"value\": \"babs@jensen.org\", \"display\": \"babs@jensen.org\", \"type\": \"home\"}], " +
+                "\"meta\": {\"resourceType\": \"User\", \"created\": \"2024-01-01T00:00:00Z\", " +
+                "\"lastModified\": \"2024-01-01T00:00:00Z\"}}";
+        String newUser = "{\"schemas\": [\"urn:ietf:params:scim:schemas:core:2.0:User\"], \"id\": \"2\", " +
+                "\"userName\": \"bjensen\", \"nickName\": \"Barb\", \"locale\": \"en-US\", " +
+                "\"name\": {\"givenName\": \"Barbara\", \"familyName\": \"Jensen-Smith\"}, " +
+                "\"emails\": [{\"value\": \"babs@jensen.org\", \"type\": \"home\"}, " +
+                "{\"value\": \"b@other.org\", \"type\": \"other\"}]}";
+        JSONDecoder decoder = new JSONDecoder();
+
+        AttributeChangeSet changes = new AttributeChangeSet();
+        ServerSideValidator.validateUpdatedSCIMObject(decoder.decodeResource(oldUser, schema, new User()),
+                decoder.decodeResource(newUser, schema, new User()), schema, changes);
+
+        String userSchema = SCIMConstants.USER_CORE_SCHEMA_URI + ":";
+        Assert.assertEquals(changes.getAddedAttributes().keySet(),
+                Collections.singleton(userSchema + "locale"));
+        Assert.assertEquals(changes.getRemovedAttributes().keySet(),
+                Collections.singleton(userSchema + "title"));
+        // The read only id and meta are not changes, and of the complex name only the changed sub attribute is.
+        Assert.assertEquals(changes.getReplacedAttributes().keySet(), new HashSet<>(Arrays.asList(
+                userSchema + "nickName", userSchema + "name.familyName")));
+        Assert.assertEquals(changes.getAddedValues().get(userSchema + "emails").size(), 1);
+        Assert.assertEquals(((ComplexAttribute) changes.getAddedValues().get(userSchema + "emails").get(0))
+                .getSubAttribute("value").getURI(), userSchema + "emails.value");
+        Assert.assertEquals(((SimpleAttribute) ((ComplexAttribute) changes.getRemovedValues()
+                .get(userSchema + "emails").get(0)).getSubAttribute("value")).getValue(), "bjensen@example.com");
+
+        changes = new AttributeChangeSet();
+        ServerSideValidator.validateUpdatedSCIMObject(decoder.decodeResource(oldUser, schema, new User()),
+                decoder.decodeResource(oldUser, schema, new User()), schema, changes);
+        Assert.assertTrue(changes.isEmpty());
+    }
+
     private SCIMResourceTypeSchema createSCIMResourceTypeSchemaCustomUser() {
 
         List<String> schemasList1 = new ArrayList<>();
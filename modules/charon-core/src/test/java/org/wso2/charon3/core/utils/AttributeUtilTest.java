@@ -22,6 +22,7 @@ import org.json.JSONObject;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.schema.AttributeSchema;
@@ -108,6 +109,48 @@ public class AttributeUtilTest {
         Assert.assertEquals(stringValueOfAttribute, expectedStringValueOfAttribute);
     }
 
+    @Test
+    public void testNativeValuesAreNotConverted() throws CharonException, BadRequestException {
+
+        Instant instant = Instant.parse("2021-04-20T09:06:19.839Z");
+        Integer integer = 1000;
+
+        Assert.assertSame(AttributeUtil.getAttributeValueFromString(instant, DATE_TIME), instant);
+        Assert.assertSame(AttributeUtil.getAttributeValueFromString(integer, INTEGER), integer);
+        Assert.assertSame(AttributeUtil.getAttributeValueFromString(Boolean.TRUE, BOOLEAN), Boolean.TRUE);
+        Assert.assertEquals(AttributeUtil.getAttributeValueFromString(2, DECIMAL), 2.0);
+        Assert.assertEquals(AttributeUtil.getAttributeValueFromString("3", INTEGER), 3);
+    }
+
+    @DataProvider(name = "dataForIsValueEqual")
+    public Object[][] dataToIsValueEqual() {
+
+        Instant instant = Instant.parse("2021-04-20T09:06:19.839Z");
+
+        return new Object[][]{
+
+                {"work", STRING, "work", true},
+                {"work", STRING, "Work", false},
+                {true, BOOLEAN, "true", true},
+                {false, BOOLEAN, "true", false},
+                {2, INTEGER, "2", true},
+                {2, INTEGER, "two", false},
+                {10.0, DECIMAL, "10", true},
+                {instant, DATE_TIME, "2021-04-20T09:06:19.839Z", true},
+                {instant, DATE_TIME, "2021-04-20", false},
+                {null, STRING, "work", false}
+        };
+    }
+
+    @Test(dataProvider = "dataForIsValueEqual")
+    public void testIsValueEqual(Object attributeValue, SCIMDefinitions.DataType dataType, String filterValue,
+                                 boolean expected) {
+
+        SimpleAttribute attribute = new SimpleAttribute("attribute", attributeValue);
+        attribute.setType(dataType);
+        Assert.assertEquals(AttributeUtil.isValueEqual(attribute, filterValue), expected);
+    }
+
     @DataProvider(name = "dataForParseDateTimeSuccess")
     public Object[][] dataToParseDateTimeSuccess() {
 
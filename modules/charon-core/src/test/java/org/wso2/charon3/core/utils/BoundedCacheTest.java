@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test class of BoundedCache.
+ */
+public class BoundedCacheTest {
+
+    @Test
+    public void testHitAndMissCounts() {
+
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        cache.put("id1", "user1");
+
+        Assert.assertEquals(cache.get("id1"), "user1");
+        Assert.assertNull(cache.get("id2"));
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 1);
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        Assert.assertTrue(cache.size() <= 100);
+        Assert.assertEquals(cache.getEvictionCount(), 900);
+    }
+
+    @Test
+    public void testRecentlyReadEntriesSurviveEviction() {
+
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(10);
+        cache.put(-1, -1);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertNotNull(cache.get(-1));
+            cache.put(i, i);
+        }
+        Assert.assertEquals(cache.get(-1), Integer.valueOf(-1));
+    }
+
+    @Test
+    public void testInvalidate() {
+
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.put("id1", "user1");
+        cache.put("id2", "user2");
+        cache.invalidate("id1");
+        Assert.assertNull(cache.get("id1"));
+
+        // Replacing an entry repeatedly must not evict the others.
+        for (int i = 0; i < 10; i++) {
+            cache.put("id3", "user3");
+            cache.invalidate("id3");
+        }
+        Assert.assertEquals(cache.get("id2"), "user2");
+
+        cache.invalidateAll();
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testConditionalInvalidate() {
+
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        String user = "user1";
+        cache.put("id1", user);
+        cache.invalidate("id1", "user2");
+        Assert.assertEquals(cache.get("id1"), user);
+        cache.invalidate("id1", user);
+        Assert.assertNull(cache.get("id1"));
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testExpiry() throws InterruptedException {
+
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 1);
+        cache.put("id1", "user1");
+        Thread.sleep(5);
+        Assert.assertNull(cache.get("id1"));
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+    }
+
+    @Test
+    public void testLoader() {
+
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+        Assert.assertEquals(cache.get("abc", String::length), Integer.valueOf(3));
+        Assert.assertEquals(cache.get("abc", key -> -1), Integer.valueOf(3));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Test class of ETagUtil.
+ */
+public class ETagUtilTest {
+
+    @Test
+    public void testGetETag() throws Exception {
+
+        User user = new User();
+        Assert.assertNull(ETagUtil.getETag(user));
+
+        Instant lastModified = Instant.ofEpochMilli(1500000000000L);
+        user.setLastModifiedInstant(lastModified);
+        Assert.assertEquals(ETagUtil.getETag(user), "W/\"1500000000000\"");
+
+        // The version takes precedence over the last modified time.
+        user.replaceVersion("a330bc54f0671c9");
+        Assert.assertEquals(ETagUtil.getETag(user), "W/\"a330bc54f0671c9\"");
+
+        user.replaceVersion("W/\"3694e05e9dff591\"");
+        Assert.assertEquals(ETagUtil.getETag(user), "W/\"3694e05e9dff591\"");
+    }
+
+    @DataProvider(name = "dataForMatches")
+    public Object[][] dataToMatches() {
+
+        return new Object[][]{
+                {"W/\"1\"", "W/\"1\"", true},
+                {"\"1\"", "W/\"1\"", true},
+                {"W/\"2\", W/\"1\"", "W/\"1\"", true},
+                {"*", "W/\"1\"", true},
+                {"*", null, true},
+                {"W/\"2\"", "W/\"1\"", false},
+                {null, "W/\"1\"", false},
+                {"W/\"1\"", null, false}
+        };
+    }
+
+    @Test(dataProvider = "dataForMatches")
+    public void testMatches(String headerValue, String eTag, boolean expected) {
+
+        Assert.assertEquals(ETagUtil.matches(headerValue, eTag), expected);
+    }
+
+    @Test
+    public void testAddETagAttributeURIs() {
+
+        Map<String, Boolean> requiredAttributes = Collections.singletonMap(
+                SCIMConstants.UserSchemaConstants.USER_NAME_URI, true);
+        Assert.assertSame(ETagUtil.addETagAttributeURIs(requiredAttributes), requiredAttributes);
+
+        CharonConfiguration.getInstance().setETagSupport(true);
+        try {
+            Map<String, Boolean> withETagAttributes = ETagUtil.addETagAttributeURIs(requiredAttributes);
+            Assert.assertTrue(withETagAttributes.keySet().containsAll(ETagUtil.getETagAttributeURIs().keySet()));
+            Assert.assertTrue(withETagAttributes.containsKey(SCIMConstants.UserSchemaConstants.USER_NAME_URI));
+            Assert.assertEquals(requiredAttributes.size(), 1);
+            Assert.assertSame(ETagUtil.addETagAttributeURIs(withETagAttributes), withETagAttributes);
+        } finally {
+            CharonConfiguration.getInstance().setETagSupport(false);
+        }
+    }
+
+    @Test
+    public void testValidateIfMatch() throws Exception {
+
+        User user = new User();
+        user.replaceVersion("1");
+
+        // Preconditions are ignored unless entity tags are supported.
+        ETagUtil.validateIfMatch("W/\"2\"", user);
+
+        CharonConfiguration.getInstance().setETagSupport(true);
+        try {
+            ETagUtil.validateIfMatch(null, user);
+            ETagUtil.validateIfMatch("W/\"1\"", user);
+            Assert.assertThrows(PreConditionFailedException.class, () -> ETagUtil.validateIfMatch("W/\"2\"", user));
+
+            // A resource with neither a version nor a last modified time only matches "*".
+            User userWithoutETag = new User();
+            ETagUtil.validateIfMatch("*", userWithoutETag);
+            Assert.assertThrows(PreConditionFailedException.class,
+                    () -> ETagUtil.validateIfMatch("W/\"1\"", userWithoutETag));
+        } finally {
+            CharonConfiguration.getInstance().setETagSupport(false);
+        }
+    }
+}
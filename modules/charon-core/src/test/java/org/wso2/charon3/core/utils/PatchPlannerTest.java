@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Test class of PatchPlanner. Every request is applied both with the planner and operation by operation as the
+ * resource managers used to, and the results are compared.
+ */
+public class PatchPlannerTest {
+
+    private static final String USER = "{\n" +
+            "  \"schemas\": [\"urn:ietf:params:scim:schemas:core:2.0:User\"],\n" +
+            "  \"id\": \"2819c223-7f76-453a-919d-413861904646\",\n" +
+            "  \"userName\": \"bjensen\",\n" +
+            "  \"name\": {\"givenName\": \"Barbara\", \"familyName\": \"Jensen\", \"formatted\": \"Barbara Jensen\"},\n" +
+            "  \"displayName\": \"Babs Jensen\",\n" +
+            "  \"nickName\": \"Babs\",\n" +
+            "  \"title\": \"Tour Guide\",\n" +
+            "  \"locale\": \"en-US\",\n" +
+            "  \"active\": true,\n" +
+            "  \"emails\": [\n" +
+            "    {\"value\": \"bjensen@example.com\", \"type\": \"work\", \"primary\": true},\n" +
+            "    {\"value\": \"babs@jensen.org\", \"type\": \"home\"}\n" +
+            "  ],\n" +
+            "  \"phoneNumbers\": [{\"value\": \"555-555-8377\", \"type\": \"work\"}],\n" +
+            "  \"meta\": {\n" +
+            "    \"resourceType\": \"User\",\n" +
+            "    \"created\": \"2010-01-23T04:56:22Z\",\n" +
+            "    \"lastModified\": \"2011-05-13T04:42:34Z\",\n" +
+            "    \"location\": \"https://example.com/v2/Users/2819c223-7f76-453a-919d-413861904646\"\n" +
+            "  }\n" +
+            "}";
+
+    private static final String[] OPERATIONS = {
+            "{\"op\": \"replace\", \"path\": \"nickName\", \"value\": \"Barb\"}",
+            "{\"op\": \"replace\", \"path\": \"nickName\", \"value\": \"Bee\"}",
+            "{\"op\": \"add\", \"path\": \"nickName\", \"value\": \"Jen\"}",
+            "{\"op\": \"remove\", \"path\": \"nickName\"}",
+            "{\"op\": \"replace\", \"path\": \"title\", \"value\": \"Manager\"}",
+            "{\"op\": \"add\", \"path\": \"title\", \"value\": \"Director\"}",
+            "{\"op\": \"remove\", \"path\": \"title\"}",
+            "{\"op\": \"add\", \"path\": \"profileUrl\", \"value\": \"https://login.example.com/bjensen\"}",
+            "{\"op\": \"replace\", \"path\": \"userName\", \"value\": \"babs\"}",
+            "{\"op\": \"remove\", \"path\": \"userName\"}",
+            "{\"op\": \"replace\", \"path\": \"id\", \"value\": \"1\"}",
+            "{\"op\": \"replace\", \"path\": \"active\", \"value\": false}",
+            "{\"op\": \"replace\", \"path\": \"name.givenName\", \"value\": \"Barb\"}",
+            "{\"op\": \"add\", \"path\": \"name.middleName\", \"value\": \"Jane\"}",
+            "{\"op\": \"remove\", \"path\": \"name.formatted\"}",
+            "{\"op\": \"replace\", \"path\": \"name\", \"value\": {\"givenName\": \"B\", \"familyName\": \"J\"}}",
+            "{\"op\": \"add\", \"path\": \"emails\", \"value\": [{\"value\": \"b@other.org\", \"type\": \"other\"}]}",
+            "{\"op\": \"replace\", \"path\": \"emails[type eq \\\"home\\\"].value\", \"value\": \"b@home.org\"}",
+            "{\"op\": \"remove\", \"path\": \"emails[type eq \\\"work\\\"]\"}",
+            "{\"op\": \"remove\", \"path\": \"emails[type sw \\\"work\\\"]\"}",
+            "{\"op\": \"replace\", \"path\": \"emails[type eq]\", \"value\": \"x\"}",
+            "{\"op\": \"replace\", \"path\": \"emails[type eq \\\"work\\\"\", \"value\": \"x\"}",
+            "{\"op\": \"remove\", \"path\": \"phoneNumbers\"}",
+            "{\"op\": \"add\", \"value\": {\"nickName\": \"Bj\", \"title\": \"Guide\"}}",
+            "{\"op\": \"replace\", \"value\": {\"nickName\": \"Bjj\", \"locale\": \"en-GB\"}}",
+            "{\"op\": \"remove\", \"path\": \"locale\"}",
+            "{\"op\": \"add\", \"path\": \"nickName\"}"
+    };
+
+    @DataProvider(name = "dataForRequests")
+    public Object[][] dataToRequests() {
+
+        return new Object[][]{
+                {new int[]{0, 1}},
+                {new int[]{0, 1, 0, 1}},
+                {new int[]{2, 3}},
+                {new int[]{0, 3, 2}},
+                {new int[]{0, 4, 1, 5, 6}},
+                {new int[]{0, 16, 1}},
+                {new int[]{0, 23, 1}},
+                {new int[]{0, 24, 3}},
+                {new int[]{5, 4}},
+                {new int[]{7, 7}},
+                {new int[]{8, 8}},
+                {new int[]{0, 9, 1}},
+                {new int[]{0, 10, 1}},
+                {new int[]{0, 11, 1}},
+                {new int[]{0, 3, 3}},
+                {new int[]{0, 20, 1}},
+                {new int[]{0, 21, 1}},
+                {new int[]{0, 19, 1}},
+                {new int[]{0, 26}},
+                {new int[]{25, 25}},
+                {new int[]{12, 13, 14, 15}},
+                {new int[]{17, 18, 16, 22}}
+        };
+    }
+
+    @Test(dataProvider = "dataForRequests")
+    public void testPlannedRequestMatchesSequentialRequest(int[] operationIndexes) throws Exception {
+
+        assertSameOutcome(operationIndexes);
+    }
+
+    @Test
+    public void testRandomRequestsMatchSequentialRequests() throws Exception {
+
+        Random random = new Random(7644);
+        int succeeded = 0;
+        for (int i = 0; i < 300; i++) {
+            int[] operationIndexes = new int[1 + random.nextInt(6)];
+            for (int j = 0; j < operationIndexes.length; j++) {
+                operationIndexes[j] = random.nextInt(OPERATIONS.length);
+            }
+            if (assertSameOutcome(operationIndexes)) {
+                succeeded++;
+            }
+        }
+        // Both successful and failing requests must be covered.
+        Assert.assertTrue(succeeded > 50 && succeeded < 250, "Succeeded: " + succeeded);
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+
+        PatchPlan plan = PatchPlanner.plan(decodeRequest(new int[]{0, 4, 1, 16, 2, 3, 23, 0, 1}));
+
+        Assert.assertEquals(plan.size(), 9);
+        Assert.assertEquals(plan.getTargets(3).iterator().next(), "emails");
+        Assert.assertNull(plan.getTargets(6));
+        // Overwritten by the later operations on nickName, across operations on other attributes.
+        Assert.assertTrue(plan.isOverwritable(0));
+        Assert.assertTrue(plan.isOverwritable(2));
+        Assert.assertTrue(plan.isOverwritable(4));
+        Assert.assertFalse(plan.isOverwritable(1));
+        Assert.assertFalse(plan.isOverwritable(3));
+        Assert.assertFalse(plan.isOverwritable(5));
+        // Operations without a path may modify any attribute.
+        Assert.assertFalse(plan.isOverwritable(6));
+        Assert.assertTrue(plan.isOverwritable(7));
+        Assert.assertFalse(plan.isOverwritable(8));
+    }
+
+    /*
+     * Returns true if the request succeeded.
+     */
+    private boolean assertSameOutcome(int[] operationIndexes) throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+        Object expected = applySequentially(decodeRequest(operationIndexes), getUser(schema), schema);
+        Object actual;
+        try {
+            actual = normalize(PatchPlanner.apply(PatchPlanner.plan(decodeRequest(operationIndexes)),
+                    getUser(schema), new JSONDecoder(), schema));
+        } catch (AbstractCharonException | RuntimeException e) {
+            actual = describe(e);
+        }
+        Assert.assertEquals(actual, expected, "Operations: " + Arrays.toString(operationIndexes));
+        return actual instanceof Map;
+    }
+
+    private Object applySequentially(List<PatchOperation> operations, User oldUser, SCIMResourceTypeSchema schema)
+            throws Exception {
+
+        try {
+            User copyOfOldUser = (User) CopyUtil.deepCopy(oldUser);
+            User newUser = null;
+            for (PatchOperation operation : operations) {
+                User user = newUser == null ? oldUser : newUser;
+                if (operation.getOperation().equals(SCIMConstants.OperationalConstants.ADD)) {
+                    newUser = (User) PatchOperationUtil.doPatchAdd(operation, new JSONDecoder(), user, copyOfOldUser,
+                            schema);
+                } else if (operation.getOperation().equals(SCIMConstants.OperationalConstants.REMOVE)) {
+                    newUser = (User) PatchOperationUtil.doPatchRemove(operation, user, copyOfOldUser, schema);
+                } else {
+                    newUser = (User) PatchOperationUtil.doPatchReplace(operation, new JSONDecoder(), user,
+                            copyOfOldUser, schema);
+                }
+                copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
+            }
+            return normalize(newUser);
+        } catch (AbstractCharonException | RuntimeException e) {
+            return describe(e);
+        }
+    }
+
+    private User getUser(SCIMResourceTypeSchema schema) throws Exception {
+
+        return new JSONDecoder().decodeResource(USER, schema, new User());
+    }
+
+    private List<PatchOperation> decodeRequest(int[] operationIndexes) throws Exception {
+
+        StringBuilder request = new StringBuilder("{\"schemas\": [\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"], " +
+                "\"Operations\": [");
+        for (int i = 0; i < operationIndexes.length; i++) {
+            request.append(i == 0 ? "" : ", ").append(OPERATIONS[operationIndexes[i]]);
+        }
+        return new JSONDecoder().decodeRequest(request.append("]}").toString());
+    }
+
+    private static String describe(Exception e) {
+
+        String scimType = e instanceof AbstractCharonException ? ((AbstractCharonException) e).getScimType() : null;
+        return e.getClass().getName() + ": " + e.getMessage() + " (" + scimType + ")";
+    }
+
+    /*
+     * The order of the attributes in the encoded resource is not significant, and the last modified time differs.
+     */
+    private static Object normalize(AbstractSCIMObject resource) throws Exception {
+
+        JSONObject encodedResource = new JSONObject(new JSONEncoder().encodeSCIMObject(resource));
+        encodedResource.getJSONObject(SCIMConstants.CommonSchemaConstants.META)
+                .remove(SCIMConstants.CommonSchemaConstants.LAST_MODIFIED);
+        return toJava(encodedResource);
+    }
+
+    private static Object toJava(Object value) throws JSONException {
+
+        if (value instanceof JSONObject) {
+            Map<String, Object> map = new TreeMap<>();
+            for (Iterator<?> keys = ((JSONObject) value).keys(); keys.hasNext(); ) {
+                String key = (String) keys.next();
+                map.put(key, toJava(((JSONObject) value).get(key)));
+            }
+            return map;
+        }
+        if (value instanceof JSONArray) {
+            List<Object> list = new ArrayList<>();
+            for (int i = 0; i < ((JSONArray) value).length(); i++) {
+                list.add(toJava(((JSONArray) value).get(i)));
+            }
+            return list;
+        }
+        return Objects.toString(value);
+    }
+}
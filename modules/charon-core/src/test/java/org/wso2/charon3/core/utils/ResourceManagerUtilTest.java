@@ -21,11 +21,15 @@ package org.wso2.charon3.core.utils;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.User;
 import org.wso2.charon3.core.schema.AttributeSchema;
 import org.wso2.charon3.core.schema.SCIMAttributeSchema;
+import org.wso2.charon3.core.schema.SCIMConstants;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -207,6 +211,57 @@ public class ResourceManagerUtilTest {
         Assert.assertTrue(true, "getAllAttributeURIs is successful");
     }
 
+    @Test
+    public void testGetOnlyRequiredAttributesURIsIsMemoized() throws CharonException {
+
+        SCIMResourceTypeSchema schema = getResourceSchema();
+        List<AttributeSchema> subAttributeSchemas = schema.getAttributesList().get(0).getSubAttributeSchemas();
+        int subAttributeCount = subAttributeSchemas.size();
+
+        Map<String, Boolean> uriList = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema, "emails,user", null);
+        // The schema is left as it is.
+        Assert.assertEquals(subAttributeSchemas.size(), subAttributeCount);
+        // A schema built out of the same attribute schemas, and the same names in another order, hit the cache.
+        SCIMResourceTypeSchema sameSchema = SCIMResourceTypeSchema.createSCIMResourceSchema(
+                schema.getSchemasList(), schema.getAttributesList().toArray(new AttributeSchema[0]));
+        Assert.assertSame(ResourceManagerUtil.getOnlyRequiredAttributesURIs(sameSchema, "user,emails,emails", null),
+                uriList);
+        // Excluded attributes are ignored when attributes are requested.
+        Assert.assertSame(ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema, "emails,user", "emails"),
+                uriList);
+        Assert.assertNotEquals(ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema, null, "emails"), uriList);
+        Assert.assertThrows(UnsupportedOperationException.class, () -> uriList.remove(uriList.keySet().iterator()
+                .next()));
+    }
+
+    @Test
+    public void testGetAttributeURIsForReplace() throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMSchemaDefinitions.SCIM_USER_SCHEMA;
+        User user = new JSONDecoder().decodeResource("{\"schemas\":[\"" + SCIMConstants.USER_CORE_SCHEMA_URI +
+                "\"],\"userName\":\"rash\",\"name\":{\"givenName\":\"Rash\"}}", schema, new User());
+
+        Map<String, Boolean> attributeURIs = ResourceManagerUtil.getAttributeURIsForReplace(schema, user);
+        Map<String, Boolean> allAttributeURIs = ResourceManagerUtil.getAllAttributeURIs(schema);
+        Assert.assertTrue(allAttributeURIs.entrySet().containsAll(attributeURIs.entrySet()));
+
+        // Attributes given in the replacement.
+        Assert.assertTrue(attributeURIs.containsKey(SCIMConstants.UserSchemaConstants.USER_NAME_URI));
+        Assert.assertTrue(attributeURIs.containsKey(SCIMConstants.UserSchemaConstants.GIVEN_NAME_URI));
+        Assert.assertTrue(attributeURIs.containsKey(SCIMConstants.UserSchemaConstants.FAMILY_NAME_URI));
+        // Read only attributes, and attributes with read only sub attributes.
+        Assert.assertTrue(attributeURIs.containsKey(SCIMConstants.CommonSchemaConstants.ID_URI));
+        Assert.assertTrue(attributeURIs.containsKey(SCIMConstants.CommonSchemaConstants.VERSION_URI));
+        Assert.assertTrue(attributeURIs.containsKey(SCIMConstants.UserSchemaConstants.GROUPS_VALUE_URI));
+        Assert.assertTrue(attributeURIs.containsKey(SCIMConstants.UserSchemaConstants.EMAILS_VALUE_URI));
+        // Writable attributes the replacement drops.
+        Assert.assertFalse(attributeURIs.containsKey(SCIMConstants.UserSchemaConstants.NICK_NAME_URI));
+        Assert.assertFalse(attributeURIs.containsKey(SCIMConstants.UserSchemaConstants.ADDRESSES_TYPE_URI));
+        Assert.assertFalse(attributeURIs.containsKey(SCIMConstants.UserSchemaConstants.PHONE_NUMBERS_VALUE_URI));
+
+        Assert.assertSame(ResourceManagerUtil.getAttributeURIsForReplace(schema, user), attributeURIs);
+    }
+
     @DataProvider(name = "dataForProcessCountString")
     public Object[][] dataToProcessCountString() {
 
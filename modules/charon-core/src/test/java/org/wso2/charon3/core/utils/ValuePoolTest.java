@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+
+import java.util.Collections;
+
+/**
+ * Test class of ValuePool.
+ */
+public class ValuePoolTest {
+
+    private static final String USER = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"userName\":\"%s\",\"locale\":\"en-US\"," +
+            "\"emails\":[{\"value\":\"%s@wso2.com\",\"type\":\"work\"}]}";
+
+    @AfterMethod
+    public void tearDown() {
+
+        CharonConfiguration.getInstance().setValuePool(null);
+    }
+
+    @Test
+    public void testPoolsAttributesWithCanonicalOrConfiguredValues() {
+
+        ValuePool pool = new ValuePool(10, Collections.singleton(
+                SCIMSchemaDefinitions.SCIMUserSchemaDefinition.LOCALE.getURI()));
+        String work = new String("work".toCharArray());
+        String otherWork = new String("work".toCharArray());
+
+        Assert.assertSame(pool.intern(SCIMSchemaDefinitions.SCIMUserSchemaDefinition.EMAIL_TYPE, work), work);
+        Assert.assertSame(pool.intern(SCIMSchemaDefinitions.SCIMUserSchemaDefinition.EMAIL_TYPE, otherWork), work);
+        Assert.assertTrue(pool.isPooled(SCIMSchemaDefinitions.SCIMUserSchemaDefinition.LOCALE));
+        Assert.assertFalse(pool.isPooled(SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME));
+
+        String userName = new String("rash".toCharArray());
+        Assert.assertSame(pool.intern(SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME, userName), userName);
+        Assert.assertEquals(pool.intern(SCIMSchemaDefinitions.SCIMUserSchemaDefinition.USERNAME, true), true);
+        Assert.assertEquals(pool.size(), 1);
+        Assert.assertEquals(pool.getHitCount(), 1);
+        Assert.assertEquals(pool.getMissCount(), 1);
+    }
+
+    @Test
+    public void testFullPoolRejectsNewValues() {
+
+        ValuePool pool = new ValuePool(2, null);
+        pool.intern("work");
+        pool.intern("home");
+        String other = new String("other".toCharArray());
+
+        Assert.assertSame(pool.intern(other), other);
+        Assert.assertEquals(pool.size(), 2);
+        Assert.assertEquals(pool.getRejectedCount(), 1);
+        String work = pool.intern(new String("work".toCharArray()));
+        Assert.assertSame(work, pool.intern("work"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ValuePool(0, null));
+    }
+
+    @Test
+    public void testDecodedUsersShareValues() throws Exception {
+
+        ValuePool pool = new ValuePool();
+        CharonConfiguration.getInstance().setValuePool(pool);
+        JSONDecoder decoder = new JSONDecoder();
+
+        User first = decoder.decodeResource(String.format(USER, "rash", "rash"),
+                SCIMSchemaDefinitions.SCIM_USER_SCHEMA, new User());
+        User second = (User) CopyUtil.deepCopy(decoder.decodeResource(String.format(USER, "vindula", "vindula"),
+                SCIMSchemaDefinitions.SCIM_USER_SCHEMA, new User()));
+
+        Assert.assertSame(emailType(second), emailType(first));
+        Assert.assertSame(((SimpleAttribute) second.getAttribute("locale")).getValue(),
+                ((SimpleAttribute) first.getAttribute("locale")).getValue());
+        Assert.assertEquals(second.getUserName(), "vindula");
+        Assert.assertEquals(pool.size(), 2);
+    }
+
+    private static Object emailType(User user) throws Exception {
+
+        ComplexAttribute email = (ComplexAttribute) ((MultiValuedAttribute) user.getAttribute("emails"))
+                .getAttributeValues().get(0);
+        return ((SimpleAttribute) email.getSubAttribute("type")).getValue();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.aParser.Parser;
+import org.wso2.charon3.core.aParser.ParserException;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.utils.PatchOperationUtil;
+
+/**
+ * Test class of PatchPathCompiler.
+ */
+public class PatchPathCompilerTest {
+
+    @DataProvider(name = "dataForSyntax")
+    public Object[][] dataToSyntax() {
+
+        return new Object[][]{
+                {"userName"},
+                {"name.givenName"},
+                {"emails"},
+                {"emails[type eq \"work\"]"},
+                {"emails[type eq \"work\"].value"},
+                {"emails[type eq \"work\" and primary eq true]"},
+                {"emails[type eq \"work\" or value co \"example.com\"]"},
+                {"emails[not (type eq \"work\")]"},
+                {"addresses[postalCode gt 10000]"},
+                {"addresses[postalCode ge -1.5e3]"},
+                {"emails[primary eq null]"},
+                {"emails[primary eq False]"},
+                {"emails[type EQ \"work\"]"},
+                {"urn:ietf:params:scim:schemas:core:2.0:User:userName"},
+                {"urn:ietf:params:scim:schemas:core:2.0:User:name.familyName"},
+                {"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:manager.value"},
+                {"urn:ietf:params:scim:schemas:core:2.0:Group:members[value eq \"2819c223\"]"},
+                {"urn:scim:wso2:schema:employeeId"},
+                {"emails[type eq \"work\""},
+                {"emails[type eq work]"},
+                {"emails[type eq \"wo\\\"rk\"]"},
+                {"emails[]"},
+                {"name..givenName"},
+                {"1name"},
+                {"name.1givenName"},
+                {"emails[type eq \"work\"]value"},
+                {""}
+        };
+    }
+
+    @Test(dataProvider = "dataForSyntax")
+    public void testSyntaxMatchesGeneratedParser(String path) {
+
+        boolean expected;
+        try {
+            Parser.parse(PatchOperationUtil.PATH_RULE_NAME, path);
+            expected = true;
+        } catch (ParserException | IllegalArgumentException e) {
+            expected = false;
+        }
+
+        PatchPath patchPath;
+        try {
+            patchPath = PatchPathCompiler.compile(path);
+        } catch (BadRequestException e) {
+            // Only paths with a malformed filter are rejected outright, and those are never valid.
+            Assert.assertFalse(expected, path);
+            return;
+        }
+        Assert.assertEquals(patchPath.isValidSyntax(), expected, path);
+    }
+
+    @Test
+    public void testCompileWithoutFilter() throws Exception {
+
+        PatchPath patchPath = PatchPathCompiler.compile("name.givenName");
+
+        Assert.assertFalse(patchPath.hasFilter());
+        Assert.assertNull(patchPath.getFilter());
+        Assert.assertEquals(patchPath.getAttributeURI(), "name.givenName");
+        Assert.assertEquals(patchPath.getAttributeParts(), new String[]{"name", "givenName"});
+
+        patchPath = PatchPathCompiler.compile("urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:manager.value");
+        Assert.assertEquals(patchPath.getAttributeParts(),
+                new String[]{"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User", "manager", "value"});
+    }
+
+    @Test
+    public void testCompileWithFilter() throws Exception {
+
+        PatchPath patchPath = PatchPathCompiler.compile("emails[type eq \"work\"].value");
+
+        Assert.assertTrue(patchPath.hasFilter());
+        Assert.assertEquals(patchPath.getAttributeURI(), "emails.value");
+        Assert.assertEquals(patchPath.getAttributeParts(), new String[]{"emails", "value"});
+
+        ExpressionNode filter = patchPath.getFilter();
+        Assert.assertEquals(filter.getAttributeValue(), "type");
+        Assert.assertEquals(filter.getOperation(), "eq");
+        Assert.assertEquals(filter.getValue(), "work");
+        // Every call returns a node of its own, since expression nodes are mutable.
+        Assert.assertNotSame(patchPath.getFilter(), filter);
+    }
+
+    @Test
+    public void testCompileWithQuotedFilterValue() throws Exception {
+
+        PatchPath patchPath = PatchPathCompiler.compile("addresses[formatted eq \"100 Universal City Plaza\"]");
+        Assert.assertEquals(patchPath.getFilter().getValue(), "100 Universal City Plaza");
+
+        patchPath = PatchPathCompiler.compile("members[value eq 2819c223]");
+        Assert.assertEquals(patchPath.getFilter().getValue(), "2819c223");
+    }
+
+    @Test
+    public void testCompiledPathsAreCached() throws Exception {
+
+        String path = "phoneNumbers[type eq \"mobile\"].value";
+        Assert.assertSame(PatchPathCompiler.compile(path), PatchPathCompiler.compile(path));
+    }
+
+    @Test
+    public void testAttributePartsAreCopied() throws Exception {
+
+        PatchPath patchPath = PatchPathCompiler.compile("name.familyName");
+        patchPath.getAttributeParts()[0] = "emails";
+        Assert.assertEquals(patchPath.getAttributeParts(), new String[]{"name", "familyName"});
+    }
+
+    @DataProvider(name = "dataForInvalidPaths")
+    public Object[][] dataToInvalidPaths() {
+
+        return new Object[][]{
+                {"emails[type eq \"work\"", ResponseCodeConstants.INVALID_PATH},
+                {"emails]", ResponseCodeConstants.INVALID_PATH},
+                {"emails[type eq \"work\"].value[primary eq true]", ResponseCodeConstants.INVALID_PATH},
+                {"emails[type eq]", ResponseCodeConstants.INVALID_FILTER},
+                {"emails[type]", ResponseCodeConstants.INVALID_FILTER},
+                {"emails[value pr]", ResponseCodeConstants.INVALID_FILTER},
+                {"emails[]", ResponseCodeConstants.INVALID_FILTER}
+        };
+    }
+
+    @Test(dataProvider = "dataForInvalidPaths")
+    public void testCompileInvalidPath(String path, String scimType) {
+
+        try {
+            PatchPathCompiler.compile(path);
+            Assert.fail("Path should have been rejected: " + path);
+        } catch (BadRequestException e) {
+            Assert.assertEquals(e.getScimType(), scimType);
+        }
+    }
+}
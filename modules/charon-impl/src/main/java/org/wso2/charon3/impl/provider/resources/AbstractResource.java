@@ -21,13 +21,19 @@ import org.slf4j.LoggerFactory;
 import org.wso2.charon3.core.encoder.JSONEncoder;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.FormatNotSupportedException;
+import org.wso2.charon3.core.extensions.BlockingUserManager;
+import org.wso2.charon3.core.protocol.ContentEncoding;
 import org.wso2.charon3.core.protocol.SCIMResponse;
 import org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager;
 import org.wso2.charon3.impl.provider.util.SCIMProviderConstants;
 import org.wso2.msf4j.Microservice;
 
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 
 /**
@@ -103,6 +109,17 @@ public class AbstractResource implements Microservice {
      * @return
      */
     public Response buildResponse(SCIMResponse scimResponse) {
+        return buildResponse(scimResponse, null);
+    }
+
+    /*
+     * build the jaxrs response, compressing the payload if the client accepts a compressed payload and the payload
+     * is large enough to be worth compressing
+     * @param scimResponse
+     * @param acceptEncoding value of the Accept-Encoding header of the request
+     * @return
+     */
+    public Response buildResponse(SCIMResponse scimResponse, String acceptEncoding) {
         //create a response builder with the status code of the response to be returned.
         Response.ResponseBuilder responseBuilder = Response.status(scimResponse.getResponseStatus());
         //set the headers on the response
@@ -113,12 +130,41 @@ public class AbstractResource implements Microservice {
                 responseBuilder.header(entry.getKey(), entry.getValue());
             }
         }
-        //set the payload of the response, if available.
-        if (scimResponse.getResponseMessage() != null) {
-            responseBuilder.entity(scimResponse.getResponseMessage());
+        //set the payload of the response, if available. The body is written as the UTF-8 bytes the encoder produced,
+        //so that its length is known before the first byte is written.
+        int contentLength = scimResponse.getContentLength();
+        if (contentLength > 0) {
+            ContentEncoding contentEncoding = scimResponse.negotiateContentEncoding(acceptEncoding);
+            if (contentEncoding == ContentEncoding.IDENTITY) {
+                responseBuilder.header(HttpHeaders.CONTENT_LENGTH, contentLength);
+            } else {
+                //the payload is compressed while it is written, hence its length is not known up front.
+                responseBuilder.header(HttpHeaders.CONTENT_ENCODING, contentEncoding.getName());
+                responseBuilder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            responseBuilder.entity((StreamingOutput) output -> scimResponse.writeTo(output, contentEncoding));
         }
         return responseBuilder.build();
     }
 
+    /*
+     * resume the suspended request with the jaxrs response, once the resource manager completed it. The request is
+     * resumed with the failure if the resource manager failed unexpectedly, so that it is mapped as thrown exceptions
+     * are.
+     * @param asyncResponse suspended request
+     * @param scimResponse response of the resource manager
+     * @param acceptEncoding value of the Accept-Encoding header of the request
+     */
+    protected void resume(AsyncResponse asyncResponse, CompletionStage<SCIMResponse> scimResponse,
+                          String acceptEncoding) {
+        scimResponse.whenComplete((response, failure) -> {
+            if (failure != null) {
+                asyncResponse.resume(BlockingUserManager.unwrap(failure));
+            } else {
+                asyncResponse.resume(buildResponse(response, acceptEncoding));
+            }
+        });
+    }
+
 }
 
@@ -40,6 +40,7 @@ import org.wso2.msf4j.Microservice;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
@@ -85,6 +86,7 @@ public class GroupResource extends AbstractResource {
 
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Valid group is found"),
+            @ApiResponse(code = 304, message = "Group is not modified"),
             @ApiResponse(code = 404, message = "Valid group is not found")})
 
     public Response getGroup(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
@@ -92,7 +94,9 @@ public class GroupResource extends AbstractResource {
                              @ApiParam(value = SCIMProviderConstants.ATTRIBUTES_DESC, required = false)
                              @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
                              @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
-                             @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes)
+                             @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes,
+                             @ApiParam(value = SCIMProviderConstants.IF_NONE_MATCH_DESC, required = false)
+                             @HeaderParam(SCIMProviderConstants.IF_NONE_MATCH) String ifNoneMatch)
             throws FormatNotSupportedException, CharonException {
 
         try {
@@ -102,7 +106,8 @@ public class GroupResource extends AbstractResource {
             // create charon-SCIM group endpoint and hand-over the request.
             GroupResourceManager groupResourceManager = new GroupResourceManager();
 
-            SCIMResponse scimResponse = groupResourceManager.get(id, userManager, attribute, excludedAttributes);
+            SCIMResponse scimResponse = groupResourceManager.get(id, userManager, attribute, excludedAttributes,
+                    ifNoneMatch);
             // needs to check the code of the response and return 201 Ok or other error codes
             // appropriately.
             return buildResponse(scimResponse);
@@ -157,10 +162,13 @@ public class GroupResource extends AbstractResource {
 
     @ApiResponses(value = {
             @ApiResponse(code = 204, message = "Group is deleted"),
-            @ApiResponse(code = 404, message = "Valid group is not found")})
+            @ApiResponse(code = 404, message = "Valid group is not found"),
+            @ApiResponse(code = 412, message = "Group version does not match")})
 
     public Response deleteGroup(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
-                               @PathParam(SCIMProviderConstants.ID) String id)
+                               @PathParam(SCIMProviderConstants.ID) String id,
+                               @ApiParam(value = SCIMProviderConstants.IF_MATCH_DESC, required = false)
+                               @HeaderParam(SCIMProviderConstants.IF_MATCH) String ifMatch)
             throws FormatNotSupportedException, CharonException {
 
         try {
@@ -170,7 +178,7 @@ public class GroupResource extends AbstractResource {
             // create charon-SCIM group endpoint and hand-over the request.
             GroupResourceManager groupResourceManager = new GroupResourceManager();
 
-            SCIMResponse scimResponse = groupResourceManager.delete(id, userManager);
+            SCIMResponse scimResponse = groupResourceManager.delete(id, userManager, ifMatch);
             // needs to check the code of the response and return 200 0k or other error codes
             // appropriately.
             return buildResponse(scimResponse);
@@ -191,7 +199,8 @@ public class GroupResource extends AbstractResource {
 
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Group is updated"),
-            @ApiResponse(code = 404, message = "Valid group is not found")})
+            @ApiResponse(code = 404, message = "Valid group is not found"),
+            @ApiResponse(code = 412, message = "Group version does not match")})
 
     public Response updateGroup(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
                                @PathParam(SCIMProviderConstants.ID) String id,
@@ -199,6 +208,8 @@ public class GroupResource extends AbstractResource {
                                @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
                                @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
                                @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes,
+                               @ApiParam(value = SCIMProviderConstants.IF_MATCH_DESC, required = false)
+                               @HeaderParam(SCIMProviderConstants.IF_MATCH) String ifMatch,
                                String resourceString) throws FormatNotSupportedException, CharonException {
 
         try {
@@ -209,7 +220,7 @@ public class GroupResource extends AbstractResource {
             GroupResourceManager groupResourceManager = new GroupResourceManager();
 
             SCIMResponse response = groupResourceManager.updateWithPUT(
-                    id, resourceString, userManager, attribute, excludedAttributes);
+                    id, resourceString, userManager, attribute, excludedAttributes, ifMatch);
 
             return buildResponse(response);
 
@@ -231,7 +242,9 @@ public class GroupResource extends AbstractResource {
             @ApiResponse(code = 200, message = "Valid groups are found"),
             @ApiResponse(code = 404, message = "Valid groups are not found")})
 
-    public Response getGroupsByPost(String resourceString)
+    public Response getGroupsByPost(@ApiParam(value = SCIMProviderConstants.ACCEPT_ENCODING_DESC, required = false)
+                                    @HeaderParam(SCIMProviderConstants.ACCEPT_ENCODING) String acceptEncoding,
+                                    String resourceString)
             throws FormatNotSupportedException, CharonException {
 
         try {
@@ -243,7 +256,7 @@ public class GroupResource extends AbstractResource {
 
             SCIMResponse scimResponse = groupResourceManager.listWithPOST(resourceString, userManager);
 
-            return buildResponse(scimResponse);
+            return buildResponse(scimResponse, acceptEncoding);
 
         } catch (CharonException e) {
             throw new CharonException(e.getDetail(), e);
@@ -276,7 +289,9 @@ public class GroupResource extends AbstractResource {
                              @ApiParam(value = SCIMProviderConstants.SORT_ORDER_DESC, required = false)
                              @QueryParam(SCIMProviderConstants.SORT_ORDER) String sortOrder,
                              @ApiParam(value = SCIMProviderConstants.DOMAIN_DESC, required = false)
-                             @QueryParam(value = SCIMProviderConstants.DOMAIN) String domainName)
+                             @QueryParam(value = SCIMProviderConstants.DOMAIN) String domainName,
+                             @ApiParam(value = SCIMProviderConstants.ACCEPT_ENCODING_DESC, required = false)
+                             @HeaderParam(SCIMProviderConstants.ACCEPT_ENCODING) String acceptEncoding)
             throws FormatNotSupportedException, CharonException {
 
         try {
@@ -289,7 +304,7 @@ public class GroupResource extends AbstractResource {
             SCIMResponse scimResponse = groupResourceManager.listWithGET(userManager, filter, startIndex, count,
                     sortBy, sortOrder, domainName, attribute, excludedAttributes);
 
-            return buildResponse(scimResponse);
+            return buildResponse(scimResponse, acceptEncoding);
 
         } catch (CharonException e) {
             throw new CharonException(e.getDetail(), e);
@@ -29,21 +29,27 @@ import io.swagger.annotations.SwaggerDefinition;
 
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.FormatNotSupportedException;
+import org.wso2.charon3.core.extensions.AsyncUserManager;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.protocol.endpoints.AsyncUserResourceManager;
 import org.wso2.charon3.core.protocol.endpoints.UserResourceManager;
 import org.wso2.charon3.impl.provider.util.SCIMProviderConstants;
 import org.wso2.charon3.utils.DefaultCharonManager;
 
+import java.util.concurrent.CompletionStage;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -77,27 +83,35 @@ public class UserResource extends AbstractResource {
 
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Valid user is found"),
+            @ApiResponse(code = 304, message = "User is not modified"),
             @ApiResponse(code = 404, message = "Valid user is not found")})
 
-    public Response getUser(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
-                            @PathParam(SCIMProviderConstants.ID) String id,
-                            @ApiParam(value = SCIMProviderConstants.ATTRIBUTES_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
-                            @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes)
+    public void getUser(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
+                        @PathParam(SCIMProviderConstants.ID) String id,
+                        @ApiParam(value = SCIMProviderConstants.ATTRIBUTES_DESC, required = false)
+                        @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
+                        @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
+                        @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes,
+                        @ApiParam(value = SCIMProviderConstants.IF_NONE_MATCH_DESC, required = false)
+                        @HeaderParam(SCIMProviderConstants.IF_NONE_MATCH) String ifNoneMatch,
+                        @Suspended AsyncResponse asyncResponse)
             throws FormatNotSupportedException, CharonException {
 
         try {
             // obtain the user store manager
-            UserManager userManager = DefaultCharonManager.getInstance().getUserManager();
+            DefaultCharonManager charonManager = DefaultCharonManager.getInstance();
+            AsyncUserManager userManager = charonManager.getAsyncUserManager();
 
-            // create charon-SCIM user endpoint and hand-over the request.
-            UserResourceManager userResourceManager = new UserResourceManager();
+            // create charon-SCIM user endpoint and hand-over the request. The worker thread is released while the
+            // user store is called.
+            AsyncUserResourceManager userResourceManager =
+                    new AsyncUserResourceManager(charonManager.getAsyncExecutor());
 
-            SCIMResponse scimResponse = userResourceManager.get(id, userManager, attribute, excludedAttributes);
+            CompletionStage<SCIMResponse> scimResponse = userResourceManager.get(id, userManager, attribute,
+                    excludedAttributes, ifNoneMatch);
             // needs to check the code of the response and return 200 0k or other error codes
             // appropriately.
-            return buildResponse(scimResponse);
+            resume(asyncResponse, scimResponse, null);
 
         } catch (CharonException e) {
             throw new CharonException(e.getDetail(), e);
@@ -149,10 +163,13 @@ public class UserResource extends AbstractResource {
 
     @ApiResponses(value = {
             @ApiResponse(code = 204, message = "User is deleted"),
-            @ApiResponse(code = 404, message = "Valid user is not found")})
+            @ApiResponse(code = 404, message = "Valid user is not found"),
+            @ApiResponse(code = 412, message = "User version does not match")})
 
     public Response deleteUser(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
-                               @PathParam(SCIMProviderConstants.ID) String id)
+                               @PathParam(SCIMProviderConstants.ID) String id,
+                               @ApiParam(value = SCIMProviderConstants.IF_MATCH_DESC, required = false)
+                               @HeaderParam(SCIMProviderConstants.IF_MATCH) String ifMatch)
             throws FormatNotSupportedException, CharonException {
 
         try {
@@ -162,7 +179,7 @@ public class UserResource extends AbstractResource {
             // create charon-SCIM user resource manager and hand-over the request.
             UserResourceManager userResourceManager = new UserResourceManager();
 
-            SCIMResponse scimResponse = userResourceManager.delete(id, userManager);
+            SCIMResponse scimResponse = userResourceManager.delete(id, userManager, ifMatch);
             // needs to check the code of the response and return 200 0k or other error codes
             // appropriately.
             return buildResponse(scimResponse);
@@ -182,35 +199,41 @@ public class UserResource extends AbstractResource {
             @ApiResponse(code = 200, message = "Valid users are found"),
             @ApiResponse(code = 404, message = "Valid users are not found")})
 
-    public Response getUser(@ApiParam(value = SCIMProviderConstants.ATTRIBUTES_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
-                            @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes,
-                            @ApiParam(value = SCIMProviderConstants.FILTER_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.FILTER) String filter,
-                            @ApiParam(value = SCIMProviderConstants.START_INDEX_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.START_INDEX) int startIndex,
-                            @ApiParam(value = SCIMProviderConstants.COUNT_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.COUNT) int count,
-                            @ApiParam(value = SCIMProviderConstants.SORT_BY_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.SORT_BY) String sortBy,
-                            @ApiParam(value = SCIMProviderConstants.SORT_ORDER_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.SORT_ORDER) String sortOrder,
-                            @ApiParam(value = SCIMProviderConstants.DOMAIN_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.DOMAIN) String domainName)
+    public void getUser(@ApiParam(value = SCIMProviderConstants.ATTRIBUTES_DESC, required = false)
+                        @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
+                        @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
+                        @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes,
+                        @ApiParam(value = SCIMProviderConstants.FILTER_DESC, required = false)
+                        @QueryParam(SCIMProviderConstants.FILTER) String filter,
+                        @ApiParam(value = SCIMProviderConstants.START_INDEX_DESC, required = false)
+                        @QueryParam(SCIMProviderConstants.START_INDEX) int startIndex,
+                        @ApiParam(value = SCIMProviderConstants.COUNT_DESC, required = false)
+                        @QueryParam(SCIMProviderConstants.COUNT) int count,
+                        @ApiParam(value = SCIMProviderConstants.SORT_BY_DESC, required = false)
+                        @QueryParam(SCIMProviderConstants.SORT_BY) String sortBy,
+                        @ApiParam(value = SCIMProviderConstants.SORT_ORDER_DESC, required = false)
+                        @QueryParam(SCIMProviderConstants.SORT_ORDER) String sortOrder,
+                        @ApiParam(value = SCIMProviderConstants.DOMAIN_DESC, required = false)
+                        @QueryParam(SCIMProviderConstants.DOMAIN) String domainName,
+                        @ApiParam(value = SCIMProviderConstants.ACCEPT_ENCODING_DESC, required = false)
+                        @HeaderParam(SCIMProviderConstants.ACCEPT_ENCODING) String acceptEncoding,
+                        @Suspended AsyncResponse asyncResponse)
             throws FormatNotSupportedException, CharonException {
 
         try {
             // obtain the user store manager
-            UserManager userManager = DefaultCharonManager.getInstance().getUserManager();
+            DefaultCharonManager charonManager = DefaultCharonManager.getInstance();
+            AsyncUserManager userManager = charonManager.getAsyncUserManager();
 
-            // create charon-SCIM user resource manager and hand-over the request.
-            UserResourceManager userResourceManager = new UserResourceManager();
+            // create charon-SCIM user resource manager and hand-over the request. The worker thread is released
+            // while the user store is called.
+            AsyncUserResourceManager userResourceManager =
+                    new AsyncUserResourceManager(charonManager.getAsyncExecutor());
 
-            SCIMResponse scimResponse = userResourceManager.listWithGET(userManager, filter, startIndex, count,
-                    sortBy, sortOrder, domainName, attribute, excludedAttributes);
+            CompletionStage<SCIMResponse> scimResponse = userResourceManager.listWithGET(userManager, filter,
+                    startIndex, count, sortBy, sortOrder, domainName, attribute, excludedAttributes);
 
-            return buildResponse(scimResponse);
+            resume(asyncResponse, scimResponse, acceptEncoding);
 
         } catch (CharonException e) {
             throw new CharonException(e.getDetail(), e);
@@ -230,7 +253,9 @@ public class UserResource extends AbstractResource {
             @ApiResponse(code = 200, message = "Valid users are found"),
             @ApiResponse(code = 404, message = "Valid users are not found")})
 
-    public Response getUsersByPost(String resourceString)
+    public Response getUsersByPost(@ApiParam(value = SCIMProviderConstants.ACCEPT_ENCODING_DESC, required = false)
+                                   @HeaderParam(SCIMProviderConstants.ACCEPT_ENCODING) String acceptEncoding,
+                                   String resourceString)
             throws FormatNotSupportedException, CharonException {
 
         try {
@@ -242,7 +267,7 @@ public class UserResource extends AbstractResource {
 
             SCIMResponse scimResponse = userResourceManager.listWithPOST(resourceString, userManager);
 
-            return buildResponse(scimResponse);
+            return buildResponse(scimResponse, acceptEncoding);
 
         } catch (CharonException e) {
             throw new CharonException(e.getDetail(), e);
@@ -259,7 +284,8 @@ public class UserResource extends AbstractResource {
 
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "User is updated"),
-            @ApiResponse(code = 404, message = "Valid user is not found")})
+            @ApiResponse(code = 404, message = "Valid user is not found"),
+            @ApiResponse(code = 412, message = "User version does not match")})
 
     public Response updateUser(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
                                @PathParam(SCIMProviderConstants.ID) String id,
@@ -267,6 +293,8 @@ public class UserResource extends AbstractResource {
                                @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
                                @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
                                @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes,
+                               @ApiParam(value = SCIMProviderConstants.IF_MATCH_DESC, required = false)
+                               @HeaderParam(SCIMProviderConstants.IF_MATCH) String ifMatch,
                                String resourceString) throws FormatNotSupportedException, CharonException {
 
         try {
@@ -277,7 +305,7 @@ public class UserResource extends AbstractResource {
             UserResourceManager userResourceManager = new UserResourceManager();
 
             SCIMResponse response = userResourceManager.updateWithPUT(
-                    id, resourceString, userManager, attribute, excludedAttributes);
+                    id, resourceString, userManager, attribute, excludedAttributes, ifMatch);
 
             return buildResponse(response);
 
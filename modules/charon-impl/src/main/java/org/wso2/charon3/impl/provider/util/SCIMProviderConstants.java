@@ -34,6 +34,9 @@ public class SCIMProviderConstants {
     public static final String ACCEPT_HEADER = "Accept";
     public static final String ID = "id";
     public static final String DOMAIN = "domain";
+    public static final String IF_MATCH = "If-Match";
+    public static final String IF_NONE_MATCH = "If-None-Match";
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
 
     public static final String RESOURCE_STRING = "RESOURCE_STRING";
     public static final String HTTP_VERB = "HTTP_VERB";
@@ -53,5 +56,8 @@ public class SCIMProviderConstants {
     public static final String SORT_ORDER_DESC = "The order in which the \"sortBy\" parameter is applied.";
     public static final String START_INDEX_DESC = "The 1-based index of the first query result";
     public static final String DOMAIN_DESC = "Domain of the provisioning user";
+    public static final String IF_MATCH_DESC = "Version of the resource the request is based on.";
+    public static final String IF_NONE_MATCH_DESC = "Version of the resource already held by the client.";
+    public static final String ACCEPT_ENCODING_DESC = "Content codings, such as gzip, acceptable for the response.";
 
 }
@@ -17,17 +17,26 @@
 */
 package org.wso2.charon3.utils;
 
+import org.wso2.charon3.core.config.CharonConfiguration;
 import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.encoder.JSONEncoder;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.FormatNotSupportedException;
+import org.wso2.charon3.core.extensions.AsyncUserManager;
+import org.wso2.charon3.core.extensions.ExecutorAsyncUserManager;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager;
 import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.utils.ValuePool;
 import org.wso2.charon3.utils.usermanager.InMemoryUserManager;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This illustrates what are the core tasks an implementation should take care of,
@@ -39,8 +48,12 @@ public class DefaultCharonManager {
     private static volatile DefaultCharonManager defaultCharonManager;
     private static Map<String, String> endpointURLs = new HashMap<String, String>();
     private static UserManager userManager = new InMemoryUserManager();
-    private static JSONDecoder jsonDecoder = new JSONDecoder();
-    private static JSONEncoder jsonEncoder = new JSONEncoder();
+    //runs the calls to the user manager and the processing of their results, off the HTTP worker threads.
+    private static final ExecutorService asyncExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), new AsyncThreadFactory());
+    private static final AsyncUserManager asyncUserManager = new ExecutorAsyncUserManager(userManager, asyncExecutor);
+    private static final JSONDecoder jsonDecoder = new JSONDecoder();
+    private static final JSONEncoder jsonEncoder = new JSONEncoder();
 
     private static final String USERS_URL = "http://localhost:8080/scim/Users";
     private static final String GROUPS_URL = "http://localhost:8080/scim/Groups";
@@ -54,6 +67,8 @@ public class DefaultCharonManager {
         endpointURLs.put(SCIMConstants.GROUP_ENDPOINT, GROUPS_URL);
         //register endpoint URLs in AbstractResourceEndpoint since they are called with in the API
         registerEndpointURLs();
+        //the in memory user manager keeps every user, hence share the values that repeat across the users
+        CharonConfiguration.getInstance().setValuePool(new ValuePool());
     }
 
     private DefaultCharonManager() throws CharonException {
@@ -103,10 +118,43 @@ public class DefaultCharonManager {
         return userManager;
     }
 
+    /**
+     * Obtain the user manager for the non-blocking endpoints. The in memory user manager is called on the
+     * executor returned by {@link #getAsyncExecutor()}.
+     *
+     * @return
+     */
+    public AsyncUserManager getAsyncUserManager() throws CharonException {
+        return asyncUserManager;
+    }
+
+    /**
+     * Obtain the executor the non-blocking endpoints process the results of the user manager on.
+     *
+     * @return
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
     private void registerEndpointURLs() {
         if (endpointURLs != null && endpointURLs.size() != 0) {
             AbstractResourceManager.setEndpointURLMap(endpointURLs);
         }
     }
-}
 
+    /**
+     * Creates the daemon threads of the executor of the non-blocking endpoints.
+     */
+    private static class AsyncThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "charon-async-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
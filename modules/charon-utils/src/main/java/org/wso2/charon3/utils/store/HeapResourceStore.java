@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.store;
+
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.utils.CopyUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the resources on the heap as they are given, and returns deep copies of them.
+ *
+ * @param <T> type of the resources
+ */
+public class HeapResourceStore<T extends AbstractSCIMObject> implements ResourceStore<T> {
+
+    private final ConcurrentHashMap<String, T> resources = new ConcurrentHashMap<>();
+
+    @Override
+    public T get(String id) throws CharonException {
+
+        T resource = resources.get(id);
+        return resource == null ? null : copy(resource);
+    }
+
+    @Override
+    public boolean contains(String id) {
+
+        return resources.containsKey(id);
+    }
+
+    @Override
+    public void put(String id, T resource) {
+
+        resources.put(id, resource);
+    }
+
+    @Override
+    public boolean putIfAbsent(String id, T resource) {
+
+        return resources.putIfAbsent(id, resource) == null;
+    }
+
+    @Override
+    public boolean replace(String id, T resource) {
+
+        return resources.replace(id, resource) != null;
+    }
+
+    @Override
+    public boolean remove(String id) {
+
+        return resources.remove(id) != null;
+    }
+
+    @Override
+    public List<T> values() throws CharonException {
+
+        List<T> values = new ArrayList<>(resources.size());
+        for (T resource : resources.values()) {
+            values.add(copy(resource));
+        }
+        return values;
+    }
+
+    @Override
+    public void forEach(ResourceConsumer<? super T> consumer) throws CharonException {
+
+        for (Map.Entry<String, T> entry : resources.entrySet()) {
+            consumer.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public int size() {
+
+        return resources.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T copy(T resource) throws CharonException {
+
+        return (T) CopyUtil.deepCopy(resource);
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.store;
+
+import org.wso2.charon3.core.encoder.BinaryResourceCodec;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.schema.ResourceTypeSchema;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the resources off the heap, encoded with a {@link BinaryResourceCodec} into direct byte buffers, so that the
+ * heap and the garbage collection pauses do not grow with the number of resources. Only an index from the id of
+ * each resource to the place of its bytes stays on the heap. A resource is decoded each time it is read.
+ * <p>
+ * The bytes are allocated from slabs of a fixed size, a resource larger than a slab getting a buffer of its own.
+ * Replacing or removing a resource leaves a hole in its slab. A slab is reused once all its resources are gone, and
+ * a slab less than half of which is in use is compacted by moving its resources to the slab currently written to.
+ * A few empty slabs are kept for reuse, since the memory of a direct buffer is only released when the buffer is
+ * garbage collected. The direct memory a JVM may allocate is limited by {@code -XX:MaxDirectMemorySize}.
+ * <p>
+ * Reads run concurrently with each other, while writes are serialized. Resources are encoded before the write lock
+ * is taken and decoded while the read lock is held.
+ *
+ * @param <T> type of the resources
+ */
+public class OffHeapResourceStore<T extends AbstractSCIMObject> implements ResourceStore<T> {
+
+    public static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+
+    //number of empty slabs kept for reuse.
+    private static final int MAX_FREE_SLABS = 4;
+    //length of the id and length of the encoded resource, preceding the id and the resource in a record.
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final BinaryResourceCodec codec;
+    private final Supplier<T> factory;
+    private final int slabSize;
+    //id to slab number in the upper and offset in the lower 32 bits. Changed only while the write lock is held.
+    private final ConcurrentHashMap<String, Long> index = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Slab> slabs = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlabNumbers = new ArrayDeque<>();
+    private final ArrayDeque<ByteBuffer> freeBuffers = new ArrayDeque<>();
+    private Slab activeSlab;
+    private long allocatedBytes;
+    private long liveBytes;
+
+    /**
+     * Creates a store with slabs of {@link #DEFAULT_SLAB_SIZE} bytes.
+     *
+     * @param schema  schema of the resources, including the schema extensions in use
+     * @param factory creates the empty resources the stored resources are decoded into
+     */
+    public OffHeapResourceStore(ResourceTypeSchema schema, Supplier<T> factory) {
+
+        this(new BinaryResourceCodec(schema), factory, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a store.
+     *
+     * @param codec    codec the resources are encoded with
+     * @param factory  creates the empty resources the stored resources are decoded into
+     * @param slabSize size of the slabs in bytes
+     */
+    public OffHeapResourceStore(BinaryResourceCodec codec, Supplier<T> factory, int slabSize) {
+
+        if (slabSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Slab size must be larger than " + RECORD_HEADER_SIZE);
+        }
+        this.codec = Objects.requireNonNull(codec, "Codec must not be null");
+        this.factory = Objects.requireNonNull(factory, "Resource factory must not be null");
+        this.slabSize = slabSize;
+    }
+
+    @Override
+    public T get(String id) throws CharonException {
+
+        lock.readLock().lock();
+        try {
+            Long location = index.get(id);
+            return location == null ? null : decode(location);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(String id) {
+
+        return index.containsKey(id);
+    }
+
+    @Override
+    public void put(String id, T resource) throws CharonException {
+
+        Record record = new Record(id, codec.encode(resource));
+        lock.writeLock().lock();
+        try {
+            write(record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void putEncoded(String id, ByteBuffer encoded, BinaryResourceCodec codec, Supplier<? extends T> factory)
+            throws CharonException {
+
+        if (codec.getSchemaFingerprint() != this.codec.getSchemaFingerprint()) {
+            put(id, codec.decode(encoded, factory.get()));
+            return;
+        }
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.duplicate().get(bytes);
+        Record record = new Record(id, bytes);
+        lock.writeLock().lock();
+        try {
+            write(record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(String id, T resource) throws CharonException {
+
+        if (index.containsKey(id)) {
+            return false;
+        }
+        Record record = new Record(id, codec.encode(resource));
+        lock.writeLock().lock();
+        try {
+            if (index.containsKey(id)) {
+                return false;
+            }
+            write(record);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean replace(String id, T resource) throws CharonException {
+
+        if (!index.containsKey(id)) {
+            return false;
+        }
+        Record record = new Record(id, codec.encode(resource));
+        lock.writeLock().lock();
+        try {
+            if (!index.containsKey(id)) {
+                return false;
+            }
+            write(record);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(String id) {
+
+        lock.writeLock().lock();
+        try {
+            Long location = index.remove(id);
+            if (location == null) {
+                return false;
+            }
+            free(location);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> values() throws CharonException {
+
+        lock.readLock().lock();
+        try {
+            List<T> values = new ArrayList<>(index.size());
+            for (Long location : index.values()) {
+                values.add(decode(location));
+            }
+            return values;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(ResourceConsumer<? super T> consumer) throws CharonException {
+
+        // Takes the read lock per resource, so that writes are not blocked for the whole iteration.
+        for (String id : index.keySet()) {
+            T resource = get(id);
+            if (resource != null) {
+                consumer.accept(id, resource);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+
+        return index.size();
+    }
+
+    /**
+     * @return bytes of direct memory held by the store, including the empty slabs kept for reuse
+     */
+    public long getAllocatedBytes() {
+
+        lock.readLock().lock();
+        try {
+            return allocatedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return bytes taken by the stored resources
+     */
+    public long getLiveBytes() {
+
+        lock.readLock().lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private T decode(long location) throws CharonException {
+
+        ByteBuffer buffer = slabs.get(slabNumber(location)).buffer.duplicate();
+        int offset = offset(location);
+        int idLength = buffer.getInt(offset);
+        int length = buffer.getInt(offset + 4);
+        buffer.position(offset + RECORD_HEADER_SIZE + idLength);
+        buffer.limit(buffer.position() + length);
+        return codec.decode(buffer, factory.get());
+    }
+
+    private void write(Record record) {
+
+        Slab slab = allocate(record.size());
+        int offset = slab.used;
+        ByteBuffer buffer = slab.buffer.duplicate();
+        buffer.position(offset);
+        buffer.putInt(record.id.length).putInt(record.resource.length).put(record.id).put(record.resource);
+        slab.used += record.size();
+        slab.live += record.size();
+        liveBytes += record.size();
+
+        Long previous = index.put(record.key, location(slab.number, offset));
+        if (previous != null) {
+            free(previous);
+        }
+    }
+
+    private Slab allocate(int size) {
+
+        if (size > slabSize) {
+            // Never becomes the active slab, hence it is released as soon as its resource is gone.
+            return newSlab(allocateDirect(size));
+        }
+        if (activeSlab == null || activeSlab.used + size > slabSize) {
+            Slab previous = activeSlab;
+            ByteBuffer buffer = freeBuffers.poll();
+            activeSlab = newSlab(buffer != null ? buffer : allocateDirect(slabSize));
+            if (previous != null) {
+                reclaim(previous);
+            }
+        }
+        return activeSlab;
+    }
+
+    private Slab newSlab(ByteBuffer buffer) {
+
+        Integer number = freeSlabNumbers.poll();
+        Slab slab = new Slab(number != null ? number : slabs.size(), buffer);
+        if (number != null) {
+            slabs.set(number, slab);
+        } else {
+            slabs.add(slab);
+        }
+        return slab;
+    }
+
+    private ByteBuffer allocateDirect(int size) {
+
+        allocatedBytes += size;
+        return ByteBuffer.allocateDirect(size);
+    }
+
+    private void free(long location) {
+
+        Slab slab = slabs.get(slabNumber(location));
+        int offset = offset(location);
+        int size = RECORD_HEADER_SIZE + slab.buffer.getInt(offset) + slab.buffer.getInt(offset + 4);
+        slab.live -= size;
+        liveBytes -= size;
+        if (slab != activeSlab) {
+            reclaim(slab);
+        }
+    }
+
+    /*
+     * Releases a slab which is not written to anymore once it is empty, and compacts it once it is mostly empty.
+     */
+    private void reclaim(Slab slab) {
+
+        if (slab.live == 0) {
+            release(slab);
+        } else if (slab.live < slab.used / 2) {
+            compact(slab);
+        }
+    }
+
+    private void compact(Slab slab) {
+
+        ByteBuffer buffer = slab.buffer.duplicate();
+        int offset = 0;
+        while (offset < slab.used) {
+            int idLength = buffer.getInt(offset);
+            int size = RECORD_HEADER_SIZE + idLength + buffer.getInt(offset + 4);
+            byte[] id = new byte[idLength];
+            buffer.position(offset + RECORD_HEADER_SIZE);
+            buffer.get(id);
+            String key = new String(id, StandardCharsets.UTF_8);
+            Long location = location(slab.number, offset);
+            if (location.equals(index.get(key))) {
+                Slab target = allocate(size);
+                ByteBuffer record = slab.buffer.duplicate();
+                record.position(offset).limit(offset + size);
+                ByteBuffer targetBuffer = target.buffer.duplicate();
+                targetBuffer.position(target.used);
+                targetBuffer.put(record);
+                index.replace(key, location, location(target.number, target.used));
+                target.used += size;
+                target.live += size;
+            }
+            offset += size;
+        }
+        release(slab);
+    }
+
+    private void release(Slab slab) {
+
+        slabs.set(slab.number, null);
+        freeSlabNumbers.push(slab.number);
+        if (slab.buffer.capacity() == slabSize && freeBuffers.size() < MAX_FREE_SLABS) {
+            slab.buffer.clear();
+            freeBuffers.push(slab.buffer);
+        } else {
+            allocatedBytes -= slab.buffer.capacity();
+        }
+    }
+
+    private static long location(int slabNumber, int offset) {
+
+        return (long) slabNumber << 32 | offset;
+    }
+
+    private static int slabNumber(long location) {
+
+        return (int) (location >>> 32);
+    }
+
+    private static int offset(long location) {
+
+        return (int) location;
+    }
+
+    /**
+     * A buffer the records are appended to.
+     */
+    private static final class Slab {
+
+        private final int number;
+        private final ByteBuffer buffer;
+        //bytes written to the slab.
+        private int used;
+        //bytes of the records of the slab which are still in the index.
+        private int live;
+
+        private Slab(int number, ByteBuffer buffer) {
+
+            this.number = number;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * An encoded resource together with its id.
+     */
+    private static final class Record {
+
+        private final String key;
+        private final byte[] id;
+        private final byte[] resource;
+
+        private Record(String key, byte[] resource) {
+
+            this.key = key;
+            this.id = key.getBytes(StandardCharsets.UTF_8);
+            this.resource = resource;
+        }
+
+        private int size() {
+
+            return RECORD_HEADER_SIZE + id.length + resource.length;
+        }
+    }
+}
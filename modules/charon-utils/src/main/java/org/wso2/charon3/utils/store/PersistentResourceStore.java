@@ -0,0 +1,816 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.charon3.core.encoder.BinaryResourceCodec;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link ResourceStore} decorator which makes the resources of the store it decorates survive restarts, so that an
+ * in memory user manager can serve as a warm local replica.
+ * <p>
+ * Every change is appended to a write-ahead log before it is applied, and the store is restored on creation from
+ * the latest snapshot plus the log written after it. Once the log written since the last snapshot exceeds the
+ * configured size, a compacted snapshot of the store is written in the background, after which the log it covers is
+ * deleted. Snapshots are written through and read from memory-mapped files, which are unmapped as soon as they are
+ * done with rather than when they are garbage collected. A snapshot is taken while the store is being changed, which
+ * is safe since replaying the log written after it sets every changed resource to its final state again.
+ * <p>
+ * A change torn by a crash can only be at the end of the last log, and is dropped on recovery. A torn change in an
+ * earlier log, or a change missing between two logs, means the files are damaged, and the store refuses to open
+ * rather than replaying the later changes on top of a lost one.
+ * <p>
+ * When changes are synced, a change returns only after the log is forced to the disk. Concurrent changes share a
+ * single force of the log: the first one to wait forces the log for all the changes appended before it. Without
+ * syncing, the changes since the last force of the operating system are lost on a crash, but not on a restart.
+ * <p>
+ * Resources are written with a {@link BinaryResourceCodec}, and a store refuses to open files written with another
+ * schema, which then have to be deleted and the store filled again from the upstream directory. The directory must
+ * not be shared by other stores.
+ *
+ * @param <T> type of the resources
+ */
+public class PersistentResourceStore<T extends AbstractSCIMObject> implements ResourceStore<T>, Closeable {
+
+    public static final long DEFAULT_SNAPSHOT_LOG_SIZE = 64L * 1024 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentResourceStore.class);
+
+    //releases the memory of a mapped buffer, null if the JVM has no way to, when the buffers are left to the GC.
+    private static final MethodHandle UNMAPPER = findUnmapper();
+
+    private static final int LOG_MAGIC = 0x53434C47;
+    private static final int SNAPSHOT_MAGIC = 0x5343534E;
+    private static final int FORMAT_VERSION = 1;
+    //magic, version and schema fingerprint.
+    private static final int FILE_HEADER_SIZE = 16;
+    //length and checksum of the body of a log record.
+    private static final int LOG_RECORD_HEADER_SIZE = 8;
+    //sequence, operation and id length, preceding the id and the resource in the body of a log record.
+    private static final int LOG_RECORD_BODY_HEADER_SIZE = 13;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int END_OF_SNAPSHOT = -1;
+    private static final int MAPPED_WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final String LOG_PREFIX = "wal-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+
+    private final ResourceStore<T> store;
+    private final BinaryResourceCodec codec;
+    private final Supplier<T> factory;
+    private final Path directory;
+    private final boolean syncChanges;
+    private final long snapshotLogSize;
+
+    //guards appending to the log together with applying the change to the store, so that both see the same order.
+    private final ReentrantLock appendLock = new ReentrantLock();
+    //held while the log is forced or rolled over. Taken before the append lock.
+    private final Object syncLock = new Object();
+    //held while a snapshot is taken.
+    private final Object snapshotLock = new Object();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final ExecutorService snapshotExecutor;
+    private FileChannel log;
+    private volatile long logSize;
+    private long lastSequence;
+    //sequence the latest snapshot covers. Guarded by the snapshot lock.
+    private long snapshotSequence;
+    private volatile long syncedSequence;
+    private volatile boolean closed;
+
+    /**
+     * Opens a store which syncs every change and takes a snapshot after {@link #DEFAULT_SNAPSHOT_LOG_SIZE} bytes of
+     * log.
+     *
+     * @param store     store the resources are kept in while the store is open, which should be empty
+     * @param codec     codec the resources are written with
+     * @param factory   creates the empty resources the written resources are read into
+     * @param directory directory the log and the snapshots are kept in, created if it does not exist
+     * @throws CharonException if the files of the directory can not be read
+     */
+    public PersistentResourceStore(ResourceStore<T> store, BinaryResourceCodec codec, Supplier<T> factory,
+                                   Path directory) throws CharonException {
+
+        this(store, codec, factory, directory, true, DEFAULT_SNAPSHOT_LOG_SIZE);
+    }
+
+    /**
+     * Opens a store, restoring the resources from the directory into the given store.
+     *
+     * @param store           store the resources are kept in while the store is open, which should be empty
+     * @param codec           codec the resources are written with
+     * @param factory         creates the empty resources the written resources are read into
+     * @param directory       directory the log and the snapshots are kept in, created if it does not exist
+     * @param syncChanges     whether a change returns only after it is forced to the disk
+     * @param snapshotLogSize size of the log after which a snapshot is taken in the background. Zero or a negative
+     *                        value leaves taking snapshots to {@link #snapshot()}.
+     * @throws CharonException if the files of the directory can not be read
+     */
+    public PersistentResourceStore(ResourceStore<T> store, BinaryResourceCodec codec, Supplier<T> factory,
+                                   Path directory, boolean syncChanges, long snapshotLogSize)
+            throws CharonException {
+
+        this.store = Objects.requireNonNull(store, "Store must not be null");
+        this.codec = Objects.requireNonNull(codec, "Codec must not be null");
+        this.factory = Objects.requireNonNull(factory, "Resource factory must not be null");
+        this.directory = Objects.requireNonNull(directory, "Directory must not be null");
+        this.syncChanges = syncChanges;
+        this.snapshotLogSize = snapshotLogSize;
+        try {
+            Files.createDirectories(directory);
+            recover();
+            log = openLog(lastSequence + 1);
+        } catch (IOException e) {
+            throw new CharonException("Error while restoring the resources from " + directory, e);
+        }
+        syncedSequence = lastSequence;
+        snapshotExecutor = snapshotLogSize > 0 ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "charon-snapshot-" + directory.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    @Override
+    public T get(String id) throws CharonException {
+
+        return store.get(id);
+    }
+
+    @Override
+    public boolean contains(String id) {
+
+        return store.contains(id);
+    }
+
+    @Override
+    public void put(String id, T resource) throws CharonException {
+
+        byte[] encoded = codec.encode(resource);
+        long sequence;
+        appendLock.lock();
+        try {
+            sequence = append(PUT, id, encoded);
+            store.put(id, resource);
+        } finally {
+            appendLock.unlock();
+        }
+        appended(sequence);
+    }
+
+    @Override
+    public boolean putIfAbsent(String id, T resource) throws CharonException {
+
+        byte[] encoded = codec.encode(resource);
+        long sequence;
+        appendLock.lock();
+        try {
+            if (store.contains(id)) {
+                return false;
+            }
+            sequence = append(PUT, id, encoded);
+            store.put(id, resource);
+        } finally {
+            appendLock.unlock();
+        }
+        appended(sequence);
+        return true;
+    }
+
+    @Override
+    public boolean replace(String id, T resource) throws CharonException {
+
+        byte[] encoded = codec.encode(resource);
+        long sequence;
+        appendLock.lock();
+        try {
+            if (!store.contains(id)) {
+                return false;
+            }
+            sequence = append(PUT, id, encoded);
+            store.put(id, resource);
+        } finally {
+            appendLock.unlock();
+        }
+        appended(sequence);
+        return true;
+    }
+
+    @Override
+    public boolean remove(String id) throws CharonException {
+
+        long sequence;
+        appendLock.lock();
+        try {
+            if (!store.contains(id)) {
+                return false;
+            }
+            sequence = append(REMOVE, id, null);
+            store.remove(id);
+        } finally {
+            appendLock.unlock();
+        }
+        appended(sequence);
+        return true;
+    }
+
+    @Override
+    public List<T> values() throws CharonException {
+
+        return store.values();
+    }
+
+    @Override
+    public void forEach(ResourceConsumer<? super T> consumer) throws CharonException {
+
+        store.forEach(consumer);
+    }
+
+    @Override
+    public int size() {
+
+        return store.size();
+    }
+
+    /**
+     * Forces the changes made so far to the disk.
+     *
+     * @throws CharonException if the log can not be forced
+     */
+    public void sync() throws CharonException {
+
+        long sequence;
+        appendLock.lock();
+        try {
+            sequence = lastSequence;
+        } finally {
+            appendLock.unlock();
+        }
+        sync(sequence);
+    }
+
+    /**
+     * Writes a snapshot of the store and deletes the log it covers.
+     *
+     * @throws CharonException if the snapshot can not be written
+     */
+    public void snapshot() throws CharonException {
+
+        synchronized (snapshotLock) {
+            long sequence;
+            try {
+                synchronized (syncLock) {
+                    appendLock.lock();
+                    try {
+                        checkOpen();
+                        if (lastSequence == snapshotSequence) {
+                            return;
+                        }
+                        // The changes up to the sequence are in the store, hence in the snapshot.
+                        sequence = lastSequence;
+                        log.force(false);
+                        log.close();
+                        log = openLog(sequence + 1);
+                        logSize = 0;
+                        syncedSequence = sequence;
+                    } finally {
+                        appendLock.unlock();
+                    }
+                }
+                writeSnapshot(sequence);
+                snapshotSequence = sequence;
+                deleteFilesBefore(sequence);
+            } catch (IOException e) {
+                throw new CharonException("Error while writing a snapshot to " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Waits for a snapshot in progress, forces the log to the disk and closes it. The store it decorates is left
+     * open.
+     *
+     * @throws IOException if the log can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+            try {
+                snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (syncLock) {
+            appendLock.lock();
+            try {
+                if (!closed) {
+                    closed = true;
+                    log.force(false);
+                    log.close();
+                    syncedSequence = lastSequence;
+                }
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    /*
+     * Called with the append lock held.
+     */
+    private long append(byte operation, String id, byte[] resource) throws CharonException {
+
+        checkOpen();
+        long sequence = lastSequence + 1;
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = LOG_RECORD_BODY_HEADER_SIZE + idBytes.length + (resource == null ? 0 : resource.length);
+        ByteBuffer record = ByteBuffer.allocate(LOG_RECORD_HEADER_SIZE + bodyLength);
+        record.putInt(bodyLength).putInt(0).putLong(sequence).put(operation).putInt(idBytes.length).put(idBytes);
+        if (resource != null) {
+            record.put(resource);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(record.array(), LOG_RECORD_HEADER_SIZE, bodyLength);
+        record.putInt(4, (int) checksum.getValue());
+        record.flip();
+        try {
+            while (record.hasRemaining()) {
+                log.write(record);
+            }
+        } catch (IOException e) {
+            throw new CharonException("Error while writing to the log in " + directory, e);
+        }
+        logSize += record.limit();
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    private void appended(long sequence) throws CharonException {
+
+        if (syncChanges) {
+            sync(sequence);
+        }
+        if (snapshotExecutor != null && !closed && logSize > snapshotLogSize &&
+                snapshotScheduled.compareAndSet(false, true)) {
+            snapshotExecutor.execute(() -> {
+                try {
+                    snapshot();
+                } catch (CharonException e) {
+                    logger.error("Error while taking a snapshot of the resources in " + directory, e);
+                } finally {
+                    snapshotScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private void sync(long sequence) throws CharonException {
+
+        if (syncedSequence >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            // Another change may have forced the log meanwhile.
+            if (syncedSequence >= sequence) {
+                return;
+            }
+            FileChannel channel;
+            long target;
+            appendLock.lock();
+            try {
+                checkOpen();
+                channel = log;
+                target = lastSequence;
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new CharonException("Error while forcing the log in " + directory + " to the disk", e);
+            }
+            syncedSequence = target;
+        }
+    }
+
+    private void checkOpen() throws CharonException {
+
+        if (closed) {
+            throw new CharonException("The resource store is closed.");
+        }
+    }
+
+    /*
+     * A log of the given first sequence which already exists holds no change, since the changes before the sequence
+     * are in the store.
+     */
+    private FileChannel openLog(long firstSequence) throws IOException {
+
+        FileChannel channel = FileChannel.open(directory.resolve(fileName(LOG_PREFIX, firstSequence, LOG_SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(LOG_MAGIC).putInt(FORMAT_VERSION).putLong(codec.getSchemaFingerprint()).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        return channel;
+    }
+
+    private void recover() throws IOException, CharonException {
+
+        TreeMap<Long, Path> snapshots = listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (!snapshots.isEmpty()) {
+            lastSequence = snapshots.lastKey();
+            snapshotSequence = lastSequence;
+            readSnapshot(snapshots.lastEntry().getValue());
+        }
+        Iterator<Path> logFiles = listFiles(LOG_PREFIX, LOG_SUFFIX).values().iterator();
+        while (logFiles.hasNext()) {
+            replay(logFiles.next(), !logFiles.hasNext());
+        }
+    }
+
+    private void readSnapshot(Path snapshot) throws IOException, CharonException {
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ);
+             MappedReader reader = new MappedReader(channel)) {
+            readHeader(reader, SNAPSHOT_MAGIC, snapshot);
+            long count = 0;
+            while (true) {
+                int idLength = reader.buffer(4).getInt();
+                if (idLength == END_OF_SNAPSHOT) {
+                    break;
+                }
+                String id = readString(reader, idLength);
+                int length = reader.buffer(4).getInt();
+                store.putEncoded(id, slice(reader.buffer(length), length), codec, factory);
+                count++;
+            }
+            if (reader.buffer(8).getLong() != count) {
+                throw new CharonException("The snapshot " + snapshot + " is corrupted.");
+            }
+        }
+    }
+
+    /*
+     * Replays a log. A torn change at the end of the last log is cut off, since it was never acknowledged. So is a
+     * last log without a complete header, which was being opened when the process stopped and holds no change.
+     */
+    private void replay(Path logFile, boolean lastLog) throws IOException, CharonException {
+
+        if (lastLog && Files.size(logFile) < FILE_HEADER_SIZE) {
+            logger.warn("Deleting the log " + logFile + ", whose header is incomplete.");
+            Files.delete(logFile);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             MappedReader reader = new MappedReader(channel)) {
+            readHeader(reader, LOG_MAGIC, logFile);
+            CRC32 checksum = new CRC32();
+            while (reader.position < reader.size) {
+                long recordStart = reader.position;
+                ByteBuffer body = null;
+                if (reader.size - recordStart >= LOG_RECORD_HEADER_SIZE) {
+                    ByteBuffer header = reader.buffer(LOG_RECORD_HEADER_SIZE);
+                    int length = header.getInt();
+                    int expectedChecksum = header.getInt();
+                    if (length >= LOG_RECORD_BODY_HEADER_SIZE && length <= reader.size - reader.position) {
+                        body = slice(reader.buffer(length), length);
+                        checksum.reset();
+                        checksum.update(body.duplicate());
+                        if ((int) checksum.getValue() != expectedChecksum) {
+                            body = null;
+                        }
+                    }
+                }
+                if (body == null) {
+                    if (!lastLog) {
+                        throw new CharonException("The log " + logFile + " is corrupted at " + recordStart +
+                                ", before the changes of the logs written after it.");
+                    }
+                    // A change torn by a crash, which was not acknowledged.
+                    logger.warn("Dropping the end of the log " + logFile + " from " + recordStart);
+                    reader.close();
+                    channel.truncate(recordStart);
+                    return;
+                }
+                apply(body, logFile);
+            }
+        }
+    }
+
+    private void apply(ByteBuffer body, Path logFile) throws CharonException {
+
+        long sequence = body.getLong();
+        byte operation = body.get();
+        byte[] id = new byte[body.getInt()];
+        body.get(id);
+        if (sequence <= lastSequence) {
+            // Already in the snapshot.
+            return;
+        }
+        if (sequence != lastSequence + 1) {
+            throw new CharonException("The changes " + (lastSequence + 1) + " to " + (sequence - 1) +
+                    " are missing before the log " + logFile + ".");
+        }
+        lastSequence = sequence;
+        String key = new String(id, StandardCharsets.UTF_8);
+        if (operation == PUT) {
+            store.putEncoded(key, body.slice(), codec, factory);
+        } else if (operation == REMOVE) {
+            store.remove(key);
+        } else {
+            throw new CharonException("Unknown operation " + operation + " in the log in " + directory);
+        }
+    }
+
+    private void writeSnapshot(long sequence) throws IOException, CharonException {
+
+        Path snapshot = directory.resolve(fileName(SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(snapshot.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             MappedWriter writer = new MappedWriter(channel)) {
+            writer.buffer(FILE_HEADER_SIZE).putInt(SNAPSHOT_MAGIC).putInt(FORMAT_VERSION)
+                    .putLong(codec.getSchemaFingerprint());
+            long[] count = new long[1];
+            store.forEach((id, resource) -> {
+                byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+                byte[] encoded = codec.encode(resource);
+                writer.buffer(8 + idBytes.length + encoded.length).putInt(idBytes.length).put(idBytes)
+                        .putInt(encoded.length).put(encoded);
+                count[0]++;
+            });
+            writer.buffer(12).putInt(END_OF_SNAPSHOT).putLong(count[0]);
+            writer.finish();
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /*
+     * Deletes the snapshots before the given one and the logs it covers, i.e. all but the log written to.
+     */
+    private void deleteFilesBefore(long sequence) throws IOException {
+
+        for (Path snapshot : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(sequence).values()) {
+            Files.delete(snapshot);
+        }
+        for (Path logFile : listFiles(LOG_PREFIX, LOG_SUFFIX).headMap(sequence + 1).values()) {
+            Files.delete(logFile);
+        }
+    }
+
+    private void readHeader(MappedReader reader, int magic, Path file) throws IOException, CharonException {
+
+        ByteBuffer header = reader.buffer(FILE_HEADER_SIZE);
+        if (header.getInt() != magic || header.getInt() != FORMAT_VERSION) {
+            throw new CharonException(file + " is not a resource store file of a known format.");
+        }
+        if (header.getLong() != codec.getSchemaFingerprint()) {
+            throw new CharonException(file + " was written with a different schema.");
+        }
+    }
+
+    private TreeMap<Long, Path> listFiles(String prefix, String suffix) throws IOException {
+
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : stream) {
+                String name = String.valueOf(file.getFileName());
+                try {
+                    files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), file);
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring " + file + " in the resource store directory.");
+                }
+            }
+        }
+        return files;
+    }
+
+    private static String fileName(String prefix, long sequence, String suffix) {
+
+        // Padded, so that the files sort by their sequence.
+        return String.format("%s%020d%s", prefix, sequence, suffix);
+    }
+
+    private static String readString(MappedReader reader, int length) throws IOException {
+
+        byte[] bytes = new byte[length];
+        reader.buffer(length).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int length) {
+
+        ByteBuffer slice = buffer.slice();
+        slice.limit(length);
+        buffer.position(buffer.position() + length);
+        return slice;
+    }
+
+    /*
+     * Releases the memory of a mapped buffer, which must not be used afterwards.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+
+        if (buffer == null || UNMAPPER == null) {
+            return;
+        }
+        try {
+            UNMAPPER.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            logger.debug("Error while unmapping a buffer, leaving it to the garbage collector.", e);
+        }
+    }
+
+    /*
+     * A mapped buffer is otherwise unmapped only when it is garbage collected, which may be long after the file is
+     * closed or deleted. Java 9 and later unmap through Unsafe.invokeCleaner, Java 8 through the cleaner of the
+     * buffer.
+     */
+    private static MethodHandle findUnmapper() {
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            MethodHandle invokeCleaner = lookup.findVirtual(unsafeClass, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class));
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return invokeCleaner.bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not Java 9 or later.
+        }
+        try {
+            Class<?> directBuffer = Class.forName("sun.nio.ch.DirectBuffer");
+            Class<?> cleaner = Class.forName("sun.misc.Cleaner");
+            MethodHandle getCleaner = lookup.findVirtual(directBuffer, "cleaner", MethodType.methodType(cleaner));
+            MethodHandle clean = lookup.findVirtual(cleaner, "clean", MethodType.methodType(void.class));
+            return MethodHandles.filterReturnValue(getCleaner, clean)
+                    .asType(MethodType.methodType(void.class, ByteBuffer.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Mapped buffers can not be unmapped, leaving them to the garbage collector.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads a file through memory-mapped windows, so that files larger than a buffer can be read.
+     */
+    private static final class MappedReader implements Closeable {
+
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+
+        private MappedReader(FileChannel channel) throws IOException {
+
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        /*
+         * Returns a buffer positioned at the current position with at least the given number of bytes remaining, and
+         * moves the current position past them.
+         */
+        private ByteBuffer buffer(int length) throws IOException {
+
+            if (length < 0 || length > size - position) {
+                throw new IOException("Unexpected end of " + channel);
+            }
+            if (window == null || position + length > windowStart + window.limit()) {
+                unmap(window);
+                window = null;
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(size - position, Math.max(MAPPED_WINDOW_SIZE, length)));
+            }
+            window.position((int) (position - windowStart));
+            position += length;
+            return window;
+        }
+
+        /*
+         * Unmaps the current window, after which the buffers returned before must not be used.
+         */
+        @Override
+        public void close() {
+
+            unmap(window);
+            window = null;
+        }
+    }
+
+    /**
+     * Writes a file through memory-mapped windows, growing the file a window at a time.
+     */
+    private static final class MappedWriter implements Closeable {
+
+        private final FileChannel channel;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        private MappedWriter(FileChannel channel) {
+
+            this.channel = channel;
+        }
+
+        private ByteBuffer buffer(int length) throws CharonException {
+
+            if (window == null || window.remaining() < length) {
+                try {
+                    long position = position();
+                    if (window != null) {
+                        window.force();
+                        unmap(window);
+                        window = null;
+                    }
+                    windowStart = position;
+                    window = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                            Math.max(MAPPED_WINDOW_SIZE, length));
+                } catch (IOException e) {
+                    throw new CharonException("Error while growing the snapshot file.", e);
+                }
+            }
+            return window;
+        }
+
+        private long position() {
+
+            return window == null ? 0 : windowStart + window.position();
+        }
+
+        /*
+         * Forces the written bytes to the disk and cuts the unwritten end of the last window off the file.
+         */
+        private void finish() throws IOException {
+
+            long position = position();
+            window.force();
+            close();
+            channel.truncate(position);
+            channel.force(true);
+        }
+
+        @Override
+        public void close() {
+
+            unmap(window);
+            window = null;
+        }
+    }
+}
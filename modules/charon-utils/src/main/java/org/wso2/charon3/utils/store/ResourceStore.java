@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.store;
+
+import org.wso2.charon3.core.encoder.BinaryResourceCodec;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the resources of one type by their id, for the in memory user manager.
+ * <p>
+ * A store takes over the resources given to it, hence the caller must not change a resource after storing it. The
+ * resources a store returns are copies, which the caller may change freely. Implementations are thread safe.
+ *
+ * @param <T> type of the resources
+ */
+public interface ResourceStore<T extends AbstractSCIMObject> {
+
+    /**
+     * @param id id of the resource
+     * @return copy of the resource, null if there is no resource with the id
+     * @throws CharonException if the resource can not be read
+     */
+    T get(String id) throws CharonException;
+
+    /**
+     * @param id id of the resource
+     * @return whether there is a resource with the id
+     */
+    boolean contains(String id);
+
+    /**
+     * Stores a resource, replacing the resource with the same id if there is one.
+     *
+     * @param id       id of the resource
+     * @param resource resource
+     * @throws CharonException if the resource can not be stored
+     */
+    void put(String id, T resource) throws CharonException;
+
+    /**
+     * Stores a resource encoded with the given codec, replacing the resource with the same id if there is one. Stores
+     * which keep the resources encoded with the same codec take the bytes as they are, the others decode them.
+     *
+     * @param id      id of the resource
+     * @param encoded encoded resource, from its position to its limit, which may only be read during the call
+     * @param codec   codec the resource was encoded with
+     * @param factory creates the empty resource the resource is decoded into
+     * @throws CharonException if the resource can not be decoded or stored
+     */
+    default void putEncoded(String id, ByteBuffer encoded, BinaryResourceCodec codec, Supplier<? extends T> factory)
+            throws CharonException {
+
+        put(id, codec.decode(encoded, factory.get()));
+    }
+
+    /**
+     * Stores a resource unless there is a resource with the same id.
+     *
+     * @param id       id of the resource
+     * @param resource resource
+     * @return whether the resource was stored
+     * @throws CharonException if the resource can not be stored
+     */
+    boolean putIfAbsent(String id, T resource) throws CharonException;
+
+    /**
+     * Replaces the resource with the same id, if there is one.
+     *
+     * @param id       id of the resource
+     * @param resource resource
+     * @return whether the resource was replaced
+     * @throws CharonException if the resource can not be stored
+     */
+    boolean replace(String id, T resource) throws CharonException;
+
+    /**
+     * @param id id of the resource
+     * @return whether there was a resource with the id
+     * @throws CharonException if the removal can not be recorded
+     */
+    boolean remove(String id) throws CharonException;
+
+    /**
+     * @return copies of all the resources, in no particular order
+     * @throws CharonException if the resources can not be read
+     */
+    List<T> values() throws CharonException;
+
+    /**
+     * Passes each resource to the consumer, in no particular order, without holding the resources all at once.
+     * Resources stored or removed meanwhile may or may not be passed. The consumer must not change the resources.
+     *
+     * @param consumer consumer of the resources
+     * @throws CharonException if a resource can not be read or the consumer fails
+     */
+    void forEach(ResourceConsumer<? super T> consumer) throws CharonException;
+
+    /**
+     * @return number of resources in the store
+     */
+    int size();
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.store;
+
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConflictException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.ResourceTypeSchema;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexes the attributes a resource schema declares with server or global uniqueness, by their URI.
+ * <p>
+ * Each attribute has a map from its values to the id of the resource holding them, so whether a value is taken is a
+ * single lookup. Values of attributes which are not case exact are indexed case folded. Only singular simple
+ * attributes are indexed, including those of singular complex attributes and schema extensions. The id is left out,
+ * since the store already keeps the resources by it.
+ *
+ * @param <T> type of the resources
+ */
+public class SchemaUniquenessIndex<T extends AbstractSCIMObject> implements UniquenessIndex<T> {
+
+    private final List<UniqueAttribute> attributes;
+
+    /**
+     * @param schema schema of the resources, including the schema extensions in use
+     */
+    public SchemaUniquenessIndex(ResourceTypeSchema schema) {
+
+        List<UniqueAttribute> uniqueAttributes = new ArrayList<>();
+        for (AttributeSchema attributeSchema : schema.getAttributesList()) {
+            collect(attributeSchema, new ArrayList<>(), uniqueAttributes);
+        }
+        this.attributes = Collections.unmodifiableList(uniqueAttributes);
+    }
+
+    @Override
+    public void add(String id, T resource) throws ConflictException, CharonException {
+
+        take(id, values(resource));
+    }
+
+    @Override
+    public void update(String id, T previous, T resource) throws ConflictException, CharonException {
+
+        String[] values = values(resource);
+        String[] previousValues = values(previous);
+        take(id, values);
+        for (int i = 0; i < attributes.size(); i++) {
+            if (previousValues[i] != null && !previousValues[i].equals(values[i])) {
+                attributes.get(i).owners.remove(previousValues[i], id);
+            }
+        }
+    }
+
+    @Override
+    public void remove(String id, T resource) throws CharonException {
+
+        String[] values = values(resource);
+        for (int i = 0; i < attributes.size(); i++) {
+            if (values[i] != null) {
+                attributes.get(i).owners.remove(values[i], id);
+            }
+        }
+    }
+
+    /*
+     * Takes the values for the resource, giving up the ones it has taken if another resource holds one of them.
+     * Values the resource already holds are left to it either way.
+     */
+    private void take(String id, String[] values) throws ConflictException {
+
+        boolean[] taken = new boolean[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            UniqueAttribute attribute = attributes.get(i);
+            String owner = attribute.owners.putIfAbsent(values[i], id);
+            if (owner == null) {
+                taken[i] = true;
+            } else if (!owner.equals(id)) {
+                for (int j = 0; j < i; j++) {
+                    if (taken[j]) {
+                        attributes.get(j).owners.remove(values[j], id);
+                    }
+                }
+                throw new ConflictException("A resource with the same " + attribute.uri + " already exists.",
+                        ResponseCodeConstants.UNIQUENESS);
+            }
+        }
+    }
+
+    private String[] values(T resource) throws CharonException {
+
+        String[] values = new String[attributes.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = attributes.get(i).valueOf(resource);
+        }
+        return values;
+    }
+
+    private static void collect(AttributeSchema attributeSchema, List<String> parentPath,
+                                List<UniqueAttribute> uniqueAttributes) {
+
+        if (attributeSchema.getMultiValued()) {
+            return;
+        }
+        List<String> path = new ArrayList<>(parentPath);
+        path.add(attributeSchema.getName());
+        if (attributeSchema.getType() == SCIMDefinitions.DataType.COMPLEX) {
+            if (attributeSchema.getSubAttributeSchemas() != null) {
+                for (AttributeSchema subAttributeSchema : attributeSchema.getSubAttributeSchemas()) {
+                    collect(subAttributeSchema, path, uniqueAttributes);
+                }
+            }
+        } else if ((attributeSchema.getUniqueness() == SCIMDefinitions.Uniqueness.SERVER ||
+                attributeSchema.getUniqueness() == SCIMDefinitions.Uniqueness.GLOBAL) &&
+                !SCIMConstants.CommonSchemaConstants.ID_URI.equals(attributeSchema.getURI())) {
+            uniqueAttributes.add(new UniqueAttribute(attributeSchema.getURI(), path.toArray(new String[0]),
+                    attributeSchema.getCaseExact()));
+        }
+    }
+
+    /*
+     * Folds the case of each character the way Unicode simple case folding does for most of them, so that values
+     * which only differ in case are indexed the same.
+     */
+    private static String foldCase(String value) {
+
+        StringBuilder folded = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+            i += Character.charCount(codePoint);
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Attribute which has to be unique, with the values taken by the resources.
+     */
+    private static final class UniqueAttribute {
+
+        private final String uri;
+        private final String[] path;
+        private final boolean caseExact;
+        private final ConcurrentHashMap<String, String> owners = new ConcurrentHashMap<>();
+
+        private UniqueAttribute(String uri, String[] path, boolean caseExact) {
+
+            this.uri = uri;
+            this.path = path;
+            this.caseExact = caseExact;
+        }
+
+        /*
+         * Returns the indexed form of the value the resource has for the attribute, null if it has none.
+         */
+        private String valueOf(AbstractSCIMObject resource) throws CharonException {
+
+            Attribute attribute = resource.getAttribute(path[0]);
+            for (int i = 1; i < path.length; i++) {
+                if (!(attribute instanceof ComplexAttribute)) {
+                    return null;
+                }
+                attribute = ((ComplexAttribute) attribute).getSubAttribute(path[i]);
+            }
+            if (!(attribute instanceof SimpleAttribute)) {
+                return null;
+            }
+            Object value = ((SimpleAttribute) attribute).getValue();
+            if (value == null) {
+                return null;
+            }
+            return caseExact ? String.valueOf(value) : foldCase(String.valueOf(value));
+        }
+    }
+}
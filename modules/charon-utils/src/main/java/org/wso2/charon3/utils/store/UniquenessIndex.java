@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.store;
+
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConflictException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+
+/**
+ * Keeps the values of the attributes which have to be unique among the resources of one type, so that the in memory
+ * user manager can tell whether a value is taken without looking at the other resources.
+ * <p>
+ * The user manager updates the index together with the store, while it holds the lock of the resource, hence only
+ * the index decides between resources which take the same value at the same time. Implementations are thread safe.
+ *
+ * @param <T> type of the resources
+ */
+public interface UniquenessIndex<T extends AbstractSCIMObject> {
+
+    /**
+     * Takes the unique values of a new resource for it. Either all of them are taken, or none.
+     *
+     * @param id       id of the resource
+     * @param resource resource
+     * @throws ConflictException if another resource holds one of the values
+     * @throws CharonException   if the values can not be read from the resource
+     */
+    void add(String id, T resource) throws ConflictException, CharonException;
+
+    /**
+     * Takes the unique values of an updated resource for it, and gives up those of the resource it replaces which it
+     * no longer has. Either all the values are taken, or the index is left as it was.
+     *
+     * @param id       id of the resource
+     * @param previous resource which is replaced
+     * @param resource updated resource
+     * @throws ConflictException if another resource holds one of the values
+     * @throws CharonException   if the values can not be read from the resources
+     */
+    void update(String id, T previous, T resource) throws ConflictException, CharonException;
+
+    /**
+     * Gives up the unique values of a resource which is deleted.
+     *
+     * @param id       id of the resource
+     * @param resource resource
+     * @throws CharonException if the values can not be read from the resource
+     */
+    void remove(String id, T resource) throws CharonException;
+}
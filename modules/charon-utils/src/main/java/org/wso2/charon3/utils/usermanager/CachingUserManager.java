@@ -0,0 +1,588 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.usermanager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.encoder.BinaryResourceCodec;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConflictException;
+import org.wso2.charon3.core.exceptions.NotFoundException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.AttributeChangeSet;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.ResourceTypeSchema;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+import org.wso2.charon3.core.utils.BoundedCache;
+import org.wso2.charon3.core.utils.codeutils.Node;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.SearchRequest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link UserManager} decorator which serves repeated reads of users and groups from a bounded in-memory cache.
+ * <p>
+ * Snapshots are cached by resource id together with the required attributes they were fetched with, and a lookup
+ * is only served from the cache when it asks for the same attributes. Every write going through this manager
+ * invalidates the affected entries. Since the groups attribute of a user is derived from group membership, group
+ * writes also invalidate the cached members and user deletions invalidate the cached groups. A read which raced with
+ * a write of the same resource does not leave the snapshot it read in the cache, hence an invalidated resource is
+ * never served again from a snapshot taken before the write.
+ * <p>
+ * Snapshots are kept encoded with a {@link BinaryResourceCodec}, and every lookup served from the cache decodes a
+ * fresh copy which the caller is free to modify. Attributes outside the schemas the codecs are created with are
+ * cached as well, only less compactly.
+ * <p>
+ * Writes made directly to the underlying store are not seen until the entry is evicted, so a time to live should be
+ * configured when the store is shared with other writers.
+ */
+public class CachingUserManager implements UserManager {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final Logger log = LoggerFactory.getLogger(CachingUserManager.class);
+
+    private final UserManager userManager;
+    private final BoundedCache<String, CachedResource> userCache;
+    private final BoundedCache<String, CachedResource> groupCache;
+    private final Generations userGenerations = new Generations();
+    private final Generations groupGenerations = new Generations();
+    private final BinaryResourceCodec userCodec;
+    private final BinaryResourceCodec groupCodec;
+
+    /**
+     * Creates a caching user manager which keeps up to {@link #DEFAULT_MAX_ENTRIES} users and groups each, without
+     * expiry.
+     *
+     * @param userManager user manager to which all calls are delegated
+     */
+    public CachingUserManager(UserManager userManager) {
+
+        this(userManager, DEFAULT_MAX_ENTRIES, 0);
+    }
+
+    /**
+     * Creates a caching user manager.
+     *
+     * @param userManager      user manager to which all calls are delegated
+     * @param maxEntries       maximum number of users and of groups kept in the cache
+     * @param timeToLiveMillis time after which a cached resource is re-read from the user manager. Zero or a negative
+     *                         value disables expiry.
+     */
+    public CachingUserManager(UserManager userManager, int maxEntries, long timeToLiveMillis) {
+
+        this(userManager, maxEntries, timeToLiveMillis, SCIMResourceSchemaManager.getInstance().getUserResourceSchema(),
+                SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA);
+    }
+
+    /**
+     * Creates a caching user manager which encodes the cached users and groups with the given schemas.
+     *
+     * @param userManager      user manager to which all calls are delegated
+     * @param maxEntries       maximum number of users and of groups kept in the cache
+     * @param timeToLiveMillis time after which a cached resource is re-read from the user manager. Zero or a negative
+     *                         value disables expiry.
+     * @param userSchema       user schema, including the schema extensions in use
+     * @param groupSchema      group schema
+     */
+    public CachingUserManager(UserManager userManager, int maxEntries, long timeToLiveMillis,
+                              ResourceTypeSchema userSchema, ResourceTypeSchema groupSchema) {
+
+        this.userManager = Objects.requireNonNull(userManager, "User manager must not be null");
+        this.userCache = new BoundedCache<>(maxEntries, timeToLiveMillis);
+        this.groupCache = new BoundedCache<>(maxEntries, timeToLiveMillis);
+        this.userCodec = new BinaryResourceCodec(Objects.requireNonNull(userSchema, "User schema must not be null"));
+        this.groupCodec = new BinaryResourceCodec(Objects.requireNonNull(groupSchema,
+                "Group schema must not be null"));
+    }
+
+    /**
+     * @return the user manager to which this manager delegates
+     */
+    public UserManager getUserManager() {
+
+        return userManager;
+    }
+
+    /**
+     * @return cache holding the user snapshots, for monitoring hit, miss and eviction counts
+     */
+    public BoundedCache<String, ?> getUserCache() {
+
+        return userCache;
+    }
+
+    /**
+     * @return cache holding the group snapshots, for monitoring hit, miss and eviction counts
+     */
+    public BoundedCache<String, ?> getGroupCache() {
+
+        return groupCache;
+    }
+
+    /***************User Manipulation operations.*******************/
+
+    @Override
+    public User createUser(User user, Map<String, Boolean> requiredAttributes)
+            throws CharonException, ConflictException, BadRequestException {
+
+        return userManager.createUser(user, requiredAttributes);
+    }
+
+    @Override
+    public User getUser(String id, Map<String, Boolean> requiredAttributes)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        CachedResource cachedUser = userCache.get(id);
+        if (cachedUser != null && cachedUser.isFetchedWith(requiredAttributes)) {
+            return userCodec.decode(cachedUser.encoded, new User());
+        }
+        long generation = userGenerations.get(id);
+        User user = userManager.getUser(id, requiredAttributes);
+        if (user != null) {
+            cache(userCache, userGenerations, userCodec, id, generation, user, requiredAttributes);
+        }
+        return user;
+    }
+
+    @Override
+    public void deleteUser(String userId)
+            throws NotFoundException, CharonException, NotImplementedException, BadRequestException {
+
+        try {
+            userManager.deleteUser(userId);
+        } finally {
+            invalidateUser(userId);
+            invalidateAllGroups();
+        }
+    }
+
+    @Override
+    public List<Object> listUsersWithGET(Node node, Integer startIndex, Integer count, String sortBy,
+                                         String sortOrder, String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listUsersWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                requiredAttributes);
+    }
+
+    @Override
+    @Deprecated
+    public List<Object> listUsersWithGET(Node node, int startIndex, int count, String sortBy, String sortOrder,
+                                         String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listUsersWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                requiredAttributes);
+    }
+
+    @Override
+    @Deprecated
+    public List<Object> listUsersWithGET(Node node, int startIndex, int count, String sortBy, String sortOrder,
+                                         Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listUsersWithGET(node, startIndex, count, sortBy, sortOrder, requiredAttributes);
+    }
+
+    @Override
+    public List<Object> listUsersWithPost(SearchRequest searchRequest, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listUsersWithPost(searchRequest, requiredAttributes);
+    }
+
+    @Override
+    public User updateUser(User updatedUser, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException {
+
+        try {
+            return userManager.updateUser(updatedUser, requiredAttributes);
+        } finally {
+            invalidateUser(updatedUser);
+        }
+    }
+
+    @Override
+    public User updateUser(User updatedUser, Map<String, Boolean> requiredAttributes,
+                           List<String> allSimpleMultiValuedAttributes)
+            throws CharonException, BadRequestException, NotFoundException, NotImplementedException {
+
+        try {
+            return userManager.updateUser(updatedUser, requiredAttributes, allSimpleMultiValuedAttributes);
+        } finally {
+            invalidateUser(updatedUser);
+        }
+    }
+
+    @Override
+    public User updateUserDelta(User updatedUser, AttributeChangeSet changes, Map<String, Boolean> requiredAttributes,
+                                List<String> allSimpleMultiValuedAttributes)
+            throws CharonException, BadRequestException, NotFoundException, NotImplementedException {
+
+        try {
+            return userManager.updateUserDelta(updatedUser, changes, requiredAttributes,
+                    allSimpleMultiValuedAttributes);
+        } finally {
+            invalidateUser(updatedUser);
+        }
+    }
+
+    @Override
+    public User patchUser(String userId, Map<String, List<PatchOperation>> patchOperations,
+                          Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        try {
+            return userManager.patchUser(userId, patchOperations, requiredAttributes);
+        } finally {
+            invalidateUser(userId);
+        }
+    }
+
+    @Override
+    public boolean isPatchUserSupported() {
+
+        return userManager.isPatchUserSupported();
+    }
+
+    @Override
+    public User getMe(String userName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        return userManager.getMe(userName, requiredAttributes);
+    }
+
+    @Override
+    public User createMe(User user, Map<String, Boolean> requiredAttributes)
+            throws CharonException, ConflictException, BadRequestException {
+
+        return userManager.createMe(user, requiredAttributes);
+    }
+
+    @Override
+    public void deleteMe(String userName)
+            throws NotFoundException, CharonException, NotImplementedException, BadRequestException {
+
+        try {
+            userManager.deleteMe(userName);
+        } finally {
+            // The id of the deleted user is not known here.
+            invalidateAllUsers();
+            invalidateAllGroups();
+        }
+    }
+
+    @Override
+    public User updateMe(User updatedUser, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException {
+
+        try {
+            return userManager.updateMe(updatedUser, requiredAttributes);
+        } finally {
+            invalidateUser(updatedUser);
+        }
+    }
+
+    /* ****************Group manipulation operations.********************/
+
+    @Override
+    public Group createGroup(Group group, Map<String, Boolean> requiredAttributes)
+            throws CharonException, ConflictException, NotImplementedException, BadRequestException {
+
+        try {
+            return userManager.createGroup(group, requiredAttributes);
+        } finally {
+            invalidateMembers(group);
+        }
+    }
+
+    @Override
+    public Group getGroup(String id, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        CachedResource cachedGroup = groupCache.get(id);
+        if (cachedGroup != null && cachedGroup.isFetchedWith(requiredAttributes)) {
+            return groupCodec.decode(cachedGroup.encoded, new Group());
+        }
+        long generation = groupGenerations.get(id);
+        Group group = userManager.getGroup(id, requiredAttributes);
+        if (group != null) {
+            cache(groupCache, groupGenerations, groupCodec, id, generation, group, requiredAttributes);
+        }
+        return group;
+    }
+
+    @Override
+    public void deleteGroup(String id)
+            throws NotFoundException, CharonException, NotImplementedException, BadRequestException {
+
+        try {
+            userManager.deleteGroup(id);
+        } finally {
+            invalidateGroup(id);
+            invalidateAllUsers();
+        }
+    }
+
+    @Override
+    public List<Object> listGroupsWithGET(Node node, Integer startIndex, Integer count, String sortBy,
+                                          String sortOrder, String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listGroupsWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                requiredAttributes);
+    }
+
+    @Override
+    @Deprecated
+    public List<Object> listGroupsWithGET(Node node, int startIndex, int count, String sortBy, String sortOrder,
+                                          String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listGroupsWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                requiredAttributes);
+    }
+
+    @Override
+    @Deprecated
+    public List<Object> listGroupsWithGET(Node node, int startIndex, int count, String sortBy, String sortOrder,
+                                          Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listGroupsWithGET(node, startIndex, count, sortBy, sortOrder, requiredAttributes);
+    }
+
+    @Override
+    public Group updateGroup(Group oldGroup, Group newGroup, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        try {
+            return userManager.updateGroup(oldGroup, newGroup, requiredAttributes);
+        } finally {
+            invalidateGroup(oldGroup, newGroup);
+        }
+    }
+
+    @Override
+    public void updateGroup(Group oldGroup, Group newGroup)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        try {
+            userManager.updateGroup(oldGroup, newGroup);
+        } finally {
+            invalidateGroup(oldGroup, newGroup);
+        }
+    }
+
+    @Override
+    public Group patchGroup(String groupId, String currentGroupName, Map<String, List<PatchOperation>> patchOperations,
+                            Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        try {
+            return userManager.patchGroup(groupId, currentGroupName, patchOperations, requiredAttributes);
+        } finally {
+            // The members touched by the operations are not resolved here.
+            invalidateGroup(groupId);
+            invalidateAllUsers();
+        }
+    }
+
+    @Override
+    public List<Object> listGroupsWithPost(SearchRequest searchRequest, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException {
+
+        return userManager.listGroupsWithPost(searchRequest, requiredAttributes);
+    }
+
+    @Override
+    public List<Attribute> getUserSchema() throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.getUserSchema();
+    }
+
+    @Override
+    public List<Attribute> getEnterpriseUserSchema() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getEnterpriseUserSchema();
+    }
+
+    @Override
+    public AttributeSchema getCustomUserSchemaExtension() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getCustomUserSchemaExtension();
+    }
+
+    @Override
+    public List<Attribute> getCustomUserSchemaAttributes() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getCustomUserSchemaAttributes();
+    }
+
+    /*
+     * Caches the snapshot of a resource read from the user manager. The snapshot is dropped again if the resource was
+     * invalidated since the generation the caller took before the read, since the read may have returned the state
+     * before the write. A write advances the generation before it invalidates the entry, hence either this check or
+     * the invalidation of the write sees the snapshot.
+     */
+    private static void cache(BoundedCache<String, CachedResource> cache, Generations generations,
+                              BinaryResourceCodec codec, String id, long generation, AbstractSCIMObject resource,
+                              Map<String, Boolean> requiredAttributes) {
+
+        CachedResource cachedResource;
+        try {
+            cachedResource = new CachedResource(codec.encode(resource), requiredAttributes);
+        } catch (CharonException e) {
+            log.debug("Resource " + id + " is not cached since it can not be encoded.", e);
+            return;
+        }
+        cache.put(id, cachedResource);
+        if (generations.get(id) != generation) {
+            cache.invalidate(id, cachedResource);
+        }
+    }
+
+    private void invalidateUser(User user) {
+
+        if (user != null && user.getId() != null) {
+            invalidateUser(user.getId());
+        }
+    }
+
+    private void invalidateUser(String id) {
+
+        userGenerations.advance(id);
+        userCache.invalidate(id);
+    }
+
+    private void invalidateAllUsers() {
+
+        userGenerations.advanceAll();
+        userCache.invalidateAll();
+    }
+
+    private void invalidateGroup(String id) {
+
+        groupGenerations.advance(id);
+        groupCache.invalidate(id);
+    }
+
+    private void invalidateAllGroups() {
+
+        groupGenerations.advanceAll();
+        groupCache.invalidateAll();
+    }
+
+    private void invalidateGroup(Group oldGroup, Group newGroup) {
+
+        if (oldGroup != null && oldGroup.getId() != null) {
+            invalidateGroup(oldGroup.getId());
+        }
+        if (newGroup != null && newGroup.getId() != null) {
+            invalidateGroup(newGroup.getId());
+        }
+        invalidateMembers(oldGroup);
+        invalidateMembers(newGroup);
+    }
+
+    private void invalidateMembers(Group group) {
+
+        if (group == null) {
+            return;
+        }
+        // Members are not always typed, so every member value is treated as a potential user id.
+        for (Object memberId : group.getMembers()) {
+            if (memberId instanceof String) {
+                invalidateUser((String) memberId);
+            }
+        }
+    }
+
+    /**
+     * Encoded snapshot of a resource along with the required attributes it was fetched with.
+     */
+    private static final class CachedResource {
+
+        private final byte[] encoded;
+        private final Map<String, Boolean> requiredAttributes;
+
+        private CachedResource(byte[] encoded, Map<String, Boolean> requiredAttributes) {
+
+            this.encoded = encoded;
+            this.requiredAttributes = requiredAttributes == null ? null : new HashMap<>(requiredAttributes);
+        }
+
+        private boolean isFetchedWith(Map<String, Boolean> requiredAttributes) {
+
+            return Objects.equals(this.requiredAttributes, requiredAttributes);
+        }
+    }
+
+    /**
+     * Counts the invalidations of the resources of one type, so that a read can tell whether the resource it read was
+     * written meanwhile. Ids share a fixed set of counters, hence a write may also keep a read of another resource
+     * from being cached, which only costs a miss.
+     */
+    private static final class Generations {
+
+        private static final int STRIPES = 1024;
+
+        private final AtomicLongArray stripes = new AtomicLongArray(STRIPES);
+        private final AtomicLong all = new AtomicLong();
+
+        private long get(String id) {
+
+            // Both counters only grow, hence the sum changes whenever either of them does.
+            return all.get() + stripes.get(stripe(id));
+        }
+
+        private void advance(String id) {
+
+            stripes.incrementAndGet(stripe(id));
+        }
+
+        private void advanceAll() {
+
+            all.incrementAndGet();
+        }
+
+        private static int stripe(String id) {
+
+            int hash = id.hashCode();
+            return (hash ^ hash >>> 16) & (STRIPES - 1);
+        }
+    }
+}
@@ -24,47 +24,110 @@ import org.slf4j.LoggerFactory;
 
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConcurrentUpdateException;
 import org.wso2.charon3.core.exceptions.ConflictException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.exceptions.NotImplementedException;
 import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
 import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.utils.CopyUtil;
 import org.wso2.charon3.core.utils.codeutils.Node;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
+import org.wso2.charon3.utils.store.HeapResourceStore;
+import org.wso2.charon3.utils.store.OffHeapResourceStore;
+import org.wso2.charon3.utils.store.ResourceStore;
+import org.wso2.charon3.utils.store.SchemaUniquenessIndex;
+import org.wso2.charon3.utils.store.UniquenessIndex;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This is a sample dynamic user store.
+ * <p>
+ * Users and groups are kept on the heap by default. To keep a large number of them without growing the heap, give
+ * the manager {@link OffHeapResourceStore}s, e.g.
+ * {@code new InMemoryUserManager(new OffHeapResourceStore<>(userSchema, User::new),
+ * new OffHeapResourceStore<>(groupSchema, Group::new))}, where the user schema includes the schema extensions in use.
+ * To keep them across restarts, decorate the stores with {@link org.wso2.charon3.utils.store.PersistentResourceStore}s.
+ * <p>
+ * Resources are versioned with a counter kept in their {@code meta.version}. An update is only stored if it was made
+ * on the current version, otherwise it fails with a {@link ConcurrentUpdateException}, so concurrent PUT and PATCH
+ * requests on the same resource do not lose each other's changes. Updates and deletes of a resource are serialized
+ * by one of a fixed set of locks picked by its id, which leaves the other resources free to be updated meanwhile.
+ * <p>
+ * Attributes declared with server or global uniqueness, like {@code userName}, are kept unique through a
+ * {@link UniquenessIndex}, which is updated together with the store. A resource taking a value another one holds fails
+ * with a {@link ConflictException} of the {@code uniqueness} SCIM type. By default the indexes follow the core user
+ * and group schemas, give the manager {@link SchemaUniquenessIndex}es of the schemas including the extensions in use
+ * to have the extension attributes indexed too.
  */
 public class InMemoryUserManager implements UserManager {
     private static final Logger logger = LoggerFactory.getLogger(InMemoryUserManager.class);
+    private static final int LOCK_STRIPES = 64;
+    private static final String FIRST_VERSION = "1";
     //in memory user manager stores users
-    ConcurrentHashMap<String, User> inMemoryUserList = new ConcurrentHashMap<String, User>();
-    ConcurrentHashMap<String, Group> inMemoryGroupList = new ConcurrentHashMap<String, Group>();
+    private final ResourceStore<User> inMemoryUserList;
+    private final ResourceStore<Group> inMemoryGroupList;
+    private final UniquenessIndex<User> userIndex;
+    private final UniquenessIndex<Group> groupIndex;
+    private final Lock[] locks = newLocks();
+
+    public InMemoryUserManager() {
+        this.inMemoryUserList = new HeapResourceStore<User>();
+        this.inMemoryGroupList = new HeapResourceStore<Group>();
+        this.userIndex = newUserIndex();
+        this.groupIndex = newGroupIndex();
+    }
+
+    /**
+     * @param userStore  store the users are kept in
+     * @param groupStore store the groups are kept in
+     * @throws CharonException if the resources already in the stores can not be indexed
+     */
+    public InMemoryUserManager(ResourceStore<User> userStore, ResourceStore<Group> groupStore)
+            throws CharonException {
+        this(userStore, groupStore, newUserIndex(), newGroupIndex());
+    }
+
+    /**
+     * @param userStore  store the users are kept in
+     * @param groupStore store the groups are kept in
+     * @param userIndex  empty index of the unique user attributes
+     * @param groupIndex empty index of the unique group attributes
+     * @throws CharonException if the resources already in the stores can not be indexed
+     */
+    public InMemoryUserManager(ResourceStore<User> userStore, ResourceStore<Group> groupStore,
+                               UniquenessIndex<User> userIndex, UniquenessIndex<Group> groupIndex)
+            throws CharonException {
+        this.inMemoryUserList = Objects.requireNonNull(userStore, "User store must not be null");
+        this.inMemoryGroupList = Objects.requireNonNull(groupStore, "Group store must not be null");
+        this.userIndex = Objects.requireNonNull(userIndex, "User index must not be null");
+        this.groupIndex = Objects.requireNonNull(groupIndex, "Group index must not be null");
+        index(userStore, userIndex);
+        index(groupStore, groupIndex);
+    }
 
 
     @Override
     public User createUser(User user, Map<String, Boolean> map)
             throws CharonException, ConflictException, BadRequestException {
-        if (inMemoryUserList.get(user.getId()) != null) {
-            throw new ConflictException("User with the id : " + user.getId() + "already exists");
-        } else {
-            inMemoryUserList.put(user.getId(), user);
-            return (User) CopyUtil.deepCopy(user);
-        }
+        return create(inMemoryUserList, userIndex, user, "User");
     }
 
     @Override
     public User getUser(String id, Map<String, Boolean> map)
             throws CharonException, BadRequestException, NotFoundException {
-       if (inMemoryUserList.get(id) != null) {
-           return (User) CopyUtil.deepCopy(inMemoryUserList.get(id));
+       User user = inMemoryUserList.get(id);
+       if (user != null) {
+           return user;
        } else {
            throw new NotFoundException("No user with the id : " + id);
        }
@@ -73,11 +136,7 @@ public class InMemoryUserManager implements UserManager {
     @Override
     public void deleteUser(String id)
             throws NotFoundException, CharonException, NotImplementedException, BadRequestException {
-        if (inMemoryUserList.get(id) == null) {
-            throw new NotFoundException("No user with the id : " + id);
-        } else {
-            inMemoryUserList.remove(id);
-        }
+        delete(inMemoryUserList, userIndex, id, "user");
     }
 
     @Override
@@ -99,12 +158,10 @@ public class InMemoryUserManager implements UserManager {
         List<Object> userList = new ArrayList<>();
         userList.add(0);
         //first item should contain the number of total results
-        for (Map.Entry<String, User> entry : inMemoryUserList.entrySet()) {
-            userList.add(entry.getValue());
-        }
-        userList.set(0, userList.size() - 1);
         try {
-            return (List<Object>) CopyUtil.deepCopy(userList);
+            userList.addAll(inMemoryUserList.values());
+            userList.set(0, userList.size() - 1);
+            return userList;
         } catch (CharonException e) {
             logger.error("Error in listing users");
             return  null;
@@ -125,8 +182,7 @@ public class InMemoryUserManager implements UserManager {
     public User updateUser(User user, Map<String, Boolean> map)
             throws NotImplementedException, CharonException, BadRequestException, NotFoundException {
        if (user.getId() != null) {
-           inMemoryUserList.replace(user.getId(), user);
-           return (User) CopyUtil.deepCopy(user);
+           return replace(inMemoryUserList, userIndex, user, "user");
        } else {
            throw new NotFoundException("No user with the id : " + user.getId());
        }
@@ -139,8 +195,7 @@ public class InMemoryUserManager implements UserManager {
         if (StringUtils.isEmpty(user.getId())) {
             throw new NotFoundException("No user found. User id is empty.");
         }
-        inMemoryUserList.replace(user.getId(), user);
-        return (User) CopyUtil.deepCopy(user);
+        return replace(inMemoryUserList, userIndex, user, "user");
     }
 
     @Override
@@ -170,15 +225,15 @@ public class InMemoryUserManager implements UserManager {
     @Override
     public Group createGroup(Group group, Map<String, Boolean> map)
             throws CharonException, ConflictException, NotImplementedException, BadRequestException {
-        inMemoryGroupList.put(group.getId(), group);
-        return (Group) CopyUtil.deepCopy(group);
+        return create(inMemoryGroupList, groupIndex, group, "Group");
     }
 
     @Override
     public Group getGroup(String id, Map<String, Boolean> map)
             throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
-        if (inMemoryGroupList.get(id) != null) {
-            return (Group) CopyUtil.deepCopy(inMemoryGroupList.get(id));
+        Group group = inMemoryGroupList.get(id);
+        if (group != null) {
+            return group;
         } else {
             throw new NotFoundException("No user with the id : " + id);
         }
@@ -187,11 +242,7 @@ public class InMemoryUserManager implements UserManager {
     @Override
     public void deleteGroup(String id)
             throws NotFoundException, CharonException, NotImplementedException, BadRequestException {
-        if (inMemoryGroupList.get(id) == null) {
-            throw new NotFoundException("No user with the id : " + id);
-        } else {
-            inMemoryGroupList.remove(id);
-        }
+        delete(inMemoryGroupList, groupIndex, id, "group");
     }
 
     @Override
@@ -212,12 +263,10 @@ public class InMemoryUserManager implements UserManager {
     private List<Object> listGroups(Map<String, Boolean> requiredAttributes) {
         List<Object> groupList = new ArrayList<>();
         groupList.add(0, 0);
-        for (Group group : inMemoryGroupList.values()) {
-            groupList.add(group);
-        }
-        groupList.set(0, groupList.size() - 1);
         try {
-            return (List<Object>) CopyUtil.deepCopy(groupList);
+            groupList.addAll(inMemoryGroupList.values());
+            groupList.set(0, groupList.size() - 1);
+            return groupList;
         } catch (CharonException e) {
             logger.error("Error in listing groups");
             return  null;
@@ -226,13 +275,12 @@ public class InMemoryUserManager implements UserManager {
     }
 
     @Override
-    public Group updateGroup(Group group, Group group1, Map<String, Boolean> map)
+    public Group updateGroup(Group oldGroup, Group newGroup, Map<String, Boolean> map)
             throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
-        if (group.getId() != null) {
-            inMemoryGroupList.replace(group.getId(), group);
-            return (Group) CopyUtil.deepCopy(group);
+        if (newGroup.getId() != null) {
+            return replace(inMemoryGroupList, groupIndex, newGroup, "group");
         } else {
-            throw new NotFoundException("No user with the id : " + group.getId());
+            throw new NotFoundException("No user with the id : " + newGroup.getId());
         }
     }
 
@@ -244,4 +292,149 @@ public class InMemoryUserManager implements UserManager {
                 searchRequest.getCount(), searchRequest.getSortBy(), searchRequest.getSortOder(),
                 searchRequest.getDomainName(), requiredAttributes);
     }
+
+    /*
+     * Stores a new resource with the first version, after taking its unique attribute values.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends AbstractSCIMObject> T create(ResourceStore<T> store, UniquenessIndex<T> index, T resource,
+                                                    String resourceType)
+            throws CharonException, ConflictException {
+        String id = resource.getId();
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            if (store.contains(id)) {
+                throw new ConflictException(resourceType + " with the id : " + id + " already exists");
+            }
+            resource.replaceVersion(FIRST_VERSION);
+            index.add(id, resource);
+            try {
+                store.put(id, resource);
+            } catch (CharonException e) {
+                index.remove(id, resource);
+                throw e;
+            }
+            return (T) CopyUtil.deepCopy(resource);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Stores the updated resource in place of the current one if the update was made on the current version, and
+     * gives it the next version. An update which carries no version replaces the resource unconditionally.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends AbstractSCIMObject> T replace(ResourceStore<T> store, UniquenessIndex<T> index, T resource,
+                                                     String resourceType)
+            throws CharonException, NotFoundException {
+        String id = resource.getId();
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            T current = store.get(id);
+            if (current == null) {
+                throw new NotFoundException("No " + resourceType + " with the id : " + id);
+            }
+            String version = resource.getVersion();
+            if (version != null && !version.equals(current.getVersion())) {
+                throw new ConcurrentUpdateException("The " + resourceType + " with the id : " + id +
+                        " was updated after version " + version + " was read");
+            }
+            try {
+                index.update(id, current, resource);
+            } catch (ConflictException e) {
+                // Updates can only fail with a CharonException, which reports the conflict the same way.
+                CharonException conflict = new CharonException(e.getDetail(), e);
+                conflict.setStatus(e.getStatus());
+                conflict.setScimType(e.getScimType());
+                throw conflict;
+            }
+            resource.replaceVersion(nextVersion(current.getVersion()));
+            try {
+                store.replace(id, resource);
+            } catch (CharonException e) {
+                restore(index, id, resource, current);
+                throw e;
+            }
+            return (T) CopyUtil.deepCopy(resource);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Gives the unique values back to the resource which was to be replaced, when storing its replacement failed.
+     * This fails if another resource has taken one of the values the replacement gave up meanwhile.
+     */
+    private static <T extends AbstractSCIMObject> void restore(UniquenessIndex<T> index, String id, T replacement,
+                                                               T resource) throws CharonException {
+        try {
+            index.update(id, replacement, resource);
+        } catch (ConflictException e) {
+            throw new CharonException("Error while restoring the unique values of the resource with the id : " + id,
+                    e);
+        }
+    }
+
+    private <T extends AbstractSCIMObject> void delete(ResourceStore<T> store, UniquenessIndex<T> index, String id,
+                                                       String resourceType)
+            throws CharonException, NotFoundException {
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            T current = store.get(id);
+            if (current == null || !store.remove(id)) {
+                throw new NotFoundException("No " + resourceType + " with the id : " + id);
+            }
+            index.remove(id, current);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static <T extends AbstractSCIMObject> void index(ResourceStore<T> store, UniquenessIndex<T> index)
+            throws CharonException {
+        store.forEach((id, resource) -> {
+            try {
+                index.add(id, resource);
+            } catch (ConflictException e) {
+                throw new CharonException("The stored resource with the id : " + id + " holds a unique value " +
+                        "another stored resource holds", e);
+            }
+        });
+    }
+
+    private static UniquenessIndex<User> newUserIndex() {
+        return new SchemaUniquenessIndex<>(SCIMResourceSchemaManager.getInstance().getUserResourceSchema());
+    }
+
+    private static UniquenessIndex<Group> newGroupIndex() {
+        return new SchemaUniquenessIndex<>(SCIMResourceSchemaManager.getInstance().getGroupResourceSchema());
+    }
+
+    private static Lock[] newLocks() {
+        Lock[] locks = new Lock[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private Lock lockFor(String id) {
+        return locks[(id.hashCode() & Integer.MAX_VALUE) % locks.length];
+    }
+
+    private static String nextVersion(String version) {
+        if (version == null) {
+            return FIRST_VERSION;
+        }
+        try {
+            return Long.toString(Long.parseLong(version) + 1);
+        } catch (NumberFormatException e) {
+            // Not a version this manager has given, start counting afresh.
+            return FIRST_VERSION;
+        }
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.store;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.BinaryResourceCodec;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+
+/**
+ * Test class of OffHeapResourceStore.
+ */
+public class OffHeapResourceStoreTest extends ResourceStoreTest {
+
+    //small enough for a few users to fill a slab.
+    private static final int SLAB_SIZE = 512;
+
+    @Override
+    protected ResourceStore<User> createStore() {
+
+        return newStore();
+    }
+
+    @Test
+    public void testSlabsAreReusedAfterRemove() throws Exception {
+
+        OffHeapResourceStore<User> offHeapStore = newStore();
+        for (int i = 0; i < 100; i++) {
+            offHeapStore.put(String.valueOf(i), newUser(String.valueOf(i), "user-" + i));
+        }
+        long allocatedBytes = offHeapStore.getAllocatedBytes();
+        Assert.assertTrue(allocatedBytes > 4 * SLAB_SIZE);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(offHeapStore.remove(String.valueOf(i)));
+        }
+        Assert.assertEquals(offHeapStore.getLiveBytes(), 0);
+
+        // The same resources fit in the slabs kept for reuse and the ones released meanwhile.
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 100; i++) {
+                offHeapStore.put(String.valueOf(i), newUser(String.valueOf(i), "user-" + i));
+            }
+            for (int i = 0; i < 100; i++) {
+                offHeapStore.remove(String.valueOf(i));
+            }
+        }
+        Assert.assertTrue(offHeapStore.getAllocatedBytes() <= allocatedBytes);
+        Assert.assertEquals(offHeapStore.getLiveBytes(), 0);
+    }
+
+    @Test
+    public void testResourcesLargerThanASlab() throws Exception {
+
+        OffHeapResourceStore<User> offHeapStore = newStore();
+        StringBuilder userName = new StringBuilder();
+        for (int i = 0; i < 2 * SLAB_SIZE; i++) {
+            userName.append((char) ('a' + i % 26));
+        }
+        offHeapStore.put("small", newUser("small", "alice"));
+        offHeapStore.put("large", newUser("large", userName.toString()));
+
+        Assert.assertTrue(offHeapStore.getAllocatedBytes() > 2 * SLAB_SIZE);
+        Assert.assertEquals(offHeapStore.get("large").getUserName(), userName.toString());
+        Assert.assertEquals(offHeapStore.get("small").getUserName(), "alice");
+
+        long allocatedBytes = offHeapStore.getAllocatedBytes();
+        offHeapStore.remove("large");
+        Assert.assertTrue(offHeapStore.getAllocatedBytes() < allocatedBytes - 2 * SLAB_SIZE);
+        Assert.assertEquals(offHeapStore.get("small").getUserName(), "alice");
+    }
+
+    @Test
+    public void testCompactedResourcesAreKept() throws Exception {
+
+        OffHeapResourceStore<User> offHeapStore = newStore();
+        for (int i = 0; i < 100; i++) {
+            offHeapStore.put(String.valueOf(i), newUser(String.valueOf(i), "user-" + i));
+        }
+        // Leaves most slabs less than half in use, which moves their remaining resources.
+        for (int i = 0; i < 100; i++) {
+            if (i % 4 != 0) {
+                offHeapStore.remove(String.valueOf(i));
+            }
+        }
+
+        for (int i = 0; i < 100; i += 4) {
+            Assert.assertEquals(offHeapStore.get(String.valueOf(i)).getUserName(), "user-" + i);
+        }
+        Assert.assertEquals(offHeapStore.size(), 25);
+        Assert.assertTrue(offHeapStore.getLiveBytes() <= offHeapStore.getAllocatedBytes());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSlabSizeMustFitARecordHeader() {
+
+        new OffHeapResourceStore<>(new BinaryResourceCodec(
+                SCIMResourceSchemaManager.getInstance().getUserResourceSchema()), User::new, 8);
+    }
+
+    private static OffHeapResourceStore<User> newStore() {
+
+        return new OffHeapResourceStore<>(new BinaryResourceCodec(
+                SCIMResourceSchemaManager.getInstance().getUserResourceSchema()), User::new, SLAB_SIZE);
+    }
+}
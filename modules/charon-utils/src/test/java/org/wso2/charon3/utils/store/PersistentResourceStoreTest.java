@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.store;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.BinaryResourceCodec;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Test class of PersistentResourceStore.
+ */
+public class PersistentResourceStoreTest {
+
+    private final BinaryResourceCodec codec =
+            new BinaryResourceCodec(SCIMResourceSchemaManager.getInstance().getUserResourceSchema());
+    private final List<PersistentResourceStore<User>> openStores = new ArrayList<>();
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("charon-store");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        for (PersistentResourceStore<User> store : openStores) {
+            store.close();
+        }
+        openStores.clear();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @DataProvider(name = "restarts")
+    public Object[][] restarts() {
+
+        return new Object[][]{
+                // sync changes, close before the restart
+                {true, true},
+                {true, false},
+                {false, true},
+                {false, false},
+        };
+    }
+
+    @Test(dataProvider = "restarts")
+    public void testRestartAfterWrites(boolean syncChanges, boolean close) throws Exception {
+
+        PersistentResourceStore<User> store = open(syncChanges, 0);
+        store.put("1", newUser("1", "alice"));
+        store.put("2", newUser("2", "bob"));
+        Assert.assertTrue(store.putIfAbsent("3", newUser("3", "carol")));
+        Assert.assertTrue(store.replace("2", newUser("2", "robert")));
+        Assert.assertTrue(store.remove("1"));
+        if (close) {
+            store.close();
+        }
+
+        // Without closing, the process ends with the changes written to the operating system but maybe not forced.
+        PersistentResourceStore<User> restarted = open(syncChanges, 0);
+        Assert.assertEquals(userNames(restarted), userNames("2", "robert", "3", "carol"));
+
+        restarted.put("4", newUser("4", "dave"));
+        restarted.close();
+        Assert.assertEquals(userNames(open(syncChanges, 0)), userNames("2", "robert", "3", "carol", "4", "dave"));
+    }
+
+    @Test
+    public void testTornLastRecordIsDropped() throws Exception {
+
+        PersistentResourceStore<User> store = open(true, 0);
+        store.put("1", newUser("1", "alice"));
+        store.put("2", newUser("2", "bob"));
+        store.close();
+        tear(lastLog());
+
+        PersistentResourceStore<User> restarted = open(true, 0);
+        Assert.assertEquals(userNames(restarted), userNames("1", "alice"));
+
+        // The sequence of the dropped change is taken again.
+        restarted.put("3", newUser("3", "carol"));
+        restarted.close();
+        Assert.assertEquals(userNames(open(true, 0)), userNames("1", "alice", "3", "carol"));
+    }
+
+    @DataProvider(name = "tornHeaders")
+    public Object[][] tornHeaders() {
+
+        return new Object[][]{
+                {0},
+                {7},
+        };
+    }
+
+    @Test(dataProvider = "tornHeaders")
+    public void testLogWithTornHeaderIsDropped(int headerLength) throws Exception {
+
+        PersistentResourceStore<User> store = open(true, 0);
+        store.put("1", newUser("1", "alice"));
+        store.put("2", newUser("2", "bob"));
+        store.snapshot();
+        store.put("3", newUser("3", "carol"));
+        store.close();
+        // As if the process stopped while the log after the last one was being created.
+        Path nextLog = directory.resolve(String.format("wal-%020d.log", 4));
+        Files.write(nextLog, Arrays.copyOf(Files.readAllBytes(lastLog()), headerLength));
+        Assert.assertEquals(lastLog(), nextLog);
+
+        PersistentResourceStore<User> restarted = open(true, 0);
+        Assert.assertEquals(userNames(restarted), userNames("1", "alice", "2", "bob", "3", "carol"));
+        restarted.put("4", newUser("4", "dave"));
+        restarted.close();
+        Assert.assertEquals(userNames(open(true, 0)),
+                userNames("1", "alice", "2", "bob", "3", "carol", "4", "dave"));
+    }
+
+    @Test
+    public void testTornRecordBeforeLaterLogsFails() throws Exception {
+
+        PersistentResourceStore<User> store = open(true, 0);
+        store.put("1", newUser("1", "alice"));
+        store.put("2", newUser("2", "bob"));
+        store.close();
+        Path firstLog = lastLog();
+        store = open(true, 0);
+        store.put("3", newUser("3", "carol"));
+        store.close();
+        tear(firstLog);
+        long size = Files.size(firstLog);
+
+        Assert.expectThrows(CharonException.class, () -> open(true, 0));
+        // The damaged log is left as it is.
+        Assert.assertEquals(Files.size(firstLog), size);
+    }
+
+    @Test
+    public void testMissingLogFails() throws Exception {
+
+        PersistentResourceStore<User> store = open(true, 0);
+        store.put("1", newUser("1", "alice"));
+        store.close();
+        Path firstLog = lastLog();
+        store = open(true, 0);
+        store.put("2", newUser("2", "bob"));
+        store.close();
+        Files.delete(firstLog);
+
+        Assert.expectThrows(CharonException.class, () -> open(true, 0));
+    }
+
+    @Test
+    public void testCrashBetweenSnapshotAndLogDeletion() throws Exception {
+
+        PersistentResourceStore<User> store = open(true, 0);
+        store.put("1", newUser("1", "alice"));
+        store.put("2", newUser("2", "bob"));
+        store.remove("1");
+        Path coveredLog = lastLog();
+        Path copy = directory.resolve("covered.copy");
+        Files.copy(coveredLog, copy);
+        store.snapshot();
+        Assert.assertFalse(Files.exists(coveredLog));
+        store.put("1", newUser("1", "alice again"));
+        store.close();
+        // As if the process stopped after the snapshot was written, before the log it covers was deleted.
+        Files.move(copy, coveredLog, StandardCopyOption.ATOMIC_MOVE);
+
+        PersistentResourceStore<User> restarted = open(true, 0);
+        Assert.assertEquals(userNames(restarted), userNames("1", "alice again", "2", "bob"));
+        restarted.snapshot();
+        Assert.assertEquals(files("wal-*.log").size(), 1);
+        Assert.assertEquals(files("snapshot-*.dat").size(), 1);
+        restarted.close();
+        Assert.assertEquals(userNames(open(true, 0)), userNames("1", "alice again", "2", "bob"));
+    }
+
+    @Test
+    public void testSnapshotsWhileWriting() throws Exception {
+
+        PersistentResourceStore<User> store = open(false, 4096);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < 4; writer++) {
+                String prefix = "w" + writer + "-";
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        store.put(prefix + i % 100, newUser(prefix + i % 100, prefix + i));
+                        if (i % 7 == 0) {
+                            store.remove(prefix + (i + 50) % 100);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Map<String, String> userNames = userNames(store);
+        store.close();
+
+        Assert.assertFalse(files("snapshot-*.dat").isEmpty());
+        // The logs covered by a snapshot are deleted.
+        Assert.assertTrue(files("wal-*.log").size() < 10);
+        Assert.assertEquals(userNames(open(false, 0)), userNames);
+    }
+
+    private PersistentResourceStore<User> open(boolean syncChanges, long snapshotLogSize) throws CharonException {
+
+        PersistentResourceStore<User> store = new PersistentResourceStore<>(new HeapResourceStore<>(), codec,
+                User::new, directory, syncChanges, snapshotLogSize);
+        openStores.add(store);
+        return store;
+    }
+
+    private Path lastLog() throws IOException {
+
+        List<Path> logs = files("wal-*.log");
+        Collections.sort(logs);
+        return logs.get(logs.size() - 1);
+    }
+
+    private List<Path> files(String glob) throws IOException {
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /*
+     * Cuts the last few bytes off a log, as a crash while the last change was written would.
+     */
+    private static void tear(Path log) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+    }
+
+    private static Map<String, String> userNames(ResourceStore<User> store) throws CharonException {
+
+        Map<String, String> userNames = new HashMap<>();
+        for (User user : store.values()) {
+            userNames.put(user.getId(), user.getUserName());
+        }
+        return userNames;
+    }
+
+    private static Map<String, String> userNames(String... idsAndUserNames) {
+
+        Map<String, String> userNames = new HashMap<>();
+        for (int i = 0; i < idsAndUserNames.length; i += 2) {
+            userNames.put(idsAndUserNames[i], idsAndUserNames[i + 1]);
+        }
+        return userNames;
+    }
+
+    private static User newUser(String id, String userName) throws Exception {
+
+        User user = new User();
+        user.setSchema(SCIMConstants.USER_CORE_SCHEMA_URI);
+        user.setId(id);
+        user.setUserName(userName);
+        return user;
+    }
+}
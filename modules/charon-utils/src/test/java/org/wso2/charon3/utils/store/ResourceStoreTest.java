@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.store;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests every ResourceStore implementation has to pass.
+ */
+public abstract class ResourceStoreTest {
+
+    protected ResourceStore<User> store;
+
+    /**
+     * @return empty store under test
+     */
+    protected abstract ResourceStore<User> createStore();
+
+    @BeforeMethod
+    public void setUp() {
+
+        store = createStore();
+    }
+
+    @Test
+    public void testReturnedResourcesAreCopies() throws Exception {
+
+        store.put("1", newUser("1", "alice"));
+        User user = store.get("1");
+        user.replaceUserName("bob");
+
+        Assert.assertEquals(store.get("1").getUserName(), "alice");
+        Assert.assertNull(store.get("2"));
+    }
+
+    @Test
+    public void testConditionalWrites() throws Exception {
+
+        Assert.assertFalse(store.replace("1", newUser("1", "alice")));
+        Assert.assertFalse(store.contains("1"));
+        Assert.assertTrue(store.putIfAbsent("1", newUser("1", "alice")));
+        Assert.assertFalse(store.putIfAbsent("1", newUser("1", "bob")));
+        Assert.assertEquals(store.get("1").getUserName(), "alice");
+        Assert.assertTrue(store.replace("1", newUser("1", "bob")));
+        Assert.assertEquals(store.get("1").getUserName(), "bob");
+    }
+
+    @Test
+    public void testIdIsReusedAfterRemove() throws Exception {
+
+        store.put("1", newUser("1", "alice"));
+        Assert.assertTrue(store.remove("1"));
+        Assert.assertFalse(store.remove("1"));
+        Assert.assertNull(store.get("1"));
+        Assert.assertEquals(store.size(), 0);
+
+        Assert.assertTrue(store.putIfAbsent("1", newUser("1", "bob")));
+        Assert.assertEquals(store.get("1").getUserName(), "bob");
+        Assert.assertEquals(store.size(), 1);
+    }
+
+    @Test
+    public void testManyResources() throws Exception {
+
+        for (int i = 0; i < 2000; i++) {
+            store.put(String.valueOf(i), newUser(String.valueOf(i), "user-" + i));
+        }
+        for (int i = 0; i < 2000; i += 2) {
+            store.remove(String.valueOf(i));
+        }
+
+        Assert.assertEquals(store.size(), 1000);
+        Assert.assertEquals(store.values().size(), 1000);
+        List<String> ids = Collections.synchronizedList(new ArrayList<>());
+        store.forEach((id, user) -> {
+            Assert.assertEquals(user.getUserName(), "user-" + id);
+            ids.add(id);
+        });
+        Assert.assertEquals(ids.size(), 1000);
+        for (int i = 1; i < 2000; i += 2) {
+            Assert.assertEquals(store.get(String.valueOf(i)).getUserName(), "user-" + i);
+        }
+    }
+
+    @Test
+    public void testConcurrentGetAndReplace() throws Exception {
+
+        store.put("1", newUser("1", "name-0"));
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                readers.add(executor.submit(() -> {
+                    int reads = 0;
+                    while (!done.get()) {
+                        User user = store.get("1");
+                        Assert.assertNotNull(user);
+                        Assert.assertTrue(user.getUserName().startsWith("name-"), user.getUserName());
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                try {
+                    for (int i = 1; i <= 5000; i++) {
+                        Assert.assertTrue(store.replace("1", newUser("1", "name-" + i)));
+                        // Other resources come and go, so that the stores reorganize their memory meanwhile.
+                        store.put("other-" + i, newUser("other-" + i, "other"));
+                        store.remove("other-" + (i - 1));
+                    }
+                } finally {
+                    done.set(true);
+                }
+                return null;
+            });
+
+            writer.get(60, TimeUnit.SECONDS);
+            for (Future<Integer> reader : readers) {
+                Assert.assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(store.get("1").getUserName(), "name-5000");
+        Assert.assertEquals(store.size(), 2);
+    }
+
+    protected static User newUser(String id, String userName) throws CharonException, BadRequestException {
+
+        User user = new User();
+        user.setSchema(SCIMConstants.USER_CORE_SCHEMA_URI);
+        user.setId(id);
+        user.setUserName(userName);
+        return user;
+    }
+}
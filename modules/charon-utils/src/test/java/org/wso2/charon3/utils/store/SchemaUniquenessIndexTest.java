@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.store;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.exceptions.ConflictException;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.schema.SCIMAttributeSchema;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class of SchemaUniquenessIndex.
+ */
+public class SchemaUniquenessIndexTest {
+
+    private static final String USER_SCHEMA = SCIMConstants.USER_CORE_SCHEMA_URI + ":";
+
+    // userName is unique and not case exact, employeeNumber unique and case exact, nickName not unique.
+    private final SCIMResourceTypeSchema schema = SCIMResourceTypeSchema.createSCIMResourceSchema(
+            Collections.singletonList(SCIMConstants.USER_CORE_SCHEMA_URI),
+            attributeSchema(SCIMConstants.CommonSchemaConstants.ID_URI, "id", true,
+                    SCIMDefinitions.Uniqueness.SERVER),
+            attributeSchema(USER_SCHEMA + "userName", "userName", false, SCIMDefinitions.Uniqueness.SERVER),
+            attributeSchema(USER_SCHEMA + "employeeNumber", "employeeNumber", true,
+                    SCIMDefinitions.Uniqueness.SERVER),
+            attributeSchema(USER_SCHEMA + "nickName", "nickName", false, SCIMDefinitions.Uniqueness.NONE));
+    private SchemaUniquenessIndex<User> index;
+
+    @BeforeMethod
+    public void setUp() {
+
+        index = new SchemaUniquenessIndex<>(schema);
+    }
+
+    @Test
+    public void testDuplicateValuesConflict() throws Exception {
+
+        index.add("1", user("1", "alice", "E1", "Al"));
+        index.add("2", user("2", "bob", "E2", "Al"));
+
+        ConflictException exception = Assert.expectThrows(ConflictException.class,
+                () -> index.add("3", user("3", "alice", "E3", null)));
+        Assert.assertEquals(exception.getStatus(), ResponseCodeConstants.CODE_CONFLICT);
+        Assert.assertEquals(exception.getScimType(), ResponseCodeConstants.UNIQUENESS);
+        Assert.assertThrows(ConflictException.class, () -> index.add("3", user("3", "carol", "E1", null)));
+    }
+
+    @Test
+    public void testCaseExactness() throws Exception {
+
+        index.add("1", user("1", "alice", "E1", null));
+
+        // userName is not case exact, so ALICE is alice.
+        Assert.assertThrows(ConflictException.class, () -> index.add("2", user("2", "ALICE", "E2", null)));
+        // employeeNumber is case exact, so e1 is not E1.
+        index.add("2", user("2", "bob", "e1", null));
+        Assert.assertThrows(ConflictException.class, () -> index.add("3", user("3", "carol", "e1", null)));
+    }
+
+    @Test
+    public void testFailedAddTakesNoValue() throws Exception {
+
+        index.add("1", user("1", "alice", "E1", null));
+        // userName is free but employeeNumber is taken, hence neither is taken.
+        Assert.assertThrows(ConflictException.class, () -> index.add("2", user("2", "bob", "E1", null)));
+
+        index.add("3", user("3", "bob", "E3", null));
+    }
+
+    @Test
+    public void testRenameToATakenValue() throws Exception {
+
+        User alice = user("1", "alice", "E1", null);
+        index.add("1", alice);
+        index.add("2", user("2", "bob", "E2", null));
+
+        ConflictException exception = Assert.expectThrows(ConflictException.class,
+                () -> index.update("1", alice, user("1", "alice", "E2", null)));
+        Assert.assertEquals(exception.getScimType(), ResponseCodeConstants.UNIQUENESS);
+        // The index is left as it was: alice keeps her values, which nobody else can take.
+        Assert.assertThrows(ConflictException.class, () -> index.add("3", user("3", "alice", "E3", null)));
+        Assert.assertThrows(ConflictException.class, () -> index.add("3", user("3", "carol", "E1", null)));
+        // A value only differing in case from the one a resource holds is still its own.
+        index.update("1", alice, user("1", "Alice", "E1", null));
+    }
+
+    @Test
+    public void testRenameReleasesThePreviousValue() throws Exception {
+
+        User alice = user("1", "alice", "E1", null);
+        index.add("1", alice);
+        index.update("1", alice, user("1", "alicia", "E1", null));
+
+        index.add("2", user("2", "alice", "E2", null));
+        Assert.assertThrows(ConflictException.class, () -> index.add("3", user("3", "alicia", "E3", null)));
+    }
+
+    @Test
+    public void testRemoveReleasesTheValues() throws Exception {
+
+        User alice = user("1", "alice", "E1", null);
+        index.add("1", alice);
+        index.remove("1", alice);
+
+        index.add("2", user("2", "alice", "E1", null));
+    }
+
+    @Test
+    public void testRacingAddsTakeAValueOnce() throws Exception {
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> adds = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String id = String.valueOf(i);
+                // Each resource takes a free value too, which must be given up again if the shared one is lost.
+                User user = user(id, "alice", "E" + i, null);
+                adds.add(executor.submit((Callable<Boolean>) () -> {
+                    start.await();
+                    try {
+                        index.add(id, user);
+                        return true;
+                    } catch (ConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            List<Integer> added = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                if (adds.get(i).get(10, TimeUnit.SECONDS)) {
+                    added.add(i);
+                }
+            }
+            Assert.assertEquals(added.size(), 1);
+            // Only the winner keeps its employee number.
+            for (int i = 0; i < threads; i++) {
+                User probe = user("probe", "probe", "E" + i, null);
+                if (added.contains(i)) {
+                    Assert.assertThrows(ConflictException.class, () -> index.add("probe", probe));
+                } else {
+                    index.add("probe", probe);
+                    index.remove("probe", probe);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private User user(String id, String userName, String employeeNumber, String nickName) throws Exception {
+
+        StringBuilder json = new StringBuilder("{\"schemas\":[\"").append(SCIMConstants.USER_CORE_SCHEMA_URI)
+                .append("\"],\"id\":\"").append(id).append("\",\"userName\":\"").append(userName).append('"');
+        if (employeeNumber != null) {
+            json.append(",\"employeeNumber\":\"").append(employeeNumber).append('"');
+        }
+        if (nickName != null) {
+            json.append(",\"nickName\":\"").append(nickName).append('"');
+        }
+        return new JSONDecoder().decodeResource(json.append('}').toString(), schema, new User());
+    }
+
+    private static SCIMAttributeSchema attributeSchema(String uri, String name, boolean caseExact,
+                                                       SCIMDefinitions.Uniqueness uniqueness) {
+
+        return SCIMAttributeSchema.createSCIMAttributeSchema(uri, name, SCIMDefinitions.DataType.STRING, false, "",
+                false, caseExact, SCIMDefinitions.Mutability.READ_WRITE, SCIMDefinitions.Returned.DEFAULT,
+                uniqueness, null, null, null);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.usermanager;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.NotFoundException;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class of CachingUserManager.
+ */
+public class CachingUserManagerTest {
+
+    private CountingUserManager store;
+    private CachingUserManager cachingUserManager;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        store = new CountingUserManager();
+        cachingUserManager = new CachingUserManager(store);
+        store.createUser(newUser("1", "alice"), null);
+        store.createUser(newUser("2", "bob"), null);
+    }
+
+    @Test
+    public void testRepeatedReadsAreServedFromTheCache() throws Exception {
+
+        User first = cachingUserManager.getUser("1", null);
+        User second = cachingUserManager.getUser("1", null);
+
+        Assert.assertEquals(store.userReads.get(), 1);
+        Assert.assertEquals(second.getUserName(), "alice");
+        Assert.assertEquals(second.getVersion(), first.getVersion());
+        Assert.assertEquals(cachingUserManager.getUserCache().getHitCount(), 1);
+    }
+
+    @Test
+    public void testCachedUsersAreCopies() throws Exception {
+
+        cachingUserManager.getUser("1", null);
+        User cached = cachingUserManager.getUser("1", null);
+        cached.replaceVersion("99");
+
+        Assert.assertEquals(cachingUserManager.getUser("1", null).getVersion(), "1");
+        Assert.assertNotSame(cachingUserManager.getUser("1", null), cachingUserManager.getUser("1", null));
+    }
+
+    @Test
+    public void testReadsWithOtherAttributesMiss() throws Exception {
+
+        cachingUserManager.getUser("1", null);
+        cachingUserManager.getUser("1", Collections.singletonMap(SCIMConstants.UserSchemaConstants.USER_NAME_URI,
+                true));
+
+        Assert.assertEquals(store.userReads.get(), 2);
+    }
+
+    @Test
+    public void testWritesInvalidate() throws Exception {
+
+        User user = cachingUserManager.getUser("1", null);
+        user.replaceUserName("carol");
+        cachingUserManager.updateUser(user, null);
+        Assert.assertEquals(cachingUserManager.getUser("1", null).getUserName(), "carol");
+
+        cachingUserManager.deleteUser("1");
+        Assert.expectThrows(NotFoundException.class, () -> cachingUserManager.getUser("1", null));
+    }
+
+    @Test
+    public void testGroupWritesInvalidateTheMembers() throws Exception {
+
+        cachingUserManager.getUser("2", null);
+        Group group = new Group();
+        group.setSchema(SCIMConstants.GROUP_CORE_SCHEMA_URI);
+        group.setId("g1");
+        group.setDisplayName("engineering");
+        group.setMember("2", "bob");
+        cachingUserManager.createGroup(group, null);
+        cachingUserManager.getUser("2", null);
+
+        Assert.assertEquals(store.userReads.get(), 2);
+        Assert.assertEquals(cachingUserManager.getGroup("g1", null).getDisplayName(), "engineering");
+    }
+
+    @Test
+    public void testReadRacingADeleteIsNotCached() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            store.pauseNextRead();
+            Future<User> read = executor.submit(() -> cachingUserManager.getUser("1", null));
+            Assert.assertTrue(store.readDone.await(10, TimeUnit.SECONDS));
+
+            // The read has the user in hand when it is deleted.
+            cachingUserManager.deleteUser("1");
+            store.resume.countDown();
+            Assert.assertEquals(read.get(10, TimeUnit.SECONDS).getUserName(), "alice");
+
+            Assert.expectThrows(NotFoundException.class, () -> cachingUserManager.getUser("1", null));
+            Assert.assertEquals(cachingUserManager.getUserCache().size(), 0);
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testReadRacingAnUpdateIsNotCached() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            store.pauseNextRead();
+            Future<User> read = executor.submit(() -> cachingUserManager.getUser("2", null));
+            Assert.assertTrue(store.readDone.await(10, TimeUnit.SECONDS));
+
+            User user = store.getUser("2", null);
+            user.replaceUserName("dave");
+            cachingUserManager.updateUser(user, null);
+            store.resume.countDown();
+            Assert.assertEquals(read.get(10, TimeUnit.SECONDS).getUserName(), "bob");
+
+            Assert.assertEquals(cachingUserManager.getUser("2", null).getUserName(), "dave");
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static User newUser(String id, String userName) throws CharonException, BadRequestException {
+
+        User user = new User();
+        user.setSchema(SCIMConstants.USER_CORE_SCHEMA_URI);
+        user.setId(id);
+        user.setUserName(userName);
+        return user;
+    }
+
+    /**
+     * User manager which counts the user reads, and can hold a read after the user has been read.
+     */
+    private static final class CountingUserManager extends InMemoryUserManager {
+
+        private final AtomicInteger userReads = new AtomicInteger();
+        private volatile boolean pauseRead;
+        private CountDownLatch readDone;
+        private CountDownLatch resume;
+
+        private void pauseNextRead() {
+
+            readDone = new CountDownLatch(1);
+            resume = new CountDownLatch(1);
+            pauseRead = true;
+        }
+
+        @Override
+        public User getUser(String id, Map<String, Boolean> requiredAttributes)
+                throws CharonException, BadRequestException, NotFoundException {
+
+            userReads.incrementAndGet();
+            User user = super.getUser(id, requiredAttributes);
+            if (pauseRead) {
+                pauseRead = false;
+                readDone.countDown();
+                try {
+                    resume.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return user;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.usermanager;
+
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.config.CharonConfiguration;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConcurrentUpdateException;
+import org.wso2.charon3.core.extensions.ExecutorAsyncUserManager;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager;
+import org.wso2.charon3.core.protocol.endpoints.AsyncUserResourceManager;
+import org.wso2.charon3.core.protocol.endpoints.UserResourceManager;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.utils.ETagUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class of InMemoryUserManager, through the resource managers.
+ */
+public class InMemoryUserManagerTest {
+
+    private InMemoryUserManager userManager;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        AbstractResourceManager.setEndpointURLMap(Collections.singletonMap(SCIMConstants.USER_ENDPOINT,
+                "https://localhost:9443/scim2/Users"));
+        userManager = new InMemoryUserManager();
+        userManager.createUser(newUser("1", "alice"), null);
+        userManager.createUser(newUser("2", "bob"), null);
+    }
+
+    @Test
+    public void testListUsersWithGET() throws Exception {
+
+        SCIMResponse response = new UserResourceManager().listWithGET(userManager, null, 1, 0, null, null, null,
+                null, null);
+
+        assertUsersListed(response);
+    }
+
+    @Test
+    public void testListUsersWithGETAsynchronously() throws Exception {
+
+        // InMemoryUserManager only implements the deprecated listing method taking int pagination parameters.
+        SCIMResponse response = new AsyncUserResourceManager(Runnable::run).listWithGET(
+                new ExecutorAsyncUserManager(userManager, Runnable::run), null, null, null, null, null, null, null,
+                null).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertUsersListed(response);
+    }
+
+    @Test
+    public void testConcurrentPatchesAreNotLost() throws Exception {
+
+        int threads = 4;
+        int patches = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Set<String> storedEmails = ConcurrentHashMap.newKeySet();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int first = thread * patches;
+                futures.add(executor.submit(() -> {
+                    for (int i = first; i < first + patches; i++) {
+                        String email = "alice" + i + "@example.com";
+                        String patchRequest = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"]," +
+                                "\"Operations\":[{\"op\":\"add\",\"path\":\"emails\",\"value\":[{\"value\":\"" +
+                                email + "\"}]}]}";
+                        SCIMResponse response = new UserResourceManager().updateWithPATCH("1", patchRequest,
+                                userManager, null, null);
+                        // An update which kept losing the race to the others gives up with a 412.
+                        if (response.getResponseStatus() == ResponseCodeConstants.CODE_OK) {
+                            storedEmails.add(email);
+                        } else {
+                            Assert.assertEquals(response.getResponseStatus(),
+                                    ResponseCodeConstants.CODE_PRECONDITION_FAILED, response.getResponseMessage());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertFalse(storedEmails.isEmpty());
+        User user = userManager.getUser("1", null);
+        Assert.assertEquals(emails(user), storedEmails);
+        Assert.assertEquals(user.getVersion(), String.valueOf(1 + storedEmails.size()));
+    }
+
+    @Test
+    public void testStaleVersionIsRejected() throws Exception {
+
+        User stale = userManager.getUser("1", null);
+        User current = userManager.getUser("1", null);
+        current.replaceUserName("alicia");
+        userManager.updateUser(current, null);
+
+        stale.replaceUserName("alison");
+        ConcurrentUpdateException exception = Assert.expectThrows(ConcurrentUpdateException.class,
+                () -> userManager.updateUser(stale, null));
+        Assert.assertEquals(exception.getStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+        Assert.assertEquals(userManager.getUser("1", null).getUserName(), "alicia");
+    }
+
+    @Test
+    public void testPatchOnStaleVersionGets412() throws Exception {
+
+        CharonConfiguration.getInstance().setETagSupport(true);
+        try {
+            String staleETag = ETagUtil.getETag(userManager.getUser("1", null));
+            String patchRequest = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"]," +
+                    "\"Operations\":[{\"op\":\"replace\",\"path\":\"nickName\",\"value\":\"%s\"}]}";
+            UserResourceManager userResourceManager = new UserResourceManager();
+            SCIMResponse response = userResourceManager.updateWithPATCH("1", String.format(patchRequest, "Al"),
+                    userManager, null, null, staleETag);
+            Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_OK,
+                    response.getResponseMessage());
+
+            response = userResourceManager.updateWithPATCH("1", String.format(patchRequest, "Ali"), userManager,
+                    null, null, staleETag);
+            Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+            Assert.assertEquals(userManager.getUser("1", null).getNickName(), "Al");
+        } finally {
+            CharonConfiguration.getInstance().setETagSupport(false);
+        }
+    }
+
+    @Test
+    public void testRacingDuplicateCreatesConflict() throws Exception {
+
+        int threads = 8;
+        String userRequest = "{\"schemas\":[\"" + SCIMConstants.USER_CORE_SCHEMA_URI + "\"],\"userName\":\"carol\"}";
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<SCIMResponse> responses = new ArrayList<>();
+        try {
+            List<Future<SCIMResponse>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return new UserResourceManager().create(userRequest, userManager, null, null);
+                }));
+            }
+            start.countDown();
+            for (Future<SCIMResponse> future : futures) {
+                responses.add(future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int created = 0;
+        for (SCIMResponse response : responses) {
+            if (response.getResponseStatus() == ResponseCodeConstants.CODE_CREATED) {
+                created++;
+            } else {
+                assertUniquenessConflict(response);
+            }
+        }
+        Assert.assertEquals(created, 1);
+        Assert.assertEquals(userManager.listUsersWithGET(null, 1, 0, null, null, null, null).get(0), 3);
+    }
+
+    @Test
+    public void testCaseVariantUserNameConflicts() throws Exception {
+
+        SCIMResponse response = new UserResourceManager().create("{\"schemas\":[\"" +
+                SCIMConstants.USER_CORE_SCHEMA_URI + "\"],\"userName\":\"ALICE\"}", userManager, null, null);
+
+        assertUniquenessConflict(response);
+    }
+
+    @Test
+    public void testRenameToATakenUserNameConflicts() throws Exception {
+
+        String patchRequest = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"]," +
+                "\"Operations\":[{\"op\":\"replace\",\"path\":\"userName\",\"value\":\"bob\"}]}";
+        SCIMResponse response = new UserResourceManager().updateWithPATCH("1", patchRequest, userManager, null,
+                null);
+
+        assertUniquenessConflict(response);
+        Assert.assertEquals(userManager.getUser("1", null).getUserName(), "alice");
+        Assert.assertEquals(userManager.getUser("2", null).getUserName(), "bob");
+    }
+
+    @Test
+    public void testDeleteReleasesTheUserName() throws Exception {
+
+        UserResourceManager userResourceManager = new UserResourceManager();
+        Assert.assertEquals(userResourceManager.delete("1", userManager).getResponseStatus(),
+                ResponseCodeConstants.CODE_NO_CONTENT);
+
+        SCIMResponse response = userResourceManager.create("{\"schemas\":[\"" + SCIMConstants.USER_CORE_SCHEMA_URI +
+                "\"],\"userName\":\"alice\"}", userManager, null, null);
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_CREATED,
+                response.getResponseMessage());
+    }
+
+    private static Set<String> emails(User user) throws CharonException {
+
+        Set<String> emails = new HashSet<>();
+        MultiValuedAttribute attribute = (MultiValuedAttribute) user.getAttribute(
+                SCIMConstants.UserSchemaConstants.EMAILS);
+        if (attribute != null) {
+            for (Attribute email : attribute.getAttributeValues()) {
+                emails.add((String) ((SimpleAttribute) ((ComplexAttribute) email).getSubAttribute(
+                        SCIMConstants.CommonSchemaConstants.VALUE)).getValue());
+            }
+        }
+        return emails;
+    }
+
+    private static void assertUsersListed(SCIMResponse response) {
+
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_OK,
+                response.getResponseMessage());
+        JSONObject listedResource = new JSONObject(response.getResponseMessage());
+        Assert.assertEquals(listedResource.getInt(SCIMConstants.ListedResourceSchemaConstants.TOTAL_RESULTS), 2);
+        Assert.assertEquals(listedResource.getJSONArray(SCIMConstants.ListedResourceSchemaConstants.RESOURCES)
+                .length(), 2);
+    }
+
+    private static void assertUniquenessConflict(SCIMResponse response) {
+
+        Assert.assertEquals(response.getResponseStatus(), ResponseCodeConstants.CODE_CONFLICT,
+                response.getResponseMessage());
+        JSONObject error = new JSONObject(response.getResponseMessage());
+        Assert.assertEquals(error.getString(ResponseCodeConstants.SCIM_TYPE), ResponseCodeConstants.UNIQUENESS);
+        Assert.assertEquals(error.getString(ResponseCodeConstants.STATUS), "409");
+    }
+
+    private static User newUser(String id, String userName) throws Exception {
+
+        User user = new User();
+        user.setSchema(SCIMConstants.USER_CORE_SCHEMA_URI);
+        user.setId(id);
+        user.setUserName(userName);
+        return user;
+    }
+}